@@ -9,7 +9,8 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 @JsonSubTypes({
         @JsonSubTypes.Type(value = NumberColumnFilter.class, name = "number"),
         @JsonSubTypes.Type(value = SetColumnFilter.class, name = "set"),
-        @JsonSubTypes.Type(value = TextColumnFilter.class, name = "text")
+        @JsonSubTypes.Type(value = TextColumnFilter.class, name = "text"),
+        @JsonSubTypes.Type(value = GroupKey.class, name = "groupKey")
 })
 public abstract class ColumnFilter {
 
@@ -1,5 +1,10 @@
 package com.github.ykiselev.ag.grid.api.filter;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
 /**
  * @author Yuriy Kiselev (uze@yandex.ru).
  */
@@ -11,10 +16,24 @@ public final class GroupKey extends ColumnFilter {
         return filter;
     }
 
-    public GroupKey(String filter) {
+    @JsonCreator
+    public GroupKey(@JsonProperty("filter") String filter) {
         this.filter = filter;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GroupKey that = (GroupKey) o;
+        return Objects.equals(filter, that.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(filter);
+    }
+
     @Override
     public String toString() {
         return "GroupKey{" +
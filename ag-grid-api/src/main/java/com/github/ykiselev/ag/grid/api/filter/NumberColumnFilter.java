@@ -1,5 +1,7 @@
 package com.github.ykiselev.ag.grid.api.filter;
 
+import java.util.Objects;
+
 public class NumberColumnFilter extends ColumnFilter {
 
     private NumberFilterType type;
@@ -29,6 +31,21 @@ public class NumberColumnFilter extends ColumnFilter {
         return filterTo;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NumberColumnFilter that = (NumberColumnFilter) o;
+        return type == that.type &&
+                Objects.equals(filter, that.filter) &&
+                Objects.equals(filterTo, that.filterTo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, filter, filterTo);
+    }
+
     @Override
     public String toString() {
         return "NumberColumnFilter{" +
@@ -1,5 +1,6 @@
 package com.github.ykiselev.ag.grid.api.filter;
 
+import java.util.Objects;
 import java.util.Set;
 
 public class SetColumnFilter extends ColumnFilter {
@@ -17,6 +18,19 @@ public class SetColumnFilter extends ColumnFilter {
         return values;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SetColumnFilter that = (SetColumnFilter) o;
+        return Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(values);
+    }
+
     @Override
     public String toString() {
         return "SetColumnFilter{" +
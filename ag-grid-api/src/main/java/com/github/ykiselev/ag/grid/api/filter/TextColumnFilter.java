@@ -1,5 +1,7 @@
 package com.github.ykiselev.ag.grid.api.filter;
 
+import java.util.Objects;
+
 public class TextColumnFilter extends ColumnFilter {
 
     private TextFilterType type;
@@ -22,6 +24,20 @@ public class TextColumnFilter extends ColumnFilter {
         return filter;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TextColumnFilter that = (TextColumnFilter) o;
+        return type == that.type &&
+                Objects.equals(filter, that.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, filter);
+    }
+
     @Override
     public String toString() {
         return "TextColumnFilter{" +
@@ -14,5 +14,10 @@ public enum AggFunc {
     @JsonProperty("min")
     MIN,
     @JsonProperty("max")
-    MAX;
+    MAX,
+    /**
+     * Number of rows in group, applicable to column of any type.
+     */
+    @JsonProperty("count")
+    COUNT;
 }
@@ -2,11 +2,23 @@ package com.github.ykiselev.ag.grid.data;
 
 import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
 
 /**
  * @author Yuriy Kiselev (uze@yandex.ru).
  */
 public interface AgGridRowSource {
 
-    AgGridGetRowsResponse getRows(AgGridGetRowsRequest request);
+    default AgGridGetRowsResponse getRows(AgGridGetRowsRequest request) {
+        return getRows(request, CancellationToken.NONE);
+    }
+
+    /**
+     * @param request the request
+     * @param token   the token to abort computation with (when client is not interested in response anymore)
+     * @return the response
+     * @throws com.github.ykiselev.ag.grid.data.cancel.CancelledException if token was cancelled before response was
+     *                                                                    computed
+     */
+    AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token);
 }
@@ -5,15 +5,24 @@ import com.github.ykiselev.ag.grid.api.request.SortModel;
 import com.github.ykiselev.ag.grid.api.request.Sorting;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
 import com.github.ykiselev.ag.grid.data.aggregation.Aggregation;
+import com.github.ykiselev.ag.grid.data.cache.RequestKey;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+import com.github.ykiselev.ag.grid.data.columns.ZoneMaps;
 import com.github.ykiselev.ag.grid.data.common.MapUtils;
 import com.github.ykiselev.ag.grid.data.common.Predicates;
 import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.BaseStream;
@@ -29,26 +38,89 @@ import static java.util.Objects.requireNonNull;
  */
 public final class ListBasedAgGridRowSource<V> implements AgGridRowSource {
 
-    private final List<V> source;
+    private final Function<RequestFilters, Stream<V>> source;
 
     private final TypeInfo<V> typeInfo;
 
+    /**
+     * Filtered and sorted rows of plain views (may be {@code null}).
+     */
+    private final Cache<List<Object>, List<V>> sortedViews;
+
+    /**
+     * Precomputed group rows (may be {@code null}).
+     */
+    private final Function<Context, List<Map<String, Object>>> materializedGroups;
+
     public ListBasedAgGridRowSource(List<V> source, TypeInfo<V> typeInfo) {
-        this.source = requireNonNull(source);
+        this(source, typeInfo, null);
+    }
+
+    /**
+     * @param source   the rows
+     * @param typeInfo the type info
+     * @param zoneMaps the zone maps of rows used to skip blocks which can not pass filters (may be {@code null})
+     */
+    public ListBasedAgGridRowSource(List<V> source, TypeInfo<V> typeInfo, ZoneMaps zoneMaps) {
+        requireNonNull(source);
+        this.source = zoneMaps != null
+                ? filters -> zoneMaps.stream(source, filters)
+                : filters -> source.stream();
         this.typeInfo = requireNonNull(typeInfo);
+        this.sortedViews = null;
+        this.materializedGroups = null;
+    }
+
+    /**
+     * @param source   the rows partitioned by value of some attribute
+     * @param typeInfo the type info
+     */
+    public ListBasedAgGridRowSource(PartitionedList<V> source, TypeInfo<V> typeInfo) {
+        this(source, typeInfo, 0);
+    }
+
+    /**
+     * Sorted plain views are kept so that paging through them does not sort all matching rows for each block. Since
+     * views are never invalidated source should not change during the lifetime of this row source.
+     *
+     * @param source      the rows partitioned by value of some attribute
+     * @param typeInfo    the type info
+     * @param sortedViews the max number of sorted views to keep (zero disables them)
+     */
+    public ListBasedAgGridRowSource(PartitionedList<V> source, TypeInfo<V> typeInfo, int sortedViews) {
+        this(source, typeInfo, sortedViews, null);
+    }
+
+    /**
+     * @param source             the rows partitioned by value of some attribute
+     * @param typeInfo           the type info
+     * @param sortedViews        the max number of sorted views to keep (zero disables them)
+     * @param materializedGroups the function returning group rows of request without aggregating source (or
+     *                           {@code null} if request can not be answered that way), may be {@code null}
+     */
+    public ListBasedAgGridRowSource(PartitionedList<V> source, TypeInfo<V> typeInfo, int sortedViews,
+                                    Function<Context, List<Map<String, Object>>> materializedGroups) {
+        this.source = requireNonNull(source)::stream;
+        this.typeInfo = requireNonNull(typeInfo);
+        this.sortedViews = sortedViews > 0
+                ? CacheBuilder.newBuilder().maximumSize(sortedViews).build()
+                : null;
+        this.materializedGroups = materializedGroups;
     }
 
     @Override
-    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request) {
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
         final Context context = Context.create(request);
         final RequestFilters filters = DefaultRequestFilters.create(context.getRequest());
-        final Stream<V> src = source.stream()
+        final Stream<V> src = source.apply(filters)
                 .filter(filter(filters.getNames(), filters));
         final Function<Stream<V>, List<Map<String, Object>>> builder;
         if (context.isGrouping() || context.isPivot()) {
-            builder = new AggregatedResponseBuilder(context);
+            builder = new AggregatedResponseBuilder(context, token);
+        } else if (sortedViews != null && !context.getRequest().getSortModel().isEmpty()) {
+            builder = new SortedViewResponseBuilder(context, token);
         } else {
-            builder = new PlainResponseBuilder(context);
+            builder = new PlainResponseBuilder(context, token);
         }
         return context.createResponse(builder.apply(src.parallel()));
     }
@@ -69,13 +141,22 @@ public final class ListBasedAgGridRowSource<V> implements AgGridRowSource {
 
         private final Context context;
 
-        AggregatedResponseBuilder(Context context) {
+        private final CancellationToken token;
+
+        AggregatedResponseBuilder(Context context, CancellationToken token) {
             this.context = requireNonNull(context);
+            this.token = requireNonNull(token);
         }
 
         @Override
         public List<Map<String, Object>> apply(Stream<V> rows) {
-            return limit(sort(Aggregation.groupBy(rows, context, typeInfo)));
+            final List<Map<String, Object>> groups = materializedGroups != null
+                    ? materializedGroups.apply(context)
+                    : null;
+            if (groups != null) {
+                return limit(sort(groups.stream()));
+            }
+            return limit(sort(Aggregation.groupBy(rows, context, typeInfo, token)));
         }
 
         private Stream<Map<String, Object>> sort(Stream<Map<String, Object>> src) {
@@ -84,6 +165,7 @@ public final class ListBasedAgGridRowSource<V> implements AgGridRowSource {
                     .stream()
                     .map(this::comparator)
                     .reduce(Comparator::thenComparing)
+                    .map(token::checked)
                     .map(src::sorted)
                     .orElse(src);
         }
@@ -110,13 +192,16 @@ public final class ListBasedAgGridRowSource<V> implements AgGridRowSource {
 
         private final Context context;
 
-        PlainResponseBuilder(Context context) {
+        private final CancellationToken token;
+
+        PlainResponseBuilder(Context context, CancellationToken token) {
             this.context = requireNonNull(context);
+            this.token = requireNonNull(token);
         }
 
         @Override
         public List<Map<String, Object>> apply(Stream<V> rows) {
-            return limit(sort(rows))
+            return limit(sort(token.checked(rows)))
                     .map(typeInfo.toMap())
                     .collect(Collectors.toCollection(() -> new ArrayList<>(105)));
         }
@@ -127,6 +212,7 @@ public final class ListBasedAgGridRowSource<V> implements AgGridRowSource {
                     .stream()
                     .map(this::comparator)
                     .reduce(Comparator::thenComparing)
+                    .map(token::checked)
                     .map(src::sorted)
                     .orElse(src);
         }
@@ -144,4 +230,49 @@ public final class ListBasedAgGridRowSource<V> implements AgGridRowSource {
                     .limit(context.getRequest().getEndRow() + 1);
         }
     }
-}
\ No newline at end of file
+
+    private final class SortedViewResponseBuilder implements Function<Stream<V>, List<Map<String, Object>>> {
+
+        private final PlainResponseBuilder plain;
+
+        private final Context context;
+
+        private final CancellationToken token;
+
+        SortedViewResponseBuilder(Context context, CancellationToken token) {
+            this.plain = new PlainResponseBuilder(context, token);
+            this.context = requireNonNull(context);
+            this.token = requireNonNull(token);
+        }
+
+        @Override
+        public List<Map<String, Object>> apply(Stream<V> rows) {
+            return plain.limit(view(rows).stream())
+                    .map(typeInfo.toMap())
+                    .collect(Collectors.toCollection(() -> new ArrayList<>(105)));
+        }
+
+        private List<V> view(Stream<V> rows) {
+            // Block range and expanded groups do not change the view, group keys do filter rows though
+            final List<Object> key = Arrays.asList(
+                    RequestKey.viewOf(context.getRequest()),
+                    context.getRequest().getGroupKeys()
+            );
+            for (; ; ) {
+                try {
+                    return sortedViews.get(key, () -> plain.sort(token.checked(rows)).collect(Collectors.toList()));
+                } catch (ExecutionException | UncheckedExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof CancelledException && !token.isCancelled()) {
+                        // We were waiting for view sorted by another request which was cancelled, so try again
+                        continue;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new RuntimeException(cause);
+                }
+            }
+        }
+    }
+}
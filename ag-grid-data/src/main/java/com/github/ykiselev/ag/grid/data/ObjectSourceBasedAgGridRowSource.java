@@ -5,6 +5,7 @@ import com.github.ykiselev.ag.grid.api.request.SortModel;
 import com.github.ykiselev.ag.grid.api.request.Sorting;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
 import com.github.ykiselev.ag.grid.data.aggregation.Aggregation;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
 import com.github.ykiselev.ag.grid.data.common.MapUtils;
 import com.github.ykiselev.ag.grid.data.common.Predicates;
 import com.github.ykiselev.ag.grid.data.types.TypeInfo;
@@ -35,11 +36,12 @@ public final class ObjectSourceBasedAgGridRowSource<V> implements AgGridRowSourc
     }
 
     @Override
-    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request) {
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
         final Context context = Context.create(request);
         final RequestFilters filters = DefaultRequestFilters.create(context.getRequest());
+        token.throwIfCancelled();
         try (FilteredObjectSource<V> filteredSource = source.filter(filters)) {
-            final ResponseBuilder<V> builder = new ResponseBuilder<>(context, filteredSource);
+            final ResponseBuilder<V> builder = new ResponseBuilder<>(context, filteredSource, token);
             return builder.build();
         }
     }
@@ -50,16 +52,19 @@ public final class ObjectSourceBasedAgGridRowSource<V> implements AgGridRowSourc
 
         private final FilteredObjectSource<V> source;
 
-        ResponseBuilder(Context context, FilteredObjectSource<V> source) {
+        private final CancellationToken token;
+
+        ResponseBuilder(Context context, FilteredObjectSource<V> source, CancellationToken token) {
             this.context = requireNonNull(context);
             this.source = requireNonNull(source);
+            this.token = requireNonNull(token);
         }
 
         AgGridGetRowsResponse build() {
             final Stream<V> rows = filter();
             final Stream<Map<String, Object>> result;
             if (context.isGrouping() || context.isPivot()) {
-                result = Aggregation.groupBy(rows, context, source.getTypeInfo());
+                result = Aggregation.groupBy(rows, context, source.getTypeInfo(), token);
             } else {
 /*                Stopwatch sw = Stopwatch.createStarted();
                 Object[] array = rows.toArray();
@@ -73,7 +78,7 @@ public final class ObjectSourceBasedAgGridRowSource<V> implements AgGridRowSourc
                         .ifPresent(cmp -> Arrays.parallelSort(array, (Comparator<Object>) cmp));
                 System.out.println("Array sorted in " + sw);*/
                 return context.createResponse(
-                        limit2(sort2(rows))
+                        limit2(sort2(token.checked(rows)))
                                 .map(v -> source.getTypeInfo().toMap().apply((V) v))
                                 .collect(Collectors.toList())
                 );
@@ -114,6 +119,7 @@ public final class ObjectSourceBasedAgGridRowSource<V> implements AgGridRowSourc
                     .stream()
                     .map(this::comparator)
                     .reduce(Comparator::thenComparing)
+                    .map(token::checked)
                     .map(src::sorted)
                     .orElse(src);
         }
@@ -124,6 +130,7 @@ public final class ObjectSourceBasedAgGridRowSource<V> implements AgGridRowSourc
                     .stream()
                     .map(this::comparator2)
                     .reduce(Comparator::thenComparing)
+                    .map(token::checked)
                     .map(src.parallel()::sorted)
                     .orElse(src);
         }
@@ -0,0 +1,274 @@
+package com.github.ykiselev.ag.grid.data;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter;
+import com.github.ykiselev.ag.grid.data.columns.GroupPathIndex;
+import com.github.ykiselev.ag.grid.data.columns.ZoneMaps;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Rows split into segments by value of single attribute (partition key). Filter on partition key
+ * ({@link GroupKey} or {@link SetColumnFilter}) selects matching segments only, the rest are never scanned.
+ * Selected segments are scanned in parallel and each of them may additionally skip blocks by its own
+ * {@link ZoneMaps} and start from rows of expanded group by its own {@link GroupPathIndex}.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class PartitionedList<V> {
+
+    private final String attribute;
+
+    private final Function<List<V>, ZoneMaps> zoneMapsFactory;
+
+    private final Function<List<V>, GroupPathIndex> groupPathFactory;
+
+    private final Map<Object, Segment<V>> segments;
+
+    private final int size;
+
+    private PartitionedList(String attribute, Function<List<V>, ZoneMaps> zoneMapsFactory,
+                            Function<List<V>, GroupPathIndex> groupPathFactory, Map<Object, Segment<V>> segments) {
+        this.attribute = requireNonNull(attribute);
+        this.zoneMapsFactory = zoneMapsFactory;
+        this.groupPathFactory = groupPathFactory;
+        this.segments = segments;
+        this.size = segments.values()
+                .stream()
+                .mapToInt(s -> s.rows.size())
+                .sum();
+    }
+
+    /**
+     * @param rows      the rows
+     * @param typeInfo  the type info
+     * @param attribute the name of partition key attribute
+     * @return the partitioned list (segments follow the order of first appearance of their keys in {@code rows})
+     */
+    public static <V> PartitionedList<V> of(List<V> rows, TypeInfo<V> typeInfo, String attribute) {
+        return of(rows, typeInfo, attribute, Collections.emptyList(), 0);
+    }
+
+    /**
+     * @param rows       the rows
+     * @param typeInfo   the type info
+     * @param attribute  the name of partition key attribute
+     * @param summarized the names of attributes to build zone maps for (per segment)
+     * @param blockSize  the block size of zone maps
+     * @return the partitioned list (segments follow the order of first appearance of their keys in {@code rows})
+     */
+    public static <V> PartitionedList<V> of(List<V> rows, TypeInfo<V> typeInfo, String attribute,
+                                            Collection<String> summarized, int blockSize) {
+        return of(rows, typeInfo, attribute, summarized, blockSize, Collections.emptyList());
+    }
+
+    /**
+     * @param rows       the rows
+     * @param typeInfo   the type info
+     * @param attribute  the name of partition key attribute
+     * @param summarized the names of attributes to build zone maps for (per segment)
+     * @param blockSize  the block size of zone maps
+     * @param groupPath  the names of row group attributes from the top level down to build group path index for (per
+     *                   segment)
+     * @return the partitioned list (segments follow the order of first appearance of their keys in {@code rows})
+     */
+    public static <V> PartitionedList<V> of(List<V> rows, TypeInfo<V> typeInfo, String attribute,
+                                            Collection<String> summarized, int blockSize, List<String> groupPath) {
+        final Function<V, ?> key = requireNonNull(typeInfo.getAttribute(attribute), attribute).getObjectGetter();
+        final Map<Object, List<V>> lists = new LinkedHashMap<>();
+        for (V row : rows) {
+            lists.computeIfAbsent(key.apply(row), k -> new ArrayList<>()).add(row);
+        }
+        final Function<List<V>, ZoneMaps> zoneMapsFactory = summarized.isEmpty()
+                ? null
+                : list -> ZoneMaps.of(list, typeInfo, summarized, blockSize);
+        final Function<List<V>, GroupPathIndex> groupPathFactory = groupPath.isEmpty()
+                ? null
+                : list -> GroupPathIndex.of(list, typeInfo, groupPath);
+        final Map<Object, Segment<V>> segments = new LinkedHashMap<>();
+        lists.forEach((k, list) -> segments.put(k, Segment.of(list, zoneMapsFactory, groupPathFactory)));
+        return new PartitionedList<>(attribute, zoneMapsFactory, groupPathFactory, segments);
+    }
+
+    /**
+     * Copy-on-write update: segments of passed keys are replaced (and their indexes are rebuilt), the rest of
+     * segments are shared with this list. This list is not changed so scans in progress are not affected.
+     *
+     * @param replaced the new rows of segments by partition key (empty list removes segment, unknown key adds one)
+     * @return the updated list
+     */
+    public PartitionedList<V> withSegments(Map<?, ? extends List<V>> replaced) {
+        final Map<Object, Segment<V>> result = new LinkedHashMap<>(segments);
+        replaced.forEach((k, rows) -> {
+            if (rows.isEmpty()) {
+                result.remove(k);
+            } else {
+                result.put(k, Segment.of(new ArrayList<>(rows), zoneMapsFactory, groupPathFactory));
+            }
+        });
+        return new PartitionedList<>(attribute, zoneMapsFactory, groupPathFactory, result);
+    }
+
+    /**
+     * Finds rows removed and added by {@link #withSegments(Map)}. Only segments which were replaced are compared,
+     * rows are compared by identity (so updated row is reported as both removed and added).
+     *
+     * @param other   the list derived from this one
+     * @param removed the consumer of rows of this list which are absent in other
+     * @param added   the consumer of rows of other list which are absent in this one
+     */
+    public void diff(PartitionedList<V> other, Consumer<V> removed, Consumer<V> added) {
+        final Set<Object> keys = new HashSet<>(segments.keySet());
+        keys.addAll(other.segments.keySet());
+        for (Object key : keys) {
+            final List<V> before = getSegment(key);
+            final List<V> after = other.getSegment(key);
+            if (before == after) {
+                continue;
+            }
+            final Set<V> beforeSet = identitySet(before);
+            final Set<V> afterSet = identitySet(after);
+            before.stream()
+                    .filter(row -> !afterSet.contains(row))
+                    .forEach(removed);
+            after.stream()
+                    .filter(row -> !beforeSet.contains(row))
+                    .forEach(added);
+        }
+    }
+
+    private static <V> Set<V> identitySet(List<V> rows) {
+        final Set<V> result = Collections.newSetFromMap(new IdentityHashMap<>(rows.size() * 2));
+        result.addAll(rows);
+        return result;
+    }
+
+    /**
+     * @param key the partition key
+     * @return the rows of segment or empty list if there is no such segment
+     */
+    public List<V> getSegment(Object key) {
+        final Segment<V> segment = segments.get(key);
+        return segment != null ? segment.rows : Collections.emptyList();
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of segments
+     */
+    public int segments() {
+        return segments.size();
+    }
+
+    /**
+     * @param filters the request filters
+     * @return the rows of segments which may pass filter on partition key
+     */
+    public List<List<V>> select(RequestFilters filters) {
+        return selectSegments(filters).stream()
+                .map(s -> s.rows)
+                .collect(Collectors.toList());
+    }
+
+    private Collection<Segment<V>> selectSegments(RequestFilters filters) {
+        final ColumnFilter filter = filters.getFilter(attribute);
+        if (filter instanceof GroupKey) {
+            final Segment<V> segment = segments.get(((GroupKey) filter).getFilter());
+            return segment != null ? Collections.singletonList(segment) : Collections.emptyList();
+        }
+        if (filter instanceof SetColumnFilter && ((SetColumnFilter) filter).getValues() != null) {
+            final List<Segment<V>> result = new ArrayList<>();
+            for (Map.Entry<Object, Segment<V>> e : segments.entrySet()) {
+                if (((SetColumnFilter) filter).getValues().contains(e.getKey())) {
+                    result.add(e.getValue());
+                }
+            }
+            return result;
+        }
+        return segments.values();
+    }
+
+    /**
+     * @param filters the request filters
+     * @return the parallel stream of rows of selected segments
+     */
+    public Stream<V> stream(RequestFilters filters) {
+        final Collection<Segment<V>> selected = selectSegments(filters);
+        if (selected.size() == 1) {
+            // Single segment is split between cores by its own spliterator
+            return selected.iterator().next().stream(filters).parallel();
+        }
+        return new ArrayList<>(selected)
+                .parallelStream()
+                .flatMap(s -> s.stream(filters));
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionedList{" +
+                "attribute='" + attribute + '\'' +
+                ", segments=" + segments.size() +
+                ", size=" + size +
+                '}';
+    }
+
+    private static final class Segment<V> {
+
+        final List<V> rows;
+
+        final ZoneMaps zoneMaps;
+
+        final GroupPathIndex groupPaths;
+
+        Segment(List<V> rows, ZoneMaps zoneMaps, GroupPathIndex groupPaths) {
+            this.rows = requireNonNull(rows);
+            this.zoneMaps = zoneMaps;
+            this.groupPaths = groupPaths;
+        }
+
+        static <V> Segment<V> of(List<V> list, Function<List<V>, ZoneMaps> zoneMapsFactory,
+                                 Function<List<V>, GroupPathIndex> groupPathFactory) {
+            final List<V> rows = Collections.unmodifiableList(list);
+            return new Segment<>(
+                    rows,
+                    zoneMapsFactory != null ? zoneMapsFactory.apply(rows) : null,
+                    groupPathFactory != null ? groupPathFactory.apply(rows) : null
+            );
+        }
+
+        Stream<V> stream(RequestFilters filters) {
+            final int[] group = groupPaths != null ? groupPaths.rows(filters) : null;
+            if (group != null) {
+                return zoneMaps != null
+                        ? zoneMaps.stream(rows, group, filters)
+                        : Arrays.stream(group).mapToObj(rows::get);
+            }
+            return zoneMaps != null ? zoneMaps.stream(rows, filters) : rows.stream();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.github.ykiselev.ag.grid.data;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.request.AggFunc;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.aggregation.GroupAggregates;
+import com.github.ykiselev.ag.grid.data.cache.RequestKey;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Multimap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Multi-version row source over {@link PartitionedList}. Each update produces new immutable snapshot with the next
+ * version (unchanged segments are shared, see {@link PartitionedList#withSegments(java.util.Map)}) and atomically
+ * makes it current. Each request pins the snapshot which is current when request starts and reads it until
+ * completion, so writers never block readers and responses never mix rows of different versions.
+ * <p>
+ * Replaced snapshot is reclaimed (its rows and sorted views are released) as soon as the last request holding it
+ * completes. Snapshot version may be used as invalidation token by anything derived from snapshot rows: sorted views
+ * live in the snapshot itself and disappear with it, materialized group aggregates (see
+ * {@link #materialize(List, Multimap)}) are used only by requests pinned to the version they were updated to.
+ * <p>
+ * Rows should never be changed in place, update should replace changed rows with new instances.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class VersionedAgGridRowSource<V> implements AgGridRowSource {
+
+    private static final int MIN_RECENT_REQUESTS = 8;
+
+    private static final RequestFilters NO_FILTERS = new DefaultRequestFilters(new HashMap<>());
+
+    private final TypeInfo<V> typeInfo;
+
+    private final int sortedViews;
+
+    /**
+     * Replaced snapshots which are still pinned by requests in progress.
+     */
+    private final Set<Snapshot<V>> retired = ConcurrentHashMap.newKeySet();
+
+    private final List<GroupAggregates<V>> groupAggregates = new CopyOnWriteArrayList<>();
+
+    /**
+     * The most recent requests, replayed against replacement of all rows once it is published.
+     */
+    private final Cache<RequestKey, AgGridGetRowsRequest> recentRequests;
+
+    /**
+     * Updates applied since replacement started loading rows, {@code null} if there is no replacement in progress.
+     */
+    private List<UnaryOperator<PartitionedList<V>>> pendingUpdates;
+
+    private volatile Snapshot<V> current;
+
+    /**
+     * @param rows        the initial rows (version 1)
+     * @param typeInfo    the type info
+     * @param sortedViews the max number of sorted views to keep per snapshot (see
+     *                    {@link ListBasedAgGridRowSource#ListBasedAgGridRowSource(PartitionedList, TypeInfo, int)})
+     */
+    public VersionedAgGridRowSource(PartitionedList<V> rows, TypeInfo<V> typeInfo, int sortedViews) {
+        this.typeInfo = requireNonNull(typeInfo);
+        this.sortedViews = sortedViews;
+        this.recentRequests = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(sortedViews, MIN_RECENT_REQUESTS))
+                .build();
+        this.current = new Snapshot<>(this, 1, rows);
+    }
+
+    /**
+     * Pins current snapshot. Pinned snapshot is not reclaimed until it is closed.
+     *
+     * @return the snapshot which should be closed exactly once
+     */
+    public Snapshot<V> pin() {
+        for (; ; ) {
+            final Snapshot<V> snapshot = current;
+            if (snapshot.acquire()) {
+                return snapshot;
+            }
+            // Snapshot was replaced and reclaimed between read and acquire, so the next read gets the new one
+        }
+    }
+
+    /**
+     * Creates new version from the current one. Updates are serialized, readers are never blocked.
+     *
+     * @param update the function to create new rows from the current ones (current rows should not be changed)
+     * @return the new version
+     */
+    public synchronized long update(UnaryOperator<PartitionedList<V>> update) {
+        final Snapshot<V> previous = current;
+        final Snapshot<V> next = new Snapshot<>(this, previous.version + 1, update.apply(previous.rows));
+        if (!groupAggregates.isEmpty()) {
+            final List<V> removed = new ArrayList<>();
+            final List<V> added = new ArrayList<>();
+            previous.rows.diff(next.rows, removed::add, added::add);
+            for (GroupAggregates<V> aggregates : groupAggregates) {
+                aggregates.apply(removed, added, next.rows::stream, next.version);
+            }
+        }
+        if (pendingUpdates != null) {
+            pendingUpdates.add(update);
+        }
+        return publish(previous, next);
+    }
+
+    /**
+     * Replaces all rows (for example with freshly loaded data set). Rows are loaded on the calling thread while
+     * requests keep reading the current version and updates keep going on top of it. Updates applied during the load
+     * are recorded and replayed on top of loaded rows, so none of them is lost (updates should tolerate rows which
+     * already include their changes). Group aggregates of loaded rows are computed aside without blocking updates too,
+     * then updates wait only while those which were applied meanwhile are replayed (and their changes are applied to
+     * new aggregates) and new version is published. Finally, the most recent requests are replayed against the new
+     * version (so that its sorted views are built) without blocking updates.
+     *
+     * @param load the function to load the new rows
+     * @return the new version
+     * @throws IllegalStateException if another replacement is in progress
+     */
+    public long replace(Supplier<PartitionedList<V>> load) {
+        synchronized (this) {
+            if (pendingUpdates != null) {
+                throw new IllegalStateException("Replacement is in progress!");
+            }
+            pendingUpdates = new ArrayList<>();
+        }
+        final long version;
+        try {
+            PartitionedList<V> rows = requireNonNull(load.get());
+            final List<UnaryOperator<PartitionedList<V>>> replayed;
+            synchronized (this) {
+                replayed = new ArrayList<>(pendingUpdates);
+            }
+            for (UnaryOperator<PartitionedList<V>> update : replayed) {
+                rows = update.apply(rows);
+            }
+            final Map<GroupAggregates<V>, GroupAggregates<V>.Prepared> prepared = new HashMap<>();
+            for (GroupAggregates<V> aggregates : groupAggregates) {
+                prepared.put(aggregates, aggregates.prepare(rows.stream(NO_FILTERS)));
+            }
+            synchronized (this) {
+                final PartitionedList<V> base = rows;
+                for (UnaryOperator<PartitionedList<V>> update : pendingUpdates.subList(replayed.size(), pendingUpdates.size())) {
+                    rows = update.apply(rows);
+                }
+                final Snapshot<V> previous = current;
+                final Snapshot<V> next = new Snapshot<>(this, previous.version + 1, rows);
+                final List<V> removed = new ArrayList<>();
+                final List<V> added = new ArrayList<>();
+                if (rows != base) {
+                    base.diff(rows, removed::add, added::add);
+                }
+                for (GroupAggregates<V> aggregates : groupAggregates) {
+                    final GroupAggregates<V>.Prepared state = prepared.get(aggregates);
+                    if (state == null) {
+                        // Materialized while rows were loaded
+                        aggregates.rebuild(rows.stream(NO_FILTERS), next.version);
+                        continue;
+                    }
+                    if (rows != base) {
+                        state.apply(removed, added, next.rows::stream);
+                    }
+                    // Requests to current version use the previous state until then
+                    aggregates.install(state, next.version);
+                }
+                version = publish(previous, next);
+            }
+        } finally {
+            synchronized (this) {
+                pendingUpdates = null;
+            }
+        }
+        warmUp();
+        return version;
+    }
+
+    private void warmUp() {
+        try (Snapshot<V> snapshot = pin()) {
+            for (AgGridGetRowsRequest request : recentRequests.asMap().values()) {
+                try {
+                    snapshot.rowSource.getRows(request);
+                } catch (RuntimeException e) {
+                    // Warm-up is the best effort, request will fail again when repeated by client
+                }
+            }
+        }
+    }
+
+    private long publish(Snapshot<V> previous, Snapshot<V> next) {
+        retired.add(previous);
+        current = next;
+        // Drop the reference held by this source on behalf of future requests
+        previous.release();
+        return next.version;
+    }
+
+    /**
+     * Starts maintaining aggregates of groups, group level requests matching them are answered without scanning rows
+     * (see {@link GroupAggregates}).
+     *
+     * @param groupColumns the names of grouping attributes
+     * @param values       the aggregation functions to maintain by name of value attribute
+     * @return the aggregates
+     */
+    public synchronized GroupAggregates<V> materialize(List<String> groupColumns, Multimap<String, AggFunc> values) {
+        final GroupAggregates<V> result = new GroupAggregates<>(typeInfo, groupColumns, values);
+        // Updates are excluded so no version is missed
+        result.rebuild(current.rows.stream(NO_FILTERS), current.version);
+        groupAggregates.add(result);
+        return result;
+    }
+
+    private List<Map<String, Object>> materializedGroups(Context context, long version) {
+        for (GroupAggregates<V> aggregates : groupAggregates) {
+            final List<Map<String, Object>> result = aggregates.groups(context.getRequest(), version);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the current version
+     */
+    public long getVersion() {
+        return current.version;
+    }
+
+    @Override
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
+        recentRequests.put(RequestKey.of(request), request);
+        try (Snapshot<V> snapshot = pin()) {
+            return snapshot.rowSource.getRows(request, token);
+        }
+    }
+
+    public String getInfo() {
+        final Snapshot<V> snapshot = current;
+        return "VersionedAgGridRowSource{" +
+                "version=" + snapshot.version +
+                ", size=" + snapshot.size +
+                ", retired=" + retired.size() +
+                ", oldestRetired=" + retired.stream().mapToLong(Snapshot::getVersion).min().orElse(snapshot.version) +
+                ", groupAggregates=" + groupAggregates +
+                '}';
+    }
+
+    /**
+     * Immutable version of rows.
+     */
+    public static final class Snapshot<V> implements AutoCloseable {
+
+        private final VersionedAgGridRowSource<V> owner;
+
+        private final long version;
+
+        private final int size;
+
+        /**
+         * One reference is held by owner while snapshot is current, one by each request which pinned it.
+         */
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private PartitionedList<V> rows;
+
+        private AgGridRowSource rowSource;
+
+        Snapshot(VersionedAgGridRowSource<V> owner, long version, PartitionedList<V> rows) {
+            this.owner = requireNonNull(owner);
+            this.version = version;
+            this.rows = requireNonNull(rows);
+            this.size = rows.size();
+            this.rowSource = new ListBasedAgGridRowSource<>(rows, owner.typeInfo, owner.sortedViews,
+                    context -> owner.materializedGroups(context, version));
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return the rows of this version (should not be used after snapshot is closed)
+         */
+        public PartitionedList<V> getRows() {
+            return rows;
+        }
+
+        boolean acquire() {
+            for (; ; ) {
+                final int value = references.get();
+                if (value <= 0) {
+                    return false;
+                }
+                if (references.compareAndSet(value, value + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                rows = null;
+                rowSource = null;
+                owner.retired.remove(this);
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "version=" + version +
+                    ", size=" + size +
+                    ", references=" + references.get() +
+                    '}';
+        }
+    }
+}
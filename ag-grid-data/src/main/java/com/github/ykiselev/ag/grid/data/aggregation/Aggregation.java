@@ -1,6 +1,7 @@
 package com.github.ykiselev.ag.grid.data.aggregation;
 
 import com.github.ykiselev.ag.grid.data.Context;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
 import com.github.ykiselev.ag.grid.data.types.TypeInfo;
 import com.google.common.collect.Lists;
 
@@ -68,8 +69,25 @@ public final class Aggregation {
      * @return the stream of aggregated objects transformed into maps
      */
     public static <V> Stream<Map<String, Object>> groupBy(Stream<V> input, Context context, TypeInfo<V> typeInfo) {
-        return new Aggregation(context)
-                .expandGroup(null, 0, input.collect(create(context, typeInfo)));
+        return groupBy(input, context, typeInfo, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #groupBy(Stream, Context, TypeInfo)} but aborts aggregation (and expansion of groups) with
+     * {@link com.github.ykiselev.ag.grid.data.cancel.CancelledException} once token is cancelled.
+     *
+     * @param input    the stream of items
+     * @param context  the current context
+     * @param typeInfo the type info for {@code V}
+     * @param token    the cancellation token
+     * @param <V>      the type parameter
+     * @return the stream of aggregated objects transformed into maps
+     */
+    public static <V> Stream<Map<String, Object>> groupBy(Stream<V> input, Context context, TypeInfo<V> typeInfo, CancellationToken token) {
+        return token.checked(
+                new Aggregation(context)
+                        .expandGroup(null, 0, token.checked(input).collect(create(context, typeInfo)))
+        );
     }
 
     /**
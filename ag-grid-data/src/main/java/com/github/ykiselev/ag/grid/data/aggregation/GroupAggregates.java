@@ -0,0 +1,572 @@
+package com.github.ykiselev.ag.grid.data.aggregation;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.request.AggFunc;
+import com.github.ykiselev.ag.grid.api.request.ColumnVO;
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters;
+import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.types.Attribute;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Materialized aggregates of groups (for example product &gt; portfolio &gt; book) maintained incrementally: each
+ * changed row is applied as delta (old row is subtracted from its groups, new row is added) so the cost of update
+ * is proportional to the number of grouping levels and does not depend on the number of rows. SUM, AVG and COUNT are
+ * always maintained by delta, MIN and MAX are too unless removed value was the extreme one, such groups are
+ * recomputed after the batch (the deepest ones from their rows, the rest from their children).
+ * <p>
+ * Answers group level requests which are not filtered (except by group keys), not pivoted and which group by prefix
+ * of materialized columns and request value columns with materialized aggregation functions. Rows are the same as
+ * {@link Aggregation#groupBy(Stream, com.github.ykiselev.ag.grid.data.Context, TypeInfo)} would produce.
+ * <p>
+ * Every state is labelled with version of rows it was computed from, request is answered only if versions match.
+ * Updates take exclusive lock for the time of delta application only.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class GroupAggregates<V> {
+
+    private static final RequestFilters NO_FILTERS = new DefaultRequestFilters(new HashMap<>());
+
+    private final List<String> groupColumns;
+
+    private final List<Function<V, ?>> groupGetters;
+
+    private final List<Value<V>> values;
+
+    private final Map<String, Map<AggFunc, Value<V>>> valuesByName = new HashMap<>();
+
+    private final int longSlots;
+
+    private final int doubleSlots;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root;
+
+    private long version = -1;
+
+    private int nodes;
+
+    private long recomputed;
+
+    /**
+     * @param typeInfo     the type info
+     * @param groupColumns the names of grouping attributes (from the outermost group to the innermost one)
+     * @param values       the aggregation functions to maintain by name of value attribute
+     */
+    public GroupAggregates(TypeInfo<V> typeInfo, List<String> groupColumns, Multimap<String, AggFunc> values) {
+        this.groupColumns = ImmutableList.copyOf(groupColumns);
+        this.groupGetters = ImmutableList.copyOf(
+                groupColumns.stream()
+                        .map(col -> requireNonNull(typeInfo.getAttribute(col), col).getObjectGetter())
+                        .toArray(Function[]::new)
+        );
+        final List<Value<V>> list = new ArrayList<>();
+        int longs = 0, doubles = 0;
+        for (Map.Entry<String, AggFunc> e : values.entries()) {
+            final Value<V> value;
+            if (e.getValue() == AggFunc.COUNT) {
+                value = new Value<>(e.getKey(), AggFunc.COUNT, null, -1);
+            } else {
+                final Attribute<V> attr = requireNonNull(typeInfo.getAttribute(e.getKey()), e.getKey());
+                if (attr.getType() == double.class) {
+                    value = new Value<>(e.getKey(), e.getValue(), attr, doubles++);
+                } else if (attr.getType() == int.class || attr.getType() == long.class) {
+                    value = new Value<>(e.getKey(), e.getValue(), attr, longs++);
+                } else {
+                    throw new IllegalArgumentException("No aggregation function for " + e.getValue() + "(" + attr.getType() + ")");
+                }
+            }
+            list.add(value);
+            valuesByName.computeIfAbsent(value.name, k -> new HashMap<>()).put(value.aggFunc, value);
+        }
+        this.values = ImmutableList.copyOf(list);
+        this.longSlots = longs;
+        this.doubleSlots = doubles;
+        this.root = new Node(null, null);
+    }
+
+    /**
+     * Computes aggregates from scratch.
+     *
+     * @param rows    all rows
+     * @param version the version of rows
+     */
+    public void rebuild(Stream<V> rows, long version) {
+        install(prepare(rows), version);
+    }
+
+    /**
+     * Computes aggregates from scratch without touching the current state, so requests are answered from it until
+     * result is installed (see {@link #install(Prepared, long)}).
+     *
+     * @param rows all rows
+     * @return the detached aggregates
+     */
+    public Prepared prepare(Stream<V> rows) {
+        final Prepared result = new Prepared();
+        final int[] counter = {1};
+        rows.sequential().forEach(row -> add(result.root, row, counter));
+        result.nodes = counter[0];
+        return result;
+    }
+
+    /**
+     * Makes prepared aggregates current.
+     *
+     * @param prepared the aggregates (should not be used afterwards)
+     * @param version  the version of rows they were computed from
+     */
+    public void install(Prepared prepared, long version) {
+        lock.writeLock().lock();
+        try {
+            this.root = prepared.root;
+            this.nodes = prepared.nodes;
+            this.version = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies changes of rows. Updated row is passed as removed (old instance) and as added (new instance).
+     *
+     * @param removed the rows which are no longer present
+     * @param added   the new rows
+     * @param rows    the source of rows of new version, used to recompute extremes of groups which lost them
+     *                (rows may be pre-selected by filters, the rest is filtered here)
+     * @param version the new version
+     */
+    public void apply(Collection<V> removed, Collection<V> added, Function<RequestFilters, Stream<V>> rows, long version) {
+        lock.writeLock().lock();
+        try {
+            this.nodes = apply(root, nodes, removed, added, rows);
+            this.version = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of nodes after changes
+     */
+    private int apply(Node root, int nodes, Collection<V> removed, Collection<V> added, Function<RequestFilters, Stream<V>> rows) {
+        final Set<Node> stale = new LinkedHashSet<>();
+        final int[] counter = {nodes};
+        for (V row : removed) {
+            remove(root, row, stale, counter);
+        }
+        for (V row : added) {
+            add(root, row, counter);
+        }
+        recompute(stale, rows);
+        return counter[0];
+    }
+
+    private void add(Node root, V row, int[] counter) {
+        Node node = root;
+        node.add(row);
+        for (Function<V, ?> getter : groupGetters) {
+            final Object key = getter.apply(row);
+            Node child = node.children.get(key);
+            if (child == null) {
+                child = new Node(node, key);
+                node.children.put(key, child);
+                counter[0]++;
+            }
+            node = child;
+            node.add(row);
+        }
+    }
+
+    private void remove(Node root, V row, Set<Node> stale, int[] counter) {
+        Node node = root;
+        final List<Node> path = new ArrayList<>(groupGetters.size() + 1);
+        path.add(node);
+        for (Function<V, ?> getter : groupGetters) {
+            node = node.children.get(getter.apply(row));
+            if (node == null) {
+                throw new IllegalStateException("Removed row is not known: " + row);
+            }
+            path.add(node);
+        }
+        for (Node n : path) {
+            if (n.remove(row)) {
+                stale.add(n);
+            }
+            if (n.count == 0 && n.parent != null) {
+                n.parent.children.remove(n.key);
+                stale.remove(n);
+                counter[0]--;
+            }
+        }
+    }
+
+    /**
+     * Deepest groups first, so that parents may be recomputed from their children.
+     */
+    private void recompute(Set<Node> stale, Function<RequestFilters, Stream<V>> rows) {
+        final List<Node> sorted = new ArrayList<>(stale);
+        sorted.sort(Comparator.comparingInt(Node::depth).reversed());
+        for (Node node : sorted) {
+            if (node.count == 0) {
+                continue;
+            }
+            if (node.depth() == groupColumns.size()) {
+                node.recomputeFrom(rows);
+            } else {
+                node.recomputeFromChildren();
+            }
+            recomputed++;
+        }
+    }
+
+    /**
+     * @param request the request
+     * @param version the version of rows request is served from
+     * @return the group rows or {@code null} if request can not be answered from materialized aggregates
+     */
+    public List<Map<String, Object>> groups(AgGridGetRowsRequest request, long version) {
+        final int level = request.getGroupKeys().size();
+        if (level >= request.getRowGroupCols().size() || level >= groupColumns.size()
+                || (request.isPivotMode() && !request.getPivotCols().isEmpty())
+                || (request.getFilterModel() != null && !request.getFilterModel().isEmpty())) {
+            return null;
+        }
+        for (int i = 0; i <= level; i++) {
+            if (!groupColumns.get(i).equals(request.getRowGroupCols().get(i).getField())) {
+                return null;
+            }
+        }
+        final List<Value<V>> requested = new ArrayList<>();
+        for (ColumnVO col : request.getValueCols()) {
+            if (col.getAggFunc() == null) {
+                continue;
+            }
+            final Value<V> value = valuesByName.getOrDefault(col.getField(), new HashMap<>()).get(col.getAggFunc());
+            if (value == null) {
+                return null;
+            }
+            requested.add(value);
+        }
+        lock.readLock().lock();
+        try {
+            if (this.version != version) {
+                return null;
+            }
+            Node node = root;
+            for (String key : request.getGroupKeys()) {
+                node = node.children.get(key);
+                if (node == null) {
+                    return new ArrayList<>();
+                }
+            }
+            final List<Map<String, Object>> result = new ArrayList<>(node.children.size());
+            for (Node child : node.children.values()) {
+                final Map<String, Object> row = new HashMap<>();
+                for (Node n = child; n.parent != null; n = n.parent) {
+                    row.put(groupColumns.get(n.depth() - 1), n.key);
+                }
+                for (Value<V> value : requested) {
+                    value.finish(child, row);
+                }
+                result.add(row);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the aggregates of all rows keyed by function and attribute name (like {@code SUM(value)})
+     */
+    public Map<String, Object> getTotals() {
+        lock.readLock().lock();
+        try {
+            final Map<String, Object> result = new TreeMap<>();
+            if (root.count > 0) {
+                final Map<String, Object> row = new HashMap<>();
+                for (Value<V> value : values) {
+                    value.finish(root, row);
+                    result.put(value.aggFunc + "(" + value.name + ")", row.get(value.name));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            return "GroupAggregates{" +
+                    "groupColumns=" + groupColumns +
+                    ", version=" + version +
+                    ", rows=" + root.count +
+                    ", nodes=" + nodes +
+                    ", recomputed=" + recomputed +
+                    '}';
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregates computed aside from the current ones.
+     */
+    public final class Prepared {
+
+        private final Node root = new Node(null, null);
+
+        private int nodes;
+
+        private Prepared() {
+        }
+
+        /**
+         * Applies changes of rows made after aggregates were computed, see
+         * {@link GroupAggregates#apply(Collection, Collection, Function, long)}.
+         */
+        public void apply(Collection<V> removed, Collection<V> added, Function<RequestFilters, Stream<V>> rows) {
+            this.nodes = GroupAggregates.this.apply(root, nodes, removed, added, rows);
+        }
+    }
+
+    private static final class Value<V> {
+
+        final String name;
+
+        final AggFunc aggFunc;
+
+        final Class<?> type;
+
+        final int slot;
+
+        final ToLongFunction<V> longGetter;
+
+        final ToDoubleFunction<V> doubleGetter;
+
+        Value(String name, AggFunc aggFunc, Attribute<V> attr, int slot) {
+            this.name = requireNonNull(name);
+            this.aggFunc = requireNonNull(aggFunc);
+            this.type = attr != null ? attr.getType() : null;
+            this.slot = slot;
+            if (type == int.class) {
+                final ToIntFunction<V> getter = attr.getIntGetter();
+                this.longGetter = getter::applyAsInt;
+            } else {
+                this.longGetter = type == long.class ? attr.getLongGetter() : null;
+            }
+            this.doubleGetter = type == double.class ? attr.getDoubleGetter() : null;
+        }
+
+        boolean isExtreme() {
+            return aggFunc == AggFunc.MIN || aggFunc == AggFunc.MAX;
+        }
+
+        void finish(GroupAggregates<V>.Node node, Map<String, Object> target) {
+            final long count = node.count;
+            if (aggFunc == AggFunc.COUNT) {
+                target.put(name, count);
+            } else if (type == double.class) {
+                final double acc = node.doubles[slot];
+                target.put(name, aggFunc == AggFunc.AVG ? acc / count : acc);
+            } else {
+                final long acc = aggFunc == AggFunc.AVG ? node.longs[slot] / count : node.longs[slot];
+                target.put(name, type == int.class ? (Object) (int) acc : (Object) acc);
+            }
+        }
+    }
+
+    private final class Node {
+
+        final Node parent;
+
+        final Object key;
+
+        final Map<Object, Node> children = new HashMap<>();
+
+        final long[] longs = new long[longSlots];
+
+        final double[] doubles = new double[doubleSlots];
+
+        long count;
+
+        Node(Node parent, Object key) {
+            this.parent = parent;
+            this.key = key;
+        }
+
+        int depth() {
+            int result = 0;
+            for (Node n = parent; n != null; n = n.parent) {
+                result++;
+            }
+            return result;
+        }
+
+        void add(V row) {
+            count++;
+            for (Value<V> value : values) {
+                if (value.aggFunc == AggFunc.COUNT) {
+                    continue;
+                }
+                if (value.doubleGetter != null) {
+                    final double v = value.doubleGetter.applyAsDouble(row);
+                    final double acc = doubles[value.slot];
+                    doubles[value.slot] = count == 1 ? v : accumulate(value.aggFunc, acc, v);
+                } else {
+                    final long v = value.longGetter.applyAsLong(row);
+                    final long acc = longs[value.slot];
+                    longs[value.slot] = count == 1 ? v : accumulate(value.aggFunc, acc, v);
+                }
+            }
+        }
+
+        /**
+         * @return {@code true} if extreme value was removed so node needs to be recomputed
+         */
+        boolean remove(V row) {
+            count--;
+            boolean result = false;
+            for (Value<V> value : values) {
+                if (value.aggFunc == AggFunc.COUNT) {
+                    continue;
+                }
+                if (value.doubleGetter != null) {
+                    final double v = value.doubleGetter.applyAsDouble(row);
+                    if (value.isExtreme()) {
+                        result |= v == doubles[value.slot];
+                    } else {
+                        doubles[value.slot] -= v;
+                    }
+                } else {
+                    final long v = value.longGetter.applyAsLong(row);
+                    if (value.isExtreme()) {
+                        result |= v == longs[value.slot];
+                    } else {
+                        longs[value.slot] -= v;
+                    }
+                }
+            }
+            return result;
+        }
+
+        void recomputeFrom(Function<RequestFilters, Stream<V>> rows) {
+            final Map<String, ColumnFilter> filters = new HashMap<>();
+            final List<Object> path = new ArrayList<>();
+            for (Node n = this; n.parent != null; n = n.parent) {
+                path.add(0, n.key);
+                if (n.key instanceof String) {
+                    // Lets source skip partitions and blocks of other groups
+                    filters.put(groupColumns.get(n.depth() - 1), new GroupKey((String) n.key));
+                }
+            }
+            final boolean[] first = {true};
+            rows.apply(filters.isEmpty() ? NO_FILTERS : new DefaultRequestFilters(filters))
+                    .sequential()
+                    .filter(row -> {
+                        for (int i = 0; i < path.size(); i++) {
+                            if (!Objects.equals(groupGetters.get(i).apply(row), path.get(i))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    })
+                    .forEach(row -> {
+                        for (Value<V> value : values) {
+                            if (!value.isExtreme()) {
+                                continue;
+                            }
+                            if (value.doubleGetter != null) {
+                                final double v = value.doubleGetter.applyAsDouble(row);
+                                doubles[value.slot] = first[0] ? v : accumulate(value.aggFunc, doubles[value.slot], v);
+                            } else {
+                                final long v = value.longGetter.applyAsLong(row);
+                                longs[value.slot] = first[0] ? v : accumulate(value.aggFunc, longs[value.slot], v);
+                            }
+                        }
+                        first[0] = false;
+                    });
+        }
+
+        void recomputeFromChildren() {
+            boolean first = true;
+            for (Node child : children.values()) {
+                for (Value<V> value : values) {
+                    if (!value.isExtreme()) {
+                        continue;
+                    }
+                    if (value.doubleGetter != null) {
+                        final double v = child.doubles[value.slot];
+                        doubles[value.slot] = first ? v : accumulate(value.aggFunc, doubles[value.slot], v);
+                    } else {
+                        final long v = child.longs[value.slot];
+                        longs[value.slot] = first ? v : accumulate(value.aggFunc, longs[value.slot], v);
+                    }
+                }
+                first = false;
+            }
+        }
+    }
+
+    private static double accumulate(AggFunc aggFunc, double acc, double v) {
+        switch (aggFunc) {
+            case MIN:
+                return Math.min(acc, v);
+            case MAX:
+                return Math.max(acc, v);
+            default:
+                return acc + v;
+        }
+    }
+
+    private static long accumulate(AggFunc aggFunc, long acc, long v) {
+        switch (aggFunc) {
+            case MIN:
+                return Math.min(acc, v);
+            case MAX:
+                return Math.max(acc, v);
+            default:
+                return acc + v;
+        }
+    }
+}
@@ -79,8 +79,9 @@ final class ObjectMerge {
     @SuppressWarnings("unchecked")
     private static <V> ObjectAggregator<V> newObjectAggregator(Map<String, AggFunc> columnsToMerge, TypeInfo<V> typeInfo) {
         final BiFunction<String, AggFunc, Accumulator<V>> accumulatorFunction =
-                (col, aggFn) ->
-                        accumulatorFor(typeInfo.getAttribute(col), aggFn);
+                (col, aggFn) -> aggFn == AggFunc.COUNT
+                        ? new CountAccumulator<>(col)
+                        : accumulatorFor(typeInfo.getAttribute(col), aggFn);
         return new ObjectAggregator<>(
                 typeInfo.toMap(),
                 columnsToMerge.entrySet()
@@ -363,6 +364,40 @@ final class ObjectMerge {
         }
     }
 
+    /**
+     * Counts rows of group. Does not need attribute value so may be applied to column of any type (even to the one
+     * which is not an attribute at all).
+     */
+    static final class CountAccumulator<V> extends AbstractAccumulator<V> {
+
+        CountAccumulator(String name) {
+            super(name);
+        }
+
+        @Override
+        void accumulateFirst(V value) {
+        }
+
+        @Override
+        void accumulateMore(V value) {
+        }
+
+        @Override
+        void setFromNonEmpty(Accumulator<V> other) {
+        }
+
+        @Override
+        void combineWithNonEmpty(Accumulator<V> other) {
+        }
+
+        @Override
+        public void finish(int count, Map<String, Object> target) {
+            if (!isEmpty()) {
+                target.put(getName(), (long) count);
+            }
+        }
+    }
+
     /**
      * Aggregates the whole object. Delegates aggregation of object's attributes to configured accumulators.
      */
@@ -402,6 +437,7 @@ final class ObjectMerge {
                 for (int i = 0; i < accumulators.length; i++) {
                     accumulators[i].combine(other.accumulators[i]);
                 }
+                counter += other.counter;
             }
             return this;
         }
@@ -0,0 +1,208 @@
+package com.github.ykiselev.ag.grid.data.cache;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+import com.github.ykiselev.ag.grid.data.common.Predicates;
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row source decorator which caches responses of delegate keyed by {@link RequestKey}. Cache is bounded by estimated
+ * size of responses in bytes (see {@link ResponseWeigher}), least recently used entries are evicted first.
+ * <p>
+ * Each change of underlying data should be reported via one of {@code invalidate} methods. Every invalidation
+ * increments data version and eagerly drops affected entries. Since response may be computed concurrently with
+ * invalidation, each entry also remembers the version it was validated against and is re-checked against the log of
+ * recent invalidations whenever it is read at a newer version.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class CachingAgGridRowSource implements AgGridRowSource {
+
+    private static final int INVALIDATION_LOG_SIZE = 1_024;
+
+    private final AgGridRowSource delegate;
+
+    private final Cache<RequestKey, Entry> cache;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final ConcurrentNavigableMap<Long, Predicate<RequestKey>> invalidations = new ConcurrentSkipListMap<>();
+
+    public CachingAgGridRowSource(AgGridRowSource delegate, long maxWeightInBytes) {
+        this.delegate = requireNonNull(delegate);
+        final ResponseWeigher weigher = new ResponseWeigher();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeightInBytes)
+                .weigher((RequestKey k, Entry e) -> weigher.weigh(k, e.response))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the current data version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
+        final RequestKey key = RequestKey.of(request);
+        Entry entry = get(key, request, token);
+        if (!isValid(key, entry)) {
+            cache.asMap().remove(key, entry);
+            entry = get(key, request, token);
+        }
+        return entry.response;
+    }
+
+    private Entry get(RequestKey key, AgGridGetRowsRequest request, CancellationToken token) {
+        for (; ; ) {
+            try {
+                return cache.get(key, () -> load(request, token));
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof CancelledException && !token.isCancelled()) {
+                    // We were waiting for load started by another request which was cancelled, so try again
+                    continue;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    private Entry load(AgGridGetRowsRequest request, CancellationToken token) {
+        final long v = version.get();
+        return new Entry(v, delegate.getRows(request, token));
+    }
+
+    private boolean isValid(RequestKey key, Entry entry) {
+        final long current = version.get();
+        final long validated = entry.version;
+        if (validated == current) {
+            return true;
+        }
+        final Map<Long, Predicate<RequestKey>> missed = invalidations.subMap(validated, false, current, true);
+        if (missed.size() != current - validated) {
+            // log was already truncated
+            return false;
+        }
+        for (Predicate<RequestKey> predicate : missed.values()) {
+            if (predicate.test(key)) {
+                return false;
+            }
+        }
+        entry.version = current;
+        return true;
+    }
+
+    /**
+     * Drops all cached responses.
+     */
+    public void invalidateAll() {
+        invalidate(key -> true);
+    }
+
+    /**
+     * Drops cached responses which may include objects with specified value of column. Responses for requests which
+     * filter out that value (explicitly or by group key) are kept.
+     *
+     * @param column the column name
+     * @param value  the changed value of column (for example, name of portfolio which was updated)
+     */
+    public void invalidate(String column, Object value) {
+        invalidate(column, Collections.singleton(value));
+    }
+
+    /**
+     * Same as {@link #invalidate(String, Object)} for several changed values at once.
+     *
+     * @param column the column name
+     * @param values the changed values of column
+     */
+    public void invalidate(String column, Collection<?> values) {
+        invalidate(key -> isAffected(key, column, values));
+    }
+
+    /**
+     * Drops cached responses for which predicate returns {@code true}.
+     *
+     * @param predicate the predicate to test cached keys with
+     */
+    public void invalidate(Predicate<RequestKey> predicate) {
+        synchronized (invalidations) {
+            // Log entry should be visible before new version
+            final long v = version.get() + 1;
+            invalidations.put(v, predicate);
+            version.set(v);
+            while (invalidations.size() > INVALIDATION_LOG_SIZE) {
+                invalidations.pollFirstEntry();
+            }
+        }
+        cache.asMap()
+                .keySet()
+                .removeIf(predicate);
+    }
+
+    private static boolean isAffected(RequestKey key, String column, Collection<?> values) {
+        final ColumnFilter filter = DefaultRequestFilters.create(key.toRequest())
+                .getFilter(column);
+        if (filter == null) {
+            return true;
+        }
+        try {
+            return values.stream()
+                    .anyMatch(Predicates.predicate(new ObjectAttribute<>(column, Object.class, Function.identity()), filter));
+        } catch (RuntimeException e) {
+            // Filter is not applicable to value of this type, so we can't tell
+            return true;
+        }
+    }
+
+    public String getInfo() {
+        return "CachingAgGridRowSource{" +
+                "version=" + version.get() +
+                ", size=" + cache.size() +
+                ", stats=" + cache.stats() +
+                '}';
+    }
+
+    private static final class Entry {
+
+        final AgGridGetRowsResponse response;
+
+        /**
+         * The data version this entry is known to be valid for.
+         */
+        volatile long version;
+
+        Entry(long version, AgGridGetRowsResponse response) {
+            this.version = version;
+            this.response = requireNonNull(response);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.github.ykiselev.ag.grid.data.cache;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row source decorator which speculatively computes blocks user is likely to request next:
+ * <ul>
+ * <li>next block of plain (or leaf-level) list if current block is not the last one;</li>
+ * <li>first block of children of the first few groups of group level.</li>
+ * </ul>
+ * Prefetched responses (or pending computations) are kept in short-lived cache so subsequent request either gets
+ * ready response or waits for the computation already in progress (as long as request is not cancelled). Number of pending prefetches is limited per
+ * session and all of them are cancelled as soon as session switches to another view (columns, filters or sorting).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class PrefetchingAgGridRowSource implements AgGridRowSource, AutoCloseable {
+
+    private static final String NO_SESSION = "";
+
+    /**
+     * Request waiting for prefetch checks its cancellation that often.
+     */
+    private static final long WAIT_SLICE_MILLIS = 50;
+
+    private final AgGridRowSource delegate;
+
+    private final ExecutorService executor;
+
+    private final int maxPrefetchesPerSession;
+
+    private final int childGroupsToPrefetch;
+
+    private final Cache<RequestKey, Future<AgGridGetRowsResponse>> prefetched;
+
+    private final Cache<String, Session> sessions;
+
+    /**
+     * @param delegate                the row source to prefetch responses from
+     * @param executor                the executor to run prefetches on (should be low priority one)
+     * @param maxPrefetchesPerSession the max number of pending prefetches per session
+     * @param childGroupsToPrefetch   the number of first groups to prefetch children for
+     * @param ttlMillis               how long prefetched response is kept
+     */
+    public PrefetchingAgGridRowSource(AgGridRowSource delegate, ExecutorService executor, int maxPrefetchesPerSession,
+                                      int childGroupsToPrefetch, long ttlMillis) {
+        this.delegate = requireNonNull(delegate);
+        this.executor = requireNonNull(executor);
+        this.maxPrefetchesPerSession = maxPrefetchesPerSession;
+        this.childGroupsToPrefetch = childGroupsToPrefetch;
+        this.prefetched = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        this.sessions = CacheBuilder.newBuilder()
+                .expireAfterAccess(ttlMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Creates bounded executor with daemon threads of minimal priority. Prefetches which do not fit into queue are
+     * silently dropped.
+     *
+     * @param threads   the number of threads
+     * @param queueSize the max number of pending prefetches
+     * @return the executor suitable for prefetching
+     */
+    public static ExecutorService lowPriorityExecutor(int threads, int queueSize) {
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("prefetch-%d")
+                        .setDaemon(true)
+                        .setPriority(Thread.MIN_PRIORITY)
+                        .build()
+        );
+    }
+
+    @Override
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
+        return getRows(NO_SESSION, request, token);
+    }
+
+    /**
+     * @param sessionId the id of user session (prefetches are tracked and cancelled per session)
+     * @param request   the request
+     * @param token     the cancellation token
+     * @return the response
+     */
+    public AgGridGetRowsResponse getRows(String sessionId, AgGridGetRowsRequest request, CancellationToken token) {
+        final Session session = session(sessionId, RequestKey.viewOf(request));
+        final AgGridGetRowsResponse response = get(RequestKey.of(request), request, token);
+        prefetch(session, request, response);
+        return response;
+    }
+
+    private Session session(String sessionId, RequestKey view) {
+        final Session session;
+        try {
+            session = sessions.get(sessionId, Session::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        final List<RequestKey> obsolete = session.switchTo(view);
+        obsolete.forEach(prefetched::invalidate);
+        return session;
+    }
+
+    private AgGridGetRowsResponse get(RequestKey key, AgGridGetRowsRequest request, CancellationToken token) {
+        final Future<AgGridGetRowsResponse> future = prefetched.getIfPresent(key);
+        if (future != null) {
+            try {
+                return await(future, token);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (CancellationException | ExecutionException e) {
+                // Prefetch failed or was cancelled, compute as usual
+                prefetched.asMap().remove(key, future);
+            }
+        }
+        return delegate.getRows(request, token);
+    }
+
+    /**
+     * Waits for prefetch in slices so that cancelled request stops waiting (prefetch goes on for the next request).
+     */
+    private static AgGridGetRowsResponse await(Future<AgGridGetRowsResponse> future, CancellationToken token)
+            throws InterruptedException, ExecutionException {
+        for (; ; ) {
+            token.throwIfCancelled();
+            try {
+                return future.get(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still in progress
+            }
+        }
+    }
+
+    private void prefetch(Session session, AgGridGetRowsRequest request, AgGridGetRowsResponse<?> response) {
+        final int blockSize = request.getEndRow() - request.getStartRow();
+        if (blockSize <= 0) {
+            return;
+        }
+        final int level = request.getGroupKeys().size();
+        if (level < request.getRowGroupCols().size() && !request.isPivotMode()) {
+            final String groupColumn = request.getRowGroupCols().get(level).getField();
+            int count = 0;
+            for (Object row : response.getData()) {
+                if (count >= childGroupsToPrefetch) {
+                    break;
+                }
+                if (row instanceof Map) {
+                    final Object group = ((Map<?, ?>) row).get(groupColumn);
+                    final List<String> groupKeys = new ArrayList<>(request.getGroupKeys());
+                    groupKeys.add(Objects.toString(group, null));
+                    submit(session, copy(request, 0, blockSize, groupKeys));
+                    count++;
+                }
+            }
+        }
+        if (response.getLastRow() == -1) {
+            submit(session, copy(request, request.getEndRow(), request.getEndRow() + blockSize, request.getGroupKeys()));
+        }
+    }
+
+    private static AgGridGetRowsRequest copy(AgGridGetRowsRequest request, int startRow, int endRow, List<String> groupKeys) {
+        final AgGridGetRowsRequest result = RequestKey.of(request).toRequest();
+        result.setStartRow(startRow);
+        result.setEndRow(endRow);
+        result.setGroupKeys(groupKeys);
+        return result;
+    }
+
+    private void submit(Session session, AgGridGetRowsRequest next) {
+        final RequestKey key = RequestKey.of(next);
+        synchronized (session) {
+            if (!RequestKey.viewOf(next).equals(session.view)
+                    || prefetched.getIfPresent(key) != null
+                    || session.pending() >= maxPrefetchesPerSession) {
+                return;
+            }
+            final CancellationTokenSource source = new CancellationTokenSource();
+            final Future<AgGridGetRowsResponse> future;
+            try {
+                future = executor.submit(() -> delegate.getRows(next, source));
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+            session.add(key, new Prefetch(future, source));
+            prefetched.put(key, future);
+        }
+    }
+
+    /**
+     * Drops all prefetched responses. Should be called after any change of underlying data (responses prefetched
+     * before the change would be served otherwise until they expire).
+     */
+    public void invalidateAll() {
+        prefetched.invalidateAll();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public String getInfo() {
+        return "PrefetchingAgGridRowSource{" +
+                "sessions=" + sessions.size() +
+                ", size=" + prefetched.size() +
+                ", stats=" + prefetched.stats() +
+                '}';
+    }
+
+    private static final class Session {
+
+        private final Map<RequestKey, Prefetch> prefetches = new HashMap<>();
+
+        RequestKey view;
+
+        /**
+         * Switches session to new view cancelling all pending prefetches of the previous one.
+         *
+         * @param view the new view
+         * @return the keys of prefetched responses which are no longer needed
+         */
+        synchronized List<RequestKey> switchTo(RequestKey view) {
+            if (view.equals(this.view)) {
+                return new ArrayList<>();
+            }
+            this.view = view;
+            final List<RequestKey> result = new ArrayList<>(prefetches.keySet());
+            prefetches.values().forEach(Prefetch::cancel);
+            prefetches.clear();
+            return result;
+        }
+
+        synchronized int pending() {
+            final Iterator<Prefetch> it = prefetches.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().future.isDone()) {
+                    it.remove();
+                }
+            }
+            return prefetches.size();
+        }
+
+        synchronized void add(RequestKey key, Prefetch prefetch) {
+            prefetches.put(key, prefetch);
+        }
+    }
+
+    private static final class Prefetch {
+
+        final Future<AgGridGetRowsResponse> future;
+
+        final CancellationTokenSource source;
+
+        Prefetch(Future<AgGridGetRowsResponse> future, CancellationTokenSource source) {
+            this.future = requireNonNull(future);
+            this.source = requireNonNull(source);
+        }
+
+        void cancel() {
+            source.cancel();
+            future.cancel(true);
+        }
+    }
+}
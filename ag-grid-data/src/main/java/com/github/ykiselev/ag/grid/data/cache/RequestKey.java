@@ -0,0 +1,147 @@
+package com.github.ykiselev.ag.grid.data.cache;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.request.ColumnVO;
+import com.github.ykiselev.ag.grid.api.request.SortModel;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Canonical (immutable and comparable by value) form of {@link AgGridGetRowsRequest}.
+ * Two requests asking for the same block of the same view produce equal keys.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class RequestKey {
+
+    private final int startRow;
+
+    private final int endRow;
+
+    private final List<ColumnVO> rowGroupCols;
+
+    private final List<ColumnVO> valueCols;
+
+    private final List<ColumnVO> pivotCols;
+
+    private final boolean pivotMode;
+
+    private final List<String> groupKeys;
+
+    private final Map<String, ColumnFilter> filterModel;
+
+    private final List<SortModel> sortModel;
+
+    private final int hashCode;
+
+    public int getStartRow() {
+        return startRow;
+    }
+
+    public int getEndRow() {
+        return endRow;
+    }
+
+    public List<String> getGroupKeys() {
+        return groupKeys;
+    }
+
+    public Map<String, ColumnFilter> getFilterModel() {
+        return filterModel;
+    }
+
+    private RequestKey(AgGridGetRowsRequest request) {
+        this(request, request.getStartRow(), request.getEndRow(), request.getGroupKeys());
+    }
+
+    private RequestKey(AgGridGetRowsRequest request, int startRow, int endRow, List<String> groupKeys) {
+        this.startRow = startRow;
+        this.endRow = endRow;
+        this.rowGroupCols = ImmutableList.copyOf(request.getRowGroupCols());
+        this.valueCols = ImmutableList.copyOf(request.getValueCols());
+        this.pivotCols = ImmutableList.copyOf(request.getPivotCols());
+        this.pivotMode = request.isPivotMode();
+        // group keys may contain nulls
+        this.groupKeys = Collections.unmodifiableList(new ArrayList<>(groupKeys));
+        this.filterModel = ImmutableMap.copyOf(request.getFilterModel());
+        this.sortModel = ImmutableList.copyOf(request.getSortModel());
+        this.hashCode = Objects.hash(startRow, endRow, rowGroupCols, valueCols, pivotCols, pivotMode, groupKeys, filterModel, sortModel);
+    }
+
+    public static RequestKey of(AgGridGetRowsRequest request) {
+        return new RequestKey(request);
+    }
+
+    /**
+     * View key identifies what user is looking at (columns, filters and sorting) regardless of the block being
+     * requested or the group being expanded. When the view key changes all previously requested blocks become obsolete.
+     *
+     * @param request the request
+     * @return the key with row range and group keys omitted
+     */
+    public static RequestKey viewOf(AgGridGetRowsRequest request) {
+        return new RequestKey(request, 0, 0, Collections.emptyList());
+    }
+
+    /**
+     * @return the new request equal to the one this key was created from.
+     */
+    public AgGridGetRowsRequest toRequest() {
+        final AgGridGetRowsRequest request = new AgGridGetRowsRequest();
+        request.setStartRow(startRow);
+        request.setEndRow(endRow);
+        request.setRowGroupCols(rowGroupCols);
+        request.setValueCols(valueCols);
+        request.setPivotCols(pivotCols);
+        request.setPivotMode(pivotMode);
+        request.setGroupKeys(groupKeys);
+        request.setFilterModel(filterModel);
+        request.setSortModel(sortModel);
+        return request;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RequestKey that = (RequestKey) o;
+        return hashCode == that.hashCode &&
+                startRow == that.startRow &&
+                endRow == that.endRow &&
+                pivotMode == that.pivotMode &&
+                Objects.equals(rowGroupCols, that.rowGroupCols) &&
+                Objects.equals(valueCols, that.valueCols) &&
+                Objects.equals(pivotCols, that.pivotCols) &&
+                Objects.equals(groupKeys, that.groupKeys) &&
+                Objects.equals(filterModel, that.filterModel) &&
+                Objects.equals(sortModel, that.sortModel);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestKey{" +
+                "startRow=" + startRow +
+                ", endRow=" + endRow +
+                ", rowGroupCols=" + rowGroupCols +
+                ", valueCols=" + valueCols +
+                ", pivotCols=" + pivotCols +
+                ", pivotMode=" + pivotMode +
+                ", groupKeys=" + groupKeys +
+                ", filterModel=" + filterModel +
+                ", sortModel=" + sortModel +
+                '}';
+    }
+}
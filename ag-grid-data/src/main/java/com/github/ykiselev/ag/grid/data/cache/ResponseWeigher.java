@@ -0,0 +1,69 @@
+package com.github.ykiselev.ag.grid.data.cache;
+
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.google.common.cache.Weigher;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates retained heap size of cached response in bytes. Estimation is rough (assumes compressed oops and
+ * {@link java.util.HashMap}-based rows) but is good enough to bound the cache by memory rather than by entry count.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ResponseWeigher implements Weigher<RequestKey, AgGridGetRowsResponse> {
+
+    private static final int OBJECT_HEADER = 16;
+
+    private static final int REFERENCE = 4;
+
+    private static final int MAP_ENTRY = 32;
+
+    private static final int BOXED_NUMBER = 24;
+
+    @Override
+    public int weigh(RequestKey key, AgGridGetRowsResponse response) {
+        long result = OBJECT_HEADER + sizeOf(response.getSecondaryColumnFields());
+        final List<?> data = response.getData();
+        if (data != null) {
+            result += OBJECT_HEADER + (long) REFERENCE * data.size();
+            for (Object row : data) {
+                result += sizeOf(row);
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, result);
+    }
+
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return OBJECT_HEADER * 2 + ((String) value).length() * 2;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return BOXED_NUMBER;
+        }
+        if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            // table of references is roughly twice the size of the map
+            long result = OBJECT_HEADER * 3 + (long) map.size() * (MAP_ENTRY + 2 * REFERENCE);
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                // keys are column names shared between all rows
+                result += sizeOf(e.getValue());
+            }
+            return result;
+        }
+        if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            long result = OBJECT_HEADER * 2 + (long) REFERENCE * list.size();
+            for (Object item : list) {
+                result += sizeOf(item);
+            }
+            return result;
+        }
+        return OBJECT_HEADER * 2;
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.ykiselev.ag.grid.data.cancel;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Cooperative cancellation signal passed along with request. Long-running computations are expected to poll it
+ * (see {@link #throwIfCancelled()}) or to register callback aborting blocking call (see {@link #onCancel(Runnable)}).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public interface CancellationToken {
+
+    /**
+     * Token which is never cancelled.
+     */
+    CancellationToken NONE = new CancellationToken() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public AutoCloseable onCancel(Runnable callback) {
+            return () -> {
+            };
+        }
+
+        @Override
+        public <V> Stream<V> checked(Stream<V> stream) {
+            return stream;
+        }
+
+        @Override
+        public <V> Comparator<V> checked(Comparator<V> comparator) {
+            return comparator;
+        }
+    };
+
+    boolean isCancelled();
+
+    /**
+     * Registers callback to be called once token is cancelled. If token is already cancelled callback is called
+     * immediately.
+     *
+     * @param callback the callback to call (typically aborts blocking call like {@link java.sql.Statement#cancel()})
+     * @return the registration handle, closing it un-registers callback
+     */
+    AutoCloseable onCancel(Runnable callback);
+
+    /**
+     * @throws CancelledException if this token is cancelled
+     */
+    default void throwIfCancelled() throws CancelledException {
+        if (isCancelled()) {
+            throw new CancelledException();
+        }
+    }
+
+    /**
+     * @param stream the stream to wrap
+     * @param <V>    the type of stream elements
+     * @return the stream which fails with {@link CancelledException} once this token is cancelled
+     */
+    default <V> Stream<V> checked(Stream<V> stream) {
+        return stream.filter(v -> {
+            throwIfCancelled();
+            return true;
+        });
+    }
+
+    /**
+     * Sorting is a barrier for stream so we need to check for cancellation while comparing as well.
+     *
+     * @param comparator the comparator to wrap
+     * @param <V>        the type of compared values
+     * @return the comparator which fails with {@link CancelledException} once this token is cancelled
+     */
+    default <V> Comparator<V> checked(Comparator<V> comparator) {
+        return (a, b) -> {
+            throwIfCancelled();
+            return comparator.compare(a, b);
+        };
+    }
+}
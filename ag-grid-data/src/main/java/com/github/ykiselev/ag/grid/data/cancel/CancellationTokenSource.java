@@ -0,0 +1,68 @@
+package com.github.ykiselev.ag.grid.data.cancel;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Token which may be cancelled by owner. Cancellation is one-way and idempotent.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class CancellationTokenSource implements CancellationToken {
+
+    private final Set<Runnable> callbacks = new CopyOnWriteArraySet<>();
+
+    private volatile boolean cancelled;
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public AutoCloseable onCancel(Runnable callback) {
+        requireNonNull(callback);
+        // Wrap to make each registration unique
+        final Runnable registration = callback::run;
+        callbacks.add(registration);
+        if (cancelled && callbacks.remove(registration)) {
+            registration.run();
+        }
+        return () -> callbacks.remove(registration);
+    }
+
+    /**
+     * Cancels this token and calls all registered callbacks. All callbacks are called even if some of them fail, the
+     * first failure is re-thrown afterwards.
+     */
+    public void cancel() {
+        cancelled = true;
+        RuntimeException failure = null;
+        for (Runnable callback : callbacks) {
+            if (callbacks.remove(callback)) {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CancellationTokenSource{" +
+                "cancelled=" + cancelled +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.ykiselev.ag.grid.data.cancel;
+
+/**
+ * Thrown when computation is aborted because its {@link CancellationToken} was cancelled.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class CancelledException extends RuntimeException {
+
+    public CancelledException() {
+        super("Request was cancelled");
+    }
+
+    public CancelledException(Throwable cause) {
+        super("Request was cancelled", cause);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.ykiselev.ag.grid.data.cancel;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.data.cache.RequestKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps track of requests in progress per user session. When session issues request for another view (columns,
+ * filters or sorting have changed) all requests for previous view are cancelled as grid will ignore their responses
+ * anyway. Concurrent requests for different blocks or groups of the same view are left intact.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class SessionRequests {
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Registers new request cancelling all superseded ones. Caller should call {@link #end(String, CancellationTokenSource)}
+     * once request is completed.
+     *
+     * @param sessionId the session id
+     * @param request   the request
+     * @return the token source for request
+     */
+    public CancellationTokenSource begin(String sessionId, AgGridGetRowsRequest request) {
+        final RequestKey view = RequestKey.viewOf(request);
+        final CancellationTokenSource result = new CancellationTokenSource();
+        final List<CancellationTokenSource> superseded = new ArrayList<>();
+        sessions.compute(sessionId, (k, session) -> {
+            if (session == null) {
+                session = new Session(view);
+            } else if (!view.equals(session.view)) {
+                superseded.addAll(session.active);
+                session = new Session(view);
+            }
+            session.active.add(result);
+            return session;
+        });
+        // Cancel outside of map lock as callbacks may block
+        superseded.forEach(CancellationTokenSource::cancel);
+        return result;
+    }
+
+    /**
+     * @param sessionId the session id
+     * @param source    the token source returned by {@link #begin(String, AgGridGetRowsRequest)}
+     */
+    public void end(String sessionId, CancellationTokenSource source) {
+        sessions.computeIfPresent(sessionId, (k, session) -> {
+            session.active.remove(source);
+            return session.active.isEmpty() ? null : session;
+        });
+    }
+
+    /**
+     * @return the number of requests in progress
+     */
+    public int size() {
+        return sessions.values()
+                .stream()
+                .mapToInt(s -> s.active.size())
+                .sum();
+    }
+
+    private static final class Session {
+
+        final RequestKey view;
+
+        final Set<CancellationTokenSource> active = ConcurrentHashMap.newKeySet();
+
+        Session(RequestKey view) {
+            this.view = requireNonNull(view);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.ykiselev.ag.grid.data.columns;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.types.Attribute;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prefix tree of rows by values of row group columns in configured order (like product &gt; portfolio &gt; book).
+ * Each node holds indexes of rows under its path, so drill-down request (which has {@link GroupKey} for each expanded
+ * level) starts from exactly the rows of expanded group instead of filtering all rows by each key.
+ * <p>
+ * Levels without group key (for example, when grid is grouped in other order) are expanded to all their children.
+ * <p>
+ * Row lists are kept as {@link IntColumn}s: rows of group are ascending and mostly contiguous when store is clustered
+ * by group columns, so delta-encoded blocks take a few bits per row instead of 32.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class GroupPathIndex {
+
+    private final List<String> levels;
+
+    private final Node root;
+
+    private GroupPathIndex(List<String> levels, Node root) {
+        this.levels = requireNonNull(levels);
+        this.root = requireNonNull(root);
+    }
+
+    /**
+     * @param rows     the rows
+     * @param typeInfo the type info
+     * @param levels   the names of string attributes, from the top level down
+     * @return the index
+     */
+    public static <V> GroupPathIndex of(List<V> rows, TypeInfo<V> typeInfo, List<String> levels) {
+        final List<Function<V, ?>> getters = new ArrayList<>();
+        for (String name : levels) {
+            final Attribute<V> attribute = requireNonNull(typeInfo.getAttribute(name), name);
+            if (attribute.getType() != String.class) {
+                // Group keys are strings, they would never match other values
+                throw new IllegalArgumentException("Unable to index groups by " + name + " of type " + attribute.getType());
+            }
+            getters.add(attribute.getObjectGetter());
+        }
+        final Node root = new Node();
+        for (int row = 0; row < rows.size(); row++) {
+            final V value = rows.get(row);
+            Node node = root;
+            for (Function<V, ?> getter : getters) {
+                node = node.children.computeIfAbsent(getter.apply(value), k -> new Node());
+                node.add(row);
+            }
+        }
+        root.trim();
+        return new GroupPathIndex(new ArrayList<>(levels), root);
+    }
+
+    /**
+     * @param filters the request filters
+     * @return the ascending indexes of rows under the paths selected by group keys or {@code null} if there are no
+     * group keys on indexed levels
+     */
+    public int[] rows(RequestFilters filters) {
+        final GroupKey[] keys = new GroupKey[levels.size()];
+        int deepest = -1;
+        for (int i = 0; i < keys.length; i++) {
+            final ColumnFilter filter = filters.getFilter(levels.get(i));
+            if (filter instanceof GroupKey) {
+                keys[i] = (GroupKey) filter;
+                deepest = i;
+            }
+        }
+        if (deepest < 0) {
+            return null;
+        }
+        final List<IntColumn> lists = new ArrayList<>();
+        collect(root, 0, deepest, keys, lists);
+        if (lists.size() == 1) {
+            return lists.get(0).toArray();
+        }
+        final int[] result = new int[lists.stream().mapToInt(IntColumn::size).sum()];
+        int length = 0;
+        for (IntColumn list : lists) {
+            list.copyTo(result, length);
+            length += list.size();
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static void collect(Node node, int level, int deepest, GroupKey[] keys, List<IntColumn> result) {
+        if (level > deepest) {
+            result.add(node.packed);
+            return;
+        }
+        if (keys[level] != null) {
+            final Node child = node.children.get(keys[level].getFilter());
+            if (child != null) {
+                collect(child, level + 1, deepest, keys, result);
+            }
+        } else {
+            for (Node child : node.children.values()) {
+                collect(child, level + 1, deepest, keys, result);
+            }
+        }
+    }
+
+    /**
+     * @return the estimated size of row lists, bytes
+     */
+    public long sizeInBytes() {
+        return root.sizeInBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "GroupPathIndex{" +
+                "levels=" + levels +
+                ", groups=" + root.children.size() +
+                ", bytes=" + sizeInBytes() +
+                '}';
+    }
+
+    private static final class Node {
+
+        final Map<Object, Node> children = new HashMap<>();
+
+        /**
+         * Rows added while index is built, dropped once they are packed.
+         */
+        int[] rows = new int[4];
+
+        int size;
+
+        IntColumn packed;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        void trim() {
+            packed = IntColumn.of(Arrays.copyOf(rows, size));
+            rows = null;
+            children.values().forEach(Node::trim);
+        }
+
+        long sizeInBytes() {
+            return packed.sizeInBytes() + children.values().stream().mapToLong(Node::sizeInBytes).sum();
+        }
+    }
+}
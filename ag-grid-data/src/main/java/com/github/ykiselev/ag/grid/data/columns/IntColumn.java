@@ -0,0 +1,83 @@
+package com.github.ykiselev.ag.grid.data.columns;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable column of {@code int} values backed by {@link LongColumn}. Encoding does not depend on value type, so
+ * values narrower than {@code long} simply take fewer bits.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class IntColumn {
+
+    private final LongColumn delegate;
+
+    private IntColumn(LongColumn delegate) {
+        this.delegate = requireNonNull(delegate);
+    }
+
+    /**
+     * @param values the values to encode
+     * @return the packed column
+     */
+    public static IntColumn of(int[] values) {
+        final long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            longs[i] = values[i];
+        }
+        return new IntColumn(PackedLongColumn.of(longs));
+    }
+
+    public int size() {
+        return delegate.size();
+    }
+
+    public int get(int row) {
+        return (int) delegate.get(row);
+    }
+
+    /**
+     * Decodes all values block by block.
+     *
+     * @param target the array to store values to
+     * @param offset the index of the first value in {@code target}
+     */
+    public void copyTo(int[] target, int offset) {
+        final long[] buffer = new long[delegate.blockSize()];
+        int i = offset;
+        for (int b = 0; b < delegate.blocks(); b++) {
+            final int count = delegate.decode(b, buffer);
+            for (int k = 0; k < count; k++) {
+                target[i++] = (int) buffer[k];
+            }
+        }
+    }
+
+    /**
+     * @return the decoded values
+     */
+    public int[] toArray() {
+        final int[] result = new int[size()];
+        copyTo(result, 0);
+        return result;
+    }
+
+    /**
+     * @return the underlying column (values are widened to {@code long})
+     */
+    public LongColumn asLongColumn() {
+        return delegate;
+    }
+
+    public long sizeInBytes() {
+        return delegate.sizeInBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "IntColumn{" +
+                "delegate=" + delegate +
+                '}';
+    }
+}
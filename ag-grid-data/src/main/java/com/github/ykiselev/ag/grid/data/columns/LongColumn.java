@@ -0,0 +1,65 @@
+package com.github.ykiselev.ag.grid.data.columns;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Immutable column of {@code long} values. Values are split into blocks of {@link #blockSize()} rows which may be
+ * decoded at once for scanning, while single value is available in constant time for paging.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public interface LongColumn {
+
+    /**
+     * @return the number of values
+     */
+    int size();
+
+    /**
+     * @param row the row index
+     * @return the value of row
+     */
+    long get(int row);
+
+    /**
+     * @return the number of rows in each block (the last block may be smaller)
+     */
+    int blockSize();
+
+    /**
+     * @return the number of blocks
+     */
+    default int blocks() {
+        return (size() + blockSize() - 1) / blockSize();
+    }
+
+    /**
+     * Decodes all values of block.
+     *
+     * @param block  the block index
+     * @param target the array to store values to (should be at least {@link #blockSize()} long)
+     * @return the number of decoded values
+     */
+    int decode(int block, long[] target);
+
+    /**
+     * Passes all values in row order to consumer decoding them block by block.
+     *
+     * @param consumer the consumer
+     */
+    default void forEach(LongConsumer consumer) {
+        final long[] buffer = new long[blockSize()];
+        for (int b = 0; b < blocks(); b++) {
+            final int count = decode(b, buffer);
+            for (int i = 0; i < count; i++) {
+                consumer.accept(buffer[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the estimated memory footprint of column, bytes
+     */
+    long sizeInBytes();
+}
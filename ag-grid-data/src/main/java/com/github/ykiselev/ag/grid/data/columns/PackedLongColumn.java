@@ -0,0 +1,202 @@
+package com.github.ykiselev.ag.grid.data.columns;
+
+import java.util.Arrays;
+
+/**
+ * Column of {@code long} values compressed block by block. Each block is encoded with the narrower of two schemes:
+ * <ul>
+ * <li>frame of reference: value is stored as unsigned offset from the block minimum;</li>
+ * <li>delta: value is stored as zig-zag encoded deviation from line {@code first + i * step}, where {@code step} is
+ * average delta between consecutive values of block. Dense or regularly growing ranges (like sequential ids) need
+ * no bits at all.</li>
+ * </ul>
+ * Offsets are bit-packed with the minimal width needed for the block, so reading any value is a couple of shifts
+ * and needs no decoding of its neighbours.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class PackedLongColumn implements LongColumn {
+
+    static final int BLOCK_SHIFT = 7;
+
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int size;
+
+    private final long[] bases;
+
+    private final long[] steps;
+
+    private final byte[] widths;
+
+    private final boolean[] zigZag;
+
+    private final int[] offsets;
+
+    private final long[] words;
+
+    private PackedLongColumn(int size, long[] bases, long[] steps, byte[] widths, boolean[] zigZag, int[] offsets, long[] words) {
+        this.size = size;
+        this.bases = bases;
+        this.steps = steps;
+        this.widths = widths;
+        this.zigZag = zigZag;
+        this.offsets = offsets;
+        this.words = words;
+    }
+
+    /**
+     * @param values the values to encode
+     * @return the packed column
+     */
+    public static PackedLongColumn of(long[] values) {
+        final int blocks = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final long[] bases = new long[blocks];
+        final long[] steps = new long[blocks];
+        final byte[] widths = new byte[blocks];
+        final boolean[] zigZag = new boolean[blocks];
+        final int[] offsets = new int[blocks + 1];
+        final long[] residuals = new long[BLOCK_SIZE];
+        long[] words = new long[16];
+        for (int b = 0; b < blocks; b++) {
+            final int from = b << BLOCK_SHIFT;
+            final int count = Math.min(BLOCK_SIZE, values.length - from);
+            long min = values[from];
+            for (int i = 1; i < count; i++) {
+                min = Math.min(min, values[from + i]);
+            }
+            final long first = values[from];
+            final long step = count > 1 ? (values[from + count - 1] - first) / (count - 1) : 0;
+            long forBits = 0, deltaBits = 0;
+            for (int i = 0; i < count; i++) {
+                forBits |= values[from + i] - min;
+                deltaBits |= zigZag(values[from + i] - first - i * step);
+            }
+            final int forWidth = width(forBits);
+            final int deltaWidth = width(deltaBits);
+            final boolean delta = deltaWidth < forWidth;
+            bases[b] = delta ? first : min;
+            steps[b] = delta ? step : 0;
+            zigZag[b] = delta;
+            widths[b] = (byte) (delta ? deltaWidth : forWidth);
+            for (int i = 0; i < count; i++) {
+                residuals[i] = delta
+                        ? zigZag(values[from + i] - first - i * step)
+                        : values[from + i] - min;
+            }
+            final int wordCount = (int) (((long) count * widths[b] + 63) >>> 6);
+            offsets[b + 1] = offsets[b] + wordCount;
+            if (offsets[b + 1] > words.length) {
+                words = Arrays.copyOf(words, Math.max(offsets[b + 1], words.length * 2));
+            }
+            pack(words, offsets[b], widths[b], residuals, count);
+        }
+        return new PackedLongColumn(values.length, bases, steps, widths, zigZag, offsets,
+                Arrays.copyOf(words, offsets[blocks]));
+    }
+
+    private static int width(long bits) {
+        return Long.SIZE - Long.numberOfLeadingZeros(bits);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long mask(int width) {
+        return width == Long.SIZE ? -1L : (1L << width) - 1;
+    }
+
+    private static void pack(long[] words, int offset, int width, long[] values, int count) {
+        if (width == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            final long bit = (long) i * width;
+            final int word = offset + (int) (bit >>> 6);
+            final int shift = (int) (bit & 63);
+            words[word] |= values[i] << shift;
+            if (shift + width > Long.SIZE) {
+                words[word + 1] |= values[i] >>> (Long.SIZE - shift);
+            }
+        }
+    }
+
+    private long unpack(int block, int i) {
+        final int width = widths[block];
+        if (width == 0) {
+            return 0;
+        }
+        final long bit = (long) i * width;
+        final int word = offsets[block] + (int) (bit >>> 6);
+        final int shift = (int) (bit & 63);
+        long value = words[word] >>> shift;
+        if (shift + width > Long.SIZE) {
+            value |= words[word + 1] << (Long.SIZE - shift);
+        }
+        return value & mask(width);
+    }
+
+    private long value(int block, int i, long residual) {
+        if (zigZag[block]) {
+            return bases[block] + i * steps[block] + unZigZag(residual);
+        }
+        return bases[block] + residual;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " is out of range [0, " + size + ")");
+        }
+        final int block = row >>> BLOCK_SHIFT;
+        final int i = row & (BLOCK_SIZE - 1);
+        return value(block, i, unpack(block, i));
+    }
+
+    @Override
+    public int blockSize() {
+        return BLOCK_SIZE;
+    }
+
+    @Override
+    public int decode(int block, long[] target) {
+        final int count = Math.min(BLOCK_SIZE, size - (block << BLOCK_SHIFT));
+        for (int i = 0; i < count; i++) {
+            target[i] = value(block, i, unpack(block, i));
+        }
+        return count;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES
+                + (long) bases.length * (2 * Long.BYTES + Integer.BYTES + 2);
+    }
+
+    /**
+     * @return the average number of bits per value
+     */
+    public double bitsPerValue() {
+        return size == 0 ? 0 : sizeInBytes() * 8d / size;
+    }
+
+    @Override
+    public String toString() {
+        return "PackedLongColumn{" +
+                "size=" + size +
+                ", blocks=" + bases.length +
+                ", bytes=" + sizeInBytes() +
+                '}';
+    }
+}
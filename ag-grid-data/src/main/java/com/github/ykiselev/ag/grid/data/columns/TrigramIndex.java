@@ -0,0 +1,162 @@
+package com.github.ykiselev.ag.grid.data.columns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Substring index of dictionary-encoded string column. Each distinct value (dictionary entry) is split into trigrams,
+ * each trigram maps to sorted codes of values containing it; each code maps to rows having that value.
+ * <p>
+ * Substring is looked up by intersecting code lists of its trigrams (smallest first), candidate values are verified
+ * with {@link String#contains(CharSequence)} once per distinct value (substrings shorter than trigram are verified
+ * against the whole dictionary). Rows of matching values are then collected into bitmap, so the cost depends on the
+ * size of dictionary and the number of matching rows rather than on the number of rows.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TrigramIndex {
+
+    private static final int[] NO_CODES = new int[0];
+
+    private final int size;
+
+    private final List<String> dictionary;
+
+    private final Map<Long, int[]> trigrams;
+
+    private final int[][] rows;
+
+    private TrigramIndex(int size, List<String> dictionary, Map<Long, int[]> trigrams, int[][] rows) {
+        this.size = size;
+        this.dictionary = requireNonNull(dictionary);
+        this.trigrams = requireNonNull(trigrams);
+        this.rows = requireNonNull(rows);
+    }
+
+    /**
+     * @param dictionary the distinct values by code
+     * @param codes      the code of each row ({@link ZoneMaps#NO_CODE} for {@code null})
+     * @return the index
+     */
+    public static TrigramIndex of(List<String> dictionary, int[] codes) {
+        final Map<Long, List<Integer>> trigrams = new HashMap<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+            for (long trigram : trigramsOf(dictionary.get(code))) {
+                trigrams.computeIfAbsent(trigram, t -> new ArrayList<>()).add(code);
+            }
+        }
+        final Map<Long, int[]> packed = new HashMap<>(trigrams.size() * 2);
+        // Codes are added in ascending order
+        trigrams.forEach((trigram, list) -> packed.put(trigram, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        final int[] counts = new int[dictionary.size()];
+        for (int code : codes) {
+            if (code != ZoneMaps.NO_CODE) {
+                counts[code]++;
+            }
+        }
+        final int[][] rows = new int[dictionary.size()][];
+        for (int code = 0; code < rows.length; code++) {
+            rows[code] = new int[counts[code]];
+        }
+        Arrays.fill(counts, 0);
+        for (int row = 0; row < codes.length; row++) {
+            final int code = codes[row];
+            if (code != ZoneMaps.NO_CODE) {
+                rows[code][counts[code]++] = row;
+            }
+        }
+        return new TrigramIndex(codes.length, new ArrayList<>(dictionary), packed, rows);
+    }
+
+    private static Set<Long> trigramsOf(String value) {
+        final Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            result.add(trigram(value, i));
+        }
+        return result;
+    }
+
+    private static long trigram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+    }
+
+    /**
+     * @param substring the substring to look for
+     * @return the codes of values containing substring
+     */
+    public BitSet codesContaining(String substring) {
+        final BitSet result = new BitSet(dictionary.size());
+        if (substring.length() < 3) {
+            for (int code = 0; code < dictionary.size(); code++) {
+                if (dictionary.get(code).contains(substring)) {
+                    result.set(code);
+                }
+            }
+            return result;
+        }
+        final List<int[]> lists = new ArrayList<>();
+        for (long trigram : trigramsOf(substring)) {
+            lists.add(trigrams.getOrDefault(trigram, NO_CODES));
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        for (int code : lists.get(0)) {
+            if (containsAll(lists, code) && dictionary.get(code).contains(substring)) {
+                result.set(code);
+            }
+        }
+        return result;
+    }
+
+    private static boolean containsAll(List<int[]> lists, int code) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (Arrays.binarySearch(lists.get(i), code) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param substring the substring to look for
+     * @return the rows which values contain substring
+     */
+    public BitSet rowsContaining(String substring) {
+        final BitSet codes = codesContaining(substring);
+        final BitSet result = new BitSet(size);
+        for (int code = codes.nextSetBit(0); code >= 0; code = codes.nextSetBit(code + 1)) {
+            for (int row : rows[code]) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "TrigramIndex{" +
+                "size=" + size +
+                ", values=" + dictionary.size() +
+                ", trigrams=" + trigrams.size() +
+                '}';
+    }
+}
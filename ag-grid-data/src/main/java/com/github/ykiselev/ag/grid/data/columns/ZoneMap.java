@@ -0,0 +1,212 @@
+package com.github.ykiselev.ag.grid.data.columns;
+
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+
+import java.util.Arrays;
+
+/**
+ * Summary of single column per block of rows: min and max of non-null values and the number of nulls. Lets scans
+ * skip blocks which can not contain rows matching filter.
+ * <p>
+ * Values are {@code long}s as seen by the filter: numeric attribute as returned by
+ * {@link com.github.ykiselev.ag.grid.data.types.Attribute#getLongGetter()} (so doubles are truncated just like
+ * {@link com.github.ykiselev.ag.grid.data.common.Predicates} does), string attribute as dictionary code.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ZoneMap {
+
+    private final int blockSize;
+
+    private final long[] min;
+
+    private final long[] max;
+
+    private final int[] nulls;
+
+    private ZoneMap(int blockSize, long[] min, long[] max, int[] nulls) {
+        this.blockSize = blockSize;
+        this.min = min;
+        this.max = max;
+        this.nulls = nulls;
+    }
+
+    public static Builder builder(int blockSize) {
+        return new Builder(blockSize);
+    }
+
+    /**
+     * Creates zone map from summaries computed elsewhere (for example, stored along with the data).
+     *
+     * @param blockSize the number of rows per block
+     * @param min       the min of non-null values per block ({@link Long#MAX_VALUE} if block has no such values)
+     * @param max       the max of non-null values per block ({@link Long#MIN_VALUE} if block has no such values)
+     * @param nulls     the number of nulls per block
+     * @return the zone map
+     */
+    public static ZoneMap of(int blockSize, long[] min, long[] max, int[] nulls) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size should be positive: " + blockSize);
+        }
+        if (min.length != max.length || min.length != nulls.length) {
+            throw new IllegalArgumentException("Summaries have different number of blocks!");
+        }
+        return new ZoneMap(blockSize, min.clone(), max.clone(), nulls.clone());
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public int blocks() {
+        return min.length;
+    }
+
+    public long min(int block) {
+        return min[block];
+    }
+
+    public long max(int block) {
+        return max[block];
+    }
+
+    public int nullCount(int block) {
+        return nulls[block];
+    }
+
+    /**
+     * @param block the block index
+     * @return {@code true} if block has at least one non-null value
+     */
+    public boolean hasValues(int block) {
+        return min[block] <= max[block];
+    }
+
+    /**
+     * @param block the block index
+     * @param value the value (dictionary code for strings)
+     * @return {@code false} if block definitely does not contain value
+     */
+    public boolean mayContain(int block, long value) {
+        return min[block] <= value && value <= max[block];
+    }
+
+    /**
+     * @param block  the block index
+     * @param filter the filter
+     * @return {@code false} if none of the block values can pass the filter
+     */
+    public boolean mayMatch(int block, NumberColumnFilter filter) {
+        if (filter.getType() == null || filter.getFilter() == null) {
+            return true;
+        }
+        if (!hasValues(block)) {
+            return false;
+        }
+        final long lo = min[block];
+        final long hi = max[block];
+        final long value = filter.getFilter();
+        switch (filter.getType()) {
+            case EQUALS:
+                return lo <= value && value <= hi;
+
+            case NOT_EQUAL:
+                return lo != value || hi != value;
+
+            case LESS_THAN:
+                return lo < value;
+
+            case LESS_THAN_OR_EQUAL:
+                return lo <= value;
+
+            case GREATER_THAN:
+                return hi > value;
+
+            case GREATER_THAN_OR_EQUAL:
+                return hi >= value;
+
+            case IN_RANGE:
+                return filter.getFilterTo() == null
+                        || (hi >= value && lo <= filter.getFilterTo());
+
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneMap{" +
+                "blockSize=" + blockSize +
+                ", blocks=" + min.length +
+                '}';
+    }
+
+    /**
+     * Collects values row by row.
+     */
+    public static final class Builder {
+
+        private final int blockSize;
+
+        private long[] min = new long[16];
+
+        private long[] max = new long[16];
+
+        private int[] nulls = new int[16];
+
+        private int rows;
+
+        Builder(int blockSize) {
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size should be positive: " + blockSize);
+            }
+            this.blockSize = blockSize;
+        }
+
+        private int block() {
+            final int block = rows / blockSize;
+            if (block >= min.length) {
+                final int length = min.length * 2;
+                min = Arrays.copyOf(min, length);
+                max = Arrays.copyOf(max, length);
+                nulls = Arrays.copyOf(nulls, length);
+            }
+            if (rows % blockSize == 0) {
+                min[block] = Long.MAX_VALUE;
+                max[block] = Long.MIN_VALUE;
+            }
+            rows++;
+            return block;
+        }
+
+        public Builder add(long value) {
+            final int block = block();
+            min[block] = Math.min(min[block], value);
+            max[block] = Math.max(max[block], value);
+            return this;
+        }
+
+        public Builder addNull() {
+            nulls[block()]++;
+            return this;
+        }
+
+        /**
+         * Adds value which can not be summarized (for example, the one which does not fit into {@code long}). Such
+         * block can not be skipped by any filter.
+         */
+        public Builder addUnknown() {
+            final int block = block();
+            min[block] = Long.MIN_VALUE;
+            max[block] = Long.MAX_VALUE;
+            return this;
+        }
+
+        public ZoneMap build() {
+            final int blocks = (rows + blockSize - 1) / blockSize;
+            return new ZoneMap(blockSize, Arrays.copyOf(min, blocks), Arrays.copyOf(max, blocks), Arrays.copyOf(nulls, blocks));
+        }
+    }
+}
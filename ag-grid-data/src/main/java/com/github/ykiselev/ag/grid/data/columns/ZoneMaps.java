@@ -0,0 +1,277 @@
+package com.github.ykiselev.ag.grid.data.columns;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.TextColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.TextFilterType;
+import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.types.Attribute;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Zone maps of all summarized columns of the store. Numeric columns are used to skip blocks for
+ * {@link NumberColumnFilter}s, dictionary-encoded string columns - for {@link GroupKey}s. String columns may also have
+ * {@link TrigramIndex} which selects rows for {@code CONTAINS} and {@code NOT_CONTAINS} {@link TextColumnFilter}s.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ZoneMaps {
+
+    /**
+     * Code returned by dictionary for unknown string.
+     */
+    public static final int NO_CODE = -1;
+
+    private final int size;
+
+    private final int blockSize;
+
+    private final Map<String, ZoneMap> numbers;
+
+    private final Map<String, ZoneMap> strings;
+
+    private final Map<String, ToIntFunction<String>> dictionaries;
+
+    private final Map<String, TrigramIndex> texts;
+
+    /**
+     * @param size         the number of rows in store
+     * @param blockSize    the block size of all zone maps
+     * @param numbers      the zone maps of numeric columns
+     * @param strings      the zone maps of dictionary codes of string columns
+     * @param dictionaries the dictionaries of string columns (string to code or {@link #NO_CODE})
+     */
+    public ZoneMaps(int size, int blockSize, Map<String, ZoneMap> numbers, Map<String, ZoneMap> strings,
+                    Map<String, ToIntFunction<String>> dictionaries) {
+        this(size, blockSize, numbers, strings, dictionaries, Collections.emptyMap());
+    }
+
+    /**
+     * @param size         the number of rows in store
+     * @param blockSize    the block size of all zone maps
+     * @param numbers      the zone maps of numeric columns
+     * @param strings      the zone maps of dictionary codes of string columns
+     * @param dictionaries the dictionaries of string columns (string to code or {@link #NO_CODE})
+     * @param texts        the substring indexes of string columns
+     */
+    public ZoneMaps(int size, int blockSize, Map<String, ZoneMap> numbers, Map<String, ZoneMap> strings,
+                    Map<String, ToIntFunction<String>> dictionaries, Map<String, TrigramIndex> texts) {
+        this.size = size;
+        this.blockSize = blockSize;
+        this.numbers = new HashMap<>(numbers);
+        this.strings = new HashMap<>(strings);
+        this.dictionaries = new HashMap<>(dictionaries);
+        this.texts = new HashMap<>(texts);
+    }
+
+    /**
+     * Builds zone maps for rows of in-memory list. Strings are coded in order of their first appearance, so rows
+     * clustered by string column produce narrow code ranges. String columns are indexed by {@link TrigramIndex} too.
+     *
+     * @param rows      the rows
+     * @param typeInfo  the type info
+     * @param names     the names of attributes to summarize
+     * @param blockSize the number of rows per block
+     * @return the zone maps
+     */
+    public static <V> ZoneMaps of(List<V> rows, TypeInfo<V> typeInfo, Collection<String> names, int blockSize) {
+        final Map<String, ZoneMap> numbers = new HashMap<>();
+        final Map<String, ZoneMap> strings = new HashMap<>();
+        final Map<String, ToIntFunction<String>> dictionaries = new HashMap<>();
+        final Map<String, TrigramIndex> texts = new HashMap<>();
+        for (String name : names) {
+            final Attribute<V> attribute = requireNonNull(typeInfo.getAttribute(name), name);
+            final ZoneMap.Builder builder = ZoneMap.builder(blockSize);
+            final Class<?> type = attribute.getType();
+            if (type == String.class) {
+                final Map<Object, Integer> codes = new HashMap<>();
+                final List<String> dictionary = new ArrayList<>();
+                final int[] rowCodes = new int[rows.size()];
+                int i = 0;
+                for (V row : rows) {
+                    final Object value = attribute.getObjectGetter().apply(row);
+                    if (value == null) {
+                        builder.addNull();
+                        rowCodes[i++] = NO_CODE;
+                    } else {
+                        final int code = codes.computeIfAbsent(value, k -> {
+                            dictionary.add((String) k);
+                            return codes.size();
+                        });
+                        builder.add(code);
+                        rowCodes[i++] = code;
+                    }
+                }
+                strings.put(name, builder.build());
+                dictionaries.put(name, s -> codes.getOrDefault(s, NO_CODE));
+                texts.put(name, TrigramIndex.of(dictionary, rowCodes));
+            } else if (type == long.class || type == int.class || type == double.class) {
+                final ToLongFunction<V> getter = attribute.getLongGetter();
+                for (V row : rows) {
+                    try {
+                        builder.add(getter.applyAsLong(row));
+                    } catch (ArithmeticException e) {
+                        builder.addUnknown();
+                    }
+                }
+                numbers.put(name, builder.build());
+            } else {
+                throw new IllegalArgumentException("Unable to summarize " + name + " of type " + type);
+            }
+        }
+        return new ZoneMaps(rows.size(), blockSize, numbers, strings, dictionaries, texts);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public int blocks() {
+        return (size + blockSize - 1) / blockSize;
+    }
+
+    /**
+     * @param filters the request filters
+     * @return the set of blocks which may contain rows passing all filters
+     */
+    public BitSet candidates(RequestFilters filters) {
+        final BitSet result = new BitSet(blocks());
+        result.set(0, blocks());
+        for (String name : filters.getNames()) {
+            final ColumnFilter filter = filters.getFilter(name);
+            if (filter instanceof NumberColumnFilter) {
+                final ZoneMap zoneMap = numbers.get(name);
+                if (zoneMap != null) {
+                    for (int b = result.nextSetBit(0); b >= 0; b = result.nextSetBit(b + 1)) {
+                        if (!zoneMap.mayMatch(b, (NumberColumnFilter) filter)) {
+                            result.clear(b);
+                        }
+                    }
+                }
+            } else if (filter instanceof GroupKey) {
+                final ZoneMap zoneMap = strings.get(name);
+                if (zoneMap != null) {
+                    final String value = ((GroupKey) filter).getFilter();
+                    final int code = value != null ? dictionaries.get(name).applyAsInt(value) : NO_CODE;
+                    for (int b = result.nextSetBit(0); b >= 0; b = result.nextSetBit(b + 1)) {
+                        final boolean mayContain = value == null
+                                ? zoneMap.nullCount(b) > 0
+                                : code != NO_CODE && zoneMap.mayContain(b, code);
+                        if (!mayContain) {
+                            result.clear(b);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param filters the request filters
+     * @return the rows passing all {@code CONTAINS} and {@code NOT_CONTAINS} filters on indexed string columns or
+     * {@code null} if there are no such filters
+     */
+    public BitSet matchingRows(RequestFilters filters) {
+        BitSet result = null;
+        for (String name : filters.getNames()) {
+            final ColumnFilter filter = filters.getFilter(name);
+            final TrigramIndex index = texts.get(name);
+            if (index == null || !(filter instanceof TextColumnFilter)) {
+                continue;
+            }
+            final TextColumnFilter textFilter = (TextColumnFilter) filter;
+            final TextFilterType type = textFilter.getType();
+            if (textFilter.getFilter() == null || (type != TextFilterType.CONTAINS && type != TextFilterType.NOT_CONTAINS)) {
+                continue;
+            }
+            final BitSet rows = index.rowsContaining(textFilter.getFilter());
+            if (type == TextFilterType.NOT_CONTAINS) {
+                rows.flip(0, size);
+            }
+            if (result == null) {
+                result = rows;
+            } else {
+                result.and(rows);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param rows    the rows zone maps were built for
+     * @param filters the request filters
+     * @return the stream of rows of candidate blocks (see {@link #candidates(RequestFilters)}), narrowed down to
+     * matching rows (see {@link #matchingRows(RequestFilters)}) if there are substring filters
+     */
+    public <V> Stream<V> stream(List<V> rows, RequestFilters filters) {
+        if (rows.size() != size) {
+            // Zone maps are stale
+            return rows.stream();
+        }
+        final BitSet blocks = candidates(filters);
+        final BitSet matching = matchingRows(filters);
+        if (matching != null) {
+            // Array of row indexes splits evenly for parallel scan unlike bitset stream
+            final int[] selected = matching.stream()
+                    .filter(row -> blocks.get(row / blockSize))
+                    .toArray();
+            return Arrays.stream(selected).mapToObj(rows::get);
+        }
+        if (blocks.cardinality() == blocks()) {
+            return rows.stream();
+        }
+        return blocks.stream()
+                .boxed()
+                .flatMap(b -> rows.subList(b * blockSize, Math.min(size, (b + 1) * blockSize)).stream());
+    }
+
+    /**
+     * @param rows     the rows zone maps were built for
+     * @param selected the ascending indexes of preselected rows (like rows of group, see {@link GroupPathIndex})
+     * @param filters  the request filters
+     * @return the stream of preselected rows of candidate blocks which pass substring filters
+     */
+    public <V> Stream<V> stream(List<V> rows, int[] selected, RequestFilters filters) {
+        if (rows.size() != size) {
+            // Zone maps are stale
+            return Arrays.stream(selected).mapToObj(rows::get);
+        }
+        final BitSet blocks = candidates(filters);
+        final BitSet matching = matchingRows(filters);
+        return Arrays.stream(selected)
+                .filter(row -> blocks.get(row / blockSize) && (matching == null || matching.get(row)))
+                .mapToObj(rows::get);
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneMaps{" +
+                "size=" + size +
+                ", blockSize=" + blockSize +
+                ", numbers=" + numbers.keySet() +
+                ", strings=" + strings.keySet() +
+                ", texts=" + texts.keySet() +
+                '}';
+    }
+}
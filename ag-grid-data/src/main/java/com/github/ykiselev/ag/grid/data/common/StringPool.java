@@ -0,0 +1,102 @@
+package com.github.ykiselev.ag.grid.data.common;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizing pool of strings. Objects loaded through the same pool share single instance per distinct value,
+ * which saves heap and lets equality checks and hash lookups succeed on identity (string hash code is cached in the
+ * instance, so it is calculated once per distinct value instead of once per object).
+ * <p>
+ * Unlike {@link String#intern()} pool is not global and is collected along with its owner.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class StringPool {
+
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * @param value the string to canonicalize
+     * @return the pooled instance equal to {@code value} (value itself is pooled if there was no such instance)
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        final String existing = strings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Unlike {@link #intern(String)} never adds value to pool, so it is safe to call with user-supplied strings.
+     *
+     * @param value the string to canonicalize
+     * @return the pooled instance equal to {@code value} or {@code value} itself if there is no such instance
+     */
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        return strings.getOrDefault(value, value);
+    }
+
+    /**
+     * Replaces group keys and values of set filters with pooled instances, so matching strings of pooled objects are
+     * the same instance and {@link String#equals(Object)} returns on its identity check.
+     *
+     * @param request the original request (left untouched)
+     * @return the copy of request
+     */
+    public AgGridGetRowsRequest canonicalize(AgGridGetRowsRequest request) {
+        final AgGridGetRowsRequest result = new AgGridGetRowsRequest();
+        result.setStartRow(request.getStartRow());
+        result.setEndRow(request.getEndRow());
+        result.setRowGroupCols(request.getRowGroupCols());
+        result.setValueCols(request.getValueCols());
+        result.setPivotCols(request.getPivotCols());
+        result.setPivotMode(request.isPivotMode());
+        result.setSortModel(request.getSortModel());
+        final List<String> groupKeys = new ArrayList<>(request.getGroupKeys().size());
+        for (String key : request.getGroupKeys()) {
+            groupKeys.add(canonical(key));
+        }
+        result.setGroupKeys(groupKeys);
+        final Map<String, ColumnFilter> filters = new HashMap<>(request.getFilterModel());
+        filters.replaceAll((name, filter) -> canonical(filter));
+        result.setFilterModel(filters);
+        return result;
+    }
+
+    private ColumnFilter canonical(ColumnFilter filter) {
+        if (filter instanceof SetColumnFilter && ((SetColumnFilter) filter).getValues() != null) {
+            final Set<String> values = new HashSet<>();
+            for (String value : ((SetColumnFilter) filter).getValues()) {
+                values.add(canonical(value));
+            }
+            return new SetColumnFilter(values);
+        }
+        return filter;
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    @Override
+    public String toString() {
+        return "StringPool{" +
+                "size=" + strings.size() +
+                '}';
+    }
+}
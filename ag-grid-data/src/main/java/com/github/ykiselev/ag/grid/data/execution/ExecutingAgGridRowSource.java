@@ -0,0 +1,81 @@
+package com.github.ykiselev.ag.grid.data.execution;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row source decorator which computes responses of delegate in {@link RowSourceExecutor}.
+ * <p>
+ * Requests which are already running in the pool of the same executor (like nested executing sources) are computed
+ * inline, so single request never waits for itself.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ExecutingAgGridRowSource implements AgGridRowSource {
+
+    private final AgGridRowSource delegate;
+
+    private final RowSourceExecutor executor;
+
+    public ExecutingAgGridRowSource(AgGridRowSource delegate, RowSourceExecutor executor) {
+        this.delegate = requireNonNull(delegate);
+        this.executor = requireNonNull(executor);
+    }
+
+    @Override
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
+        if (executor.isWorkerThread()) {
+            token.throwIfCancelled();
+            return delegate.getRows(request, token);
+        }
+        try {
+            return submit(request, token).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancelledException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #getRows(AgGridGetRowsRequest, CancellationToken)}.
+     *
+     * @param request the request
+     * @param token   the cancellation token (if it is cancelled while request is queued request is dropped)
+     * @return the future response
+     * @throws OverloadedException if executor queue is full
+     */
+    public CompletableFuture<AgGridGetRowsResponse> submit(AgGridGetRowsRequest request, CancellationToken token) {
+        token.throwIfCancelled();
+        final CompletableFuture<AgGridGetRowsResponse> result =
+                executor.submit(Priority.of(request), () -> delegate.getRows(request, token));
+        final AutoCloseable registration =
+                token.onCancel(() -> result.completeExceptionally(new CancelledException()));
+        return result.whenComplete((r, t) -> {
+            try {
+                registration.close();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    public RowSourceExecutor getExecutor() {
+        return executor;
+    }
+}
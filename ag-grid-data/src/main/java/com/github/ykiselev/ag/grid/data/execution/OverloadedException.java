@@ -0,0 +1,14 @@
+package com.github.ykiselev.ag.grid.data.execution;
+
+/**
+ * Thrown when request is rejected because executor queue is full.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class OverloadedException extends RuntimeException {
+
+    public OverloadedException(String message) {
+        super(message);
+    }
+}
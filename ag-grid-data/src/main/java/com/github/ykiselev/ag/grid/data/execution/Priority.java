@@ -0,0 +1,36 @@
+package com.github.ykiselev.ag.grid.data.execution;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+
+/**
+ * Priority class of request. Requests of higher priority are started first when executor is busy.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public enum Priority {
+
+    /**
+     * Expansion of group (only objects of that group are aggregated or listed).
+     */
+    HIGH,
+    /**
+     * Top-level grouping or unsorted list.
+     */
+    NORMAL,
+    /**
+     * Sorting of the whole list.
+     */
+    LOW;
+
+    public static Priority of(AgGridGetRowsRequest request) {
+        if (!request.getGroupKeys().isEmpty()) {
+            return HIGH;
+        }
+        final boolean isGrouping = request.getRowGroupCols().size() > request.getGroupKeys().size();
+        if (!isGrouping && !request.getSortModel().isEmpty()) {
+            return LOW;
+        }
+        return NORMAL;
+    }
+}
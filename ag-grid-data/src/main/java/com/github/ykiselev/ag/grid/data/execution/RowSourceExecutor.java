@@ -0,0 +1,264 @@
+package com.github.ykiselev.ag.grid.data.execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executes requests in dedicated {@link ForkJoinPool}. Since parallel streams use the pool of the calling
+ * fork-join worker, all parallel stages of request are executed in this pool rather than in
+ * {@link ForkJoinPool#commonPool()} shared with the rest of JVM.
+ * <p>
+ * Number of requests running at the same time is limited, the rest wait in bounded queue ordered by
+ * {@link Priority} (and by arrival within the same priority). When queue is full new requests are rejected with
+ * {@link OverloadedException}.
+ * <p>
+ * Requests which block on something else (like dispatching of web requests to row sources having their own executors,
+ * or JDBC) should use executor backed by plain thread per running request instead (see
+ * {@link #dispatching(String, int, int)}), since blocked fork-join workers are not compensated.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class RowSourceExecutor implements AutoCloseable {
+
+    private final String name;
+
+    private final ExecutorService pool;
+
+    private final int parallelism;
+
+    private final int maxRunning;
+
+    private final int maxQueued;
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private final Queue<Task<?>> queue = new PriorityQueue<>();
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private int running;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param name        the name of executor (used as thread name prefix)
+     * @param parallelism the parallelism of fork-join pool
+     * @param maxRunning  the max number of requests executed at the same time
+     * @param maxQueued   the max number of requests waiting for execution
+     */
+    public RowSourceExecutor(String name, int parallelism, int maxRunning, int maxQueued) {
+        this(name, parallelism, maxRunning, maxQueued, new ForkJoinPool(
+                parallelism,
+                p -> {
+                    final ForkJoinWorkerThread thread = new Worker(p);
+                    thread.setName(name + "-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null,
+                false
+        ));
+    }
+
+    private RowSourceExecutor(String name, int parallelism, int maxRunning, int maxQueued, ExecutorService pool) {
+        if (maxRunning < 1) {
+            throw new IllegalArgumentException("At least one running request should be allowed!");
+        }
+        this.name = requireNonNull(name);
+        this.parallelism = parallelism;
+        this.maxRunning = maxRunning;
+        this.maxQueued = maxQueued;
+        this.pool = requireNonNull(pool);
+    }
+
+    /**
+     * Creates executor which runs each request on its own thread of fixed pool. Requests are queued and ordered by
+     * priority the same way, but parallel streams of requests use common fork-join pool, so such executor is meant for
+     * requests which mostly wait for something else.
+     *
+     * @param name       the name of executor (used as thread name prefix)
+     * @param maxRunning the max number of requests executed at the same time (and the number of threads)
+     * @param maxQueued  the max number of requests waiting for execution
+     * @return the new executor
+     */
+    public static RowSourceExecutor dispatching(String name, int maxRunning, int maxQueued) {
+        return new RowSourceExecutor(name, maxRunning, maxRunning, maxQueued, Executors.newFixedThreadPool(
+                maxRunning,
+                new ThreadFactoryBuilder()
+                        .setNameFormat(name + "-%d")
+                        .setDaemon(true)
+                        .build()
+        ));
+    }
+
+    /**
+     * Creates executor configured by system properties {@code getRows.parallelism} (defaults to the number of
+     * processors), {@code getRows.maxRunning} (defaults to 2) and {@code getRows.maxQueued} (defaults to 64).
+     *
+     * @param name the name of executor
+     * @return the new executor
+     */
+    public static RowSourceExecutor create(String name) {
+        return new RowSourceExecutor(
+                name,
+                Integer.getInteger("getRows.parallelism", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("getRows.maxRunning", 2),
+                Integer.getInteger("getRows.maxQueued", 64)
+        );
+    }
+
+    /**
+     * @return {@code true} if current thread is a fork-join worker of this executor (so request is already running in
+     * its pool)
+     */
+    public boolean isWorkerThread() {
+        final Thread thread = Thread.currentThread();
+        return thread instanceof Worker && ((Worker) thread).getPool() == pool;
+    }
+
+    /**
+     * Submits task for execution.
+     *
+     * @param priority the priority of task
+     * @param task     the task to execute
+     * @param <T>      the type of result
+     * @return the future to get result from. Cancelling future before task is started removes it from the queue. If
+     * pool rejects task (like after {@link #close()}) future is completed with {@link RejectedExecutionException}.
+     * @throws OverloadedException if queue is full
+     */
+    public <T> CompletableFuture<T> submit(Priority priority, Supplier<T> task) throws OverloadedException {
+        final Task<T> t = new Task<>(priority, sequence.incrementAndGet(), task);
+        synchronized (this) {
+            if (running < maxRunning) {
+                running++;
+            } else if (queue.size() < maxQueued) {
+                queue.add(t);
+                return t.future;
+            } else {
+                rejected.incrementAndGet();
+                throw new OverloadedException("Too many requests, " + queue.size() + " are already waiting!");
+            }
+        }
+        execute(t);
+        return t.future;
+    }
+
+    /**
+     * Starts task which already holds running slot. Rejected task releases its slot to the next queued one.
+     */
+    private void execute(Task<?> task) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            task.future.completeExceptionally(e);
+            startNext();
+        }
+    }
+
+    private void onComplete() {
+        completed.incrementAndGet();
+        startNext();
+    }
+
+    private void startNext() {
+        Task<?> next;
+        synchronized (this) {
+            do {
+                next = queue.poll();
+            } while (next != null && next.future.isDone());
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        execute(next);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RowSourceExecutor{" +
+                "name='" + name + '\'' +
+                ", parallelism=" + parallelism +
+                ", running=" + running +
+                ", queued=" + queue.size() +
+                ", completed=" + completed.get() +
+                ", rejected=" + rejected.get() +
+                '}';
+    }
+
+    private static final class Worker extends ForkJoinWorkerThread {
+
+        Worker(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+
+    private final class Task<T> implements Runnable, Comparable<Task<?>> {
+
+        final Priority priority;
+
+        final long sequence;
+
+        final Supplier<T> task;
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Task(Priority priority, long sequence, Supplier<T> task) {
+            this.priority = requireNonNull(priority);
+            this.sequence = sequence;
+            this.task = requireNonNull(task);
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!future.isDone()) {
+                    future.complete(task.get());
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                onComplete();
+            }
+        }
+
+        @Override
+        public int compareTo(Task<?> o) {
+            final int result = priority.compareTo(o.priority);
+            if (result != 0) {
+                return result;
+            }
+            return Long.compare(sequence, o.sequence);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.ykiselev.ag.grid.data.shard;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row source backed by {@link ShardServer} of other process. Each request opens its own connection, cancellation of
+ * request closes it (which in turn cancels computation on server side).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class RemoteShard implements AgGridRowSource {
+
+    private final InetSocketAddress address;
+
+    private final int connectTimeoutMillis;
+
+    /**
+     * @param address              the address of shard server
+     * @param connectTimeoutMillis the connection timeout
+     */
+    public RemoteShard(InetSocketAddress address, int connectTimeoutMillis) {
+        this.address = requireNonNull(address);
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * @param hostAndPort the address of shard server in form of {@code host:port}
+     * @return the remote shard
+     */
+    public static RemoteShard of(String hostAndPort) {
+        final int colon = hostAndPort.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected host:port but got " + hostAndPort);
+        }
+        return new RemoteShard(
+                new InetSocketAddress(
+                        hostAndPort.substring(0, colon).trim(),
+                        Integer.parseInt(hostAndPort.substring(colon + 1).trim())
+                ),
+                5_000
+        );
+    }
+
+    @Override
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
+        token.throwIfCancelled();
+        try (Socket socket = new Socket()) {
+            final AutoCloseable registration = token.onCancel(() -> closeQuietly(socket));
+            try {
+                socket.setTcpNoDelay(true);
+                socket.connect(address, connectTimeoutMillis);
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                ShardProtocol.writeRequest(out, request);
+                return ShardProtocol.readResponse(in);
+            } finally {
+                registration.close();
+            }
+        } catch (IOException e) {
+            if (token.isCancelled()) {
+                throw new CancelledException(e);
+            }
+            throw new UncheckedIOException("Shard " + address + " failed!", e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteShard{" +
+                "address=" + address +
+                '}';
+    }
+}
@@ -0,0 +1,461 @@
+package com.github.ykiselev.ag.grid.data.shard;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.request.AggFunc;
+import com.github.ykiselev.ag.grid.api.request.ColumnVO;
+import com.github.ykiselev.ag.grid.api.request.SortModel;
+import com.github.ykiselev.ag.grid.api.request.Sorting;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.Context;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row source which fans request out to shards (each owning subset of rows) and merges their partial responses:
+ * <ul>
+ * <li>plain rows: each shard returns its own top rows sorted by the requested order, those are merged with k-way
+ * merge;</li>
+ * <li>groups: each shard returns all of its groups with partial aggregates which are combined the same way
+ * accumulators of {@link com.github.ykiselev.ag.grid.data.aggregation.Aggregation} combine partial results of
+ * parallel stream (sums and counts are added, minimums and maximums are compared). Averages are requested from
+ * shards as sums along with row count of each group and are divided after merge;</li>
+ * <li>pivot: partial rows are merged by secondary columns, secondary column names of all shards are joined.</li>
+ * </ul>
+ * Shards are queried in parallel. Failure of any shard fails the whole request and cancels the rest of them.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ScatterGatherAgGridRowSource implements AgGridRowSource {
+
+    /**
+     * The name of synthetic value column holding row count of group.
+     */
+    static final String COUNT = "__count";
+
+    private static final Comparator<Object> VALUES = ScatterGatherAgGridRowSource::compareValues;
+
+    private final List<AgGridRowSource> shards;
+
+    private final ExecutorService executor;
+
+    /**
+     * @param shards   the shards
+     * @param executor the executor to query shards with
+     */
+    public ScatterGatherAgGridRowSource(List<? extends AgGridRowSource> shards, ExecutorService executor) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required!");
+        }
+        this.shards = ImmutableList.copyOf(shards);
+        this.executor = requireNonNull(executor);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public AgGridGetRowsResponse getRows(AgGridGetRowsRequest request, CancellationToken token) {
+        token.throwIfCancelled();
+        final Context context = Context.create(request);
+        if (context.isGrouping() || context.isPivot()) {
+            return aggregated(context, token);
+        }
+        return plain(context, token);
+    }
+
+    private AgGridGetRowsResponse plain(Context context, CancellationToken token) {
+        final AgGridGetRowsRequest request = context.getRequest();
+        final AgGridGetRowsRequest shardRequest = copy(request);
+        // Page of merged result may be made of the rows of single shard
+        shardRequest.setStartRow(0);
+        shardRequest.setEndRow(saturatedEndRow((long) request.getStartRow() + request.getEndRow()));
+        final List<List<Map<String, Object>>> pages = scatter(shardRequest, token).stream()
+                .map(ScatterGatherAgGridRowSource::rows)
+                .collect(Collectors.toList());
+        final Stream<Map<String, Object>> merged;
+        if (request.getSortModel().isEmpty()) {
+            merged = pages.stream().flatMap(List::stream);
+        } else {
+            merged = merge(pages, comparator(request.getSortModel())).stream();
+        }
+        return context.createResponse(limit(request, merged));
+    }
+
+    private AgGridGetRowsResponse aggregated(Context context, CancellationToken token) {
+        final AgGridGetRowsRequest request = context.getRequest();
+        final Map<String, AggFunc> aggFuncs = context.indexAggregationFunctions();
+        final List<AgGridGetRowsResponse> responses = scatter(shardRequest(request, aggFuncs), token);
+        final Merge merge = new Merge(context.getGroupByColumns(), aggFuncs);
+        for (AgGridGetRowsResponse response : responses) {
+            token.throwIfCancelled();
+            rows(response).forEach(merge::add);
+            final List<String> secondaryColumns = response.getSecondaryColumnFields();
+            if (secondaryColumns != null) {
+                context.addSecondaryColumns(
+                        secondaryColumns.stream()
+                                .filter(c -> !isCount(c))
+                                .collect(Collectors.toList())
+                );
+            }
+        }
+        Stream<Map<String, Object>> rows = merge.finish().stream();
+        if (!request.getSortModel().isEmpty()) {
+            rows = rows.sorted(token.checked(comparator(request.getSortModel())));
+        }
+        return context.createResponse(limit(request, rows));
+    }
+
+    /**
+     * Shards return all of their groups unsorted and compute sums instead of averages (along with group row count).
+     */
+    private static AgGridGetRowsRequest shardRequest(AgGridGetRowsRequest request, Map<String, AggFunc> aggFuncs) {
+        final AgGridGetRowsRequest result = copy(request);
+        result.setStartRow(0);
+        result.setEndRow(saturatedEndRow(Integer.MAX_VALUE));
+        result.setSortModel(Collections.emptyList());
+        final List<ColumnVO> valueCols = new ArrayList<>();
+        for (ColumnVO col : request.getValueCols()) {
+            if (col.getAggFunc() == AggFunc.AVG) {
+                valueCols.add(new ColumnVO(col.getId(), col.getDisplayName(), col.getField(), AggFunc.SUM));
+            } else {
+                valueCols.add(col);
+            }
+        }
+        if (aggFuncs.containsValue(AggFunc.AVG)) {
+            valueCols.add(new ColumnVO(COUNT, COUNT, COUNT, AggFunc.COUNT));
+        }
+        result.setValueCols(valueCols);
+        return result;
+    }
+
+    /**
+     * Row sources of this module treat {@code endRow + 1} as page size so end row is kept small enough to not overflow.
+     */
+    private static int saturatedEndRow(long endRow) {
+        return (int) Math.min(endRow, Integer.MAX_VALUE - 1);
+    }
+
+    private static AgGridGetRowsRequest copy(AgGridGetRowsRequest request) {
+        final AgGridGetRowsRequest result = new AgGridGetRowsRequest();
+        result.setStartRow(request.getStartRow());
+        result.setEndRow(request.getEndRow());
+        result.setRowGroupCols(request.getRowGroupCols());
+        result.setValueCols(request.getValueCols());
+        result.setPivotCols(request.getPivotCols());
+        result.setPivotMode(request.isPivotMode());
+        result.setGroupKeys(request.getGroupKeys());
+        result.setFilterModel(request.getFilterModel());
+        result.setSortModel(request.getSortModel());
+        return result;
+    }
+
+    private static List<Map<String, Object>> limit(AgGridGetRowsRequest request, Stream<Map<String, Object>> rows) {
+        return rows.skip(request.getStartRow())
+                .limit(request.getEndRow() + 1)
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(AgGridGetRowsResponse response) {
+        final List<Map<String, Object>> data = response.getData();
+        return data != null ? data : Collections.emptyList();
+    }
+
+    private static boolean isCount(String column) {
+        return column.equals(COUNT) || column.endsWith("_" + COUNT);
+    }
+
+    private List<AgGridGetRowsResponse> scatter(AgGridGetRowsRequest request, CancellationToken token) {
+        if (shards.size() == 1) {
+            return Collections.singletonList(shards.get(0).getRows(request, token));
+        }
+        final CancellationTokenSource shardToken = new CancellationTokenSource();
+        final AutoCloseable registration = token.onCancel(shardToken::cancel);
+        try {
+            final List<Future<AgGridGetRowsResponse>> futures = new ArrayList<>(shards.size());
+            for (AgGridRowSource shard : shards) {
+                futures.add(executor.submit(() -> shard.getRows(request, shardToken)));
+            }
+            final List<AgGridGetRowsResponse> result = new ArrayList<>(shards.size());
+            for (Future<AgGridGetRowsResponse> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shardToken.cancel();
+            throw new CancelledException(e);
+        } catch (ExecutionException e) {
+            shardToken.cancel();
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            try {
+                registration.close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * K-way merge of sorted lists.
+     *
+     * @param lists      the lists sorted by {@code comparator}
+     * @param comparator the comparator
+     * @return the merged list (rows of lists with lower index go first if rows are equal)
+     */
+    static <T> List<T> merge(List<List<T>> lists, Comparator<T> comparator) {
+        final PriorityQueue<Cursor<T>> queue = new PriorityQueue<>(
+                Math.max(1, lists.size()),
+                Comparator.<Cursor<T>, T>comparing(c -> c.head, comparator)
+                        .thenComparingInt(c -> c.index)
+        );
+        int total = 0;
+        for (int i = 0; i < lists.size(); i++) {
+            final List<T> list = lists.get(i);
+            total += list.size();
+            final Iterator<T> it = list.iterator();
+            if (it.hasNext()) {
+                queue.add(new Cursor<>(i, it));
+            }
+        }
+        final List<T> result = new ArrayList<>(total);
+        while (!queue.isEmpty()) {
+            final Cursor<T> cursor = queue.poll();
+            result.add(cursor.head);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private static Comparator<Map<String, Object>> comparator(List<SortModel> sortModel) {
+        return sortModel.stream()
+                .map(ScatterGatherAgGridRowSource::comparator)
+                .reduce(Comparator::thenComparing)
+                .orElse((a, b) -> 0);
+    }
+
+    private static Comparator<Map<String, Object>> comparator(SortModel sortModel) {
+        final String colId = sortModel.getColId();
+        final Comparator<Map<String, Object>> comparator = Comparator.comparing(m -> m.get(colId), VALUES);
+        return Sorting.ASC != sortModel.getSort() ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * Compares values of rows received from different shards. Numbers are compared by value as the same column may be
+     * deserialized as {@link Integer} from one shard and as {@link Long} from the other. Nulls go first.
+     */
+    @SuppressWarnings("unchecked")
+    static int compareValues(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        if (a instanceof Number && b instanceof Number) {
+            if (isIntegral(a) && isIntegral(b)) {
+                return Long.compare(((Number) a).longValue(), ((Number) b).longValue());
+            }
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        }
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static final class Cursor<T> {
+
+        final int index;
+
+        final Iterator<T> iterator;
+
+        T head;
+
+        Cursor(int index, Iterator<T> iterator) {
+            this.index = index;
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        boolean advance() {
+            if (iterator.hasNext()) {
+                head = iterator.next();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Combines partial aggregates of the same group (the same values of group by columns) received from different
+     * shards.
+     */
+    private static final class Merge {
+
+        private final List<String> groupByColumns;
+
+        private final Map<String, AggFunc> aggFuncs;
+
+        /**
+         * Value columns ordered from the longest name to the shortest so that pivot column {@code "a_b_pnl"} is
+         * matched by {@code "b_pnl"} rather than {@code "pnl"}.
+         */
+        private final Set<String> fields;
+
+        private final Map<String, String> fieldOfKey = new HashMap<>();
+
+        private final Map<List<Object>, Map<String, Object>> groups = new LinkedHashMap<>();
+
+        Merge(List<String> groupByColumns, Map<String, AggFunc> aggFuncs) {
+            this.groupByColumns = requireNonNull(groupByColumns);
+            this.aggFuncs = new HashMap<>(aggFuncs);
+            this.aggFuncs.put(COUNT, AggFunc.COUNT);
+            this.fields = new TreeSet<>(
+                    Comparator.comparingInt(String::length)
+                            .reversed()
+                            .thenComparing(Comparator.naturalOrder())
+            );
+            this.fields.addAll(this.aggFuncs.keySet());
+        }
+
+        void add(Map<String, Object> row) {
+            final List<Object> key = new ArrayList<>(groupByColumns.size());
+            for (String column : groupByColumns) {
+                key.add(row.get(column));
+            }
+            final Map<String, Object> target = groups.get(key);
+            if (target == null) {
+                groups.put(key, new HashMap<>(row));
+                return;
+            }
+            row.forEach((k, v) -> {
+                if (groupByColumns.contains(k)) {
+                    return;
+                }
+                final String field = fieldOf(k);
+                final AggFunc aggFunc = field != null ? aggFuncs.get(field) : null;
+                if (aggFunc == null) {
+                    target.putIfAbsent(k, v);
+                } else {
+                    target.merge(k, v, (a, b) -> combine(aggFunc, a, b));
+                }
+            });
+        }
+
+        /**
+         * @param key the key of row (value column or secondary pivot column)
+         * @return the name of value column or {@code null} if key is not a value column
+         */
+        private String fieldOf(String key) {
+            return fieldOfKey.computeIfAbsent(key, k -> {
+                for (String field : fields) {
+                    if (k.equals(field) || k.endsWith("_" + field)) {
+                        return field;
+                    }
+                }
+                return null;
+            });
+        }
+
+        private static Object combine(AggFunc aggFunc, Object a, Object b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            switch (aggFunc) {
+                case SUM:
+                case AVG:
+                case COUNT:
+                    if (isIntegral(a) && isIntegral(b)) {
+                        return ((Number) a).longValue() + ((Number) b).longValue();
+                    }
+                    return ((Number) a).doubleValue() + ((Number) b).doubleValue();
+
+                case MIN:
+                    return compareValues(a, b) <= 0 ? a : b;
+
+                case MAX:
+                    return compareValues(a, b) >= 0 ? a : b;
+
+                default:
+                    throw new IllegalArgumentException("Unsupported aggregation function: " + aggFunc);
+            }
+        }
+
+        /**
+         * Divides sums of average columns by group counts and removes counts.
+         */
+        List<Map<String, Object>> finish() {
+            final List<Map<String, Object>> result = new ArrayList<>(groups.size());
+            for (Map<String, Object> row : groups.values()) {
+                final Map<String, Object> averages = new HashMap<>();
+                row.forEach((k, v) -> {
+                    final String field = fieldOf(k);
+                    if (field != null && aggFuncs.get(field) == AggFunc.AVG && v != null) {
+                        final String prefix = k.substring(0, k.length() - field.length());
+                        averages.put(k, average(v, row.get(prefix + COUNT)));
+                    }
+                });
+                row.putAll(averages);
+                row.keySet().removeIf(ScatterGatherAgGridRowSource::isCount);
+                result.add(row);
+            }
+            return result;
+        }
+
+        private static Object average(Object sum, Object count) {
+            if (!(count instanceof Number) || ((Number) count).longValue() == 0) {
+                return sum;
+            }
+            if (isIntegral(sum)) {
+                return ((Number) sum).longValue() / ((Number) count).longValue();
+            }
+            return ((Number) sum).doubleValue() / ((Number) count).longValue();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterGatherAgGridRowSource{" +
+                "shards=" + shards +
+                '}';
+    }
+}
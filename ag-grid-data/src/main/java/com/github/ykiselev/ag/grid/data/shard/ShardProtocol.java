@@ -0,0 +1,98 @@
+package com.github.ykiselev.ag.grid.data.shard;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Wire format of shard connection. Each connection carries exactly one exchange:
+ * <pre>
+ *     client: int length, request json (length bytes)
+ *     server: byte STATUS_OK, int length, response json (length bytes)
+ *          or byte STATUS_ERROR, error message (modified UTF-8, see {@link DataOutputStream#writeUTF(String)})
+ * </pre>
+ * Client closes connection once it is not interested in response anymore, server treats end of stream as
+ * cancellation of request.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+final class ShardProtocol {
+
+    static final byte STATUS_OK = 0;
+
+    static final byte STATUS_ERROR = 1;
+
+    /**
+     * Frames larger than that are treated as garbage.
+     */
+    private static final int MAX_FRAME = 256 * 1024 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private ShardProtocol() {
+    }
+
+    static void writeRequest(DataOutputStream out, AgGridGetRowsRequest request) throws IOException {
+        writeFrame(out, MAPPER.writeValueAsBytes(request));
+        out.flush();
+    }
+
+    static AgGridGetRowsRequest readRequest(DataInputStream in) throws IOException {
+        return MAPPER.readValue(readFrame(in), AgGridGetRowsRequest.class);
+    }
+
+    static void writeResponse(DataOutputStream out, AgGridGetRowsResponse response) throws IOException {
+        final byte[] bytes = MAPPER.writeValueAsBytes(response);
+        out.writeByte(STATUS_OK);
+        writeFrame(out, bytes);
+        out.flush();
+    }
+
+    static void writeError(DataOutputStream out, String message) throws IOException {
+        out.writeByte(STATUS_ERROR);
+        out.writeUTF(String.valueOf(message));
+        out.flush();
+    }
+
+    /**
+     * @param in the stream to read from
+     * @return the response
+     * @throws IOException           if connection was broken
+     * @throws IllegalStateException if shard failed to process request
+     */
+    static AgGridGetRowsResponse readResponse(DataInputStream in) throws IOException {
+        final byte status = in.readByte();
+        switch (status) {
+            case STATUS_OK:
+                return MAPPER.readValue(readFrame(in), AgGridGetRowsResponse.class);
+
+            case STATUS_ERROR:
+                throw new IllegalStateException("Shard failed: " + in.readUTF());
+
+            default:
+                throw new IOException("Unknown status: " + status);
+        }
+    }
+
+    private static void writeFrame(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME) {
+            throw new IOException("Bad frame length: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.ykiselev.ag.grid.data.shard;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves requests of {@link RemoteShard}s from local row source (see {@link ShardProtocol}). Server listens on
+ * loopback interface only as shards are expected to be the processes of the same host. Each connection is
+ * served by its own thread, the other thread watches connection and cancels request once client disconnects.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ShardServer implements AutoCloseable {
+
+    private final AgGridRowSource delegate;
+
+    private final ServerSocket serverSocket;
+
+    private final ExecutorService executor;
+
+    private final Thread acceptor;
+
+    /**
+     * @param port     the port to listen on (0 to pick any free port, see {@link #getPort()})
+     * @param delegate the row source of this shard
+     */
+    public ShardServer(int port, AgGridRowSource delegate) {
+        this.delegate = requireNonNull(delegate);
+        try {
+            this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to listen on port " + port, e);
+        }
+        this.executor = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder()
+                        .setNameFormat("shard-" + serverSocket.getLocalPort() + "-%d")
+                        .setDaemon(true)
+                        .build()
+        );
+        this.acceptor = new Thread(this::accept, "shard-" + serverSocket.getLocalPort() + "-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    report(e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            final AgGridGetRowsRequest request = ShardProtocol.readRequest(in);
+            final CancellationTokenSource token = new CancellationTokenSource();
+            executor.execute(() -> watch(in, token));
+            final AgGridGetRowsResponse response;
+            try {
+                response = delegate.getRows(request, token);
+            } catch (CancelledException e) {
+                return;
+            } catch (RuntimeException e) {
+                ShardProtocol.writeError(out, e.toString());
+                return;
+            }
+            ShardProtocol.writeResponse(out, response);
+        } catch (SocketException e) {
+            // Client has gone
+        } catch (IOException e) {
+            report(e);
+        }
+    }
+
+    private static void report(Throwable e) {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    /**
+     * Client sends nothing after request so any outcome of read means connection is closed.
+     */
+    private static void watch(DataInputStream in, CancellationTokenSource token) {
+        try {
+            in.read();
+        } catch (IOException e) {
+            // Socket is closed
+        }
+        token.cancel();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShardServer{" +
+                "port=" + getPort() +
+                ", delegate=" + delegate +
+                '}';
+    }
+}
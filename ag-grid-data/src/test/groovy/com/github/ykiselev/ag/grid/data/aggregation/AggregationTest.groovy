@@ -4,6 +4,8 @@ import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
 import com.github.ykiselev.ag.grid.api.request.AggFunc
 import com.github.ykiselev.ag.grid.api.request.ColumnVO
 import com.github.ykiselev.ag.grid.data.Context
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException
 import com.github.ykiselev.ag.grid.data.types.*
 import spock.lang.Shared
 import spock.lang.Specification
@@ -50,6 +52,31 @@ class AggregationTest extends Specification {
         result.length == 0
     }
 
+    def "should abort if cancelled"() {
+        given:
+        def context = Context.create(
+                new AgGridGetRowsRequest(
+                        startRow: 0,
+                        endRow: 100,
+                        rowGroupCols: [
+                                new ColumnVO('a', 'a', 'a', null)
+                        ],
+                        groupKeys: []
+                )
+        )
+        def token = new CancellationTokenSource()
+        def input = Stream.of(
+                [1, 17d, -5L, null] as Object[],
+                [2, -9d, 16L, null] as Object[]
+        ).peek({ token.cancel() })
+
+        when:
+        Aggregation.groupBy(input, context, typeInfo, token).toArray()
+
+        then:
+        thrown(CancelledException)
+    }
+
     def "should group input if group columns count > group key count"() {
         when:
         def context = Context.create(
@@ -0,0 +1,179 @@
+package com.github.ykiselev.ag.grid.data.aggregation
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import com.github.ykiselev.ag.grid.api.request.AggFunc
+import com.github.ykiselev.ag.grid.api.request.ColumnVO
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters
+import com.github.ykiselev.ag.grid.data.ListBasedAgGridRowSource
+import com.github.ykiselev.ag.grid.data.PartitionedList
+import com.github.ykiselev.ag.grid.data.VersionedAgGridRowSource
+import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo
+import com.github.ykiselev.ag.grid.data.types.DoubleAttribute
+import com.github.ykiselev.ag.grid.data.types.IntAttribute
+import com.github.ykiselev.ag.grid.data.types.LongAttribute
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute
+import com.google.common.collect.ImmutableSetMultimap
+import spock.lang.Specification
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class GroupAggregatesTest extends Specification {
+
+    def typeInfo = new DefaultTypeInfo<Map>([
+            new ObjectAttribute<Map>('product', String, { it.product }),
+            new ObjectAttribute<Map>('portfolio', String, { it.portfolio }),
+            new LongAttribute<Map>('id', { it.id as long }),
+            new IntAttribute<Map>('qty', { it.qty as int }),
+            new DoubleAttribute<Map>('value', { it.value as double })
+    ])
+
+    def rows = (0..<40).collect { row(it, it * 7 % 13 + 1, it * 1.5d) }
+
+    def values = ImmutableSetMultimap.<String, AggFunc> builder()
+            .putAll('qty', AggFunc.SUM, AggFunc.AVG, AggFunc.MIN, AggFunc.MAX)
+            .putAll('value', AggFunc.SUM, AggFunc.AVG, AggFunc.MIN, AggFunc.MAX)
+            .put('id', AggFunc.COUNT)
+            .build()
+
+    def source = new VersionedAgGridRowSource<Map>(PartitionedList.of(rows, typeInfo, 'portfolio'), typeInfo, 4)
+
+    def aggregates = source.materialize(['product', 'portfolio'], values)
+
+    static Map row(int id, int qty, double value) {
+        [product: 'pr' + (id % 3), portfolio: 'p' + (id % 4), id: id, qty: qty, value: value]
+    }
+
+    static AgGridGetRowsRequest request(List<String> groupKeys, Map<String, AggFunc> valueCols) {
+        new AgGridGetRowsRequest(
+                startRow: 0,
+                endRow: 1000,
+                rowGroupCols: ['product', 'portfolio'].collect { new ColumnVO(it, it, it, null) },
+                valueCols: valueCols.collect { new ColumnVO(it.key, it.key, it.key, it.value) },
+                groupKeys: groupKeys
+        )
+    }
+
+    /**
+     * Groups computed by scanning rows of the current version.
+     */
+    List<Map> expected(AgGridGetRowsRequest request) {
+        def pinned = source.pin()
+        try {
+            sorted(new ListBasedAgGridRowSource<Map>(pinned.rows.select(new DefaultRequestFilters([:])).flatten(), typeInfo).getRows(request).data)
+        } finally {
+            pinned.close()
+        }
+    }
+
+    static List<Map> sorted(List<Map> groups) {
+        groups.sort(false) { it.product + '/' + it.portfolio }
+    }
+
+    def "should match scanned groups"() {
+        expect:
+        sorted(aggregates.groups(request, source.version)) == expected(request)
+        sorted(source.getRows(request).data) == expected(request)
+
+        where:
+        request << [
+                request([], [qty: AggFunc.SUM, value: AggFunc.MAX]),
+                request(['pr1'], [qty: AggFunc.AVG, value: AggFunc.SUM]),
+                request(['pr2'], [qty: AggFunc.MIN, value: AggFunc.AVG, id: AggFunc.COUNT]),
+                request(['pr9'], [qty: AggFunc.MAX])
+        ]
+    }
+
+    def "should apply updates and deletes"() {
+        when: "extremes of some groups are deleted and replaced"
+        source.update { PartitionedList<Map> current ->
+            current.withSegments([
+                    p0: current.getSegment('p0').findAll { it.id != 12 && it.id != 24 } + [row(12, 100, -5d)],
+                    p1: current.getSegment('p1').collect { it.id == 13 ? row(13, 1, 0.5d) : it } + [row(41, 3, 99d)],
+                    p3: current.getSegment('p3').findAll { it.id % 3 != 0 }
+            ])
+        }
+
+        then:
+        aggregates.version == 2
+        aggregates.toString().contains('recomputed=')
+        [
+                request([], [qty: AggFunc.MIN, value: AggFunc.MAX, id: AggFunc.COUNT]),
+                request(['pr0'], [qty: AggFunc.MAX, value: AggFunc.MIN]),
+                request(['pr1'], [qty: AggFunc.SUM, value: AggFunc.AVG]),
+                request(['pr2'], [qty: AggFunc.AVG, value: AggFunc.SUM])
+        ].every { sorted(aggregates.groups(it, 2)) == expected(it) }
+
+        and: "emptied groups are dropped"
+        aggregates.groups(request(['pr0'], [qty: AggFunc.SUM]), 2)*.portfolio.sort() == ['p0', 'p1', 'p2']
+    }
+
+    def "should install aggregates prepared aside"() {
+        given:
+        def request = request([], [qty: AggFunc.MAX, value: AggFunc.SUM, id: AggFunc.COUNT])
+        def prepared = aggregates.prepare(rows.stream())
+        def replaced = row(12, 100, -5d)
+
+        when: "rows change after aggregates were prepared"
+        source.update { PartitionedList<Map> current ->
+            current.withSegments([p0: current.getSegment('p0').collect { it.id == 12 ? replaced : it }])
+        }
+        def pinned = source.pin()
+        try {
+            prepared.apply([rows.find { it.id == 12 }], [replaced], pinned.rows.&stream)
+        } finally {
+            pinned.close()
+        }
+
+        then: "the current state is not touched"
+        aggregates.version == 2
+        sorted(aggregates.groups(request, 2)) == expected(request)
+
+        when:
+        aggregates.install(prepared, 3)
+
+        then:
+        aggregates.version == 3
+        sorted(aggregates.groups(request, 3)) == expected(request)
+    }
+
+    def "should not answer requests it does not cover"() {
+        expect:
+        aggregates.groups(request, 1) == null
+
+        where:
+        request << [
+                request([], [qty: AggFunc.COUNT]),
+                request([], [:]).with { filterModel = [qty: null]; it },
+                request([], [:]).with { rowGroupCols = [new ColumnVO('portfolio', 'portfolio', 'portfolio', null)]; it },
+                request(['pr1', 'p1'], [:])
+        ]
+    }
+
+    def "should not answer requests pinned to other version"() {
+        given:
+        def pinned = source.pin()
+        source.update { PartitionedList<Map> current -> current.withSegments([p2: []]) }
+
+        expect:
+        aggregates.groups(request([], [qty: AggFunc.SUM]), pinned.version) == null
+        aggregates.groups(request([], [qty: AggFunc.SUM]), source.version) != null
+
+        cleanup:
+        pinned.close()
+    }
+
+    def "should provide totals"() {
+        when:
+        def totals = aggregates.totals
+
+        then:
+        totals['COUNT(id)'] == 40L
+        totals['SUM(qty)'] == rows.sum { it.qty }
+        totals['MIN(qty)'] == 1
+        totals['MAX(qty)'] == 13
+        totals['AVG(value)'] == rows.sum { it.value } / 40 as double
+        totals['MAX(value)'] == 58.5d
+    }
+}
@@ -73,6 +73,23 @@ class ObjectMergeTest extends Specification {
         r.l == 72d
     }
 
+    def "should count rows and combine counters of parallel partial results"() {
+        given:
+        def collector = ObjectMerge.createCollector(
+                ['n': AggFunc.COUNT, 'v': AggFunc.AVG],
+                new DefaultTypeInfo<Long>([
+                        new LongAttribute<>('v', { v -> (long) v })
+                ].collectEntries { [(it.getName()): it] })
+        )
+
+        when:
+        def r = (1L..1000L).parallelStream().collect(collector)
+
+        then:
+        r.n == 1000L
+        r.v == 500L
+    }
+
     def "should support empty stream"() {
         when:
         def r = Stream.of().collect(collector)
@@ -0,0 +1,96 @@
+package com.github.ykiselev.ag.grid.data.cache
+
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import com.github.ykiselev.ag.grid.api.request.ColumnVO
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse
+import com.github.ykiselev.ag.grid.data.AgGridRowSource
+import spock.lang.Specification
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class CachingAgGridRowSourceTest extends Specification {
+
+    def delegate = Mock(AgGridRowSource)
+
+    def source = new CachingAgGridRowSource(delegate, 1_000_000)
+
+    def request(Map filters = [:], List<String> groupKeys = []) {
+        new AgGridGetRowsRequest(
+                startRow: 0,
+                endRow: 100,
+                rowGroupCols: [new ColumnVO('portfolio', 'Portfolio', 'portfolio', null)],
+                groupKeys: groupKeys,
+                filterModel: filters
+        )
+    }
+
+    def response() {
+        new AgGridGetRowsResponse([[a: 1]], 1, [])
+    }
+
+    def "should cache equal requests"() {
+        when:
+        def r1 = source.getRows(request([x: new SetColumnFilter(['a', 'b'] as Set)]))
+        def r2 = source.getRows(request([x: new SetColumnFilter(['b', 'a'] as Set)]))
+
+        then:
+        1 * delegate.getRows(_, _) >> response()
+        r1.is(r2)
+    }
+
+    def "should drop all entries"() {
+        when:
+        source.getRows(request())
+        source.invalidateAll()
+        source.getRows(request())
+
+        then:
+        2 * delegate.getRows(_, _) >> response()
+        source.getVersion() == 1
+    }
+
+    def "should drop only affected entries"() {
+        given:
+        delegate.getRows(_, _) >> { response() }
+        def all = source.getRows(request())
+        def p1 = source.getRows(request([:], ['p1']))
+        def p2 = source.getRows(request([:], ['p2']))
+        def p3 = source.getRows(request([portfolio: new SetColumnFilter(['p3'] as Set)]))
+
+        when:
+        source.invalidate('portfolio', 'p1')
+
+        then:
+        !source.getRows(request()).is(all)
+        !source.getRows(request([:], ['p1'])).is(p1)
+        source.getRows(request([:], ['p2'])).is(p2)
+        source.getRows(request([portfolio: new SetColumnFilter(['p3'] as Set)])).is(p3)
+    }
+
+    def "should not keep response calculated during invalidation"() {
+        given:
+        def stale = response()
+        def fresh = response()
+        def calls = 0
+        delegate.getRows(_, _) >> {
+            calls++
+            if (calls == 1) {
+                source.invalidate('portfolio', 'p1')
+                return stale
+            }
+            fresh
+        }
+
+        when:
+        def r1 = source.getRows(request())
+        def r2 = source.getRows(request())
+
+        then:
+        r1.is(fresh)
+        r2.is(fresh)
+        calls == 2
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.ykiselev.ag.grid.data.cache
+
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import com.github.ykiselev.ag.grid.api.request.ColumnVO
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse
+import com.github.ykiselev.ag.grid.data.AgGridRowSource
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException
+import com.google.common.util.concurrent.MoreExecutors
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class PrefetchingAgGridRowSourceTest extends Specification {
+
+    def delegate = Mock(AgGridRowSource)
+
+    def source = new PrefetchingAgGridRowSource(delegate, MoreExecutors.newDirectExecutorService(), 4, 2, 60_000)
+
+    def request(int startRow, List<ColumnVO> rowGroupCols = [], List<String> groupKeys = [], Map filters = [:]) {
+        new AgGridGetRowsRequest(
+                startRow: startRow,
+                endRow: startRow + 100,
+                rowGroupCols: rowGroupCols,
+                groupKeys: groupKeys,
+                filterModel: filters
+        )
+    }
+
+    def "should prefetch next block"() {
+        when:
+        def r1 = source.getRows('s1', request(0), CancellationToken.NONE)
+        def r2 = source.getRows('s1', request(100), CancellationToken.NONE)
+
+        then:
+        1 * delegate.getRows({ it.startRow == 0 }, _) >> new AgGridGetRowsResponse([[a: 1]], -1, [])
+        1 * delegate.getRows({ it.startRow == 100 }, _) >> new AgGridGetRowsResponse([[a: 2]], 101, [])
+        0 * delegate._
+        r1.data == [[a: 1]]
+        r2.data == [[a: 2]]
+    }
+
+    def "should prefetch children of first groups"() {
+        given:
+        def groupCols = [new ColumnVO('portfolio', 'Portfolio', 'portfolio', null)]
+
+        when:
+        source.getRows('s1', request(0, groupCols), CancellationToken.NONE)
+        def r = source.getRows('s1', request(0, groupCols, ['p2']), CancellationToken.NONE)
+
+        then:
+        1 * delegate.getRows({ it.groupKeys.empty }, _) >> new AgGridGetRowsResponse([[portfolio: 'p1'], [portfolio: 'p2'], [portfolio: 'p3']], 3, [])
+        1 * delegate.getRows({ it.groupKeys == ['p1'] }, _) >> new AgGridGetRowsResponse([[a: 1]], 1, [])
+        1 * delegate.getRows({ it.groupKeys == ['p2'] }, _) >> new AgGridGetRowsResponse([[a: 2]], 1, [])
+        0 * delegate._
+        r.data == [[a: 2]]
+    }
+
+    def "should cap prefetches per session and cancel them on view change"() {
+        given:
+        def futures = []
+        def executor = Mock(ExecutorService)
+        executor.submit(_) >> {
+            def f = Mock(Future)
+            futures << f
+            f
+        }
+        def source = new PrefetchingAgGridRowSource(delegate, executor, 1, 2, 60_000)
+        def groupCols = [new ColumnVO('portfolio', 'Portfolio', 'portfolio', null)]
+        delegate.getRows(_, _) >> new AgGridGetRowsResponse([[portfolio: 'p1'], [portfolio: 'p2']], -1, [])
+
+        when:
+        source.getRows('s1', request(0, groupCols), CancellationToken.NONE)
+
+        then:
+        futures.size() == 1
+
+        when:
+        source.getRows('s1', request(0, groupCols, [], [a: new SetColumnFilter(['1'] as Set)]), CancellationToken.NONE)
+
+        then:
+        1 * futures[0].cancel(true)
+    }
+
+    def "should stop waiting for prefetch once request is cancelled"() {
+        given:
+        def executor = Executors.newSingleThreadExecutor()
+        def release = new CountDownLatch(1)
+        def source = new PrefetchingAgGridRowSource(delegate, executor, 4, 2, 60_000)
+        delegate.getRows({ it.startRow == 0 }, _) >> new AgGridGetRowsResponse([[a: 1]], -1, [])
+        delegate.getRows({ it.startRow == 100 }, _) >> {
+            release.await(10, TimeUnit.SECONDS)
+            new AgGridGetRowsResponse([[a: 2]], 101, [])
+        }
+        def token = new CancellationTokenSource()
+        def timer = Executors.newSingleThreadScheduledExecutor()
+
+        when:
+        source.getRows('s1', request(0), CancellationToken.NONE)
+        timer.schedule({ token.cancel() }, 100, TimeUnit.MILLISECONDS)
+        source.getRows('s1', request(100), token)
+
+        then:
+        thrown(CancelledException)
+        release.count == 1
+
+        cleanup:
+        release.countDown()
+        executor.shutdown()
+        timer.shutdown()
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.ykiselev.ag.grid.data.cancel
+
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import spock.lang.Specification
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class SessionRequestsTest extends Specification {
+
+    def requests = new SessionRequests()
+
+    def request(int startRow, Map filters = [:]) {
+        new AgGridGetRowsRequest(
+                startRow: startRow,
+                endRow: startRow + 100,
+                filterModel: filters
+        )
+    }
+
+    def "should keep concurrent requests of the same view"() {
+        when:
+        def r1 = requests.begin('s1', request(0))
+        def r2 = requests.begin('s1', request(100))
+        def r3 = requests.begin('s2', request(0, [a: new SetColumnFilter(['1'] as Set)]))
+
+        then:
+        !r1.isCancelled()
+        !r2.isCancelled()
+        !r3.isCancelled()
+        requests.size() == 3
+    }
+
+    def "should cancel superseded requests"() {
+        given:
+        def callback = Mock(Runnable)
+        def r1 = requests.begin('s1', request(0))
+        r1.onCancel(callback)
+
+        when:
+        def r2 = requests.begin('s1', request(0, [a: new SetColumnFilter(['1'] as Set)]))
+
+        then:
+        1 * callback.run()
+        r1.isCancelled()
+        !r2.isCancelled()
+
+        when:
+        requests.end('s1', r1)
+        requests.end('s1', r2)
+
+        then:
+        requests.size() == 0
+    }
+
+    def "should call callback immediately if already cancelled"() {
+        given:
+        def callback = Mock(Runnable)
+        def source = new CancellationTokenSource()
+        source.cancel()
+
+        when:
+        source.onCancel(callback)
+
+        then:
+        1 * callback.run()
+    }
+}
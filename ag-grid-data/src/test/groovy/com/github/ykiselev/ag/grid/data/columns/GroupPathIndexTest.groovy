@@ -0,0 +1,70 @@
+package com.github.ykiselev.ag.grid.data.columns
+
+import com.github.ykiselev.ag.grid.api.filter.GroupKey
+import com.github.ykiselev.ag.grid.api.filter.TextColumnFilter
+import com.github.ykiselev.ag.grid.api.filter.TextFilterType
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters
+import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo
+import com.github.ykiselev.ag.grid.data.types.LongAttribute
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class GroupPathIndexTest extends Specification {
+
+    def typeInfo = new DefaultTypeInfo<Map>([
+            new ObjectAttribute<Map>('product', String, { it.product }),
+            new ObjectAttribute<Map>('book', String, { it.book }),
+            new LongAttribute<Map>('id', { it.id as long })
+    ])
+
+    // product: pr0, pr1, pr2, pr0, ... book: b0, b1, b0, b1, ...
+    def rows = (0..<12).collect { [product: 'pr' + (it % 3), book: 'b' + (it % 2), id: it] }
+
+    def index = GroupPathIndex.of(rows, typeInfo, ['product', 'book'])
+
+    def rows(Map filters) {
+        def result = index.rows(new DefaultRequestFilters(filters))
+        result != null ? result as List : null
+    }
+
+    @Unroll
+    def "should select rows of path #filters"() {
+        expect:
+        rows(filters) == expected
+
+        where:
+        filters                                                   || expected
+        [product: new GroupKey('pr1')]                            || [1, 4, 7, 10]
+        [product: new GroupKey('pr1'), book: new GroupKey('b0')]  || [4, 10]
+        [book: new GroupKey('b1')]                                || [1, 3, 5, 7, 9, 11]
+        [product: new GroupKey('unknown')]                        || []
+        [:]                                                       || null
+        [product: new TextColumnFilter(TextFilterType.EQUALS, 'pr1')] || null
+    }
+
+    def "should index string attributes only"() {
+        when:
+        GroupPathIndex.of(rows, typeInfo, ['product', 'id'])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should pack rows of clustered groups"() {
+        given:
+        def clustered = (0..<10_000).collect { [product: 'pr' + (it.intdiv(2_500)), book: 'b' + (it.intdiv(500)), id: it] }
+
+        when:
+        def index = GroupPathIndex.of(clustered, typeInfo, ['product', 'book'])
+
+        then:
+        index.rows(new DefaultRequestFilters([product: new GroupKey('pr1')])) as List == (2_500..<5_000) as List
+        // Two levels of 32-bit row lists would take 80000 bytes
+        index.sizeInBytes() < 10_000
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.ykiselev.ag.grid.data.columns
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class PackedLongColumnTest extends Specification {
+
+    static long[] values(int count, Closure<Number> generator) {
+        def result = new long[count]
+        for (int i = 0; i < count; i++) {
+            result[i] = generator(i).longValue()
+        }
+        result
+    }
+
+    @Unroll
+    def "should restore #name"() {
+        when:
+        def column = PackedLongColumn.of(values)
+
+        then:
+        column.size() == values.length
+        (0..<values.length).every { column.get(it) == values[it] }
+
+        and:
+        def decoded = []
+        column.forEach { decoded << it }
+        decoded == values as List
+
+        where:
+        name         | values
+        'empty'      | new long[0]
+        'single'     | [42L] as long[]
+        'ids'        | values(1000) { 1_000_000L + it }
+        'descending' | values(300) { 5_000L - 3 * it }
+        'constants'  | values(200) { 7L }
+        'small'      | values(500) { (it * 7919L) % 13 }
+        'random'     | values(1000) { new Random(it).nextLong() }
+        'extremes'   | [Long.MIN_VALUE, Long.MAX_VALUE, 0L, -1L, Long.MIN_VALUE] as long[]
+    }
+
+    def "should pack dense ranges to almost nothing"() {
+        when:
+        def ids = PackedLongColumn.of(values(100_000) { 1_000_000L + it })
+        def small = PackedLongColumn.of(values(100_000) { it % 10 })
+
+        then:
+        ids.bitsPerValue() < 2
+        small.bitsPerValue() < 6
+    }
+
+    def "should decode single block"() {
+        given:
+        def column = PackedLongColumn.of(values(300) { it * 2L })
+        def target = new long[column.blockSize()]
+
+        when:
+        def count = column.decode(2, target)
+
+        then:
+        column.blocks() == 3
+        count == 300 - 2 * column.blockSize()
+        target[0] == 2 * 2 * column.blockSize()
+        target[count - 1] == 598
+    }
+
+    def "should fail on row out of range"() {
+        when:
+        PackedLongColumn.of([1L] as long[]).get(1)
+
+        then:
+        thrown IndexOutOfBoundsException
+    }
+
+    def "should pack ints"() {
+        when:
+        def column = IntColumn.of([Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE] as int[])
+
+        then:
+        (0..<5).collect { column.get(it) } == [Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE]
+    }
+
+    def "should decode ints into array"() {
+        given:
+        def values = (0..<300).collect { it * 3 - 100 } as int[]
+        def target = new int[302]
+
+        when:
+        IntColumn.of(values).copyTo(target, 2)
+
+        then:
+        IntColumn.of(values).toArray() == values
+        target[2..-1] == values as List
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.ykiselev.ag.grid.data.columns
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class TrigramIndexTest extends Specification {
+
+    def dictionary = ['Book of Bonds', 'Rates book', 'FX', 'Bonds']
+
+    // Rows: 0 - 'Book of Bonds', 1 - null, 2 - 'Rates book', 3 - 'FX', 4 - 'Bonds', 5 - 'Book of Bonds'
+    def index = TrigramIndex.of(dictionary, [0, ZoneMaps.NO_CODE, 1, 2, 3, 0] as int[])
+
+    def rows(String substring) {
+        def result = index.rowsContaining(substring)
+        (0..<index.size()).findAll { result.get(it) }
+    }
+
+    @Unroll
+    def "should find rows containing '#substring'"() {
+        expect:
+        rows(substring) == expected
+
+        where:
+        substring || expected
+        'Bonds'   || [0, 4, 5]
+        'ook'     || [0, 2, 5]
+        'book'    || [2]
+        'onds B'  || []
+        'FX'      || [3]
+        'o'       || [0, 2, 4, 5]
+        ''        || [0, 2, 3, 4, 5]
+        'Equity'  || []
+    }
+
+    def "should verify candidates having all trigrams"() {
+        expect: "'Bonds of' has all trigrams of 'Book of Bonds' but is not its substring"
+        index.codesContaining('Bonds of').isEmpty()
+        index.codesContaining('ok of Bo').cardinality() == 1
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.ykiselev.ag.grid.data.columns
+
+import com.github.ykiselev.ag.grid.api.filter.GroupKey
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter
+import com.github.ykiselev.ag.grid.api.filter.NumberFilterType
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter
+import com.github.ykiselev.ag.grid.api.filter.TextColumnFilter
+import com.github.ykiselev.ag.grid.api.filter.TextFilterType
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters
+import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo
+import com.github.ykiselev.ag.grid.data.types.DoubleAttribute
+import com.github.ykiselev.ag.grid.data.types.LongAttribute
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static com.github.ykiselev.ag.grid.api.filter.NumberFilterType.*
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class ZoneMapsTest extends Specification {
+
+    def typeInfo = new DefaultTypeInfo<Map>([
+            new ObjectAttribute<Map>('portfolio', String, { it.portfolio }),
+            new LongAttribute<Map>('id', { it.id as long }),
+            new DoubleAttribute<Map>('value', { it.value as double })
+    ])
+
+    // 4 blocks of 10 rows: p1, p1, p2, p3 with ids 0..39 and values 0.5..39.5
+    def rows = (0..<40).collect { [portfolio: 'p' + [1, 1, 2, 3][it.intdiv(10)], id: it, value: it + 0.5d] }
+
+    def zoneMaps = ZoneMaps.of(rows, typeInfo, ['portfolio', 'id', 'value'], 10)
+
+    def candidates(Map filters) {
+        def result = zoneMaps.candidates(new DefaultRequestFilters(filters))
+        (0..<zoneMaps.blocks()).findAll { result.get(it) }
+    }
+
+    def filter(NumberFilterType type, Integer value, Integer valueTo = null) {
+        new NumberColumnFilter(type, value, valueTo)
+    }
+
+    @Unroll
+    def "should skip blocks for #type #value #valueTo"() {
+        expect:
+        candidates([id: filter(type, value, valueTo)]) == expected
+
+        where:
+        type                  | value | valueTo || expected
+        EQUALS                | 15    | null    || [1]
+        EQUALS                | 100   | null    || []
+        NOT_EQUAL             | 15    | null    || [0, 1, 2, 3]
+        LESS_THAN             | 10    | null    || [0]
+        LESS_THAN_OR_EQUAL    | 10    | null    || [0, 1]
+        GREATER_THAN          | 29    | null    || [3]
+        GREATER_THAN_OR_EQUAL | 29    | null    || [2, 3]
+        IN_RANGE              | 12    | 25      || [1, 2]
+    }
+
+    def "should truncate doubles like predicates do"() {
+        expect:
+        candidates([value: filter(EQUALS, 9)]) == [0]
+        candidates([value: filter(GREATER_THAN, 29)]) == [3]
+    }
+
+    def "should skip blocks by group key"() {
+        expect:
+        candidates([portfolio: new GroupKey('p1')]) == [0, 1]
+        candidates([portfolio: new GroupKey('p3')]) == [3]
+        candidates([portfolio: new GroupKey('unknown')]) == []
+        candidates([portfolio: new GroupKey(null)]) == []
+    }
+
+    def "should combine filters and ignore unsupported ones"() {
+        expect:
+        candidates([portfolio: new GroupKey('p1'), id: filter(GREATER_THAN, 12)]) == [1]
+        candidates([portfolio: new SetColumnFilter(['p1'] as Set)]) == [0, 1, 2, 3]
+    }
+
+    def "should count nulls and keep unknown values"() {
+        when:
+        def zoneMap = ZoneMap.builder(2)
+                .add(5).addNull()
+                .addNull().addNull()
+                .addUnknown().add(1)
+                .build()
+
+        then:
+        zoneMap.blocks() == 3
+        zoneMap.nullCount(0) == 1
+        zoneMap.nullCount(1) == 2
+        !zoneMap.hasValues(1)
+        !zoneMap.mayMatch(1, filter(NOT_EQUAL, 1))
+        zoneMap.mayMatch(2, filter(EQUALS, Integer.MAX_VALUE))
+    }
+
+    def "should restore stored summaries"() {
+        when:
+        def zoneMap = ZoneMap.of(2, [5L, Long.MAX_VALUE] as long[], [7L, Long.MIN_VALUE] as long[], [0, 2] as int[])
+
+        then:
+        zoneMap.blocks() == 2
+        zoneMap.mayMatch(0, filter(EQUALS, 6))
+        !zoneMap.hasValues(1)
+        zoneMap.nullCount(1) == 2
+    }
+
+    def "should select rows by substring"() {
+        given:
+        def books = (0..<40).collect { [id: it, portfolio: 'p' + [1, 1, 2, 3][it.intdiv(10)], book: it % 8 == 0 ? null : 'book-' + it % 4] }
+        def bookTypeInfo = new DefaultTypeInfo<Map>([
+                new ObjectAttribute<Map>('portfolio', String, { it.portfolio }),
+                new ObjectAttribute<Map>('book', String, { it.book })
+        ])
+        def zoneMaps = ZoneMaps.of(books, bookTypeInfo, ['portfolio', 'book'], 10)
+        def select = { Map filters -> zoneMaps.stream(books, new DefaultRequestFilters(filters)).collect { it.id } }
+
+        expect:
+        select([book: new TextColumnFilter(TextFilterType.CONTAINS, 'k-3')]) == [3, 7, 11, 15, 19, 23, 27, 31, 35, 39]
+        select([book: new TextColumnFilter(TextFilterType.CONTAINS, 'k-3'), portfolio: new GroupKey('p3')]) == [31, 35, 39]
+        select([book: new TextColumnFilter(TextFilterType.NOT_CONTAINS, 'book')]) == [0, 8, 16, 24, 32]
+        select([book: new TextColumnFilter(TextFilterType.CONTAINS, 'k-3'), portfolio: new TextColumnFilter(TextFilterType.CONTAINS, '1')]) == [3, 7, 11, 15, 19]
+        zoneMaps.matchingRows(new DefaultRequestFilters([book: new TextColumnFilter(TextFilterType.STARTS_WITH, 'book')])) == null
+    }
+}
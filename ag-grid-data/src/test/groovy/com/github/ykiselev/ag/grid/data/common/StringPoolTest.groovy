@@ -0,0 +1,59 @@
+package com.github.ykiselev.ag.grid.data.common
+
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import spock.lang.Specification
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class StringPoolTest extends Specification {
+
+    def pool = new StringPool()
+
+    def "should return single instance per value"() {
+        given:
+        def a = new String('abc')
+        def b = new String('abc')
+
+        expect:
+        pool.intern(a).is(a)
+        pool.intern(b).is(a)
+        pool.intern(null) == null
+        pool.size() == 1
+    }
+
+    def "should not add canonicalized values"() {
+        given:
+        def a = pool.intern(new String('abc'))
+
+        expect:
+        pool.canonical(new String('abc')).is(a)
+        pool.canonical('xyz') == 'xyz'
+        pool.size() == 1
+    }
+
+    def "should canonicalize group keys and set filters"() {
+        given:
+        def p1 = pool.intern(new String('p1'))
+        def b1 = pool.intern(new String('b1'))
+        def request = new AgGridGetRowsRequest(
+                startRow: 10,
+                endRow: 20,
+                groupKeys: [new String('p1')],
+                filterModel: [book: new SetColumnFilter([new String('b1'), 'b2'] as Set)]
+        )
+
+        when:
+        def result = pool.canonicalize(request)
+
+        then:
+        result.startRow == 10
+        result.endRow == 20
+        result.groupKeys[0].is(p1)
+        result.filterModel.book.values.find { it == 'b1' }.is(b1)
+        result.filterModel.book.values == ['b1', 'b2'] as Set
+        !request.groupKeys[0].is(p1)
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.ykiselev.ag.grid.data.execution
+
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ForkJoinWorkerThread
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class RowSourceExecutorTest extends Specification {
+
+    @AutoCleanup
+    def executor = new RowSourceExecutor('test', 2, 1, 3)
+
+    def latch = new CountDownLatch(1)
+
+    def blocker = {
+        latch.await(10, TimeUnit.SECONDS)
+        Thread.currentThread().getName()
+    } as Supplier
+
+    def "should run parallel streams in own pool"() {
+        when:
+        def threads = executor.submit(Priority.NORMAL, {
+            (1..1000).parallelStream()
+                    .map({ Thread.currentThread().getName() })
+                    .collect()
+                    .toSet()
+        } as Supplier).get(10, TimeUnit.SECONDS)
+
+        then:
+        threads.every { it.startsWith('test-') }
+    }
+
+    def "should tell own worker threads"() {
+        given:
+        def other = new RowSourceExecutor('other', 1, 1, 1)
+
+        expect:
+        !executor.isWorkerThread()
+        executor.submit(Priority.NORMAL, { executor.isWorkerThread() } as Supplier).get(10, TimeUnit.SECONDS)
+        !other.submit(Priority.NORMAL, { executor.isWorkerThread() } as Supplier).get(10, TimeUnit.SECONDS)
+
+        cleanup:
+        other.close()
+    }
+
+    def "should dispatch requests on plain threads"() {
+        given:
+        def dispatching = RowSourceExecutor.dispatching('dispatch', 2, 1)
+
+        when:
+        def thread = dispatching.submit(Priority.NORMAL, { Thread.currentThread() } as Supplier).get(10, TimeUnit.SECONDS)
+
+        then:
+        thread.name.startsWith('dispatch-')
+        !(thread instanceof ForkJoinWorkerThread)
+        dispatching.toString().contains('parallelism=2')
+
+        cleanup:
+        dispatching.close()
+    }
+
+    def "should start queued tasks by priority"() {
+        given:
+        def order = new CopyOnWriteArrayList()
+        def first = executor.submit(Priority.NORMAL, blocker)
+        def futures = [Priority.LOW, Priority.NORMAL, Priority.HIGH].collect { p ->
+            executor.submit(p, { order << p } as Supplier)
+        }
+
+        when:
+        latch.countDown()
+        first.get(10, TimeUnit.SECONDS)
+        futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+        order == [Priority.HIGH, Priority.NORMAL, Priority.LOW]
+    }
+
+    def "should reject when queue is full"() {
+        given:
+        executor.submit(Priority.NORMAL, blocker)
+        3.times { executor.submit(Priority.NORMAL, { 1 } as Supplier) }
+
+        when:
+        executor.submit(Priority.HIGH, { 1 } as Supplier)
+
+        then:
+        thrown(OverloadedException)
+
+        cleanup:
+        latch.countDown()
+    }
+
+    def "should skip tasks cancelled while queued"() {
+        given:
+        def called = false
+        executor.submit(Priority.NORMAL, blocker)
+        def future = executor.submit(Priority.NORMAL, { called = true } as Supplier)
+
+        when:
+        future.cancel(false)
+        latch.countDown()
+        executor.submit(Priority.LOW, { 1 } as Supplier).get(10, TimeUnit.SECONDS)
+
+        then:
+        !called
+    }
+
+    def "should release slot of task rejected by pool"() {
+        given:
+        executor.close()
+
+        when:
+        executor.submit(Priority.NORMAL, { 1 } as Supplier).get(10, TimeUnit.SECONDS)
+
+        then:
+        def e = thrown(ExecutionException)
+        e.cause instanceof RejectedExecutionException
+        executor.toString().contains('running=0')
+        executor.toString().contains('rejected=1')
+    }
+}
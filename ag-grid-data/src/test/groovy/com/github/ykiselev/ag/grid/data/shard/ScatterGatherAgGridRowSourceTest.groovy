@@ -0,0 +1,197 @@
+package com.github.ykiselev.ag.grid.data.shard
+
+import com.github.ykiselev.ag.grid.api.filter.GroupKey
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import com.github.ykiselev.ag.grid.api.request.AggFunc
+import com.github.ykiselev.ag.grid.api.request.ColumnVO
+import com.github.ykiselev.ag.grid.api.request.SortModel
+import com.github.ykiselev.ag.grid.api.request.Sorting
+import com.github.ykiselev.ag.grid.data.AgGridRowSource
+import com.github.ykiselev.ag.grid.data.ListBasedAgGridRowSource
+import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo
+import com.github.ykiselev.ag.grid.data.types.DoubleAttribute
+import com.github.ykiselev.ag.grid.data.types.IntAttribute
+import com.github.ykiselev.ag.grid.data.types.LongAttribute
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class ScatterGatherAgGridRowSourceTest extends Specification {
+
+    static def typeInfo = new DefaultTypeInfo<Map>([
+            new ObjectAttribute<Map>('portfolio', String, { it.portfolio }),
+            new ObjectAttribute<Map>('product', String, { it.product }),
+            new LongAttribute<Map>('id', { it.id as long }),
+            new IntAttribute<Map>('qty', { it.qty as int }),
+            new DoubleAttribute<Map>('pnl', { it.pnl as double }),
+            new DoubleAttribute<Map>('amount', { it.amount as double })
+    ])
+
+    static def rows = (0..<200).collect {
+        [portfolio: 'p' + (it % 7), product: 'x' + (it % 3), id: it as long, qty: (it * 37) % 101, pnl: (it % 13) * 0.5d, amount: (it * 7919) % 1000 / 4d]
+    }
+
+    static def shardRows = rows.groupBy { (it.portfolio.hashCode() & 0x7fffffff) % 3 }.values().collect { it }
+
+    @Shared
+    def single = new ListBasedAgGridRowSource<Map>(rows, typeInfo)
+
+    @Shared
+    @AutoCleanup('shutdownNow')
+    ExecutorService executor = Executors.newFixedThreadPool(4)
+
+    @Shared
+    def sharded = new ScatterGatherAgGridRowSource(
+            shardRows.collect { new ListBasedAgGridRowSource<Map>(it, typeInfo) },
+            executor
+    )
+
+    static def request(Map props) {
+        new AgGridGetRowsRequest(props)
+    }
+
+    static def col(String field, AggFunc aggFunc = null) {
+        new ColumnVO(field, field, field, aggFunc)
+    }
+
+    static def sort(String colId, Sorting sorting) {
+        new SortModel(colId, sorting)
+    }
+
+    def "should merge sorted pages of plain rows"() {
+        given:
+        def req = request(
+                startRow: startRow,
+                endRow: endRow,
+                sortModel: [sort('pnl', Sorting.DESC), sort('id', Sorting.ASC)]
+        )
+
+        when:
+        def expected = single.getRows(req)
+        def actual = sharded.getRows(req)
+
+        then:
+        shardRows.size() > 1
+        actual.data*.id == expected.data*.id
+        actual.lastRow == expected.lastRow
+
+        where:
+        startRow | endRow
+        0        | 10
+        20       | 30
+        190      | 300
+    }
+
+    def "should merge partial aggregates of groups"() {
+        given:
+        def req = request(
+                startRow: 0,
+                endRow: 100,
+                rowGroupCols: [col('portfolio'), col('product')],
+                valueCols: [col('pnl', AggFunc.SUM), col('qty', AggFunc.AVG), col('id', AggFunc.COUNT), col('amount', AggFunc.MAX)],
+                groupKeys: groupKeys,
+                sortModel: [sort('qty', Sorting.DESC), sort('portfolio', Sorting.ASC), sort('product', Sorting.ASC)]
+        )
+
+        when:
+        def expected = single.getRows(req)
+        def actual = sharded.getRows(req)
+
+        then:
+        !actual.data.isEmpty()
+        actual.data == expected.data
+        actual.lastRow == expected.lastRow
+
+        where:
+        groupKeys << [[], ['p3']]
+    }
+
+    def "should merge pivot rows and join secondary columns"() {
+        given:
+        def req = request(
+                startRow: 0,
+                endRow: 100,
+                rowGroupCols: [col('portfolio')],
+                pivotCols: [col('product')],
+                pivotMode: true,
+                valueCols: [col('pnl', AggFunc.AVG), col('qty', AggFunc.MAX), col('amount', AggFunc.MIN)],
+                sortModel: [sort('portfolio', Sorting.ASC)]
+        )
+
+        when:
+        def expected = single.getRows(req)
+        def actual = sharded.getRows(req)
+
+        then:
+        actual.data.size() == 7
+        actual.data == expected.data
+        actual.secondaryColumnFields as Set == expected.secondaryColumnFields as Set
+        !actual.secondaryColumnFields.any { it.contains(ScatterGatherAgGridRowSource.COUNT) }
+    }
+
+    def "should query remote shards"() {
+        given:
+        def servers = shardRows.collect { new ShardServer(0, new ListBasedAgGridRowSource<Map>(it, typeInfo)) }
+        def remote = new ScatterGatherAgGridRowSource(
+                servers.collect { RemoteShard.of('localhost:' + it.port) },
+                executor
+        )
+        def grouped = request(
+                startRow: 0,
+                endRow: 100,
+                rowGroupCols: [col('portfolio')],
+                valueCols: [col('pnl', AggFunc.AVG), col('qty', AggFunc.SUM)],
+                filterModel: [product: new GroupKey('x1')],
+                sortModel: [sort('portfolio', Sorting.ASC)]
+        )
+        def plain = request(startRow: 5, endRow: 15, sortModel: [sort('qty', Sorting.ASC), sort('id', Sorting.ASC)])
+
+        expect:
+        remote.getRows(grouped).data == single.getRows(grouped).data
+        remote.getRows(plain).data*.id == single.getRows(plain).data*.id
+
+        cleanup:
+        servers*.close()
+    }
+
+    def "should fail if remote shard fails"() {
+        given:
+        def server = new ShardServer(0, { r, t -> throw new IllegalArgumentException('boom!') } as AgGridRowSource)
+
+        when:
+        RemoteShard.of('localhost:' + server.port).getRows(request(startRow: 0, endRow: 10))
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.contains('boom!')
+
+        cleanup:
+        server.close()
+    }
+
+    def "should merge sorted lists"() {
+        expect:
+        ScatterGatherAgGridRowSource.merge([[1, 4, 7], [], [2, 3, 8, 9], [5]], Comparator.naturalOrder()) == [1, 2, 3, 4, 5, 7, 8, 9]
+    }
+
+    def "should compare numbers of different types by value"() {
+        expect:
+        ScatterGatherAgGridRowSource.compareValues(a, b) == expected
+
+        where:
+        a    | b    || expected
+        1    | 2L   || -1
+        3L   | 3    || 0
+        2.5d | 2L   || 1
+        null | 1    || -1
+        'a'  | 'b'  || -1
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.ykiselev.ag.grid.data.sources
+
+import com.github.ykiselev.ag.grid.api.filter.GroupKey
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter
+import com.github.ykiselev.ag.grid.api.filter.NumberFilterType
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import com.github.ykiselev.ag.grid.api.request.ColumnVO
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters
+import com.github.ykiselev.ag.grid.data.ListBasedAgGridRowSource
+import com.github.ykiselev.ag.grid.data.PartitionedList
+import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo
+import com.github.ykiselev.ag.grid.data.types.LongAttribute
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute
+import spock.lang.Specification
+
+import java.util.stream.Collectors
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class PartitionedListTest extends Specification {
+
+    def typeInfo = new DefaultTypeInfo<Map>([
+            new ObjectAttribute<Map>('portfolio', String, { it.portfolio }),
+            new LongAttribute<Map>('id', { it.id as long })
+    ])
+
+    def rows = (0..<30).collect { [portfolio: 'p' + (it % 3), id: it] }
+
+    def partitions = PartitionedList.of(rows, typeInfo, 'portfolio', ['id'], 4)
+
+    def ids(Map filters) {
+        partitions.stream(new DefaultRequestFilters(filters))
+                .map { it.id }
+                .collect(Collectors.toList())
+    }
+
+    def "should select segments by partition key"() {
+        expect:
+        partitions.segments() == 3
+        partitions.size() == 30
+        ids([:]).size() == 30
+        ids([portfolio: new GroupKey('p1')]) == [1, 4, 7, 10, 13, 16, 19, 22, 25, 28]
+        ids([portfolio: new GroupKey('unknown')]) == []
+        ids([portfolio: new SetColumnFilter(['p0', 'p2'] as Set)]).sort() == (0..<30).findAll { it % 3 != 1 }
+    }
+
+    def "should start from rows of expanded group"() {
+        given:
+        def products = new DefaultTypeInfo<Map>([
+                new ObjectAttribute<Map>('portfolio', String, { it.portfolio }),
+                new ObjectAttribute<Map>('product', String, { it.product }),
+                new LongAttribute<Map>('id', { it.id as long })
+        ])
+        def list = PartitionedList.of(rows.collect { it + [product: 'pr' + (it.id % 2)] }, products, 'portfolio', ['id'], 4, ['product', 'portfolio'])
+        def select = { Map filters -> list.stream(new DefaultRequestFilters(filters)).map { it.id }.collect(Collectors.toList()).sort() }
+
+        expect:
+        select([product: new GroupKey('pr1')]) == (0..<30).findAll { it % 2 == 1 }
+        select([product: new GroupKey('pr1'), portfolio: new GroupKey('p0')]) == [3, 9, 15, 21, 27]
+        // Blocks of segments are skipped by zone maps, 11 is in the same block with 2, 5 and 8 (rows are filtered later)
+        select([product: new GroupKey('pr1'), id: new NumberColumnFilter(NumberFilterType.LESS_THAN, 10, null)]) == [1, 3, 5, 7, 9, 11]
+        list.withSegments([p0: []]).stream(new DefaultRequestFilters([product: new GroupKey('pr1')])).count() == 10
+    }
+
+    def "should skip blocks of segment by zone maps"() {
+        expect: "the first block of p0 (ids 0..9) is skipped, rows of other blocks are left for predicates"
+        ids([portfolio: new GroupKey('p0'), id: new NumberColumnFilter(NumberFilterType.GREATER_THAN, 20, null)]) == [12, 15, 18, 21, 24, 27]
+    }
+
+    def "should build response from selected segments"() {
+        given:
+        def source = new ListBasedAgGridRowSource<Map>(partitions, typeInfo)
+
+        when:
+        def response = source.getRows(new AgGridGetRowsRequest(
+                startRow: 0,
+                endRow: 100,
+                rowGroupCols: [new ColumnVO('portfolio', 'Portfolio', 'portfolio', null)],
+                groupKeys: ['p2']
+        ))
+
+        then:
+        response.data*.id as Set == (0..<30).findAll { it % 3 == 2 } as Set
+    }
+
+    def "should replace segments without changing original list"() {
+        given:
+        def p1 = partitions.getSegment('p1')
+
+        when:
+        def updated = partitions.withSegments([
+                p0: [],
+                p1: p1.findAll { it.id != 1 } + [[portfolio: 'p1', id: 100]],
+                p3: [[portfolio: 'p3', id: 101]]
+        ])
+
+        then:
+        partitions.size() == 30
+        partitions.segments() == 3
+        updated.segments() == 3
+        updated.getSegment('p0').isEmpty()
+        updated.getSegment('p2').is(partitions.getSegment('p2'))
+        updated.stream(new DefaultRequestFilters([portfolio: new GroupKey('p1')])).map { it.id }.collect(Collectors.toList()) ==
+                [4, 7, 10, 13, 16, 19, 22, 25, 28, 100]
+        updated.size() == 30 - 10 - 1 + 1 + 1
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.ykiselev.ag.grid.data.sources
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest
+import com.github.ykiselev.ag.grid.api.request.AggFunc
+import com.github.ykiselev.ag.grid.api.request.ColumnVO
+import com.github.ykiselev.ag.grid.api.request.SortModel
+import com.github.ykiselev.ag.grid.api.request.Sorting
+import com.github.ykiselev.ag.grid.data.PartitionedList
+import com.github.ykiselev.ag.grid.data.VersionedAgGridRowSource
+import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo
+import com.github.ykiselev.ag.grid.data.types.LongAttribute
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute
+import com.google.common.collect.ImmutableSetMultimap
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+class VersionedAgGridRowSourceTest extends Specification {
+
+    /**
+     * Runs once on the next read of id.
+     */
+    Runnable onRead
+
+    def typeInfo = new DefaultTypeInfo<Map>([
+            new ObjectAttribute<Map>('portfolio', String, { it.portfolio }),
+            new LongAttribute<Map>('id', {
+                def hook = onRead
+                onRead = null
+                hook?.run()
+                it.id as long
+            })
+    ])
+
+    def source = new VersionedAgGridRowSource<Map>(
+            PartitionedList.of((0..<10).collect { [portfolio: 'p' + (it % 2), id: it] }, typeInfo, 'portfolio'),
+            typeInfo,
+            4
+    )
+
+    def removeOdd = { PartitionedList<Map> rows -> rows.withSegments([p1: []]) }
+
+    def "should keep pinned version until it is closed"() {
+        given:
+        def pinned = source.pin()
+
+        when:
+        def version = source.update(removeOdd)
+
+        then:
+        version == 2
+        source.version == 2
+        pinned.version == 1
+        pinned.rows.size() == 10
+        source.getRows(new AgGridGetRowsRequest(startRow: 0, endRow: 100)).data.size() == 5
+        source.info.contains('retired=1')
+
+        when:
+        pinned.close()
+
+        then: "the old version is reclaimed"
+        pinned.rows == null
+        source.info.contains('retired=0')
+    }
+
+    def "should reclaim replaced version without readers"() {
+        when:
+        def pinned = source.pin()
+        pinned.close()
+        source.update(removeOdd)
+
+        def next = source.pin()
+
+        then:
+        pinned.rows == null
+        next.version == 2
+
+        cleanup:
+        next?.close()
+    }
+
+    def "should page through sorted view"() {
+        given:
+        def request = { int start, int end ->
+            new AgGridGetRowsRequest(startRow: start, endRow: end, sortModel: [new SortModel('id', Sorting.DESC)])
+        }
+
+        expect:
+        source.getRows(request(0, 3)).data*.id.take(4) == [9, 8, 7, 6]
+        source.getRows(request(3, 6)).data*.id.take(4) == [6, 5, 4, 3]
+
+        when:
+        source.update(removeOdd)
+
+        then: "sorted view of the previous version is not used"
+        source.getRows(request(0, 3)).data*.id.take(4) == [8, 6, 4, 2]
+    }
+
+    def "should replace all rows keeping pinned version"() {
+        given:
+        def aggregates = source.materialize(['portfolio'], ImmutableSetMultimap.of('id', AggFunc.SUM))
+        def request = new AgGridGetRowsRequest(
+                startRow: 0,
+                endRow: 100,
+                rowGroupCols: [new ColumnVO('portfolio', 'portfolio', 'portfolio', null)],
+                valueCols: [new ColumnVO('id', 'id', 'id', AggFunc.SUM)]
+        )
+        source.getRows(request)
+        def pinned = source.pin()
+
+        when:
+        def version = source.replace({
+            PartitionedList.of((0..<4).collect { [portfolio: 'p' + it, id: it] }, typeInfo, 'portfolio')
+        } as Supplier)
+
+        then:
+        version == 2
+        pinned.rows.size() == 10
+        aggregates.version == 2
+        aggregates.groups(request, 2).collectEntries { [(it.portfolio): it.id] } == [p0: 0L, p1: 1L, p2: 2L, p3: 3L]
+        source.getRows(request).data.size() == 4
+
+        cleanup:
+        pinned.close()
+    }
+
+    def "should replay updates applied while rows are loaded"() {
+        given:
+        def aggregates = source.materialize(['portfolio'], ImmutableSetMultimap.of('id', AggFunc.SUM))
+
+        when:
+        def version = source.replace({
+            assert source.update(removeOdd) == 2
+            PartitionedList.of((0..<4).collect { [portfolio: 'p' + (it % 2), id: it] }, typeInfo, 'portfolio')
+        } as Supplier)
+
+        then:
+        version == 3
+        source.getRows(new AgGridGetRowsRequest(startRow: 0, endRow: 100)).data*.id as Set == [0L, 2L] as Set
+        aggregates.version == 3
+    }
+
+    def "should not block updates while aggregates of loaded rows are computed"() {
+        given:
+        def aggregates = source.materialize(['portfolio'], ImmutableSetMultimap.of('id', AggFunc.SUM))
+        def request = new AgGridGetRowsRequest(
+                startRow: 0,
+                endRow: 100,
+                rowGroupCols: [new ColumnVO('portfolio', 'portfolio', 'portfolio', null)],
+                valueCols: [new ColumnVO('id', 'id', 'id', AggFunc.SUM)]
+        )
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        def version = source.replace({
+            def rows = PartitionedList.of((0..<4).collect { [portfolio: 'p' + (it % 2), id: it] }, typeInfo, 'portfolio')
+            onRead = { assert CompletableFuture.supplyAsync({ source.update(removeOdd) } as Supplier, executor).get(10, TimeUnit.SECONDS) == 2 }
+            rows
+        } as Supplier)
+
+        then: "update is applied to the new rows and aggregates"
+        onRead == null
+        version == 3
+        source.getRows(new AgGridGetRowsRequest(startRow: 0, endRow: 100)).data*.id as Set == [0L, 2L] as Set
+        aggregates.groups(request, 3) == [[portfolio: 'p0', id: 2L]]
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "should reject concurrent replacement"() {
+        when:
+        source.replace({
+            source.replace({ null } as Supplier)
+        } as Supplier)
+
+        then:
+        thrown(IllegalStateException)
+        source.version == 1
+    }
+}
@@ -0,0 +1,218 @@
+package com.ag.grid.enterprise;
+
+import com.github.ykiselev.ag.grid.data.columns.ZoneMap;
+import com.github.ykiselev.ag.grid.data.columns.ZoneMaps;
+import com.github.ykiselev.ag.grid.data.types.Attribute;
+import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo;
+import com.github.ykiselev.ag.grid.data.types.DoubleAttribute;
+import com.github.ykiselev.ag.grid.data.types.LongAttribute;
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only trade store backed by memory-mapped binary dump (see {@link TradeDump}). Trades are identified by row
+ * numbers and their fields are read straight from mapped chunks, so heap holds only string dictionary and chunk
+ * offsets while OS page cache (possibly shared with other processes mapping the same file) holds the data.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class MappedTradeStore implements AutoCloseable {
+
+    private final FileChannel channel;
+
+    private final String[] strings;
+
+    private final MappedByteBuffer[] chunks;
+
+    private final int[] chunkRows;
+
+    private final int chunkSize;
+
+    private final int size;
+
+    private final ZoneMaps zoneMaps;
+
+    private MappedTradeStore(FileChannel channel) throws IOException {
+        this.channel = channel;
+        final TradeDumpReader.Header header = TradeDumpReader.readHeader(channel, TradeDumpLoader.strings());
+        this.strings = header.strings;
+        this.chunkRows = header.chunkRows;
+        this.size = header.rows;
+        // All chunks but the last one have the same size
+        this.chunkSize = chunkRows.length > 0 ? chunkRows[0] : 1;
+        this.chunks = new MappedByteBuffer[chunkRows.length];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, header.offsets[c], (long) chunkRows[c] * TradeDump.ROW_SIZE);
+        }
+        this.zoneMaps = zoneMaps(header.summaries);
+    }
+
+    /**
+     * Zone maps come from chunk summaries written along with the dump, so no chunk is read here. String columns are
+     * summarized by dictionary codes.
+     */
+    private ZoneMaps zoneMaps(ZoneMap[] summaries) {
+        final Map<String, ZoneMap> numbers = new HashMap<>();
+        final Map<String, ZoneMap> codes = new HashMap<>();
+        final Map<String, ToIntFunction<String>> dictionaries = new HashMap<>();
+        final Map<String, Integer> dictionary = new HashMap<>();
+        for (int i = 1; i < strings.length; i++) {
+            dictionary.put(strings[i], i);
+        }
+        final ToIntFunction<String> toCode = s -> dictionary.getOrDefault(s, ZoneMaps.NO_CODE);
+        int column = 0;
+        for (String name : TradeDump.STRING_COLUMNS) {
+            codes.put(name, summaries[column++]);
+            dictionaries.put(name, toCode);
+        }
+        for (String name : TradeDump.LONG_COLUMNS) {
+            numbers.put(name, summaries[column++]);
+        }
+        for (String name : TradeDump.DOUBLE_COLUMNS) {
+            numbers.put(name, summaries[column++]);
+        }
+        return new ZoneMaps(size, chunkSize, numbers, codes, dictionaries);
+    }
+
+    public static MappedTradeStore open(Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedTradeStore(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of trades
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param column the index of string column in {@link TradeDump#STRING_COLUMNS}
+     * @param row    the row number
+     * @return the value
+     */
+    public String getString(int column, int row) {
+        return strings[getCode(column, row)];
+    }
+
+    private int getCode(int column, int row) {
+        final int chunk = row / chunkSize;
+        final int rows = chunkRows[chunk];
+        return chunks[chunk].getInt(((row - chunk * chunkSize) + column * rows) * Integer.BYTES);
+    }
+
+    /**
+     * @return the zone maps of all columns (one block per chunk)
+     */
+    public ZoneMaps getZoneMaps() {
+        return zoneMaps;
+    }
+
+    /**
+     * @param column the index of long column in {@link TradeDump#LONG_COLUMNS}
+     * @param row    the row number
+     * @return the value
+     */
+    public long getLong(int column, int row) {
+        final int chunk = row / chunkSize;
+        final int rows = chunkRows[chunk];
+        final int base = TradeDump.STRING_COLUMNS.length * Integer.BYTES * rows;
+        return chunks[chunk].getLong(base + ((row - chunk * chunkSize) + column * rows) * Long.BYTES);
+    }
+
+    /**
+     * @param column the index of double column in {@link TradeDump#DOUBLE_COLUMNS}
+     * @param row    the row number
+     * @return the value
+     */
+    public double getDouble(int column, int row) {
+        final int chunk = row / chunkSize;
+        final int rows = chunkRows[chunk];
+        final int base = (TradeDump.STRING_COLUMNS.length * Integer.BYTES
+                + TradeDump.LONG_COLUMNS.length * Long.BYTES) * rows;
+        return chunks[chunk].getDouble(base + ((row - chunk * chunkSize) + column * rows) * Double.BYTES);
+    }
+
+    /**
+     * @param name the column name
+     * @return the index of string column or {@code -1} if there is no such string column
+     */
+    public static int stringColumn(String name) {
+        return Arrays.asList(TradeDump.STRING_COLUMNS).indexOf(name);
+    }
+
+    /**
+     * Groups rows by value of string column. As strings are stored as dictionary indices that requires no decoding.
+     *
+     * @param column the index of string column
+     * @return the map of column value to ascending row numbers
+     */
+    public Map<String, int[]> index(int column) {
+        final Map<String, int[]> result = new HashMap<>();
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            counts.merge(getString(column, row), 1, Integer::sum);
+        }
+        counts.forEach((k, v) -> result.put(k, new int[v]));
+        final Map<String, Integer> positions = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            final String value = getString(column, row);
+            final int pos = positions.merge(value, 1, Integer::sum) - 1;
+            result.get(value)[pos] = row;
+        }
+        return result;
+    }
+
+    /**
+     * @return the type info for row numbers of this store
+     */
+    public TypeInfo<Integer> createTypeInfo() {
+        final List<Attribute<Integer>> attributes = new ArrayList<>();
+        for (int i = 0; i < TradeDump.STRING_COLUMNS.length; i++) {
+            final int column = i;
+            attributes.add(new ObjectAttribute<>(TradeDump.STRING_COLUMNS[i], String.class, row -> getString(column, row)));
+        }
+        for (int i = 0; i < TradeDump.LONG_COLUMNS.length; i++) {
+            final int column = i;
+            attributes.add(new LongAttribute<>(TradeDump.LONG_COLUMNS[i], row -> getLong(column, row)));
+        }
+        for (int i = 0; i < TradeDump.DOUBLE_COLUMNS.length; i++) {
+            final int column = i;
+            attributes.add(new DoubleAttribute<>(TradeDump.DOUBLE_COLUMNS[i], row -> getDouble(column, row)));
+        }
+        return new DefaultTypeInfo<>(attributes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mapped buffers stay valid until garbage collected
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "MappedTradeStore{" +
+                "size=" + size +
+                ", chunks=" + chunks.length +
+                ", strings=" + strings.length +
+                '}';
+    }
+}
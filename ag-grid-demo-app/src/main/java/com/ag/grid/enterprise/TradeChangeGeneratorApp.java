@@ -0,0 +1,73 @@
+package com.ag.grid.enterprise;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeLogWriter;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends random updates of trades from dump to change log at the specified rate.
+ * <p>
+ * Usage: {@code TradeChangeGeneratorApp [changes per second] [log path]}
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TradeChangeGeneratorApp {
+
+    private static final int BATCHES_PER_SECOND = 20;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final int rate = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        final String log = args.length > 1 ? args[1] : "trade-changes.log";
+        final List<Trade> trades = TradeDumpLoader.loadList();
+        System.out.println("Appending " + rate + " change(s) per second to " + log + "...");
+        final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        final int batchSize = Math.max(1, rate / BATCHES_PER_SECOND);
+        try (TradeChangeLogWriter writer = new TradeChangeLogWriter(Paths.get(log))) {
+            while (!Thread.currentThread().isInterrupted()) {
+                final long started = System.nanoTime();
+                final long timestamp = System.currentTimeMillis();
+                final List<TradeChange> batch = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    final Trade trade = copy(trades.get(rnd.nextInt(trades.size())));
+                    trade.setPreviousValue(trade.getCurrentValue());
+                    trade.setCurrentValue(rnd.nextDouble(0, 1_000_000));
+                    trade.setPl1(rnd.nextDouble());
+                    trade.setPl2(rnd.nextDouble());
+                    batch.add(TradeChange.update(timestamp, trade));
+                }
+                writer.append(batch);
+                final long elapsed = System.nanoTime() - started;
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, TimeUnit.SECONDS.toNanos(1) / BATCHES_PER_SECOND - elapsed));
+            }
+        }
+    }
+
+    private static Trade copy(Trade trade) {
+        final Trade t = new Trade();
+        t.setTradeId(trade.getTradeId());
+        t.setPortfolio(trade.getPortfolio());
+        t.setProduct(trade.getProduct());
+        t.setBook(trade.getBook());
+        t.setSubmitterId(trade.getSubmitterId());
+        t.setSubmitterDealId(trade.getSubmitterDealId());
+        t.setDealType(trade.getDealType());
+        t.setBidType(trade.getBidType());
+        t.setCurrentValue(trade.getCurrentValue());
+        t.setPreviousValue(trade.getPreviousValue());
+        t.setPl1(trade.getPl1());
+        t.setPl2(trade.getPl2());
+        t.setGainDx(trade.getGainDx());
+        t.setSxPx(trade.getSxPx());
+        t.setX99Out(trade.getX99Out());
+        t.setBatch(trade.getBatch());
+        return t;
+    }
+}
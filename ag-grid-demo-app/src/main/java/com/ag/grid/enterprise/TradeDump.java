@@ -0,0 +1,48 @@
+package com.ag.grid.enterprise;
+
+/**
+ * Layout of binary trade dump. All values are big-endian.
+ * <pre>
+ * header:     magic (int), version (int), row count (int), chunk count (int)
+ * dictionary: string count (int), strings (modified UTF-8, see {@link java.io.DataOutput#writeUTF(String)})
+ * directory:  for each chunk - row count (int), byte length (int), then for each column (in order of chunk columns)
+ *             min (long), max (long) and null count (int) of chunk values, see below
+ * chunks:     columns one after another, each column is an array of fixed-width values:
+ *             product, portfolio, book, dealType, bidType - dictionary indices (int),
+ *             tradeId, submitterId, submitterDealId, batch (long),
+ *             currentValue, previousValue, pl1, pl2, gainDx, sxPx, x99Out (double)
+ * </pre>
+ * Since all the values are fixed-width each chunk can be located and decoded independently of others. Chunk summaries
+ * are those of {@link com.github.ykiselev.ag.grid.data.columns.ZoneMap} with one block per chunk: strings are
+ * summarized by dictionary indices (index 0 is {@code null}), doubles are truncated to long (chunk with value which
+ * does not fit has min {@link Long#MIN_VALUE} and max {@link Long#MAX_VALUE}), so stores mapping the dump get zone maps
+ * without reading chunks.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+final class TradeDump {
+
+    static final int MAGIC = 0x54524144;
+
+    static final int VERSION = 2;
+
+    static final String[] STRING_COLUMNS = {"product", "portfolio", "book", "dealType", "bidType"};
+
+    static final String[] LONG_COLUMNS = {"tradeId", "submitterId", "submitterDealId", "batch"};
+
+    static final String[] DOUBLE_COLUMNS = {"currentValue", "previousValue", "pl1", "pl2", "gainDx", "sxPx", "x99Out"};
+
+    static final int ROW_SIZE = STRING_COLUMNS.length * Integer.BYTES
+            + LONG_COLUMNS.length * Long.BYTES
+            + DOUBLE_COLUMNS.length * Double.BYTES;
+
+    static final int COLUMNS = STRING_COLUMNS.length + LONG_COLUMNS.length + DOUBLE_COLUMNS.length;
+
+    static final int DIRECTORY_ENTRY_SIZE = 2 * Integer.BYTES + COLUMNS * (2 * Long.BYTES + Integer.BYTES);
+
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private TradeDump() {
+    }
+}
@@ -2,13 +2,9 @@ package com.ag.grid.enterprise;
 
 import com.ag.grid.enterprise.oracle.demo.domain.Trade;
 
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -37,19 +33,20 @@ public final class TradeDumpGeneratorApp {
         System.out.println(stats);
         System.out.println("Dumping...");
         Files.write(Paths.get("trades-stats.txt"), stats.getBytes(StandardCharsets.UTF_8));
-        dump(Paths.get("trades.jser"), result);
+        new TradeDumpWriter().write(
+                Paths.get("trades.bin"),
+                // Clustered by portfolio and product, so zone maps of dump blocks have narrow ranges
+                result.values()
+                        .stream()
+                        .flatMap(m -> m.values().stream())
+                        .sorted(Comparator.comparing(Trade::getPortfolio)
+                                .thenComparing(Trade::getProduct)
+                                .thenComparingLong(Trade::getTradeId))
+                        .collect(Collectors.toList())
+        );
         System.out.println("Done.");
     }
 
-    private void dump(Path path, Object object) throws IOException {
-        try (OutputStream os = Files.newOutputStream(path);
-             OutputStream bos = new BufferedOutputStream(os);
-             ObjectOutputStream oos = new ObjectOutputStream(bos)
-        ) {
-            oos.writeObject(object);
-        }
-    }
-
     private Map<String, Map<Long, Trade>> generate(int totalTrades, int minSize, int maxSize) {
         final Map<String, Map<Long, Trade>> map = new HashMap<>();
         int left = totalTrades;
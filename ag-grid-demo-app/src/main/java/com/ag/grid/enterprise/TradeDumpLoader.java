@@ -1,6 +1,7 @@
 package com.ag.grid.enterprise;
 
 import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.github.ykiselev.ag.grid.data.common.StringPool;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
@@ -8,21 +9,118 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 /**
+ * Loads trades from the file specified by system property {@code tradesDumpFile}. By default binary dump
+ * {@code trades.bin} (see {@link TradeDumpWriter}) is used if it exists, otherwise serialized map {@code trades.jser}.
+ *
  * @author Yuriy Kiselev (uze@yandex.ru)
  * @since 23.12.2018
  */
 public final class TradeDumpLoader {
 
+    // Shared by all loads so trades of every store reference single instance per distinct string
+    private static final StringPool STRINGS = new StringPool();
+
+    /**
+     * @return the pool all loaded strings are canonicalized with
+     */
+    public static StringPool strings() {
+        return STRINGS;
+    }
+
     public static Map<String, Map<Long, Trade>> load() {
-        try (InputStream is = Files.newInputStream(Paths.get(System.getProperty("tradesDumpFile", "trades.jser")));
+        final Path path = path();
+        if (isBinaryDump(path)) {
+            return loadList().stream()
+                    .collect(Collectors.groupingBy(
+                            Trade::getPortfolio,
+                            Collectors.toMap(Trade::getTradeId, Function.identity())
+                    ));
+        }
+        return deserialize(path);
+    }
+
+    public static List<Trade> loadList() {
+        final Path path = path();
+        if (isBinaryDump(path)) {
+            try {
+                return TradeDumpReader.readAll(path, STRINGS);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        final List<Trade> result = new ArrayList<>();
+        deserialize(path).values().forEach(m -> result.addAll(m.values()));
+        return result;
+    }
+
+    /**
+     * Loads trades chunk by chunk. Chunks of binary dump are decoded and passed to consumer in parallel.
+     *
+     * @param onHeader the callback to receive total number of trades before any chunk
+     * @param consumer the consumer of chunks
+     */
+    public static void load(IntConsumer onHeader, TradeDumpReader.ChunkConsumer consumer) {
+        final Path path = path();
+        if (isBinaryDump(path)) {
+            try {
+                TradeDumpReader.read(path, STRINGS, onHeader, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        final Trade[] trades = loadList().toArray(new Trade[0]);
+        onHeader.accept(trades.length);
+        consumer.accept(0, trades);
+    }
+
+    /**
+     * @return the path of trade dump file
+     */
+    public static Path path() {
+        final String file = System.getProperty("tradesDumpFile");
+        if (file != null) {
+            return Paths.get(file);
+        }
+        final Path binary = Paths.get("trades.bin");
+        return Files.exists(binary) ? binary : Paths.get("trades.jser");
+    }
+
+    private static boolean isBinaryDump(Path path) {
+        try {
+            return TradeDumpReader.isBinaryDump(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void intern(Trade trade) {
+        trade.setProduct(STRINGS.intern(trade.getProduct()));
+        trade.setPortfolio(STRINGS.intern(trade.getPortfolio()));
+        trade.setBook(STRINGS.intern(trade.getBook()));
+        trade.setDealType(STRINGS.intern(trade.getDealType()));
+        trade.setBidType(STRINGS.intern(trade.getBidType()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<Long, Trade>> deserialize(Path path) {
+        try (InputStream is = Files.newInputStream(path);
              InputStream bis = new BufferedInputStream(is);
              ObjectInputStream ois = new ObjectInputStream(bis)
         ) {
-            return (Map<String, Map<Long, Trade>>) ois.readObject();
+            final Map<String, Map<Long, Trade>> result = (Map<String, Map<Long, Trade>>) ois.readObject();
+            result.values().forEach(m -> m.values().forEach(TradeDumpLoader::intern));
+            return result;
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         } catch (ClassNotFoundException e) {
@@ -0,0 +1,251 @@
+package com.ag.grid.enterprise;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.github.ykiselev.ag.grid.data.columns.ZoneMap;
+import com.github.ykiselev.ag.grid.data.common.StringPool;
+import com.google.common.io.CountingInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Reads trades written by {@link TradeDumpWriter}. Chunks are read and decoded in parallel.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TradeDumpReader {
+
+    /**
+     * Consumer of decoded chunks. Called concurrently from multiple threads in no particular order.
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+
+        /**
+         * @param firstRow the index of the first trade of chunk in dump
+         * @param trades   the decoded trades
+         */
+        void accept(int firstRow, Trade[] trades);
+    }
+
+    /**
+     * @param path the path to dump file
+     * @return {@code true} if file is a binary trade dump
+     */
+    public static boolean isBinaryDump(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+            return channel.read(buffer, 0) == Integer.BYTES
+                    && buffer.getInt(0) == TradeDump.MAGIC;
+        }
+    }
+
+    /**
+     * @param path the path to dump file
+     * @return all trades in order they were written
+     */
+    public static List<Trade> readAll(Path path) throws IOException {
+        return readAll(path, new StringPool());
+    }
+
+    /**
+     * @param path    the path to dump file
+     * @param strings the pool to canonicalize strings with
+     * @return all trades in order they were written
+     */
+    public static List<Trade> readAll(Path path, StringPool strings) throws IOException {
+        final Trade[][] result = new Trade[1][];
+        read(path, strings, rows -> result[0] = new Trade[rows],
+                (firstRow, trades) -> System.arraycopy(trades, 0, result[0], firstRow, trades.length));
+        return Arrays.asList(result[0]);
+    }
+
+    /**
+     * @param path     the path to dump file
+     * @param onHeader the callback to receive total number of trades in dump before any chunk is decoded
+     * @param consumer the consumer of decoded chunks
+     */
+    public static void read(Path path, IntConsumer onHeader, ChunkConsumer consumer) throws IOException {
+        read(path, new StringPool(), onHeader, consumer);
+    }
+
+    /**
+     * @param path     the path to dump file
+     * @param strings  the pool to canonicalize strings with (trades of all dumps read with the same pool share
+     *                 string instances)
+     * @param onHeader the callback to receive total number of trades in dump before any chunk is decoded
+     * @param consumer the consumer of decoded chunks
+     */
+    public static void read(Path path, StringPool strings, IntConsumer onHeader, ChunkConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final Header header = readHeader(channel, strings);
+            onHeader.accept(header.rows);
+            try {
+                IntStream.range(0, header.chunkRows.length)
+                        .parallel()
+                        .forEach(c -> consumer.accept(header.firstRows[c], decode(channel, header, c)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    static Header readHeader(FileChannel channel, StringPool pool) throws IOException {
+        // Channel stream is not closed here as it would close the channel
+        final CountingInputStream is = new CountingInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel.position(0)), 1024 * 1024)
+        );
+        final DataInputStream dis = new DataInputStream(is);
+        if (dis.readInt() != TradeDump.MAGIC) {
+            throw new IOException("Not a trade dump!");
+        }
+        final int version = dis.readInt();
+        if (version != TradeDump.VERSION) {
+            throw new IOException("Unsupported dump version: " + version);
+        }
+        final int rows = dis.readInt();
+        final int chunks = dis.readInt();
+        final int stringCount = dis.readInt();
+        final List<String> strings = new ArrayList<>(stringCount + 1);
+        strings.add(null);
+        for (int i = 0; i < stringCount; i++) {
+            strings.add(pool.intern(dis.readUTF()));
+        }
+        final int[] chunkRows = new int[chunks];
+        final int[] firstRows = new int[chunks];
+        final long[] offsets = new long[chunks];
+        final long[][] min = new long[TradeDump.COLUMNS][chunks];
+        final long[][] max = new long[TradeDump.COLUMNS][chunks];
+        final int[][] nulls = new int[TradeDump.COLUMNS][chunks];
+        long offset = is.getCount() + (long) chunks * TradeDump.DIRECTORY_ENTRY_SIZE;
+        int firstRow = 0;
+        for (int c = 0; c < chunks; c++) {
+            chunkRows[c] = dis.readInt();
+            final int length = dis.readInt();
+            if (length != chunkRows[c] * TradeDump.ROW_SIZE) {
+                throw new IOException("Chunk #" + c + " has unexpected length: " + length);
+            }
+            if (c > 0 && chunkRows[c - 1] != chunkRows[0]) {
+                throw new IOException("Chunk #" + (c - 1) + " is not the last one but has " + chunkRows[c - 1] + " rows");
+            }
+            for (int col = 0; col < TradeDump.COLUMNS; col++) {
+                min[col][c] = dis.readLong();
+                max[col][c] = dis.readLong();
+                nulls[col][c] = dis.readInt();
+            }
+            firstRows[c] = firstRow;
+            offsets[c] = offset;
+            firstRow += chunkRows[c];
+            offset += length;
+        }
+        if (firstRow != rows) {
+            throw new IOException("Expected " + rows + " rows but chunks have " + firstRow);
+        }
+        final ZoneMap[] summaries = new ZoneMap[TradeDump.COLUMNS];
+        for (int col = 0; col < TradeDump.COLUMNS; col++) {
+            summaries[col] = ZoneMap.of(chunks > 0 ? chunkRows[0] : 1, min[col], max[col], nulls[col]);
+        }
+        return new Header(rows, strings.toArray(new String[0]), chunkRows, firstRows, offsets, summaries);
+    }
+
+    private static Trade[] decode(FileChannel channel, Header header, int chunk) {
+        final int rows = header.chunkRows[chunk];
+        final ByteBuffer buffer = ByteBuffer.allocate(rows * TradeDump.ROW_SIZE);
+        try {
+            long position = header.offsets[chunk];
+            while (buffer.hasRemaining()) {
+                final int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file in chunk #" + chunk);
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        final Trade[] trades = new Trade[rows];
+        for (int i = 0; i < rows; i++) {
+            trades[i] = new Trade();
+        }
+        final String[] strings = header.strings;
+        readStrings(buffer, trades, strings, Trade::setProduct);
+        readStrings(buffer, trades, strings, Trade::setPortfolio);
+        readStrings(buffer, trades, strings, Trade::setBook);
+        readStrings(buffer, trades, strings, Trade::setDealType);
+        readStrings(buffer, trades, strings, Trade::setBidType);
+        readLongs(buffer, trades, Trade::setTradeId);
+        readLongs(buffer, trades, Trade::setSubmitterId);
+        readLongs(buffer, trades, Trade::setSubmitterDealId);
+        readLongs(buffer, trades, Trade::setBatch);
+        readDoubles(buffer, trades, Trade::setCurrentValue);
+        readDoubles(buffer, trades, Trade::setPreviousValue);
+        readDoubles(buffer, trades, Trade::setPl1);
+        readDoubles(buffer, trades, Trade::setPl2);
+        readDoubles(buffer, trades, Trade::setGainDx);
+        readDoubles(buffer, trades, Trade::setSxPx);
+        readDoubles(buffer, trades, Trade::setX99Out);
+        return trades;
+    }
+
+    private static void readStrings(ByteBuffer buffer, Trade[] trades, String[] strings, BiConsumer<Trade, String> setter) {
+        for (Trade trade : trades) {
+            setter.accept(trade, strings[buffer.getInt()]);
+        }
+    }
+
+    private static void readLongs(ByteBuffer buffer, Trade[] trades, ObjLongConsumer<Trade> setter) {
+        for (Trade trade : trades) {
+            setter.accept(trade, buffer.getLong());
+        }
+    }
+
+    private static void readDoubles(ByteBuffer buffer, Trade[] trades, ObjDoubleConsumer<Trade> setter) {
+        for (Trade trade : trades) {
+            setter.accept(trade, buffer.getDouble());
+        }
+    }
+
+    static final class Header {
+
+        final int rows;
+
+        final String[] strings;
+
+        final int[] chunkRows;
+
+        final int[] firstRows;
+
+        final long[] offsets;
+
+        /**
+         * Zone maps with one block per chunk in order of columns.
+         */
+        final ZoneMap[] summaries;
+
+        Header(int rows, String[] strings, int[] chunkRows, int[] firstRows, long[] offsets, ZoneMap[] summaries) {
+            this.rows = rows;
+            this.strings = strings;
+            this.chunkRows = chunkRows;
+            this.firstRows = firstRows;
+            this.offsets = offsets;
+            this.summaries = summaries;
+        }
+    }
+}
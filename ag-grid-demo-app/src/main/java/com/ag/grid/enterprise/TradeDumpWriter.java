@@ -0,0 +1,180 @@
+package com.ag.grid.enterprise;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.github.ykiselev.ag.grid.data.columns.ZoneMap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes trades in binary format described in {@link TradeDump}.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TradeDumpWriter {
+
+    private static final List<Function<Trade, String>> STRINGS = Arrays.asList(
+            Trade::getProduct, Trade::getPortfolio, Trade::getBook, Trade::getDealType, Trade::getBidType
+    );
+
+    private static final List<ToLongFunction<Trade>> LONGS = Arrays.asList(
+            Trade::getTradeId, Trade::getSubmitterId, Trade::getSubmitterDealId, Trade::getBatch
+    );
+
+    private static final List<ToDoubleFunction<Trade>> DOUBLES = Arrays.asList(
+            Trade::getCurrentValue, Trade::getPreviousValue, Trade::getPl1, Trade::getPl2, Trade::getGainDx,
+            Trade::getSxPx, Trade::getX99Out
+    );
+
+    private final int chunkSize;
+
+    public TradeDumpWriter(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size should be positive!");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public TradeDumpWriter() {
+        this(TradeDump.DEFAULT_CHUNK_SIZE);
+    }
+
+    public void write(Path path, List<Trade> trades) throws IOException {
+        try (OutputStream os = Files.newOutputStream(path);
+             OutputStream bos = new BufferedOutputStream(os, 1024 * 1024);
+             DataOutputStream dos = new DataOutputStream(bos)
+        ) {
+            write(dos, trades);
+        }
+    }
+
+    private void write(DataOutputStream dos, List<Trade> trades) throws IOException {
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        for (Trade trade : trades) {
+            for (Function<Trade, String> getter : STRINGS) {
+                add(getter.apply(trade), dictionary, strings);
+            }
+        }
+        final int chunks = (trades.size() + chunkSize - 1) / chunkSize;
+        dos.writeInt(TradeDump.MAGIC);
+        dos.writeInt(TradeDump.VERSION);
+        dos.writeInt(trades.size());
+        dos.writeInt(chunks);
+        dos.writeInt(strings.size());
+        for (String s : strings) {
+            dos.writeUTF(s);
+        }
+        final List<ZoneMap> summaries = summarize(trades, dictionary);
+        for (int c = 0; c < chunks; c++) {
+            final int rows = rows(trades, c);
+            dos.writeInt(rows);
+            dos.writeInt(rows * TradeDump.ROW_SIZE);
+            for (ZoneMap summary : summaries) {
+                dos.writeLong(summary.min(c));
+                dos.writeLong(summary.max(c));
+                dos.writeInt(summary.nullCount(c));
+            }
+        }
+        for (int c = 0; c < chunks; c++) {
+            final List<Trade> chunk = trades.subList(c * chunkSize, c * chunkSize + rows(trades, c));
+            for (Function<Trade, String> getter : STRINGS) {
+                writeStrings(dos, chunk, dictionary, getter);
+            }
+            for (ToLongFunction<Trade> getter : LONGS) {
+                writeLongs(dos, chunk, getter);
+            }
+            for (ToDoubleFunction<Trade> getter : DOUBLES) {
+                writeDoubles(dos, chunk, getter);
+            }
+        }
+    }
+
+    /**
+     * Summarizes columns with one block per chunk (see {@link TradeDump}).
+     *
+     * @return the summaries in order of columns
+     */
+    private List<ZoneMap> summarize(List<Trade> trades, Map<String, Integer> dictionary) {
+        final List<ZoneMap> result = new ArrayList<>(TradeDump.COLUMNS);
+        for (Function<Trade, String> getter : STRINGS) {
+            final ZoneMap.Builder builder = ZoneMap.builder(chunkSize);
+            for (Trade trade : trades) {
+                final String value = getter.apply(trade);
+                if (value == null) {
+                    builder.addNull();
+                } else {
+                    builder.add(dictionary.get(value));
+                }
+            }
+            result.add(builder.build());
+        }
+        for (ToLongFunction<Trade> getter : LONGS) {
+            final ZoneMap.Builder builder = ZoneMap.builder(chunkSize);
+            for (Trade trade : trades) {
+                builder.add(getter.applyAsLong(trade));
+            }
+            result.add(builder.build());
+        }
+        for (ToDoubleFunction<Trade> getter : DOUBLES) {
+            final ZoneMap.Builder builder = ZoneMap.builder(chunkSize);
+            for (Trade trade : trades) {
+                final double value = getter.applyAsDouble(trade);
+                // Same truncation as DoubleAttribute#getLongGetter
+                if (value <= Long.MIN_VALUE || value >= Long.MAX_VALUE) {
+                    builder.addUnknown();
+                } else {
+                    builder.add((long) value);
+                }
+            }
+            result.add(builder.build());
+        }
+        return result;
+    }
+
+    private int rows(List<Trade> trades, int chunk) {
+        return Math.min(chunkSize, trades.size() - chunk * chunkSize);
+    }
+
+    /**
+     * Index 0 is reserved for {@code null}.
+     */
+    private static void add(String value, Map<String, Integer> dictionary, List<String> strings) {
+        if (value != null && !dictionary.containsKey(value)) {
+            strings.add(value);
+            dictionary.put(value, strings.size());
+        }
+    }
+
+    private static void writeStrings(DataOutputStream dos, List<Trade> chunk, Map<String, Integer> dictionary, Function<Trade, String> getter) throws IOException {
+        for (Trade trade : chunk) {
+            final String value = getter.apply(trade);
+            dos.writeInt(value != null ? dictionary.get(value) : 0);
+        }
+    }
+
+    private static void writeLongs(DataOutputStream dos, List<Trade> chunk, ToLongFunction<Trade> getter) throws IOException {
+        for (Trade trade : chunk) {
+            dos.writeLong(getter.applyAsLong(trade));
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream dos, List<Trade> chunk, ToDoubleFunction<Trade> getter) throws IOException {
+        for (Trade trade : chunk) {
+            dos.writeDouble(getter.applyAsDouble(trade));
+        }
+    }
+}
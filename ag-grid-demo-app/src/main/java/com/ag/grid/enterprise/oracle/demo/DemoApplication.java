@@ -1,8 +1,20 @@
 package com.ag.grid.enterprise.oracle.demo;
 
+import com.ag.grid.enterprise.TradeDumpLoader;
+import com.ag.grid.enterprise.oracle.demo.dao.CachingTradeDao;
+import com.ag.grid.enterprise.oracle.demo.dao.TradeDao;
+import com.ag.grid.enterprise.oracle.demo.domain.TradeTypeInfoFactory;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeSink;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeIngestor;
+import com.ag.grid.enterprise.oracle.demo.push.RowDeltaPublisher;
+import com.github.ykiselev.ag.grid.data.cache.PrefetchingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.execution.RowSourceExecutor;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.Ignition;
 import org.apache.ignite.configuration.IgniteConfiguration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
@@ -18,6 +30,10 @@ import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
 
 @SpringBootApplication
 public class DemoApplication {
@@ -75,6 +91,74 @@ public class DemoApplication {
         return new JdbcTemplate(dataSource());
     }
 
+    @Bean
+    @Lazy
+    public TradeDao cachingTradeDao(@Qualifier("databaseTradeDao") TradeDao tradeDao,
+                                    @Value("${getRows.cache.maxWeight}") long maxWeight) {
+        return new CachingTradeDao(tradeDao, maxWeight);
+    }
+
+    @Bean
+    @Lazy
+    public PrefetchingAgGridRowSource prefetchingRowSource(@Qualifier("cachingTradeDao") TradeDao tradeDao,
+                                                           @Value("${getRows.prefetch.threads}") int threads,
+                                                           @Value("${getRows.prefetch.maxPerSession}") int maxPerSession,
+                                                           @Value("${getRows.prefetch.childGroups}") int childGroups,
+                                                           @Value("${getRows.prefetch.ttlMillis}") long ttlMillis) {
+        return new PrefetchingAgGridRowSource(
+                tradeDao::getData,
+                PrefetchingAgGridRowSource.lowPriorityExecutor(threads, threads * maxPerSession * 4),
+                maxPerSession,
+                childGroups,
+                ttlMillis
+        );
+    }
+
+    @Bean
+    public RowDeltaPublisher rowDeltaPublisher(@Qualifier("cachingTradeDao") TradeDao tradeDao,
+                                               @Value("${push.maxBlocksPerSession}") int maxBlocksPerSession,
+                                               @Value("${push.timeoutMillis}") long timeoutMillis) {
+        return new RowDeltaPublisher(
+                tradeDao::getData,
+                TradeTypeInfoFactory.create(),
+                "tradeId",
+                Executors.newSingleThreadExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("rowDeltas-%d")
+                                .setDaemon(true)
+                                .build()
+                ),
+                maxBlocksPerSession,
+                timeoutMillis
+        );
+    }
+
+    @Bean
+    public TradeIngestor tradeIngestor(@Qualifier("cachingTradeDao") TradeDao tradeDao,
+                                       PrefetchingAgGridRowSource prefetchingRowSource,
+                                       RowDeltaPublisher rowDeltaPublisher,
+                                       @Value("${ingest.log}") String log,
+                                       @Value("${ingest.maxBatch}") int maxBatch,
+                                       @Value("${ingest.pollMillis}") long pollMillis) {
+        final List<TradeChangeSink> sinks = new ArrayList<>();
+        if (tradeDao instanceof TradeChangeSink) {
+            sinks.add((TradeChangeSink) tradeDao);
+        }
+        sinks.add(changes -> prefetchingRowSource.invalidateAll());
+        // Blocks are recomputed after stores and caches have seen the batch
+        sinks.add(rowDeltaPublisher);
+        final TradeIngestor result = new TradeIngestor(Paths.get(log), sinks, maxBatch, TradeDumpLoader.strings());
+        result.start(pollMillis);
+        return result;
+    }
+
+    @Bean
+    public RowSourceExecutor getRowsExecutor(@Value("${getRows.async.threads}") int threads,
+                                             @Value("${getRows.async.maxQueued}") int maxQueued) {
+        // Dispatching threads mostly wait for row sources, heavy work runs in executors of daos
+        return RowSourceExecutor.dispatching("getRows", threads, maxQueued);
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(DemoApplication.class, args);
     }
@@ -0,0 +1,61 @@
+package com.ag.grid.enterprise.oracle.demo;
+
+import com.ag.grid.enterprise.TradeDumpLoader;
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.domain.TradeTypeInfoFactory;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.ListBasedAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.PartitionedList;
+import com.github.ykiselev.ag.grid.data.shard.ShardServer;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Shard of trades served to {@link com.ag.grid.enterprise.oracle.demo.dao.ShardedTradeDao}. Loads trade dump and
+ * keeps only trades of portfolios owned by this shard (see {@link #shardOf(String, int)}).
+ * <p>
+ * Usage: {@code ShardNode <shard index> <shard count> [port]}, default port is {@code 9191 + shard index}.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ShardNode {
+
+    public static final int BASE_PORT = 9191;
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardNode <shard index> <shard count> [port]");
+            System.exit(1);
+        }
+        final int index = Integer.parseInt(args[0]);
+        final int count = Integer.parseInt(args[1]);
+        final int port = args.length > 2 ? Integer.parseInt(args[2]) : BASE_PORT + index;
+
+        final List<Trade> trades = TradeDumpLoader.loadList()
+                .stream()
+                .filter(t -> shardOf(t.getPortfolio(), count) == index)
+                .collect(Collectors.toList());
+        final TypeInfo<Trade> typeInfo = TradeTypeInfoFactory.create();
+        final PartitionedList<Trade> partitions = PartitionedList.of(trades, typeInfo, "portfolio");
+        final AgGridRowSource rowSource = new ListBasedAgGridRowSource<>(partitions, typeInfo);
+        final ShardServer server = new ShardServer(
+                port,
+                (request, token) -> rowSource.getRows(TradeDumpLoader.strings().canonicalize(request), token)
+        );
+        System.out.println("Shard " + index + "/" + count + " is serving " + partitions + " on port " + server.getPort());
+        Thread.currentThread().join();
+    }
+
+    /**
+     * @param portfolio the portfolio name
+     * @param count     the number of shards
+     * @return the index of shard owning portfolio
+     */
+    public static int shardOf(String portfolio, int count) {
+        return Math.floorMod(Objects.hashCode(portfolio), count);
+    }
+}
@@ -8,6 +8,7 @@ import com.tangosol.util.Filter;
 import com.tangosol.util.InvocableMap;
 import com.tangosol.util.ValueExtractor;
 import com.tangosol.util.aggregator.CompositeAggregator;
+import com.tangosol.util.aggregator.Count;
 import com.tangosol.util.aggregator.DoubleAverage;
 import com.tangosol.util.aggregator.DoubleMax;
 import com.tangosol.util.aggregator.DoubleMin;
@@ -42,7 +43,8 @@ public final class CacheQueryBuilder {
             AggFunc.AVG, col -> new DoubleAverage(CohFilters.getterFor(col)),
             AggFunc.SUM, col -> new DoubleSum(CohFilters.getterFor(col)),
             AggFunc.MIN, col -> new DoubleMin(CohFilters.getterFor(col)),
-            AggFunc.MAX, col -> new DoubleMax(CohFilters.getterFor(col))
+            AggFunc.MAX, col -> new DoubleMax(CohFilters.getterFor(col)),
+            AggFunc.COUNT, col -> new Count()
     );
 
     private List<String> rowGroups;
@@ -0,0 +1,14 @@
+package com.ag.grid.enterprise.oracle.demo.controller;
+
+/**
+ * Thrown when request of client is malformed, answered with 400 (Bad Request).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
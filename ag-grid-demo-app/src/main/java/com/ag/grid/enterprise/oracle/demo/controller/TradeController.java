@@ -1,18 +1,46 @@
 package com.ag.grid.enterprise.oracle.demo.controller;
 
+import com.ag.grid.enterprise.oracle.demo.dao.Reloadable;
 import com.ag.grid.enterprise.oracle.demo.dao.TradeDao;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeIngestor;
+import com.ag.grid.enterprise.oracle.demo.push.RowDeltaPublisher;
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter;
 import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.cache.PrefetchingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource;
+import com.github.ykiselev.ag.grid.data.cancel.SessionRequests;
+import com.github.ykiselev.ag.grid.data.common.Predicates;
+import com.github.ykiselev.ag.grid.data.execution.ExecutingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.execution.RowSourceExecutor;
+import com.github.ykiselev.ag.grid.data.types.ObjectAttribute;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.servlet.http.HttpSession;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 
@@ -21,25 +49,168 @@ public class TradeController {
 
     private final TradeDao tradeDao;
 
+    private final PrefetchingAgGridRowSource rowSource;
+
+    private final SessionRequests requests = new SessionRequests();
+
+    private final RowSourceExecutor executor;
+
+    private final long timeoutMillis;
+
+    private final TradeIngestor ingestor;
+
+    private final RowDeltaPublisher publisher;
+
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("reload-%d")
+                    .setDaemon(true)
+                    .build()
+    );
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private volatile String reloadStatus = "never reloaded";
+
     /**
-     * @param tradeDao any descendant of {@link TradeDao}
+     * @param tradeDao      any descendant of {@link TradeDao}
+     * @param rowSource     the row source prefetching from the same dao
+     * @param executor      the executor to compute responses on (so that container threads are not blocked), daos
+     *                      with executors of their own compute requests inline in it
+     * @param timeoutMillis the max time to compute response, computation is cancelled afterwards
+     * @param ingestor      the ingestor of live trade changes
+     * @param publisher     the publisher of changes of served blocks
      */
     @Autowired
-    public TradeController(@Qualifier("databaseTradeDao") TradeDao tradeDao) {
+    public TradeController(@Qualifier("cachingTradeDao") TradeDao tradeDao,
+                           PrefetchingAgGridRowSource rowSource,
+                           @Qualifier("getRowsExecutor") RowSourceExecutor executor,
+                           @Value("${getRows.timeoutMillis}") long timeoutMillis,
+                           TradeIngestor ingestor,
+                           RowDeltaPublisher publisher) {
         this.tradeDao = tradeDao;
+        this.rowSource = rowSource;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.ingestor = ingestor;
+        this.publisher = publisher;
     }
 
     @RequestMapping(method = POST, value = "/getRows")
     @ResponseBody
-    public AgGridGetRowsResponse getRows(@RequestBody AgGridGetRowsRequest request,
-                                         @RequestParam(name = "portfolio", required = false) String portfolio,
-                                         HttpSession session
+    public DeferredResult<AgGridGetRowsResponse> getRows(@RequestBody AgGridGetRowsRequest request,
+                                                         @RequestParam(name = "portfolio", required = false) String portfolio,
+                                                         HttpSession session
     ) {
-        return tradeDao.getData(request);
+        if (portfolio != null) {
+            request.setFilterModel(routeToPortfolio(request.getFilterModel(), portfolio));
+        }
+        final String sessionId = session.getId();
+        // Request for another view cancels requests of the same session which are still in progress
+        final CancellationTokenSource token = requests.begin(sessionId, request);
+        final DeferredResult<AgGridGetRowsResponse> result = new DeferredResult<>(timeoutMillis);
+        result.onTimeout(() -> {
+            token.cancel();
+            result.setErrorResult(new TimeoutException("Request timed out after " + timeoutMillis + " ms"));
+        });
+        // Client has disconnected or container failed to complete request
+        result.onError(t -> token.cancel());
+        result.onCompletion(() -> requests.end(sessionId, token));
+        final CompletableFuture<AgGridGetRowsResponse> future;
+        try {
+            future = new ExecutingAgGridRowSource((r, t) -> rowSource.getRows(sessionId, r, t), executor)
+                    .submit(request, token);
+        } catch (RuntimeException e) {
+            // Overloaded or already cancelled by the next request of session
+            requests.end(sessionId, token);
+            throw e;
+        }
+        future.whenComplete((response, t) -> {
+            if (t == null) {
+                publisher.register(sessionId, request, response);
+                result.setResult(response);
+            } else {
+                result.setErrorResult(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Routes request straight to the portfolio partition of in-memory stores. Portfolio filter set by user is combined
+     * with the routed portfolio: since the result is a single portfolio at most, it is either that portfolio or none
+     * (filter which matches nothing, so response is empty).
+     *
+     * @param filterModel the filter model of request (may be {@code null})
+     * @param portfolio   the portfolio to route request to
+     * @return the new filter model
+     * @throws BadRequestException if portfolio filter of user is not applicable to portfolio names
+     */
+    static Map<String, ColumnFilter> routeToPortfolio(Map<String, ColumnFilter> filterModel, String portfolio) {
+        final Map<String, ColumnFilter> result = filterModel != null ? new HashMap<>(filterModel) : new HashMap<>();
+        final ColumnFilter existing = result.get("portfolio");
+        if (existing != null && !admits(existing, portfolio)) {
+            result.put("portfolio", new SetColumnFilter(Collections.emptySet()));
+        } else {
+            result.put("portfolio", new GroupKey(portfolio));
+        }
+        return result;
+    }
+
+    private static boolean admits(ColumnFilter filter, String portfolio) {
+        try {
+            return Predicates.predicate(new ObjectAttribute<>("portfolio", String.class, Function.<String>identity()), filter)
+                    .test(portfolio);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Portfolio filter " + filter + " is not applicable to portfolio names");
+        }
     }
 
     @GetMapping("/cache")
     public String getCacheInfo() {
-        return tradeDao.getCacheInfo();
+        return rowSource.getInfo() + "\n" + tradeDao.getCacheInfo();
+    }
+
+    /**
+     * Subscribes session to changes of blocks it requests via {@code /getRows}.
+     */
+    @GetMapping("/rowDeltas")
+    public SseEmitter rowDeltas(HttpSession session) {
+        return publisher.subscribe(session.getId());
+    }
+
+    /**
+     * Starts reload of data set from fresh dump, requests are served from the current data set until the new one is
+     * ready. Changes ingested so far are replayed on top of the dump.
+     */
+    @RequestMapping(method = POST, value = "/reload")
+    public String reload() {
+        if (!(tradeDao instanceof Reloadable) || !((Reloadable) tradeDao).isReloadable()) {
+            return "unsupported!";
+        }
+        if (!reloading.compareAndSet(false, true)) {
+            return "Reload is in progress";
+        }
+        final long started = System.currentTimeMillis();
+        reloadStatus = "started at " + Instant.ofEpochMilli(started);
+        CompletableFuture.runAsync(() -> {
+            ((Reloadable) tradeDao).reload(ingestor);
+            rowSource.invalidateAll();
+        }, reloadExecutor).whenComplete((v, t) -> {
+            reloadStatus = (t == null ? "completed" : "failed (" + t.getMessage() + ")") + " in "
+                    + (System.currentTimeMillis() - started) + " ms, started at " + Instant.ofEpochMilli(started);
+            reloading.set(false);
+        });
+        return reloadStatus;
+    }
+
+    @GetMapping("/reload")
+    public String getReloadStatus() {
+        return reloadStatus;
+    }
+
+    @GetMapping("/ingest")
+    public String getIngestInfo() {
+        return ingestor + "\n" + publisher;
     }
 }
\ No newline at end of file
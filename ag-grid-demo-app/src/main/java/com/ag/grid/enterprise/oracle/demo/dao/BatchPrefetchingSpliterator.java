@@ -0,0 +1,194 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spliterator of values fetched by keys in batches (like {@code NamedCache#getAll}) with up to {@code maxInFlight}
+ * batches fetched asynchronously ahead of the one being consumed, so that round trips overlap with processing of
+ * fetched values.
+ * <p>
+ * Next batch is submitted only when consumer takes fetched one, so slow consumer holds at most {@code maxInFlight + 1}
+ * batches in memory. Nothing is fetched until the first value is requested, so parallel stream splits key
+ * range (at batch boundaries) before fetching starts and each split prefetches its own window.
+ * <p>
+ * Cancellation token is checked between batches and batches in flight are cancelled once it is cancelled (queued ones
+ * are skipped, running ones complete but their results are dropped), so consumer waiting for batch fails with
+ * {@link CancelledException} right away. Owner of stream which is not consumed to the end (like with {@code limit})
+ * should cancel token to stop prefetching.
+ * <p>
+ * Keys absent in source are skipped.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class BatchPrefetchingSpliterator<K, V> implements Spliterator<V> {
+
+    private final List<K> keys;
+
+    private final Function<? super List<K>, ? extends Map<K, V>> getAll;
+
+    private final Executor executor;
+
+    private final CancellationToken token;
+
+    private final int batchSize;
+
+    private final int maxInFlight;
+
+    private final int end;
+
+    /**
+     * The index of the first key which is not submitted yet.
+     */
+    private int next;
+
+    private final Deque<Future<? extends Map<K, V>>> inFlight = new ArrayDeque<>();
+
+    private Iterator<V> current = Collections.emptyIterator();
+
+    /**
+     * @param keys        the keys to fetch (random access list, never changed)
+     * @param getAll      the function to fetch values by batch of keys
+     * @param executor    the executor to fetch batches on
+     * @param token       the cancellation token
+     * @param batchSize   the max number of keys per batch
+     * @param maxInFlight the max number of batches fetched ahead of the one being consumed
+     */
+    public BatchPrefetchingSpliterator(List<K> keys, Function<? super List<K>, ? extends Map<K, V>> getAll,
+                                       Executor executor, CancellationToken token, int batchSize, int maxInFlight) {
+        this(keys, getAll, executor, token, batchSize, maxInFlight, 0, keys.size());
+    }
+
+    private BatchPrefetchingSpliterator(List<K> keys, Function<? super List<K>, ? extends Map<K, V>> getAll,
+                                        Executor executor, CancellationToken token, int batchSize, int maxInFlight,
+                                        int from, int to) {
+        if (batchSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("Batch size and max number of batches in flight should be positive!");
+        }
+        this.keys = requireNonNull(keys);
+        this.getAll = requireNonNull(getAll);
+        this.executor = requireNonNull(executor);
+        this.token = requireNonNull(token);
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.next = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super V> action) {
+        while (!current.hasNext()) {
+            if (token.isCancelled()) {
+                cancel();
+                throw new CancelledException();
+            }
+            submit();
+            final Future<? extends Map<K, V>> batch = inFlight.poll();
+            if (batch == null) {
+                return false;
+            }
+            // Next batch goes on while this one is consumed
+            submit();
+            current = await(batch).values().iterator();
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    private void submit() {
+        while (inFlight.size() < maxInFlight && next < end) {
+            final List<K> batch = keys.subList(next, Math.min(end, next + batchSize));
+            next += batch.size();
+            final CompletableFuture<Map<K, V>> future = CompletableFuture.supplyAsync(() -> getAll.apply(batch), executor);
+            final AutoCloseable registration = token.onCancel(() -> future.cancel(false));
+            future.whenComplete((v, t) -> unregister(registration));
+            inFlight.add(future);
+        }
+    }
+
+    private static void unregister(AutoCloseable registration) {
+        try {
+            registration.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Map<K, V> await(Future<? extends Map<K, V>> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new CancelledException(e);
+        } catch (CancellationException e) {
+            cancel();
+            throw new CancelledException(e);
+        } catch (ExecutionException e) {
+            cancel();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void cancel() {
+        inFlight.forEach(f -> f.cancel(false));
+        inFlight.clear();
+        next = end;
+    }
+
+    /**
+     * Splits keys which are not submitted yet in halves at batch boundary.
+     */
+    @Override
+    public Spliterator<V> trySplit() {
+        final int batches = (end - next) / batchSize;
+        if (batches < 2) {
+            return null;
+        }
+        final int mid = next + (batches / 2) * batchSize;
+        final Spliterator<V> prefix = new BatchPrefetchingSpliterator<>(keys, getAll, executor, token,
+                batchSize, maxInFlight, next, mid);
+        next = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - next + (long) inFlight.size() * batchSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchPrefetchingSpliterator{" +
+                "next=" + next +
+                ", end=" + end +
+                ", inFlight=" + inFlight.size() +
+                '}';
+    }
+}
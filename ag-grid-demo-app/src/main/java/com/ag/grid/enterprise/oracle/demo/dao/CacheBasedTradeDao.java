@@ -1,45 +1,69 @@
 package com.ag.grid.enterprise.oracle.demo.dao;
 
 import com.ag.grid.enterprise.TradeDumpLoader;
+import com.ag.grid.enterprise.oracle.demo.builder.CohFilters;
 import com.ag.grid.enterprise.oracle.demo.domain.Portfolio;
 import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeSink;
 import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
 import com.github.ykiselev.ag.grid.data.AgGridRowSource;
 import com.github.ykiselev.ag.grid.data.FilteredObjectSource;
 import com.github.ykiselev.ag.grid.data.ObjectSourceBasedAgGridRowSource;
 import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource;
+import com.github.ykiselev.ag.grid.data.execution.ExecutingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.execution.RowSourceExecutor;
 import com.github.ykiselev.ag.grid.data.types.ReflectedTypeInfo;
 import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.tangosol.net.CacheFactory;
 import com.tangosol.net.NamedCache;
-import com.tangosol.util.comparator.ExtractorComparator;
-import com.tangosol.util.comparator.InverseComparator;
+import com.tangosol.net.PartitionedService;
+import com.tangosol.net.partition.KeyPartitioningStrategy;
+import com.tangosol.util.Filter;
+import com.tangosol.util.extractor.KeyExtractor;
 import com.tangosol.util.extractor.ReflectionExtractor;
 import com.tangosol.util.filter.AlwaysFilter;
-import com.tangosol.util.filter.LimitFilter;
+import com.tangosol.util.processor.ConditionalRemove;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.Objects.requireNonNull;
 
 @Repository("cacheBasedTradeDao")
 @Lazy
-public class CacheBasedTradeDao implements TradeDao, AutoCloseable {
+public class CacheBasedTradeDao implements TradeDao, TradeChangeSink, AutoCloseable {
 
     public static final ReflectionExtractor<Object, Object> GET_TRADE_ID = new ReflectionExtractor<>("getTradeId");
     private final Logger logger = LoggerFactory.getLogger(getClass());
@@ -50,17 +74,68 @@ public class CacheBasedTradeDao implements TradeDao, AutoCloseable {
 
     private final TypeInfo<Trade> typeInfo = ReflectedTypeInfo.of(Trade.class);
 
-    private final ThreadLocal<Stats> stats = ThreadLocal.withInitial(Stats::new);
+    private final RowSourceExecutor rowSourceExecutor = RowSourceExecutor.create("cacheBasedTradeDao");
 
-    private final AgGridRowSource rowSource = new ObjectSourceBasedAgGridRowSource<>(FilteredTradeSource::new);
+    // Object source is created per request so that trade fetching can see the request's cancellation token
+    private final AgGridRowSource rowSource = new ExecutingAgGridRowSource(
+            (request, token) -> new ObjectSourceBasedAgGridRowSource<>(
+                    filters -> new FilteredTradeSource(filters, token)
+            ).getRows(request, token),
+            rowSourceExecutor
+    );
 
-    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    // Index builds which do not fit into queue are rejected, requests fall back to unindexed keys until then
+    private final ExecutorService executorService = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Integer.getInteger("indexing.maxQueued", 100)));
 
-    private final PortfolioKeyCache portfolioKeyCache = new DefaultPortfolioKeyCache(1_000, executorService);
+    private final DefaultPortfolioKeyCache portfolioKeyCache = new DefaultPortfolioKeyCache(
+            1_000,
+            Long.getLong("indexing.maxBytes", DefaultPortfolioKeyCache.DEFAULT_MAX_BYTES),
+            executorService
+    );
+
+    private final IndexMaintainer indexMaintainer;
+
+    // Built indexes are persisted periodically and on shutdown so the first user after restart does not pay for them
+    private final Path snapshotPath = Paths.get(System.getProperty("indexing.snapshot", "trade-indexes.bin"));
+
+    private final ScheduledExecutorService snapshotExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("index-snapshot-%d")
+                    .setDaemon(true)
+                    .build()
+    );
+
+    // Trades are fetched by batches of keys with a few batches in flight per split of parallel stream
+    private final ExecutorService fetchExecutor = Executors.newFixedThreadPool(
+            Integer.getInteger("fetch.threads", 8),
+            new ThreadFactoryBuilder()
+                    .setNameFormat("trade-fetch-%d")
+                    .setDaemon(true)
+                    .build()
+    );
+
+    private final int fetchBatchSize = Integer.getInteger("fetch.batchSize", 500);
+
+    private final int fetchMaxInFlight = Integer.getInteger("fetch.maxInFlight", 4);
+
+    private volatile long dataChecksum;
+
+    /**
+     * Set when trades were changed after {@link #dataChecksum} was calculated.
+     */
+    private volatile boolean dataChanged;
 
     public CacheBasedTradeDao() {
         this.trades = CacheFactory.getCache("Trades");
         this.portfolios = CacheFactory.getCache("Portfolios");
+        this.indexMaintainer = new IndexMaintainer(portfolioKeyCache, typeInfo, trades, portfolios,
+                Executors.newSingleThreadExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("index-maintainer-%d")
+                                .setDaemon(true)
+                                .build()
+                ));
     }
 
     @PostConstruct
@@ -95,16 +170,128 @@ public class CacheBasedTradeDao implements TradeDao, AutoCloseable {
             );
             logger.info("Data loaded.");
         }
+        restoreIndexes();
+        indexMaintainer.start();
+        final long period = Long.getLong("indexing.snapshotPeriodMinutes", 10);
+        snapshotExecutor.scheduleWithFixedDelay(this::saveIndexes, period, period, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @return the checksum of trade keys of portfolios and of trades (calculated by storage members)
+     */
+    private long checksumOfData() {
+        final long keys = IndexSnapshot.checksumOf(
+                portfolios.values()
+                        .stream()
+                        .collect(Collectors.toMap(Portfolio::getName, Portfolio::getTradeKeys))
+        );
+        final Long values = trades.aggregate(AlwaysFilter.INSTANCE(), new ValueChecksumAggregator<>());
+        return keys * 31 + (values != null ? values : 0);
+    }
+
+    private void restoreIndexes() {
+        dataChecksum = checksumOfData();
+        try {
+            final Optional<IndexSnapshot> snapshot = IndexSnapshot.read(snapshotPath, dataChecksum);
+            if (snapshot.isPresent()) {
+                logger.info("Restored {} index(es) from {}", portfolioKeyCache.restore(snapshot.get()), snapshotPath);
+            } else {
+                logger.info("No valid index snapshot found at {}", snapshotPath);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to restore indexes from " + snapshotPath, e);
+        }
+    }
+
+    /**
+     * Saves indexes along with checksum of data they were patched to. Indexes lag behind caches until queued events
+     * are applied, so snapshot is taken only if index maintainer has applied every event it received before checksum
+     * was calculated and none arrived while snapshot was taken, otherwise it is postponed to the next period.
+     */
+    private synchronized void saveIndexes() {
+        try {
+            final long received = indexMaintainer.getReceived();
+            if (!indexMaintainer.isIdle()) {
+                logger.info("Index changes are pending, snapshot is postponed: {}", indexMaintainer);
+                return;
+            }
+            final boolean changed = dataChanged;
+            if (changed) {
+                dataChanged = false;
+                dataChecksum = checksumOfData();
+            }
+            final IndexSnapshot snapshot = portfolioKeyCache.snapshot(dataChecksum);
+            if (indexMaintainer.getReceived() != received || !indexMaintainer.isIdle()) {
+                if (changed) {
+                    dataChanged = true;
+                }
+                logger.info("Data changed while snapshot was taken, snapshot is postponed: {}", indexMaintainer);
+                return;
+            }
+            if (!snapshot.getEntries().isEmpty()) {
+                snapshot.write(snapshotPath);
+                logger.info("Saved {} to {}", snapshot, snapshotPath);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to save indexes to " + snapshotPath, e);
+        }
+    }
+
+    /**
+     * Puts and removes trades with bulk operations, then updates key sets of touched portfolios. Indexes are patched
+     * by {@link IndexMaintainer} from events of both caches.
+     */
+    @Override
+    public void apply(Collection<TradeChange> changes) {
+        final Map<Long, Trade> upserts = new HashMap<>();
+        final Set<Long> deletes = new HashSet<>();
+        final Map<String, Set<Long>> added = new HashMap<>();
+        final Map<String, Set<Long>> removed = new HashMap<>();
+        for (TradeChange change : changes) {
+            if (change.isDelete()) {
+                deletes.add(change.getTradeId());
+                removed.computeIfAbsent(change.getPortfolio(), p -> new HashSet<>()).add(change.getTradeId());
+            } else {
+                upserts.put(change.getTradeId(), change.getTrade());
+                added.computeIfAbsent(change.getPortfolio(), p -> new HashSet<>()).add(change.getTradeId());
+            }
+        }
+        deletes.removeAll(upserts.keySet());
+        if (!deletes.isEmpty()) {
+            trades.invokeAll(deletes, new ConditionalRemove<>(AlwaysFilter.INSTANCE()));
+        }
+        trades.putAll(upserts);
+
+        final Set<String> touched = new HashSet<>(added.keySet());
+        touched.addAll(removed.keySet());
+        final Map<String, Portfolio> current = portfolios.getAll(touched);
+        final Map<String, Portfolio> updated = new HashMap<>();
+        for (String name : touched) {
+            final Portfolio portfolio = current.get(name);
+            final Set<Long> keys = portfolio != null
+                    ? new HashSet<>(portfolio.getTradeKeys())
+                    : new HashSet<>();
+            keys.removeAll(removed.getOrDefault(name, Collections.emptySet()));
+            keys.addAll(added.getOrDefault(name, Collections.emptySet()));
+            updated.put(name, new Portfolio(name, keys));
+        }
+        portfolios.putAll(updated);
+        dataChanged = true;
     }
 
     @Override
     public void close() {
+        snapshotExecutor.shutdownNow();
+        indexMaintainer.close();
+        saveIndexes();
         executorService.shutdown();
+        fetchExecutor.shutdownNow();
+        rowSourceExecutor.close();
     }
 
     @Override
     public String getCacheInfo() {
-        return portfolioKeyCache.getInfo();
+        return rowSourceExecutor + "\n" + indexMaintainer + "\n" + portfolioKeyCache.getInfo();
     }
 
     @Override
@@ -126,26 +313,45 @@ public class CacheBasedTradeDao implements TradeDao, AutoCloseable {
 
     }
 
-    private final class Stats {
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
+        return rowSource.getRows(request, token);
+    }
+
+    /**
+     * Orders keys by partition (preserving order within partition) so that each batch of {@code getAll} hits as few
+     * partitions (and so members) as possible.
+     */
+    private List<Long> orderByPartition(List<Long> keys) {
+        if (!(trades.getCacheService() instanceof PartitionedService)) {
+            return keys;
+        }
+        final KeyPartitioningStrategy strategy = ((PartitionedService) trades.getCacheService()).getKeyPartitioningStrategy();
+        final Map<Integer, List<Long>> byPartition = new TreeMap<>();
+        for (Long key : keys) {
+            byPartition.computeIfAbsent(strategy.getKeyPartition(key), p -> new ArrayList<>()).add(key);
+        }
+        final List<Long> result = new ArrayList<>(keys.size());
+        byPartition.values().forEach(result::addAll);
+        return result;
+    }
 
-        private long idCounter;
+    private final class Stats {
 
-        private long tradeCounter;
+        private final LongAdder idCounter = new LongAdder();
 
-        void before() {
-            idCounter = tradeCounter = 0;
-        }
+        private final LongAdder tradeCounter = new LongAdder();
 
         void peekTradeId(Long id) {
-            idCounter++;
+            idCounter.increment();
         }
 
         void peekTrade(Trade trade) {
-            tradeCounter++;
+            tradeCounter.increment();
         }
 
         void print() {
-            logger.info("Loaded {} id(s) and {} trade(s)", idCounter, tradeCounter);
+            logger.info("Loaded {} id(s) and {} trade(s)", idCounter.sum(), tradeCounter.sum());
         }
     }
 
@@ -153,8 +359,22 @@ public class CacheBasedTradeDao implements TradeDao, AutoCloseable {
 
         private final RequestFilters filters;
 
-        FilteredTradeSource(RequestFilters filters) {
+        private final CancellationToken token;
+
+        /**
+         * Cancelled along with request or once this source is closed, so batches fetched ahead of stream which was not
+         * consumed to the end are dropped.
+         */
+        private final CancellationTokenSource fetches = new CancellationTokenSource();
+
+        private final AutoCloseable link;
+
+        private final Stats stats = new Stats();
+
+        FilteredTradeSource(RequestFilters filters, CancellationToken token) {
             this.filters = requireNonNull(filters);
+            this.token = requireNonNull(token);
+            this.link = token.onCancel(fetches::cancel);
         }
 
         @Override
@@ -174,15 +394,7 @@ public class CacheBasedTradeDao implements TradeDao, AutoCloseable {
 
         @Override
         public Stream<Trade> stream() {
-            return trades.entrySet(new LimitFilter(AlwaysFilter.INSTANCE(), 100),
-                    new InverseComparator(new ExtractorComparator(GET_TRADE_ID)))
-                    .stream()
-                    .map(Map.Entry::getValue);
-            /*
-            final Stats stats = CacheBasedTradeDao.this.stats.get();
-            stats.before();
-            final ColumnFilter keyFilter = filters.getFilter("portfolio");
-            final Filter filter = CohFilters.toFilter(keyFilter, new KeyExtractor());
+            final Filter filter = CohFilters.toFilter(filters.getFilter("portfolio"), new KeyExtractor());
             final List<Long> keys = portfolios.entrySet(filter)
                     .stream()
                     .map(Map.Entry::getValue)
@@ -191,18 +403,26 @@ public class CacheBasedTradeDao implements TradeDao, AutoCloseable {
                     .peek(stats::peekTradeId)
                     .collect(Collectors.toList());
 
-            return StreamSupport.stream(Iterables.partition(keys, 500).spliterator(), false)
-                    .flatMap(k -> trades.getAll(k).entrySet().stream())
-                    .map(Map.Entry::getValue)
-                    .peek(stats::peekTrade);*/
+            return StreamSupport.stream(
+                    new BatchPrefetchingSpliterator<>(orderByPartition(keys), trades::getAll, fetchExecutor, fetches,
+                            fetchBatchSize, fetchMaxInFlight),
+                    true
+            ).peek(stats::peekTrade);
         }
 
         @Override
         public void close() {
-            stats.get().print();
+            fetches.cancel();
+            try {
+                link.close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            stats.print();
         }
 
         private Collection<Long> getFilteredPortfolioKeys(Portfolio portfolio) {
+            token.throwIfCancelled();
             return portfolioKeyCache.getKeys(portfolio, filters, typeInfo, trades);
         }
     }
@@ -0,0 +1,98 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeHistory;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeSink;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.cache.CachingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Trade dao decorator which caches responses of delegate dao.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class CachingTradeDao implements TradeDao, TradeChangeSink, Reloadable {
+
+    private final TradeDao delegate;
+
+    private final CachingAgGridRowSource rowSource;
+
+    public CachingTradeDao(TradeDao delegate, long maxWeightInBytes) {
+        this.delegate = requireNonNull(delegate);
+        this.rowSource = new CachingAgGridRowSource(delegate::getData, maxWeightInBytes);
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request) {
+        return rowSource.getRows(request);
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
+        return rowSource.getRows(request, token);
+    }
+
+    /**
+     * Should be called after any change of trades.
+     */
+    public void invalidateAll() {
+        rowSource.invalidateAll();
+    }
+
+    /**
+     * Should be called after trades of single portfolio were changed.
+     *
+     * @param portfolio the portfolio name
+     */
+    public void invalidatePortfolio(String portfolio) {
+        rowSource.invalidate("portfolio", portfolio);
+    }
+
+    /**
+     * Applies changes to delegate (if it accepts them) and drops cached responses of touched portfolios.
+     */
+    @Override
+    public void apply(Collection<TradeChange> changes) {
+        if (delegate instanceof TradeChangeSink) {
+            ((TradeChangeSink) delegate).apply(changes);
+        }
+        rowSource.invalidate(
+                "portfolio",
+                changes.stream()
+                        .map(TradeChange::getPortfolio)
+                        .collect(Collectors.toSet())
+        );
+    }
+
+    /**
+     * Reloads delegate and drops all cached responses.
+     *
+     * @throws IllegalStateException if delegate is not reloadable (see {@link #isReloadable()})
+     */
+    @Override
+    public void reload(TradeChangeHistory history) {
+        if (!isReloadable()) {
+            throw new IllegalStateException("Delegate can not be reloaded: " + delegate.getClass().getName());
+        }
+        ((Reloadable) delegate).reload(history);
+        rowSource.invalidateAll();
+    }
+
+    @Override
+    public boolean isReloadable() {
+        return delegate instanceof Reloadable && ((Reloadable) delegate).isReloadable();
+    }
+
+    @Override
+    public String getCacheInfo() {
+        return rowSource.getInfo() + "\n" + delegate.getCacheInfo();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs JDBC queries which are aborted via {@link java.sql.Statement#cancel()} once cancellation token is cancelled.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+final class CancellableQueries {
+
+    private static final Logger logger = LoggerFactory.getLogger(CancellableQueries.class);
+
+    private CancellableQueries() {
+    }
+
+    static <T> List<T> query(JdbcTemplate template, String sql, RowMapper<T> rowMapper, CancellationToken token) {
+        token.throwIfCancelled();
+        final AtomicReference<AutoCloseable> registration = new AtomicReference<>();
+        try {
+            return template.query(
+                    con -> {
+                        final PreparedStatement ps = con.prepareStatement(sql);
+                        registration.set(token.onCancel(() -> cancel(ps)));
+                        return ps;
+                    },
+                    rowMapper
+            );
+        } catch (DataAccessException e) {
+            if (token.isCancelled()) {
+                throw new CancelledException(e);
+            }
+            throw e;
+        } finally {
+            final AutoCloseable r = registration.get();
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (Exception e) {
+                    logger.warn("Unable to unregister callback!", e);
+                }
+            }
+        }
+    }
+
+    private static void cancel(PreparedStatement ps) {
+        try {
+            ps.cancel();
+        } catch (SQLException e) {
+            logger.warn("Unable to cancel statement!", e);
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Column indexes of containers (like portfolios) kept within global memory budget.
+ * <p>
+ * Index is built on bounded executor when it is requested for the first time, requests fall back to unindexed keys
+ * until it is ready (or if build was rejected by executor, it is retried by the next request). Failed build is retried
+ * by request after {@link #RETRY_MILLIS}.
+ * <p>
+ * Size of each built index is estimated (see {@link MapBasedColumnIndex#getEstimatedSize()}), when total size exceeds
+ * budget indexes are evicted starting from the least frequently used ones, the least recently used first among equally
+ * frequent. Frequencies are halved every {@link #AGING_PERIOD} lookups, so indexes which were popular long ago do not
+ * stay forever. Evicted indexes are forgotten along with their statistics, so the number of tracked indexes does not
+ * grow with the number of combinations ever requested.
+ * <p>
+ * New index is admitted only if it fits into budget as is or it is used more frequently than each of indexes which
+ * would be evicted to make room for it. Admission is checked before build (with expected size given by caller or the
+ * size of the last build of that index) and once again before built index is installed. Refused index is not built
+ * again until its frequency grows enough, entry of refused index remembers its size until it is dropped as idle.
+ * <p>
+ * Built indexes are kept up to date by patches (see {@link #update(String, BiFunction)}), patches arriving before index
+ * is ready are replayed on it once it is built (builder may have captured container before the change).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ColumnIndexManager<C> {
+
+    static final int AGING_PERIOD = 10_000;
+
+    static final long RETRY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Entries of indexes which are not built are dropped after that long without lookups.
+     */
+    private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Entry of index which is not being built is dropped once it has that many patches queued.
+     */
+    static final int MAX_PENDING = 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private final long maxBytes;
+
+    private final ExecutorService executor;
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong lookups = new AtomicLong();
+
+    private final AtomicLong builds = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong rejections = new AtomicLong();
+
+    private final AtomicLong refusals = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong patches = new AtomicLong();
+
+    /**
+     * @param maxBytes the max estimated size of all built indexes
+     * @param executor the bounded executor to build indexes on
+     */
+    public ColumnIndexManager(long maxBytes, ExecutorService executor) {
+        this.maxBytes = maxBytes;
+        this.executor = requireNonNull(executor);
+    }
+
+    /**
+     * @param key           the index key
+     * @param expectedBytes the expected size of index (see {@link MapBasedColumnIndex#expectedSize(int)})
+     * @param builder       the builder to use if index is not built yet
+     * @return the built index or {@code null} if it is not ready (build is scheduled if it is not in progress and index
+     * would be admitted)
+     */
+    public MapBasedColumnIndex<C> get(Key key, long expectedBytes, Callable<MapBasedColumnIndex<C>> builder) {
+        final Entry entry = entries.computeIfAbsent(key, Entry::new);
+        touch(entry);
+        final MapBasedColumnIndex<C> index = entry.index;
+        if (index != null) {
+            entry.hits.increment();
+            return index;
+        }
+        entry.misses.increment();
+        schedule(entry, expectedBytes, builder);
+        return null;
+    }
+
+    /**
+     * Schedules build of index ahead of demand (for example after data it was built from was changed).
+     *
+     * @param key           the index key
+     * @param expectedBytes the expected size of index
+     * @param builder       the builder
+     */
+    public void rebuild(Key key, long expectedBytes, Callable<MapBasedColumnIndex<C>> builder) {
+        final Entry entry = entries.computeIfAbsent(key, Entry::new);
+        entry.frequency.compareAndSet(0, 1);
+        schedule(entry, expectedBytes, builder);
+    }
+
+    /**
+     * Installs previously built index if there is no such index (built or pending) and it is admitted.
+     *
+     * @param key   the index key
+     * @param index the index
+     * @return {@code true} if index was installed
+     */
+    public boolean restore(Key key, MapBasedColumnIndex<C> index) {
+        final Entry entry = new Entry(key);
+        if (entries.putIfAbsent(key, entry) != null) {
+            return false;
+        }
+        install(entry, index, 0);
+        return entry.index != null;
+    }
+
+    /**
+     * Patches indexes of container. Patches of indexes which are not built yet are queued and applied in order once
+     * build is completed, so patch must be idempotent (bring index to the state at the time of change regardless of
+     * whether build has seen that change or not). Entry of index which is not being built is dropped rather than
+     * queueing more than {@link #MAX_PENDING} patches, the next request starts over with fresh builder.
+     * <p>
+     * Built index is patched without locks and the result is installed only if index was not replaced meanwhile
+     * (otherwise the current one is patched again), so lookups, builds and evictions are not blocked by patching.
+     * Updates of the same container should not be concurrent.
+     *
+     * @param container the container name
+     * @param patch     the function to patch index with
+     */
+    public void update(String container, BiFunction<Key, MapBasedColumnIndex<C>, MapBasedColumnIndex<C>> patch) {
+        for (Entry entry : entries.values()) {
+            if (Objects.equals(entry.key.getContainer(), container)) {
+                update(entry, patch);
+            }
+        }
+        evict();
+    }
+
+    private void update(Entry entry, BiFunction<Key, MapBasedColumnIndex<C>, MapBasedColumnIndex<C>> patch) {
+        for (; ; ) {
+            final MapBasedColumnIndex<C> index;
+            synchronized (entry) {
+                if (entry.removed) {
+                    return;
+                }
+                index = entry.index;
+                if (index == null) {
+                    // Builder which has not seen this change may be about to start
+                    entry.pending.add(patch);
+                    if (entry.building || entry.pending.size() <= MAX_PENDING) {
+                        return;
+                    }
+                }
+            }
+            if (index == null) {
+                remove(entry);
+                return;
+            }
+            final MapBasedColumnIndex<C> patched = patch.apply(entry.key, index);
+            synchronized (entry) {
+                if (entry.index == index) {
+                    bytes.addAndGet(patched.getEstimatedSize() - entry.weight);
+                    entry.weight = patched.getEstimatedSize();
+                    entry.index = patched;
+                    patches.incrementAndGet();
+                    return;
+                }
+            }
+            // Index was evicted, invalidated or replaced meanwhile
+        }
+    }
+
+    /**
+     * Drops indexes of container.
+     *
+     * @param container the container name
+     * @return the keys of dropped indexes which were built and used since the last aging
+     */
+    public List<Key> invalidate(String container) {
+        final List<Key> result = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (Objects.equals(entry.key.getContainer(), container)) {
+                    if (entry.index != null && entry.frequency.get() > 0) {
+                        result.add(entry.key);
+                    }
+                    remove(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the built indexes
+     */
+    public Map<Key, MapBasedColumnIndex<C>> getBuilt() {
+        final Map<Key, MapBasedColumnIndex<C>> result = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            final MapBasedColumnIndex<C> index = entry.index;
+            if (index != null) {
+                result.put(entry.key, index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the names of containers which have indexes (built or pending)
+     */
+    public Set<String> getContainers() {
+        return entries.keySet()
+                .stream()
+                .map(Key::getContainer)
+                .collect(Collectors.toSet());
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    private void touch(Entry entry) {
+        final long lookup = lookups.incrementAndGet();
+        entry.frequency.incrementAndGet();
+        entry.lastLookup = lookup;
+        entry.lastAccess = System.currentTimeMillis();
+        if (lookup % AGING_PERIOD == 0) {
+            for (Entry e : entries.values()) {
+                e.frequency.updateAndGet(f -> f >> 1);
+            }
+        }
+    }
+
+    private void schedule(Entry entry, long expectedBytes, Callable<MapBasedColumnIndex<C>> builder) {
+        synchronized (entry) {
+            if (entry.building || entry.removed || entry.index != null
+                    || System.currentTimeMillis() - entry.failedAt < RETRY_MILLIS) {
+                return;
+            }
+        }
+        if (!admit(entry, Math.max(expectedBytes, entry.lastWeight))) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.building || entry.removed || entry.index != null) {
+                return;
+            }
+            entry.building = true;
+        }
+        try {
+            executor.execute(() -> build(entry, builder));
+        } catch (RejectedExecutionException e) {
+            rejections.incrementAndGet();
+            synchronized (entry) {
+                entry.building = false;
+            }
+        }
+    }
+
+    private void build(Entry entry, Callable<MapBasedColumnIndex<C>> builder) {
+        final long started = System.nanoTime();
+        MapBasedColumnIndex<C> index = null;
+        try {
+            index = builder.call();
+        } catch (Exception e) {
+            logger.error("Failed to build index " + entry.key, e);
+        }
+        install(entry, index, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private synchronized void install(Entry entry, MapBasedColumnIndex<C> index, long buildMillis) {
+        synchronized (entry) {
+            entry.building = false;
+            if (index != null && !entry.removed) {
+                for (BiFunction<Key, MapBasedColumnIndex<C>, MapBasedColumnIndex<C>> patch : entry.pending) {
+                    index = patch.apply(entry.key, index);
+                    patches.incrementAndGet();
+                }
+            }
+            entry.pending.clear();
+            if (index == null) {
+                entry.failures++;
+                entry.failedAt = System.currentTimeMillis();
+                failures.incrementAndGet();
+                return;
+            }
+            if (entry.removed) {
+                // Invalidated while it was being built
+                return;
+            }
+            entry.lastWeight = index.getEstimatedSize();
+            if (!admit(entry, entry.lastWeight)) {
+                return;
+            }
+            entry.buildMillis = buildMillis;
+            entry.weight = index.getEstimatedSize();
+            entry.index = index;
+            bytes.addAndGet(entry.weight);
+            builds.incrementAndGet();
+        }
+        evict();
+    }
+
+    /**
+     * Checks if index of given size fits into budget as is or it is more frequently used than each of indexes which
+     * would be evicted to make room for it. Refusal is counted.
+     *
+     * @param entry  the entry of index which is not built or installed yet
+     * @param weight the size of index
+     * @return {@code true} if index is admitted
+     */
+    private synchronized boolean admit(Entry entry, long weight) {
+        long room = maxBytes - bytes.get();
+        if (weight <= room) {
+            return true;
+        }
+        if (weight <= maxBytes) {
+            final int frequency = entry.frequency.get();
+            final List<Entry> victims = candidates();
+            for (Entry victim : victims) {
+                if (victim.frequency.get() >= frequency) {
+                    break;
+                }
+                room += victim.weight;
+                if (weight <= room) {
+                    return true;
+                }
+            }
+        }
+        refusals.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return the built indexes in order of eviction
+     */
+    private List<Entry> candidates() {
+        return entries.values()
+                .stream()
+                .filter(e -> e.index != null)
+                .sorted(Comparator.<Entry>comparingInt(e -> e.frequency.get())
+                        .thenComparingLong(e -> e.lastLookup))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Evicts indexes until their total size fits into budget, drops idle entries of indexes which are not built.
+     */
+    private synchronized void evict() {
+        final long now = System.currentTimeMillis();
+        for (Entry entry : entries.values()) {
+            if (entry.index == null && !entry.building && now - entry.lastAccess > IDLE_MILLIS) {
+                remove(entry);
+            }
+        }
+        if (bytes.get() <= maxBytes) {
+            return;
+        }
+        for (Entry entry : candidates()) {
+            if (bytes.get() <= maxBytes) {
+                break;
+            }
+            remove(entry);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private synchronized void remove(Entry entry) {
+        synchronized (entry) {
+            entry.removed = true;
+            entry.pending.clear();
+            if (entry.index != null) {
+                entry.index = null;
+                bytes.addAndGet(-entry.weight);
+            }
+        }
+        entries.remove(entry.key, entry);
+    }
+
+    public String getInfo() {
+        return "ColumnIndexManager{" +
+                "bytes=" + bytes.get() +
+                ", maxBytes=" + maxBytes +
+                ", entries=" + entries.size() +
+                ", lookups=" + lookups.get() +
+                ", builds=" + builds.get() +
+                ", evictions=" + evictions.get() +
+                ", rejections=" + rejections.get() +
+                ", refusals=" + refusals.get() +
+                ", failures=" + failures.get() +
+                ", patches=" + patches.get() +
+                "}\n" +
+                entries.values()
+                        .stream()
+                        .sorted(Comparator.comparing((Entry e) -> e.key.getContainer())
+                                .thenComparing(e -> e.key.getColumn()))
+                        .map(Entry::toString)
+                        .collect(Collectors.joining(",\n"));
+    }
+
+    /**
+     * Key of index of single column of single container.
+     */
+    public static final class Key {
+
+        private final String container;
+
+        private final String column;
+
+        public Key(String container, String column) {
+            this.container = requireNonNull(container);
+            this.column = requireNonNull(column);
+        }
+
+        public String getContainer() {
+            return container;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(container, key.container) &&
+                    Objects.equals(column, key.column);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(container, column);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "container='" + container + '\'' +
+                    ", column='" + column + '\'' +
+                    '}';
+        }
+    }
+
+    private final class Entry {
+
+        final Key key;
+
+        final AtomicInteger frequency = new AtomicInteger();
+
+        final LongAdder hits = new LongAdder();
+
+        final LongAdder misses = new LongAdder();
+
+        volatile long lastAccess = System.currentTimeMillis();
+
+        /**
+         * The number of lookup which accessed this entry the last time (orders accesses within millisecond).
+         */
+        volatile long lastLookup;
+
+        volatile MapBasedColumnIndex<C> index;
+
+        volatile long buildMillis;
+
+        /**
+         * Changed along with index while holding this entry, volatile as admission reads it.
+         */
+        volatile long weight;
+
+        /**
+         * The size of the last built index (kept after refusal to admit it).
+         */
+        volatile long lastWeight;
+
+        /**
+         * The rest is guarded by this entry.
+         */
+        boolean building;
+
+        boolean removed;
+
+        long failedAt;
+
+        int failures;
+
+        /**
+         * Patches received before index was built.
+         */
+        final List<BiFunction<Key, MapBasedColumnIndex<C>, MapBasedColumnIndex<C>>> pending = new ArrayList<>();
+
+        Entry(Key key) {
+            this.key = requireNonNull(key);
+        }
+
+        @Override
+        public String toString() {
+            final MapBasedColumnIndex<C> index = this.index;
+            return key +
+                    " : bytes=" + (index != null ? index.getEstimatedSize() : 0) +
+                    ", hits=" + hits.sum() +
+                    ", misses=" + misses.sum() +
+                    ", frequency=" + frequency.get() +
+                    ", buildMillis=" + buildMillis +
+                    ", failures=" + failures +
+                    ", index=" + (index != null ? index : building ? "building" : "none");
+        }
+    }
+}
@@ -3,16 +3,21 @@ package com.ag.grid.enterprise.oracle.demo.dao;
 import com.ag.grid.enterprise.TradeDumpLoader;
 import com.ag.grid.enterprise.oracle.demo.builder.OracleSqlQueryBuilder;
 import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeSink;
 import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
 import com.github.ykiselev.ag.grid.api.request.ColumnVO;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
 import com.google.common.collect.ImmutableMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
@@ -20,6 +25,7 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -32,10 +38,13 @@ import static java.util.stream.Collectors.toMap;
 
 @Repository("databaseTradeDao")
 @Lazy
-public class DatabaseTradeDao implements TradeDao {
+public class DatabaseTradeDao implements TradeDao, TradeChangeSink {
 
     private static final int PIVOT_VALUES_GLOBAL_LIMIT = 100;
 
+    private static final String UPSERT = "merge into trade(" + TradeStatements.COLUMNS + ") key(tradeId)"
+            + TradeStatements.PARAMETERS;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private JdbcTemplate template;
@@ -79,36 +88,14 @@ public class DatabaseTradeDao implements TradeDao {
             throw new IllegalStateException("No data source!");
         }
         try (Connection c = dataSource.getConnection()) {
-            try (PreparedStatement ps = c.prepareStatement(
-                    "insert into trade(product,portfolio,book,tradeId," +
-                            "submitterId,submitterDealId,dealType,bidType," +
-                            "currentValue,previousValue,pl1,pl2," +
-                            "gainDx,sxPx,x99Out,batch)" +
-                            "values(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)"
-            )) {
+            try (PreparedStatement ps = c.prepareStatement(TradeStatements.INSERT)) {
                 final int[] counter = new int[1];
                 map.values().stream()
                         .flatMap(m -> m.values().stream())
                         .forEach(trade -> {
                             final int i = counter[0];
                             try {
-                                ps.clearParameters();
-                                ps.setString(1, trade.getProduct());
-                                ps.setString(2, trade.getPortfolio());
-                                ps.setString(3, trade.getBook());
-                                ps.setLong(4, trade.getTradeId());
-                                ps.setLong(5, trade.getSubmitterId());
-                                ps.setLong(6, trade.getSubmitterDealId());
-                                ps.setString(7, trade.getDealType());
-                                ps.setString(8, trade.getBidType());
-                                ps.setDouble(9, trade.getCurrentValue());
-                                ps.setDouble(10, trade.getPreviousValue());
-                                ps.setDouble(11, trade.getPl1());
-                                ps.setDouble(12, trade.getPl2());
-                                ps.setDouble(13, trade.getGainDx());
-                                ps.setDouble(14, trade.getSxPx());
-                                ps.setDouble(15, trade.getX99Out());
-                                ps.setLong(16, trade.getBatch());
+                                TradeStatements.bind(ps, trade);
                                 ps.addBatch();
                                 if (i % 5_0000 == 0) {
                                     ps.executeBatch();
@@ -122,23 +109,44 @@ public class DatabaseTradeDao implements TradeDao {
         }
     }
 
+    /**
+     * Applies changes in single transaction so concurrent queries see either none or all of them.
+     */
+    @Override
+    public void apply(Collection<TradeChange> changes) {
+        final DataSource dataSource = template.getDataSource();
+        if (dataSource == null) {
+            throw new IllegalStateException("No data source!");
+        }
+        try {
+            TradeStatements.apply(dataSource, changes, UPSERT, true);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public AgGridGetRowsResponse getData(AgGridGetRowsRequest request) {
+        return getData(request, CancellationToken.NONE);
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
         logger.trace("Request: {}", request);
 
         final String tableName = "trade"; // could be supplied in request as a lookup key?
 
         // first obtain the pivot values from the DB for the requested pivot columns
         final Map<String, List<String>> pivotValues = request.isPivotMode()
-                ? getPivotValues(tableName, request.getPivotCols())
+                ? getPivotValues(tableName, request.getPivotCols(), token)
                 : Collections.emptyMap();
 
         // generate sql
         final String sql = queryBuilder.createSql(request, tableName, pivotValues);
 
         // query db for rows
-        List<Map<String, Object>> rows = template.queryForList(sql);
-        List<Map<String, Object>> fixed = rows.stream()
+        List<Map<String, Object>> rows = CancellableQueries.query(template, sql, new ColumnMapRowMapper(), token);
+        List<Map<String, Object>> fixed = token.checked(rows.stream())
                 .map(m ->
                         m.entrySet()
                                 .stream()
@@ -153,7 +161,7 @@ public class DatabaseTradeDao implements TradeDao {
         return createResponse(request, fixed, pivotValues);
     }
 
-    private Map<String, List<String>> getPivotValues(String tableName, List<ColumnVO> pivotCols) {
+    private Map<String, List<String>> getPivotValues(String tableName, List<ColumnVO> pivotCols, CancellationToken token) {
         final int columnLimit;
         if (pivotCols.isEmpty()) {
             columnLimit = 0;
@@ -166,16 +174,18 @@ public class DatabaseTradeDao implements TradeDao {
                 .map(ColumnVO::getField)
                 .collect(toMap(
                         pivotCol -> pivotCol,
-                        pivotCol -> getPivotValues(tableName, pivotCol, columnLimit),
+                        pivotCol -> getPivotValues(tableName, pivotCol, columnLimit, token),
                         (a, b) -> a,
                         LinkedHashMap::new
                 ));
     }
 
-    private List<String> getPivotValues(String tableName, String pivotColumn, int limit) {
-        List<String> strings = template.queryForList(
+    private List<String> getPivotValues(String tableName, String pivotColumn, int limit, CancellationToken token) {
+        List<String> strings = CancellableQueries.query(
+                template,
                 format("SELECT DISTINCT %s FROM %s FETCH FIRST %d ROWS ONLY", pivotColumn, tableName, limit + 1),
-                String.class
+                SingleColumnRowMapper.newInstance(String.class),
+                token
         );
         if (strings.size() > limit) {
             logger.warn("Column \"{}\" has {} distinct values, only first {} will be used!", pivotColumn, strings.size(), limit);
@@ -4,133 +4,218 @@ import com.ag.grid.enterprise.oracle.demo.domain.Portfolio;
 import com.ag.grid.enterprise.oracle.demo.domain.Trade;
 import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
 import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.NumberFilterType;
+import com.github.ykiselev.ag.grid.api.filter.TextColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.TextFilterType;
 import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.types.Attribute;
 import com.github.ykiselev.ag.grid.data.types.TypeInfo;
 import com.google.common.collect.Iterables;
 import com.tangosol.net.NamedCache;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static java.util.Objects.requireNonNull;
+import java.util.function.ToLongFunction;
 
 /**
+ * Indexes of trades of large portfolios by filtered columns, managed by {@link ColumnIndexManager}. Group keys, text
+ * equality and prefixes are answered by indexes of string columns, numeric comparisons and ranges by indexes of numeric
+ * columns (see {@link MapBasedColumnIndex}). Built indexes are kept up to date by {@link IndexMaintainer}.
+ *
  * @author Yuriy Kiselev (uze@yandex.ru)
  * @since 13.01.2019
  */
 public final class DefaultPortfolioKeyCache implements PortfolioKeyCache {
 
-    private final Map<Key, ColumnIndex<Long, Portfolio>> indices = new ConcurrentHashMap<>();
+    /**
+     * The default budget of indexes, bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
 
-    private final int threshold;
+    private static final Set<NumberFilterType> INDEXED_NUMBER_FILTERS = EnumSet.complementOf(EnumSet.of(NumberFilterType.NOT_EQUAL));
+
+    private static final Set<TextFilterType> INDEXED_TEXT_FILTERS = EnumSet.of(TextFilterType.EQUALS, TextFilterType.STARTS_WITH);
 
-    private final ExecutorService executorService;
+    private final ColumnIndexManager<Portfolio> indices;
+
+    private final int threshold;
 
     public DefaultPortfolioKeyCache(int threshold, ExecutorService executorService) {
+        this(threshold, DEFAULT_MAX_BYTES, executorService);
+    }
+
+    /**
+     * @param threshold       the min number of trades in portfolio to index it
+     * @param maxBytes        the max estimated size of all indexes
+     * @param executorService the bounded executor to build indexes on
+     */
+    public DefaultPortfolioKeyCache(int threshold, long maxBytes, ExecutorService executorService) {
         this.threshold = threshold;
-        this.executorService = requireNonNull(executorService);
+        this.indices = new ColumnIndexManager<>(maxBytes, executorService);
     }
 
+    /**
+     * Keys of trades matching all indexed filters. Results of indexes are intersected, indexes which are not built
+     * yet are skipped (their filters are applied to fetched trades anyway).
+     */
     @Override
     public Collection<Long> getKeys(Portfolio portfolio, RequestFilters filters, TypeInfo<Trade> typeInfo, NamedCache<Long, Trade> trades) {
         if (portfolio.getTradeKeys().size() < threshold) {
             return portfolio.getTradeKeys();
         }
-        Collection<Long> smallest = null;
+        final List<PostingList> lists = new ArrayList<>();
         for (String name : filters.getNames()) {
             final ColumnFilter filter = filters.getFilter(name);
-            if (!isEligibleForIndexing(name, filter)) {
+            if (!isEligibleForIndexing(typeInfo.getAttribute(name), filter)) {
                 continue;
             }
-            final ColumnIndex<Long, Portfolio> index = indices.computeIfAbsent(
-                    new Key(portfolio.getName(), name),
-                    k -> new DeferredColumnIndex<>(k.getColumn(), Portfolio::getTradeKeys,
-                            executorService.submit(() -> indexColumn(portfolio, k.getColumn(),
-                                    typeInfo.getAttribute(k.getColumn()).getObjectGetter(), trades)))
+            final MapBasedColumnIndex<Portfolio> index = indices.get(
+                    new ColumnIndexManager.Key(portfolio.getName(), name),
+                    MapBasedColumnIndex.expectedSize(portfolio.getTradeKeys().size()),
+                    builder(portfolio, name, typeInfo, trades)
             );
-            final Collection<Long> keys = index.getKeys(portfolio, filter);
-            if (smallest == null || smallest.size() > keys.size()) {
-                smallest = keys;
+            if (index != null) {
+                lists.add(index.getKeys(portfolio, filter));
             }
         }
-        return Optional.ofNullable(smallest)
-                .orElseGet(portfolio::getTradeKeys);
+        return lists.isEmpty() ? portfolio.getTradeKeys() : PostingList.intersect(lists);
     }
 
-    private ColumnIndex<Long, Portfolio> indexColumn(Portfolio portfolio, String column, Function<Trade, ?> classify, NamedCache<Long, Trade> trades) {
-        return new MapBasedColumnIndex<>(
-                column,
-                StreamSupport.stream(Iterables.partition(portfolio.getTradeKeys(), 1_000).spliterator(), false)
-                        .map(trades::getAll)
-                        .map(Map::entrySet)
-                        .flatMap(Collection::stream)
-                        .collect(Collectors.groupingBy(
-                                e -> classify.apply(e.getValue()),
-                                Collectors.mapping(Map.Entry::getKey, Collectors.toList())
-                        ))
-        );
+    private Callable<MapBasedColumnIndex<Portfolio>> builder(Portfolio portfolio, String column, TypeInfo<Trade> typeInfo, NamedCache<Long, Trade> trades) {
+        return () -> indexColumn(portfolio, column, classifier(typeInfo.getAttribute(column)), trades);
     }
 
-    private boolean isEligibleForIndexing(String name, ColumnFilter filter) {
-        if (filter instanceof GroupKey) {
-            return true;
+    private MapBasedColumnIndex<Portfolio> indexColumn(Portfolio portfolio, String column, Function<Trade, ?> classify, NamedCache<Long, Trade> trades) {
+        final Map<Object, List<Long>> index = new HashMap<>();
+        for (List<Long> keys : Iterables.partition(portfolio.getTradeKeys(), 1_000)) {
+            for (Map.Entry<Long, Trade> e : trades.getAll(keys).entrySet()) {
+                final Object value = classify.apply(e.getValue());
+                // Trades without value never match filters answered by index
+                if (value != null) {
+                    index.computeIfAbsent(value, v -> new ArrayList<>()).add(e.getKey());
+                }
+            }
         }
-        return false;
+        return new MapBasedColumnIndex<>(column, index);
     }
 
-    @Override
-    public String getInfo() {
-        return indices.entrySet()
-                .stream()
-                .map(e -> e.getKey() + " : " + e.getValue()).collect(Collectors.joining(",\n"));
+    /**
+     * Numeric columns are indexed by {@code long} values, so ranges are compared the same way as by row filters
+     * (which compare integral part of value), other columns are indexed by their values.
+     */
+    private static Function<Trade, ?> classifier(Attribute<Trade> attribute) {
+        if (!isNumeric(attribute)) {
+            return attribute.getObjectGetter();
+        }
+        final ToLongFunction<Trade> getter = attribute.getLongGetter();
+        return trade -> {
+            try {
+                return getter.applyAsLong(trade);
+            } catch (ArithmeticException e) {
+                // Such values can not be compared by filters too
+                return null;
+            }
+        };
     }
 
-    private static final class Key {
-
-        private final String portfolio;
-
-        private final String column;
+    private static boolean isNumeric(Attribute<Trade> attribute) {
+        final Class<?> type = attribute.getType();
+        return type.isPrimitive() && type != boolean.class && type != char.class;
+    }
 
-        Key(String portfolio, String column) {
-            this.portfolio = portfolio;
-            this.column = column;
+    /**
+     * Collects all indexes built so far. Pending indexes and indexes of values which can not be persisted are skipped.
+     *
+     * @param dataChecksum the checksum of data indexes were built from
+     * @return the snapshot
+     */
+    public IndexSnapshot snapshot(long dataChecksum) {
+        final List<IndexSnapshot.Entry> entries = new ArrayList<>();
+        for (Map.Entry<ColumnIndexManager.Key, MapBasedColumnIndex<Portfolio>> e : indices.getBuilt().entrySet()) {
+            final Map<Object, List<Long>> map = e.getValue().asMap();
+            if (map.keySet().stream().allMatch(IndexSnapshot::isSupported)) {
+                entries.add(new IndexSnapshot.Entry(e.getKey().getContainer(), e.getKey().getColumn(), map));
+            }
         }
+        return new IndexSnapshot(dataChecksum, entries);
+    }
 
-        String getPortfolio() {
-            return portfolio;
+    /**
+     * Installs indexes from snapshot (as long as they fit into budget). Indexes which were already requested (built or
+     * pending) are kept as is.
+     *
+     * @param snapshot the snapshot to restore
+     * @return the number of restored indexes
+     */
+    public int restore(IndexSnapshot snapshot) {
+        int result = 0;
+        for (IndexSnapshot.Entry entry : snapshot.getEntries()) {
+            if (indices.restore(new ColumnIndexManager.Key(entry.getPortfolio(), entry.getColumn()),
+                    new MapBasedColumnIndex<>(entry.getColumn(), entry.getIndex()))) {
+                result++;
+            }
         }
+        return result;
+    }
 
-        String getColumn() {
-            return column;
-        }
+    /**
+     * Drops all indexes of portfolio, should be called after its trades were changed. Indexes are rebuilt on demand.
+     *
+     * @param portfolio the portfolio name
+     */
+    public void invalidate(String portfolio) {
+        indices.invalidate(portfolio);
+    }
 
-        @Override
-        public String toString() {
-            return "Key{" +
-                    "portfolio='" + portfolio + '\'' +
-                    ", column='" + column + '\'' +
-                    '}';
-        }
+    /**
+     * @return the names of portfolios which have indexes (built or pending)
+     */
+    public Set<String> getIndexedPortfolios() {
+        return indices.getContainers();
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Key key = (Key) o;
-            return Objects.equals(portfolio, key.portfolio) &&
-                    Objects.equals(column, key.column);
-        }
+    /**
+     * Patches indexes of portfolio with changed trades.
+     *
+     * @param portfolio the portfolio name
+     * @param changed   the changed trades of portfolio (trades mapped to {@code null} have left the portfolio)
+     * @param typeInfo  the type info of trades
+     */
+    public void update(String portfolio, Map<Long, Trade> changed, TypeInfo<Trade> typeInfo) {
+        indices.update(portfolio, (key, index) -> {
+            final Function<Trade, ?> classify = classifier(typeInfo.getAttribute(key.getColumn()));
+            final Map<Long, Object> values = new HashMap<>();
+            changed.forEach((id, trade) -> values.put(id, trade != null ? classify.apply(trade) : null));
+            return index.patch(values);
+        });
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(portfolio, column);
+    private static boolean isEligibleForIndexing(Attribute<Trade> attribute, ColumnFilter filter) {
+        if (attribute == null) {
+            return false;
         }
+        if (isNumeric(attribute)) {
+            return filter instanceof NumberColumnFilter
+                    && INDEXED_NUMBER_FILTERS.contains(((NumberColumnFilter) filter).getType());
+        }
+        if (filter instanceof GroupKey) {
+            return true;
+        }
+        return filter instanceof TextColumnFilter
+                && INDEXED_TEXT_FILTERS.contains(((TextColumnFilter) filter).getType());
+    }
+
+    @Override
+    public String getInfo() {
+        return indices.getInfo();
     }
 }
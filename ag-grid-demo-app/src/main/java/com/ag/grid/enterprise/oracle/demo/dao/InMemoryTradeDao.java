@@ -3,10 +3,21 @@ package com.ag.grid.enterprise.oracle.demo.dao;
 import com.ag.grid.enterprise.TradeDumpLoader;
 import com.ag.grid.enterprise.oracle.demo.domain.Trade;
 import com.ag.grid.enterprise.oracle.demo.domain.TradeTypeInfoFactory;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeHistory;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeSink;
 import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.request.AggFunc;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
 import com.github.ykiselev.ag.grid.data.AgGridRowSource;
-import com.github.ykiselev.ag.grid.data.ListBasedAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.PartitionedList;
+import com.github.ykiselev.ag.grid.data.VersionedAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.aggregation.GroupAggregates;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.execution.ExecutingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.execution.RowSourceExecutor;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import com.google.common.collect.ImmutableSetMultimap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
@@ -14,47 +25,160 @@ import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Repository("inMemoryTradeDao")
 @Lazy
-public class InMemoryTradeDao implements TradeDao, AutoCloseable {
+public class InMemoryTradeDao implements TradeDao, TradeChangeSink, Reloadable, AutoCloseable {
+
+    private static final int ZONE_SIZE = 64 * 1024;
+
+    /**
+     * The number of sorted plain views kept per version.
+     */
+    private static final int SORTED_VIEWS = 16;
+
+    private static final List<String> SUMMARIZED = Arrays.asList(
+            "product", "book", "tradeId", "submitterId", "submitterDealId", "batch"
+    );
+
+    /**
+     * Default row group hierarchy of grid, drill-down requests start from rows of expanded group.
+     */
+    private static final List<String> GROUP_PATH = Arrays.asList("product", "portfolio", "book");
+
+    /**
+     * Aggregates maintained for product &gt; portfolio grouping (adding book would need a node per trade book).
+     */
+    private static final List<String> MATERIALIZED_GROUPS = Arrays.asList("product", "portfolio");
+
+    private static final List<String> MATERIALIZED_VALUES = Arrays.asList(
+            "currentValue", "previousValue", "pl1", "pl2", "gainDx", "sxPx", "x99Out"
+    );
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final List<Trade> originalTrades = new ArrayList<>();
+    private final RowSourceExecutor rowSourceExecutor = RowSourceExecutor.create("inMemoryTradeDao");
 
-    private final AgGridRowSource rowSource;
+    /**
+     * Versions of trades. Changes replace touched segments in a copy so queries in progress keep reading the
+     * version they started with.
+     */
+    private VersionedAgGridRowSource<Trade> versions;
 
-    public InMemoryTradeDao() {
-        this.rowSource = new ListBasedAgGridRowSource<>(
-                originalTrades,
-                TradeTypeInfoFactory.create()
-        );
-    }
+    private TypeInfo<Trade> typeInfo;
+
+    private GroupAggregates<Trade> groupAggregates;
+
+    private AgGridRowSource rowSource;
 
     @PostConstruct
     private void init() {
+        this.typeInfo = TradeTypeInfoFactory.create();
+        this.versions = new VersionedAgGridRowSource<>(load(), typeInfo, SORTED_VIEWS);
+        final ImmutableSetMultimap.Builder<String, AggFunc> values = ImmutableSetMultimap.builder();
+        MATERIALIZED_VALUES.forEach(value -> values.putAll(value, AggFunc.SUM, AggFunc.AVG, AggFunc.MIN, AggFunc.MAX));
+        this.groupAggregates = versions.materialize(MATERIALIZED_GROUPS, values.build());
+        logger.info("Built {}", groupAggregates);
+        this.rowSource = new ExecutingAgGridRowSource(versions, rowSourceExecutor);
+    }
+
+    private PartitionedList<Trade> load() {
         logger.info("Loading data...");
-        final Map<String, Map<Long, Trade>> map = TradeDumpLoader.load();
+        final Trade[][] trades = new Trade[1][];
+        // Chunks are decoded in parallel straight into the target array
+        TradeDumpLoader.load(
+                rows -> trades[0] = new Trade[rows],
+                (firstRow, chunk) -> System.arraycopy(chunk, 0, trades[0], firstRow, chunk.length)
+        );
+        // Loaded trades are not kept, so the first version is reclaimed as soon as it is replaced
+        final List<Trade> originalTrades = Arrays.asList(trades[0]);
+        logger.info("Loaded {} trade(s).", originalTrades.size());
 
-        logger.info("Putting trades...");
-        map.values().stream()
-                .flatMap(m -> m.entrySet().stream())
-                .forEach(e -> {
-                    final Trade trade = e.getValue();
-                    originalTrades.add(trade);
-                });
-        logger.info("Done!");
+        // One segment per portfolio, trades are clustered by product within portfolio in the dump, so blocks of
+        // segment have narrow ranges of product and ids
+        final PartitionedList<Trade> partitions = PartitionedList.of(originalTrades, typeInfo, "portfolio", SUMMARIZED,
+                ZONE_SIZE, GROUP_PATH);
+        logger.info("Built {}", partitions);
+        return partitions;
+    }
+
+    /**
+     * Builds the new version from dump (segments, zone maps and group aggregates) while requests are served from the
+     * current one. Changes ingested before reload are replayed on top of loaded dump, then changes applied while dump
+     * is loaded are (applying the change rows already have is harmless as changes carry whole trades). Sorted views of
+     * recent requests are built after the swap.
+     */
+    @Override
+    public void reload(TradeChangeHistory history) {
+        final long version = versions.replace(() -> {
+            final AtomicReference<PartitionedList<Trade>> rows = new AtomicReference<>(load());
+            history.replay(changes -> rows.updateAndGet(current -> apply(current, changes)));
+            return rows.get();
+        });
+        logger.info("Reloaded, version {}", version);
+    }
+
+    /**
+     * Rebuilds only segments of portfolios touched by changes and publishes them as new version, readers are never
+     * blocked.
+     */
+    @Override
+    public void apply(Collection<TradeChange> changes) {
+        final long version = versions.update(current -> apply(current, changes));
+        logger.debug("Applied {} change(s), version {}", changes.size(), version);
+    }
+
+    private static PartitionedList<Trade> apply(PartitionedList<Trade> current, Collection<TradeChange> changes) {
+        final Map<String, Map<Long, Trade>> touched = new HashMap<>();
+        for (TradeChange change : changes) {
+            if (change.isDelete()) {
+                segment(touched, current, change.getPortfolio()).remove(change.getTradeId());
+            }
+        }
+        for (TradeChange change : changes) {
+            if (!change.isDelete()) {
+                segment(touched, current, change.getPortfolio()).put(change.getTradeId(), change.getTrade());
+            }
+        }
+        final Map<String, List<Trade>> replaced = new HashMap<>();
+        touched.forEach((portfolio, trades) -> replaced.put(portfolio, new ArrayList<>(trades.values())));
+        return current.withSegments(replaced);
+    }
+
+    private static Map<Long, Trade> segment(Map<String, Map<Long, Trade>> touched, PartitionedList<Trade> current, String portfolio) {
+        return touched.computeIfAbsent(portfolio, p -> {
+            final List<Trade> trades = current.getSegment(p);
+            final Map<Long, Trade> result = new LinkedHashMap<>(trades.size() * 2);
+            trades.forEach(trade -> result.put(trade.getTradeId(), trade));
+            return result;
+        });
     }
 
     @Override
     public void close() {
+        rowSourceExecutor.close();
+    }
+
+    @Override
+    public String getCacheInfo() {
+        return rowSourceExecutor + "\n" + versions.getInfo() + "\ntotals=" + groupAggregates.getTotals()
+                + "\n" + TradeDumpLoader.strings();
     }
 
     @Override
     public AgGridGetRowsResponse getData(AgGridGetRowsRequest request) {
-        return rowSource.getRows(request);
+        return rowSource.getRows(TradeDumpLoader.strings().canonicalize(request));
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
+        return rowSource.getRows(TradeDumpLoader.strings().canonicalize(request), token);
     }
 }
\ No newline at end of file
@@ -4,13 +4,18 @@ import com.ag.grid.enterprise.TradeDumpLoader;
 import com.ag.grid.enterprise.oracle.demo.ItemMapFactory;
 import com.ag.grid.enterprise.oracle.demo.domain.Trade;
 import com.ag.grid.enterprise.oracle.demo.domain.TradeTypeInfoFactory;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeHistory;
 import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
 import com.github.ykiselev.ag.grid.data.AgGridRowSource;
 import com.github.ykiselev.ag.grid.data.FilteredObjectSource;
 import com.github.ykiselev.ag.grid.data.ListBasedAgGridRowSource;
 import com.github.ykiselev.ag.grid.data.ObjectSourceBasedAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.PartitionedList;
 import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.execution.ExecutingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.execution.RowSourceExecutor;
 import com.github.ykiselev.ag.grid.data.types.DefaultTypeInfo;
 import com.github.ykiselev.ag.grid.data.types.TupleAttribute;
 import com.github.ykiselev.ag.grid.data.types.TypeInfo;
@@ -24,7 +29,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -32,18 +36,23 @@ import static java.util.Objects.requireNonNull;
 
 @Repository("inMemoryTupleBasedTradeDao")
 @Lazy
-public class InMemoryTupleBasedTradeDao implements TradeDao, AutoCloseable {
+public class InMemoryTupleBasedTradeDao implements TradeDao, Reloadable, AutoCloseable {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final List<Object[]> trades = new ArrayList<>();
+    private volatile PartitionedList<Object[]> partitions;
 
     private final TypeInfo<Object[]> tupleTypeInfo;
 
+    private final RowSourceExecutor rowSourceExecutor = RowSourceExecutor.create("inMemoryTupleBasedTradeDao");
+
     private final AgGridRowSource rowSource;
 
     public InMemoryTupleBasedTradeDao() {
-        this.rowSource = new ObjectSourceBasedAgGridRowSource<>(FilteredTradeSource::new);
+        this.rowSource = new ExecutingAgGridRowSource(
+                new ObjectSourceBasedAgGridRowSource<>(FilteredTradeSource::new),
+                rowSourceExecutor
+        );
         this.tupleTypeInfo = new DefaultTypeInfo<>(Arrays.asList(
                 new TupleAttribute("product", String.class, 0),
                 new TupleAttribute("portfolio", String.class, 1),
@@ -66,14 +75,26 @@ public class InMemoryTupleBasedTradeDao implements TradeDao, AutoCloseable {
 
     @PostConstruct
     private void init() {
+        partitions = load();
+    }
+
+    /**
+     * Streams which are in progress keep reading partitions they started with, so the previous data set is released
+     * as soon as they complete. Trade changes are not accepted by this dao, so there is nothing to replay.
+     */
+    @Override
+    public void reload(TradeChangeHistory history) {
+        partitions = load();
+    }
+
+    private PartitionedList<Object[]> load() {
         logger.info("Loading data...");
-        final Map<String, Map<Long, Trade>> map = TradeDumpLoader.load();
+        final List<Trade> list = TradeDumpLoader.loadList();
 
         logger.info("Putting trades...");
-        map.values().stream()
-                .flatMap(m -> m.entrySet().stream())
-                .map(e -> {
-                    final Trade trade = e.getValue();
+        final List<Object[]> trades = new ArrayList<>(list.size());
+        list.stream()
+                .map(trade -> {
                     final Object[] tuple = new Object[16];
                     int i = 0;
                     tuple[i++] = trade.getProduct();
@@ -94,16 +115,29 @@ public class InMemoryTupleBasedTradeDao implements TradeDao, AutoCloseable {
                     tuple[i++] = trade.getBatch();
                     return tuple;
                 }).forEach(trades::add);
-        logger.info("Done!");
+        final PartitionedList<Object[]> result = PartitionedList.of(trades, tupleTypeInfo, "portfolio");
+        logger.info("Done, {}", result);
+        return result;
     }
 
     @Override
     public void close() {
+        rowSourceExecutor.close();
+    }
+
+    @Override
+    public String getCacheInfo() {
+        return rowSourceExecutor + "\n" + TradeDumpLoader.strings();
     }
 
     @Override
     public AgGridGetRowsResponse getData(AgGridGetRowsRequest request) {
-        return rowSource.getRows(request);
+        return rowSource.getRows(TradeDumpLoader.strings().canonicalize(request));
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
+        return rowSource.getRows(TradeDumpLoader.strings().canonicalize(request), token);
     }
 
     private final class FilteredTradeSource implements FilteredObjectSource<Object[]> {
@@ -131,7 +165,7 @@ public class InMemoryTupleBasedTradeDao implements TradeDao, AutoCloseable {
 
         @Override
         public Stream<Object[]> stream() {
-            return trades.stream();
+            return partitions.stream(filters);
         }
 
         @Override
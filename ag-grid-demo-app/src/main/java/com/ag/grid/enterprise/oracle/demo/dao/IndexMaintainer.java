@@ -0,0 +1,286 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Portfolio;
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import com.tangosol.net.NamedCache;
+import com.tangosol.util.MapEvent;
+import com.tangosol.util.MapListener;
+import com.tangosol.util.MultiplexingMapListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps indexes of {@link DefaultPortfolioKeyCache} up to date by listening to events of trades and portfolios caches.
+ * <p>
+ * Events are queued and applied in batches on single thread (events arriving while batch is applied are coalesced into
+ * the next one), each batch is turned into one patch per changed portfolio. Indexes of portfolio cover keys of
+ * {@link Portfolio#getTradeKeys()} (regardless of {@link Trade#getPortfolio()}), so:
+ * <ul>
+ * <li>inserted or updated trade is moved to lists of its new values in indexes of every indexed portfolio which has its
+ * key</li>
+ * <li>deleted trade is removed from indexes of every indexed portfolio which has its key</li>
+ * <li>keys removed from {@link Portfolio#getTradeKeys()} are removed from indexes, added keys are fetched and
+ * indexed</li>
+ * <li>indexes of deleted portfolio are dropped</li>
+ * </ul>
+ * If batch fails indexes of all portfolios it has touched are dropped, so they are rebuilt on demand instead of serving
+ * stale keys.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class IndexMaintainer implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final DefaultPortfolioKeyCache keyCache;
+
+    private final TypeInfo<Trade> typeInfo;
+
+    private final NamedCache<Long, Trade> trades;
+
+    private final NamedCache<String, Portfolio> portfolios;
+
+    private final ExecutorService executor;
+
+    /**
+     * Queued events, each one records its change into batch.
+     */
+    private final Queue<Consumer<Batch>> events = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final MapListener<Long, Trade> tradeListener = new MultiplexingMapListener<Long, Trade>() {
+        @Override
+        protected void onMapEvent(MapEvent<Long, Trade> event) {
+            onTradeEvent(event.getKey(), event.getNewValue());
+        }
+    };
+
+    private final MapListener<String, Portfolio> portfolioListener = new MultiplexingMapListener<String, Portfolio>() {
+        @Override
+        protected void onMapEvent(MapEvent<String, Portfolio> event) {
+            onPortfolioEvent(event.getKey(), event.getOldValue(), event.getNewValue());
+        }
+    };
+
+    /**
+     * @param keyCache   the indexes to maintain
+     * @param typeInfo   the type info of trades
+     * @param trades     the trades
+     * @param portfolios the portfolios
+     * @param executor   the executor to apply batches on (tasks are never submitted concurrently)
+     */
+    public IndexMaintainer(DefaultPortfolioKeyCache keyCache, TypeInfo<Trade> typeInfo, NamedCache<Long, Trade> trades,
+                           NamedCache<String, Portfolio> portfolios, ExecutorService executor) {
+        this.keyCache = requireNonNull(keyCache);
+        this.typeInfo = requireNonNull(typeInfo);
+        this.trades = requireNonNull(trades);
+        this.portfolios = requireNonNull(portfolios);
+        this.executor = requireNonNull(executor);
+    }
+
+    /**
+     * Subscribes to events of caches. Changes made before this call are expected to be seen by indexes built so far.
+     */
+    public void start() {
+        trades.addMapListener(tradeListener);
+        portfolios.addMapListener(portfolioListener);
+    }
+
+    void onTradeEvent(Long id, Trade trade) {
+        enqueue(batch -> batch.trades.put(id, trade));
+    }
+
+    void onPortfolioEvent(String name, Portfolio previous, Portfolio portfolio) {
+        if (portfolio == null) {
+            enqueue(batch -> {
+                batch.portfolios.remove(name);
+                keyCache.invalidate(name);
+            });
+            return;
+        }
+        enqueue(batch -> {
+            final Collection<Long> before = previous != null ? previous.getTradeKeys() : Collections.emptySet();
+            final Set<Long> removed = new HashSet<>(before);
+            removed.removeAll(portfolio.getTradeKeys());
+            final Set<Long> added = new HashSet<>(portfolio.getTradeKeys());
+            added.removeAll(before);
+            if (removed.isEmpty() && added.isEmpty()) {
+                return;
+            }
+            final Map<Long, Trade> changed = batch.changed(name);
+            removed.forEach(id -> changed.put(id, null));
+            if (!added.isEmpty()) {
+                final Map<Long, Trade> fetched = trades.getAll(added);
+                // Keys without trades are not indexed
+                added.forEach(id -> changed.put(id, fetched.get(id)));
+            }
+        });
+    }
+
+    private void enqueue(Consumer<Batch> event) {
+        received.incrementAndGet();
+        events.add(event);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Events queued from now on are applied by the next task
+        scheduled.set(false);
+        final Batch batch = new Batch();
+        int polled = 0;
+        try {
+            for (Consumer<Batch> event; (event = events.poll()) != null; ) {
+                polled++;
+                event.accept(batch);
+            }
+            route(batch);
+            batch.portfolios.forEach((portfolio, changed) -> keyCache.update(portfolio, changed, typeInfo));
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            final Set<String> touched = new HashSet<>(batch.portfolios.keySet());
+            if (!batch.trades.isEmpty()) {
+                // Changed trades may belong to any indexed portfolio
+                touched.addAll(keyCache.getIndexedPortfolios());
+            }
+            logger.error("Failed to update indexes of {}, dropping them", touched, e);
+            touched.forEach(keyCache::invalidate);
+            if (!events.isEmpty() && scheduled.compareAndSet(false, true)) {
+                // The rest of queue would otherwise wait for the next event
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException ree) {
+                    // Closing, the rest is drained by close()
+                    scheduled.set(false);
+                }
+            }
+        } finally {
+            processed.addAndGet(polled);
+        }
+    }
+
+    /**
+     * @return the number of events received so far
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * @return {@code true} if all received events are applied to indexes (or indexes they touched are dropped)
+     */
+    public boolean isIdle() {
+        return processed.get() == received.get();
+    }
+
+    /**
+     * Moves changed trades to changes of indexed portfolios which have their keys. Portfolios are read as they are now,
+     * so trades of keys added or removed by queued portfolio events are routed accordingly.
+     */
+    private void route(Batch batch) {
+        if (batch.trades.isEmpty()) {
+            return;
+        }
+        for (Portfolio portfolio : portfolios.getAll(keyCache.getIndexedPortfolios()).values()) {
+            final Collection<Long> keys = portfolio.getTradeKeys();
+            if (keys instanceof Set) {
+                batch.trades.forEach((id, trade) -> {
+                    if (keys.contains(id)) {
+                        batch.changed(portfolio.getName()).put(id, trade);
+                    }
+                });
+            } else {
+                // Lookups in other collections of keys are not cheap, so keys are looked up in batch instead
+                for (Long id : keys) {
+                    if (batch.trades.containsKey(id)) {
+                        batch.changed(portfolio.getName()).put(id, batch.trades.get(id));
+                    }
+                }
+            }
+        }
+        batch.trades.clear();
+    }
+
+    /**
+     * Unsubscribes from events and applies the ones which are already queued, so indexes may be saved afterwards.
+     */
+    @Override
+    public void close() {
+        trades.removeMapListener(tradeListener);
+        portfolios.removeMapListener(portfolioListener);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("Queued changes were not applied in time, {}", this);
+                executor.shutdownNow();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            return;
+        }
+        if (!events.isEmpty()) {
+            drain();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IndexMaintainer{" +
+                "received=" + received.get() +
+                ", queued=" + events.size() +
+                ", processed=" + processed.get() +
+                ", batches=" + batches.get() +
+                ", failures=" + failures.get() +
+                '}';
+    }
+
+    private static final class Batch {
+
+        /**
+         * Changed trades by id by portfolio ({@code null} trade means the key has left portfolio or trade was deleted).
+         */
+        final Map<String, Map<Long, Trade>> portfolios = new HashMap<>();
+
+        /**
+         * Changed trades by id which are not routed to portfolios yet ({@code null} trade means it was deleted).
+         */
+        final Map<Long, Trade> trades = new LinkedHashMap<>();
+
+        Map<Long, Trade> changed(String portfolio) {
+            return portfolios.computeIfAbsent(portfolio, p -> new LinkedHashMap<>());
+        }
+    }
+}
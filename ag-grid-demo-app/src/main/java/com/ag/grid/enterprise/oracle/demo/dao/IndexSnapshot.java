@@ -0,0 +1,284 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Point-in-time copy of built column indexes which may be persisted to local disk and restored on next start.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int magic, int version, long dataChecksum, int indexCount
+ * per index: utf portfolio, utf column, int valueCount,
+ *      per value: byte type, value, int keyCount, long[keyCount] keys
+ * long crc32 (of everything above)
+ * </pre>
+ * Snapshot is only valid for the data it was built from, so it carries checksum of that data (see
+ * {@link #checksumOf(Map)} for trade keys of portfolios and {@link #checksumOf(Object, Object)} for trades themselves,
+ * since the same keys with other values would restore posting lists which silently miss matching trades) and reader
+ * ignores snapshot if checksum does not match current data.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class IndexSnapshot {
+
+    static final int MAGIC = 0x54524958;
+
+    static final int VERSION = 2;
+
+    private static final byte STRING = 1;
+
+    private static final byte LONG = 2;
+
+    private static final byte DOUBLE = 3;
+
+    private static final byte INTEGER = 4;
+
+    private final long dataChecksum;
+
+    private final List<Entry> entries;
+
+    public long getDataChecksum() {
+        return dataChecksum;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public IndexSnapshot(long dataChecksum, List<Entry> entries) {
+        this.dataChecksum = dataChecksum;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    /**
+     * Calculates order-independent checksum of trade keys per portfolio. Snapshot built for other set of trades
+     * (or other distribution of trades between portfolios) will not be restored.
+     *
+     * @param tradeKeys the trade keys per portfolio name
+     * @return the checksum
+     */
+    public static long checksumOf(Map<String, ? extends Iterable<Long>> tradeKeys) {
+        long result = 0;
+        for (Map.Entry<String, ? extends Iterable<Long>> e : tradeKeys.entrySet()) {
+            long keys = 0;
+            long count = 0;
+            for (Long key : e.getValue()) {
+                keys += mix(key);
+                count++;
+            }
+            result += mix(e.getKey().hashCode() * 31L + keys) ^ count;
+        }
+        return result;
+    }
+
+    /**
+     * Checksum of single entry, checksums of all entries are expected to be added together.
+     *
+     * @param key   the key
+     * @param value the value (with stable hash code)
+     * @return the checksum
+     */
+    public static long checksumOf(Object key, Object value) {
+        return mix(mix(Objects.hashCode(key)) * 31L + Objects.hashCode(value));
+    }
+
+    private static long mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Writes snapshot to temporary file which is then atomically moved to target path, so concurrent reader never
+     * sees partially written snapshot.
+     *
+     * @param path the target path
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Path path) throws IOException {
+        final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            final CRC32 crc = new CRC32();
+            final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(os, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(dataChecksum);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeUTF(entry.portfolio);
+                out.writeUTF(entry.column);
+                out.writeInt(entry.index.size());
+                for (Map.Entry<Object, List<Long>> e : entry.index.entrySet()) {
+                    writeValue(out, e.getKey());
+                    final PostingList keys = PostingList.of(e.getValue());
+                    out.writeInt(keys.size());
+                    for (int k = 0; k < keys.size(); k++) {
+                        out.writeLong(keys.getLong(k));
+                    }
+                }
+            }
+            out.flush();
+            new DataOutputStream(os).writeLong(crc.getValue());
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param path         the snapshot path
+     * @param dataChecksum the checksum of current data
+     * @return the snapshot or empty optional if there is no snapshot or it was built for another data
+     * @throws IOException if an I/O error occurs or snapshot is corrupted
+     */
+    public static Optional<IndexSnapshot> read(Path path, long dataChecksum) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(path))) {
+            final CRC32 crc = new CRC32();
+            final DataInputStream in = new DataInputStream(new CheckedInputStream(is, crc));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an index snapshot: " + path);
+            }
+            final int version = in.readInt();
+            if (version != VERSION) {
+                return Optional.empty();
+            }
+            if (in.readLong() != dataChecksum) {
+                return Optional.empty();
+            }
+            final int count = in.readInt();
+            final List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String portfolio = in.readUTF();
+                final String column = in.readUTF();
+                final int values = in.readInt();
+                final Map<Object, List<Long>> index = new HashMap<>(values * 2);
+                for (int v = 0; v < values; v++) {
+                    final Object value = readValue(in);
+                    final long[] keys = new long[in.readInt()];
+                    for (int k = 0; k < keys.length; k++) {
+                        keys[k] = in.readLong();
+                    }
+                    index.put(value, PostingList.of(keys));
+                }
+                entries.add(new Entry(portfolio, column, index));
+            }
+            final long actual = crc.getValue();
+            if (new DataInputStream(is).readLong() != actual) {
+                throw new IOException("Index snapshot is corrupted: " + path);
+            }
+            return Optional.of(new IndexSnapshot(dataChecksum, entries));
+        }
+    }
+
+    /**
+     * @param value the indexed value
+     * @return {@code true} if value can be written to snapshot
+     */
+    static boolean isSupported(Object value) {
+        return value instanceof String || value instanceof Long
+                || value instanceof Double || value instanceof Integer;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported value: " + value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case STRING:
+                return in.readUTF();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case INTEGER:
+                return in.readInt();
+            default:
+                throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IndexSnapshot{" +
+                "dataChecksum=" + dataChecksum +
+                ", entries=" + entries.size() +
+                '}';
+    }
+
+    /**
+     * Index of single column of single portfolio.
+     */
+    public static final class Entry {
+
+        private final String portfolio;
+
+        private final String column;
+
+        private final Map<Object, List<Long>> index;
+
+        public String getPortfolio() {
+            return portfolio;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public Map<Object, List<Long>> getIndex() {
+            return index;
+        }
+
+        public Entry(String portfolio, String column, Map<Object, List<Long>> index) {
+            this.portfolio = requireNonNull(portfolio);
+            this.column = requireNonNull(column);
+            this.index = requireNonNull(index);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "portfolio='" + portfolio + '\'' +
+                    ", column='" + column + '\'' +
+                    ", values=" + index.size() +
+                    '}';
+        }
+    }
+}
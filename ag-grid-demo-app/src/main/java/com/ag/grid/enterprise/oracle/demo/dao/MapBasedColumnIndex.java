@@ -2,30 +2,93 @@ package com.ag.grid.enterprise.oracle.demo.dao;
 
 import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
 import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.TextColumnFilter;
 import com.google.common.collect.ImmutableMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Predicate;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 /**
+ * Index of keys by column value. Keys of each value are kept as {@link PostingList}, so lookup by single value returns
+ * shared list without copying. Index is immutable, changes of indexed keys produce patched copy sharing lists of
+ * untouched values (see {@link #patch(Map)}). Values of keys are looked up in reverse index which is built by the first
+ * patch and handed over to patched copy (12 bytes per key).
+ * <p>
+ * Values are also kept in sorted array (if all of them are of the same comparable type), so that ranges of numeric
+ * values ({@link NumberColumnFilter}) and prefixes of strings ({@link TextColumnFilter#getType()} is {@code STARTS_WITH})
+ * are found by binary search and cost {@code O(log n + k)} where {@code k} is the number of matching values. Filters
+ * which can not be answered by index (like {@code NOT_EQUAL}) return all indexed keys.
+ *
  * @author Yuriy Kiselev (uze@yandex.ru)
  * @since 13.01.2019
  */
-public final class MapBasedColumnIndex<K, C> implements ColumnIndex<K, C> {
+public final class MapBasedColumnIndex<C> implements ColumnIndex<Long, C> {
 
     private final String column;
 
-    private final Map<Object, List<K>> index;
+    /**
+     * Map entry, posting list object and array header per value (values themselves are pooled and shared with rows).
+     */
+    private static final int BYTES_PER_VALUE = 80;
 
-    public MapBasedColumnIndex(String column, Map<Object, List<K>> index) {
+    private final Map<Object, List<Long>> index;
+
+    /**
+     * Indexed values in natural order or {@code null} if they are not mutually comparable.
+     */
+    private final Object[] sorted;
+
+    private final long estimatedSize;
+
+    /**
+     * Reverse index owned by this index until it is patched, {@code null} if it is not built yet or was taken by patch.
+     */
+    private final AtomicReference<KeyValues> keyValues;
+
+    public MapBasedColumnIndex(String column, Map<Object, ? extends Collection<Long>> index) {
+        this(column, index, null);
+    }
+
+    private MapBasedColumnIndex(String column, Map<Object, ? extends Collection<Long>> index, KeyValues keyValues) {
         this.column = requireNonNull(column);
-        this.index = ImmutableMap.copyOf(index);
+        this.keyValues = new AtomicReference<>(keyValues);
+        final ImmutableMap.Builder<Object, List<Long>> builder = ImmutableMap.builder();
+        long size = 0;
+        for (Map.Entry<Object, ? extends Collection<Long>> e : index.entrySet()) {
+            final PostingList keys = PostingList.of(e.getValue());
+            builder.put(e.getKey(), keys);
+            size += BYTES_PER_VALUE + (long) Long.BYTES * keys.size();
+        }
+        this.index = builder.build();
+        this.sorted = sortedValues(this.index.keySet());
+        this.estimatedSize = size + (sorted != null ? (long) Long.BYTES * sorted.length : 0)
+                + (keyValues != null ? keyValues.getEstimatedSize() : 0);
+    }
+
+    private static Object[] sortedValues(Collection<Object> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        final Class<?> type = values.iterator().next().getClass();
+        if (!Comparable.class.isAssignableFrom(type) || !values.stream().allMatch(v -> v.getClass() == type)) {
+            return null;
+        }
+        final Object[] result = values.toArray();
+        Arrays.sort(result);
+        return result;
     }
 
     @Override
@@ -33,22 +96,304 @@ public final class MapBasedColumnIndex<K, C> implements ColumnIndex<K, C> {
         return column;
     }
 
-    @Override
-    public Collection<K> getKeys(C container, ColumnFilter filter) {
-        final Predicate<Object> predicate = predicate(filter);
-        return index.entrySet()
-                .stream()
-                .filter(e -> predicate.test(e.getKey()))
-                .map(Map.Entry::getValue)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
+    /**
+     * @param keys the number of keys to index
+     * @return the estimated heap footprint of index of that many keys before it is built (assuming keys are spread
+     * over few values), bytes
+     */
+    public static long expectedSize(int keys) {
+        return BYTES_PER_VALUE + (long) Long.BYTES * keys;
+    }
+
+    /**
+     * @return the estimated heap footprint of index, bytes
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * @return the keys per indexed value (values of map are {@link PostingList}s)
+     */
+    public Map<Object, List<Long>> asMap() {
+        return index;
+    }
+
+    /**
+     * Moves changed keys to lists of their new values. Only lists of values keys were moved from or to are copied, so
+     * each change costs lookup of its previous value and updates of two lists.
+     *
+     * @param values the new column values of changed keys (keys mapped to {@code null} are removed from index)
+     * @return the patched index or this index if nothing has changed
+     */
+    public MapBasedColumnIndex<C> patch(Map<Long, ?> values) {
+        KeyValues reverse = keyValues.getAndSet(null);
+        if (reverse == null) {
+            reverse = KeyValues.of(index);
+        }
+        final Map<Object, List<Long>> removed = new HashMap<>();
+        final Map<Object, List<Long>> added = new HashMap<>();
+        for (Map.Entry<Long, ?> v : values.entrySet()) {
+            final Object previous = reverse.get(v.getKey());
+            if (Objects.equals(previous, v.getValue())) {
+                continue;
+            }
+            if (previous != null) {
+                removed.computeIfAbsent(previous, k -> new ArrayList<>()).add(v.getKey());
+            }
+            if (v.getValue() != null) {
+                added.computeIfAbsent(v.getValue(), k -> new ArrayList<>()).add(v.getKey());
+            }
+        }
+        if (removed.isEmpty() && added.isEmpty()) {
+            keyValues.compareAndSet(null, reverse);
+            return this;
+        }
+        final Map<Object, List<Long>> result = new LinkedHashMap<>(index);
+        removed.forEach((value, keys) -> {
+            final PostingList rest = PostingList.difference((PostingList) result.get(value), PostingList.of(keys));
+            if (rest.isEmpty()) {
+                result.remove(value);
+            } else {
+                result.put(value, rest);
+            }
+        });
+        added.forEach((value, keys) -> {
+            final PostingList existing = (PostingList) result.get(value);
+            result.put(value, existing != null
+                    ? PostingList.union(Arrays.asList(existing, PostingList.of(keys)))
+                    : PostingList.of(keys));
+        });
+        return new MapBasedColumnIndex<>(column, result, reverse.patch(values));
     }
 
-    private Predicate<Object> predicate(ColumnFilter filter) {
+    @Override
+    public PostingList getKeys(C container, ColumnFilter filter) {
         if (filter instanceof GroupKey) {
-            return k -> Objects.equals(k, ((GroupKey) filter).getFilter());
+            return lookup(((GroupKey) filter).getFilter());
+        }
+        if (filter instanceof NumberColumnFilter && isSortedBy(Long.class)) {
+            return getKeys((NumberColumnFilter) filter);
+        }
+        if (filter instanceof TextColumnFilter && isSortedBy(String.class)) {
+            return getKeys((TextColumnFilter) filter);
+        }
+        return range(0, index.size());
+    }
+
+    private boolean isSortedBy(Class<?> type) {
+        return sorted != null && sorted[0].getClass() == type;
+    }
+
+    private PostingList getKeys(NumberColumnFilter filter) {
+        if (filter.getFilter() == null) {
+            return range(0, index.size());
+        }
+        final Long value = filter.getFilter().longValue();
+        switch (filter.getType()) {
+            case EQUALS:
+                return lookup(value);
+
+            case LESS_THAN:
+                return range(0, lowerBound(value));
+
+            case LESS_THAN_OR_EQUAL:
+                return range(0, upperBound(value));
+
+            case GREATER_THAN:
+                return range(upperBound(value), sorted.length);
+
+            case GREATER_THAN_OR_EQUAL:
+                return range(lowerBound(value), sorted.length);
+
+            case IN_RANGE:
+                if (filter.getFilterTo() == null) {
+                    break;
+                }
+                return range(lowerBound(value), upperBound(filter.getFilterTo().longValue()));
+        }
+        return range(0, index.size());
+    }
+
+    private PostingList getKeys(TextColumnFilter filter) {
+        final String value = filter.getFilter();
+        if (value == null) {
+            return range(0, index.size());
+        }
+        switch (filter.getType()) {
+            case EQUALS:
+                return lookup(value);
+
+            case STARTS_WITH:
+                final int from = lowerBound(value);
+                int to = from;
+                while (to < sorted.length && ((String) sorted[to]).startsWith(value)) {
+                    to++;
+                }
+                return range(from, to);
+        }
+        return range(0, index.size());
+    }
+
+    private PostingList lookup(Object value) {
+        final List<Long> keys = index.get(value);
+        return keys != null ? (PostingList) keys : PostingList.EMPTY;
+    }
+
+    /**
+     * @return the keys of values from {@code from} (inclusive) to {@code to} (exclusive) in sorted order (or all keys
+     * if values are not sorted)
+     */
+    private PostingList range(int from, int to) {
+        if (from >= to) {
+            return PostingList.EMPTY;
+        }
+        if (sorted == null || to - from == index.size()) {
+            return PostingList.union(
+                    index.values()
+                            .stream()
+                            .map(PostingList.class::cast)
+                            .collect(Collectors.toList())
+            );
+        }
+        final List<PostingList> lists = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            lists.add((PostingList) index.get(sorted[i]));
+        }
+        return PostingList.union(lists);
+    }
+
+    /**
+     * @return the index of the first value which is not less than {@code value}
+     */
+    private int lowerBound(Comparable<?> value) {
+        return bound(value, false);
+    }
+
+    /**
+     * @return the index of the first value which is greater than {@code value}
+     */
+    private int upperBound(Comparable<?> value) {
+        return bound(value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int bound(Comparable<?> value, boolean inclusive) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int r = ((Comparable<Object>) sorted[mid]).compareTo(value);
+            if (r < 0 || (inclusive && r == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Column values of indexed keys: keys in ascending order and parallel array of ordinals of their values.
+     */
+    private static final class KeyValues {
+
+        private final List<Object> values = new ArrayList<>();
+
+        private final Map<Object, Integer> ordinals = new HashMap<>();
+
+        private long[] keys;
+
+        private int[] valueOrdinals;
+
+        private KeyValues(long[] keys, int[] valueOrdinals) {
+            this.keys = keys;
+            this.valueOrdinals = valueOrdinals;
+        }
+
+        static KeyValues of(Map<Object, List<Long>> index) {
+            final long[] keys = new long[index.values().stream().mapToInt(List::size).sum()];
+            int i = 0;
+            for (List<Long> list : index.values()) {
+                final PostingList keysOfValue = (PostingList) list;
+                for (int k = 0; k < keysOfValue.size(); k++) {
+                    keys[i++] = keysOfValue.getLong(k);
+                }
+            }
+            Arrays.sort(keys);
+            final KeyValues result = new KeyValues(keys, new int[keys.length]);
+            index.forEach((value, list) -> {
+                final int ordinal = result.ordinal(value);
+                final PostingList keysOfValue = (PostingList) list;
+                for (int k = 0; k < keysOfValue.size(); k++) {
+                    result.valueOrdinals[Arrays.binarySearch(keys, keysOfValue.getLong(k))] = ordinal;
+                }
+            });
+            return result;
+        }
+
+        private int ordinal(Object value) {
+            return ordinals.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        Object get(long key) {
+            final int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? values.get(valueOrdinals[i]) : null;
+        }
+
+        /**
+         * Applies changes in place, keys which were moved between values cost binary search, added or removed ones
+         * cost copy of arrays.
+         */
+        KeyValues patch(Map<Long, ?> changes) {
+            final Map<Long, Integer> inserted = new TreeMap<>();
+            int deleted = 0;
+            for (Map.Entry<Long, ?> change : changes.entrySet()) {
+                final int i = Arrays.binarySearch(keys, change.getKey());
+                if (change.getValue() == null) {
+                    if (i >= 0 && valueOrdinals[i] >= 0) {
+                        valueOrdinals[i] = -1;
+                        deleted++;
+                    }
+                } else if (i >= 0) {
+                    valueOrdinals[i] = ordinal(change.getValue());
+                } else {
+                    inserted.put(change.getKey(), ordinal(change.getValue()));
+                }
+            }
+            if (inserted.isEmpty() && deleted == 0) {
+                return this;
+            }
+            final long[] newKeys = new long[keys.length - deleted + inserted.size()];
+            final int[] newOrdinals = new int[newKeys.length];
+            final Iterator<Map.Entry<Long, Integer>> it = inserted.entrySet().iterator();
+            Map.Entry<Long, Integer> next = it.hasNext() ? it.next() : null;
+            int j = 0;
+            for (int i = 0; i < keys.length; i++) {
+                while (next != null && next.getKey() < keys[i]) {
+                    newKeys[j] = next.getKey();
+                    newOrdinals[j++] = next.getValue();
+                    next = it.hasNext() ? it.next() : null;
+                }
+                if (valueOrdinals[i] >= 0) {
+                    newKeys[j] = keys[i];
+                    newOrdinals[j++] = valueOrdinals[i];
+                }
+            }
+            for (; next != null; next = it.hasNext() ? it.next() : null) {
+                newKeys[j] = next.getKey();
+                newOrdinals[j++] = next.getValue();
+            }
+            keys = newKeys;
+            valueOrdinals = newOrdinals;
+            return this;
+        }
+
+        long getEstimatedSize() {
+            return (long) (Long.BYTES + Integer.BYTES) * keys.length;
         }
-        return k -> true;
     }
 
     @Override
@@ -0,0 +1,147 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.ag.grid.enterprise.MappedTradeStore;
+import com.ag.grid.enterprise.TradeDumpLoader;
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.AgGridRowSource;
+import com.github.ykiselev.ag.grid.data.FilteredObjectSource;
+import com.github.ykiselev.ag.grid.data.ObjectSourceBasedAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.execution.ExecutingAgGridRowSource;
+import com.github.ykiselev.ag.grid.data.execution.RowSourceExecutor;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Trade dao reading trades straight from memory-mapped binary dump. Only dictionary and portfolio index are kept on
+ * heap.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+@Repository("mappedTradeDao")
+@Lazy
+public class MappedTradeDao implements TradeDao, AutoCloseable {
+
+    private static final String PORTFOLIO = "portfolio";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final RowSourceExecutor rowSourceExecutor = RowSourceExecutor.create("mappedTradeDao");
+
+    private final AgGridRowSource rowSource = new ExecutingAgGridRowSource(
+            new ObjectSourceBasedAgGridRowSource<>(FilteredTradeSource::new),
+            rowSourceExecutor
+    );
+
+    private volatile MappedTradeStore store;
+
+    private volatile TypeInfo<Integer> typeInfo;
+
+    private volatile Map<String, int[]> portfolioIndex;
+
+    @PostConstruct
+    private void init() throws IOException {
+        final Path path = TradeDumpLoader.path();
+        logger.info("Mapping {}...", path);
+        final MappedTradeStore store = MappedTradeStore.open(path);
+        this.typeInfo = store.createTypeInfo();
+        this.portfolioIndex = store.index(MappedTradeStore.stringColumn(PORTFOLIO));
+        this.store = store;
+        logger.info("Mapped {}", store);
+    }
+
+    @Override
+    public void close() throws IOException {
+        rowSourceExecutor.close();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Override
+    public String getCacheInfo() {
+        return rowSourceExecutor + "\n" + store;
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request) {
+        return rowSource.getRows(TradeDumpLoader.strings().canonicalize(request));
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
+        return rowSource.getRows(TradeDumpLoader.strings().canonicalize(request), token);
+    }
+
+    private final class FilteredTradeSource implements FilteredObjectSource<Integer> {
+
+        private final RequestFilters filters;
+
+        private final int[] rows;
+
+        private final BitSet blocks;
+
+        FilteredTradeSource(RequestFilters filters) {
+            this.filters = requireNonNull(filters);
+            this.blocks = store.getZoneMaps().candidates(filters);
+            final ColumnFilter filter = filters.getFilter(PORTFOLIO);
+            if (filter instanceof GroupKey) {
+                rows = portfolioIndex.getOrDefault(((GroupKey) filter).getFilter(), new int[0]);
+            } else {
+                rows = null;
+            }
+        }
+
+        @Override
+        public TypeInfo<Integer> getTypeInfo() {
+            return typeInfo;
+        }
+
+        @Override
+        public RequestFilters getFilters() {
+            return filters;
+        }
+
+        @Override
+        public Set<String> getFilteredNames() {
+            return rows != null ? Collections.singleton(PORTFOLIO) : Collections.emptySet();
+        }
+
+        @Override
+        public Stream<Integer> stream() {
+            final int blockSize = store.getZoneMaps().blockSize();
+            if (rows != null) {
+                return IntStream.of(rows)
+                        .filter(row -> blocks.get(row / blockSize))
+                        .boxed();
+            }
+            return blocks.stream()
+                    .flatMap(b -> IntStream.range(b * blockSize, Math.min(store.size(), (b + 1) * blockSize)))
+                    .boxed();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable sorted set of keys backed by primitive array (8 bytes per key instead of ~24 for boxed {@link Long} plus
+ * reference). Exposed as {@link List} so it can be passed to {@code getAll} and the like without copying, keys are
+ * boxed one by one while iterating.
+ * <p>
+ * Lists are intersected by merge if they have similar sizes or by galloping search of keys of the smaller list in
+ * the larger one otherwise, so the cost of intersection is bounded by the smaller list.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class PostingList extends AbstractList<Long> implements RandomAccess {
+
+    public static final PostingList EMPTY = new PostingList(new long[0]);
+
+    /**
+     * Larger list is searched by galloping if it is at least this many times larger than the smaller one.
+     */
+    private static final int GALLOP_RATIO = 16;
+
+    private final long[] keys;
+
+    private PostingList(long[] keys) {
+        this.keys = requireNonNull(keys);
+    }
+
+    /**
+     * @param keys the keys (array is owned by the list from now on)
+     * @return the list of distinct keys
+     */
+    public static PostingList of(long[] keys) {
+        if (!isStrictlySorted(keys)) {
+            Arrays.sort(keys);
+            keys = distinct(keys);
+        }
+        return keys.length == 0 ? EMPTY : new PostingList(keys);
+    }
+
+    public static PostingList of(Collection<Long> keys) {
+        if (keys instanceof PostingList) {
+            return (PostingList) keys;
+        }
+        final long[] array = new long[keys.size()];
+        int i = 0;
+        for (Long key : keys) {
+            array[i++] = key;
+        }
+        return of(array);
+    }
+
+    /**
+     * @param lists the lists to merge
+     * @return the list of keys present in any of lists
+     */
+    public static PostingList union(Collection<PostingList> lists) {
+        if (lists.size() == 1) {
+            return lists.iterator().next();
+        }
+        final long[] result = new long[lists.stream().mapToInt(PostingList::size).sum()];
+        int length = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.keys, 0, result, length, list.keys.length);
+            length += list.keys.length;
+        }
+        return of(result);
+    }
+
+    /**
+     * @param list    the list to remove keys from
+     * @param removed the keys to remove
+     * @return the list of keys of {@code list} which are not in {@code removed}
+     */
+    public static PostingList difference(PostingList list, PostingList removed) {
+        final long[] result = new long[list.keys.length];
+        int length = 0;
+        for (long key : list.keys) {
+            if (!removed.containsLong(key)) {
+                result[length++] = key;
+            }
+        }
+        if (length == list.keys.length) {
+            return list;
+        }
+        return length == 0 ? EMPTY : new PostingList(Arrays.copyOf(result, length));
+    }
+
+    /**
+     * @param lists the lists to intersect (at least one)
+     * @return the list of keys present in all of lists
+     */
+    public static PostingList intersect(Collection<PostingList> lists) {
+        final List<PostingList> sorted = new ArrayList<>(lists);
+        // Smallest first, so every intermediate result is no larger than it
+        sorted.sort(Comparator.comparingInt(PostingList::size));
+        PostingList result = sorted.get(0);
+        for (int i = 1; i < sorted.size() && !result.isEmpty(); i++) {
+            result = intersect(result, sorted.get(i));
+        }
+        return result;
+    }
+
+    static PostingList intersect(PostingList small, PostingList large) {
+        if (small.size() > large.size()) {
+            return intersect(large, small);
+        }
+        final long[] a = small.keys;
+        final long[] b = large.keys;
+        final long[] result = new long[a.length];
+        int length = 0;
+        if ((long) a.length * GALLOP_RATIO <= b.length) {
+            int from = 0;
+            for (long key : a) {
+                from = gallop(b, from, key);
+                if (from >= b.length) {
+                    break;
+                }
+                if (b[from] == key) {
+                    result[length++] = key;
+                }
+            }
+        } else {
+            int i = 0, j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[length++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        if (length == a.length) {
+            return small;
+        }
+        return length == 0 ? EMPTY : new PostingList(Arrays.copyOf(result, length));
+    }
+
+    /**
+     * @return the index of the first element of {@code keys} starting from {@code from} which is not less than key
+     * (or {@code keys.length} if there is no such element)
+     */
+    private static int gallop(long[] keys, int from, long key) {
+        int step = 1;
+        int hi = from;
+        while (hi < keys.length && keys[hi] < key) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, keys.length - 1);
+        if (from > hi) {
+            return from;
+        }
+        final int i = Arrays.binarySearch(keys, from, hi + 1, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static boolean isStrictlySorted(long[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] distinct(long[] sorted) {
+        int length = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[length - 1]) {
+                sorted[length++] = sorted[i];
+            }
+        }
+        return length == sorted.length ? sorted : Arrays.copyOf(sorted, length);
+    }
+
+    public long getLong(int index) {
+        return keys[index];
+    }
+
+    public boolean containsLong(long key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    @Override
+    public Long get(int index) {
+        return keys[index];
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && containsLong((Long) o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Long)) {
+            return -1;
+        }
+        final int i = Arrays.binarySearch(keys, (Long) o);
+        return i >= 0 ? i : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public String toString() {
+        return "PostingList{" +
+                "size=" + keys.length +
+                '}';
+    }
+}
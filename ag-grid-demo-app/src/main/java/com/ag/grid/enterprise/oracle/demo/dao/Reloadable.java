@@ -0,0 +1,31 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeHistory;
+
+/**
+ * Dao which is able to replace its data set with a fresh one without restart.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public interface Reloadable {
+
+    /**
+     * Loads fresh data set on the calling thread and atomically replaces the current one. Requests are served from the
+     * current data set meanwhile, requests in progress complete on it after the swap. Dao which accepts trade changes
+     * brings fresh data set up to date with changes ingested so far before the swap, otherwise they would be lost
+     * until the next restart.
+     *
+     * @param history the changes ingested so far
+     */
+    void reload(TradeChangeHistory history);
+
+    /**
+     * Decorators are reloadable only if what they decorate is.
+     *
+     * @return {@code true} if {@link #reload(TradeChangeHistory)} is supported
+     */
+    default boolean isReloadable() {
+        return true;
+    }
+}
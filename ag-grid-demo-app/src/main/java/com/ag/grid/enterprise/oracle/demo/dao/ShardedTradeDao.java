@@ -0,0 +1,72 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.shard.RemoteShard;
+import com.github.ykiselev.ag.grid.data.shard.ScatterGatherAgGridRowSource;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Trade dao which fans requests out to {@link com.ag.grid.enterprise.oracle.demo.ShardNode}s running as separate
+ * processes. Shard addresses are taken from system property {@code shards} (comma-separated list of
+ * {@code host:port}).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+@Repository("shardedTradeDao")
+@Lazy
+public class ShardedTradeDao implements TradeDao, AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("shardedTradeDao-%d")
+                    .setDaemon(true)
+                    .build()
+    );
+
+    private final ScatterGatherAgGridRowSource rowSource;
+
+    public ShardedTradeDao() {
+        final List<RemoteShard> shards = Arrays.stream(System.getProperty("shards", "localhost:9191,localhost:9192").split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(RemoteShard::of)
+                .collect(Collectors.toList());
+        logger.info("Using shards {}", shards);
+        this.rowSource = new ScatterGatherAgGridRowSource(shards, executor);
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request) {
+        return rowSource.getRows(request);
+    }
+
+    @Override
+    public AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
+        return rowSource.getRows(request, token);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String getCacheInfo() {
+        return rowSource.toString();
+    }
+}
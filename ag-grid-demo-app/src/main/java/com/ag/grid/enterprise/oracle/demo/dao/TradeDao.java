@@ -2,6 +2,7 @@ package com.ag.grid.enterprise.oracle.demo.dao;
 
 import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
 import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
 
 /**
  * @author Yuriy Kiselev (uze@yandex.ru).
@@ -10,6 +11,18 @@ public interface TradeDao {
 
     AgGridGetRowsResponse getData(AgGridGetRowsRequest request);
 
+    /**
+     * Daos which are able to abort computation in progress should override this method.
+     *
+     * @param request the request
+     * @param token   the cancellation token
+     * @return the response
+     */
+    default AgGridGetRowsResponse getData(AgGridGetRowsRequest request, CancellationToken token) {
+        token.throwIfCancelled();
+        return getData(request);
+    }
+
     default String getCacheInfo(){
         return "unsupported!";
     }
@@ -0,0 +1,119 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * JDBC statements shared by database daos.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+final class TradeStatements {
+
+    static final String COLUMNS = "product,portfolio,book,tradeId," +
+            "submitterId,submitterDealId,dealType,bidType," +
+            "currentValue,previousValue,pl1,pl2," +
+            "gainDx,sxPx,x99Out,batch";
+
+    static final String PARAMETERS = "values(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    static final String INSERT = "insert into trade(" + COLUMNS + ")" + PARAMETERS;
+
+    static final String DELETE = "delete from trade where tradeId = ?";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private TradeStatements() {
+    }
+
+    /**
+     * Binds all columns of trade in order of {@link #COLUMNS}.
+     */
+    static void bind(PreparedStatement ps, Trade trade) throws SQLException {
+        ps.clearParameters();
+        ps.setString(1, trade.getProduct());
+        ps.setString(2, trade.getPortfolio());
+        ps.setString(3, trade.getBook());
+        ps.setLong(4, trade.getTradeId());
+        ps.setLong(5, trade.getSubmitterId());
+        ps.setLong(6, trade.getSubmitterDealId());
+        ps.setString(7, trade.getDealType());
+        ps.setString(8, trade.getBidType());
+        ps.setDouble(9, trade.getCurrentValue());
+        ps.setDouble(10, trade.getPreviousValue());
+        ps.setDouble(11, trade.getPl1());
+        ps.setDouble(12, trade.getPl2());
+        ps.setDouble(13, trade.getGainDx());
+        ps.setDouble(14, trade.getSxPx());
+        ps.setDouble(15, trade.getX99Out());
+        ps.setLong(16, trade.getBatch());
+    }
+
+    /**
+     * Applies changes with JDBC batches: deletes first, then upserts. If {@code transactional} is {@code true} whole
+     * batch is committed at once so readers see either none or all of the changes.
+     *
+     * @param dataSource    the data source
+     * @param changes       the coalesced changes
+     * @param upsert        the statement to insert or replace trade, parameters are bound in order of {@link #COLUMNS}
+     * @param transactional whether to apply changes in single transaction
+     * @throws SQLException if database error occurred
+     */
+    static void apply(DataSource dataSource, Collection<TradeChange> changes, String upsert, boolean transactional) throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            final boolean autoCommit = c.getAutoCommit();
+            if (transactional) {
+                c.setAutoCommit(false);
+            }
+            try {
+                try (PreparedStatement ps = c.prepareStatement(DELETE)) {
+                    int pending = 0;
+                    for (TradeChange change : changes) {
+                        if (change.isDelete()) {
+                            ps.setLong(1, change.getTradeId());
+                            ps.addBatch();
+                            if (++pending % BATCH_SIZE == 0) {
+                                ps.executeBatch();
+                            }
+                        }
+                    }
+                    if (pending % BATCH_SIZE != 0) {
+                        ps.executeBatch();
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement(upsert)) {
+                    int pending = 0;
+                    for (TradeChange change : changes) {
+                        if (!change.isDelete()) {
+                            bind(ps, change.getTrade());
+                            ps.addBatch();
+                            if (++pending % BATCH_SIZE == 0) {
+                                ps.executeBatch();
+                            }
+                        }
+                    }
+                    if (pending % BATCH_SIZE != 0) {
+                        ps.executeBatch();
+                    }
+                }
+                if (transactional) {
+                    c.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (transactional) {
+                    c.rollback();
+                }
+                throw e;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
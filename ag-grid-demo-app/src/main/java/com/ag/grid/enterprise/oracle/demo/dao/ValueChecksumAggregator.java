@@ -0,0 +1,44 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.tangosol.util.InvocableMap;
+import com.tangosol.util.aggregator.AbstractAggregator;
+import com.tangosol.util.extractor.IdentityExtractor;
+
+/**
+ * Calculates order-independent checksum of cache entries (keys and {@link Object#hashCode()} of values) where data
+ * lives, so only partial sums travel over network. Values should have stable hash codes (not identity-based ones).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class ValueChecksumAggregator<K, V> extends AbstractAggregator<K, V, Object, Object, Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient long checksum;
+
+    public ValueChecksumAggregator() {
+        super(IdentityExtractor.INSTANCE);
+    }
+
+    @Override
+    protected void init(boolean isFinal) {
+        checksum = 0;
+    }
+
+    @Override
+    protected void processEntry(InvocableMap.Entry<? extends K, ? extends V> entry) {
+        process(IndexSnapshot.checksumOf(entry.getKey(), entry.getValue()), false);
+    }
+
+    @Override
+    protected void process(Object value, boolean isFinal) {
+        // Both entry checksums and partial results are combined by addition
+        checksum += (Long) value;
+    }
+
+    @Override
+    protected Object finalizeResult(boolean isFinal) {
+        return checksum;
+    }
+}
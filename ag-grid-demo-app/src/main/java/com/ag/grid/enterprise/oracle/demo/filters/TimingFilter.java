@@ -6,6 +6,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -34,6 +36,34 @@ public class TimingFilter implements Filter {
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         final long t0 = System.currentTimeMillis();
         chain.doFilter(request, response);
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    log(request, t0);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    // no-op
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    // no-op
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                    // no-op
+                }
+            });
+        } else {
+            log(request, t0);
+        }
+    }
+
+    private void log(ServletRequest request, long t0) {
         final long t1 = System.currentTimeMillis();
         final CharSequence uri;
         if (request instanceof HttpServletRequest) {
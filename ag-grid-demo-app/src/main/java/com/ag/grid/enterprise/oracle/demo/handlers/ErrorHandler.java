@@ -1,5 +1,8 @@
 package com.ag.grid.enterprise.oracle.demo.handlers;
 
+import com.ag.grid.enterprise.oracle.demo.controller.BadRequestException;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+import com.github.ykiselev.ag.grid.data.execution.OverloadedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -8,6 +11,7 @@ import org.springframework.web.servlet.handler.AbstractHandlerExceptionResolver;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author Yuriy Kiselev (uze@yandex.ru)
@@ -20,9 +24,27 @@ public final class ErrorHandler extends AbstractHandlerExceptionResolver {
 
     @Override
     protected ModelAndView doResolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        logger.error("Unhandled exception!", ex);
+        final int status;
+        if (ex instanceof CancelledException) {
+            // Superseded request, client is not interested in response anymore
+            logger.debug("Request cancelled: {}", request.getRequestURI());
+            status = HttpServletResponse.SC_CONFLICT;
+        } else if (ex instanceof TimeoutException) {
+            logger.warn("Request timed out: {}", ex.getMessage());
+            status = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+        } else if (ex instanceof OverloadedException) {
+            logger.warn("Request rejected: {}", ex.getMessage());
+            response.setHeader("Retry-After", "1");
+            status = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+        } else if (ex instanceof BadRequestException) {
+            logger.warn("Bad request: {}", ex.getMessage());
+            status = HttpServletResponse.SC_BAD_REQUEST;
+        } else {
+            logger.error("Unhandled exception!", ex);
+            status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        }
         try {
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.toString());
+            response.sendError(status, ex.toString());
         } catch (Exception ex2) {
             logger.error("Unable to send error to the client!", ex2);
         }
@@ -0,0 +1,131 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Single change of trade. Trades never move between portfolios, such move is logged as delete followed by insert.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TradeChange {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final Type type;
+
+    private final long timestamp;
+
+    private final long tradeId;
+
+    private final String portfolio;
+
+    private final Trade trade;
+
+    private TradeChange(Type type, long timestamp, long tradeId, String portfolio, Trade trade) {
+        this.type = requireNonNull(type);
+        this.timestamp = timestamp;
+        this.tradeId = tradeId;
+        this.portfolio = portfolio;
+        this.trade = trade;
+    }
+
+    public static TradeChange insert(long timestamp, Trade trade) {
+        return new TradeChange(Type.INSERT, timestamp, trade.getTradeId(), trade.getPortfolio(), trade);
+    }
+
+    public static TradeChange update(long timestamp, Trade trade) {
+        return new TradeChange(Type.UPDATE, timestamp, trade.getTradeId(), trade.getPortfolio(), trade);
+    }
+
+    public static TradeChange delete(long timestamp, long tradeId, String portfolio) {
+        return new TradeChange(Type.DELETE, timestamp, tradeId, portfolio, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the time change was appended to log (epoch millis)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTradeId() {
+        return tradeId;
+    }
+
+    public String getPortfolio() {
+        return portfolio;
+    }
+
+    /**
+     * @return the new state of trade or {@code null} for {@link Type#DELETE}
+     */
+    public Trade getTrade() {
+        return trade;
+    }
+
+    public boolean isDelete() {
+        return type == Type.DELETE;
+    }
+
+    /**
+     * Leaves only the last change of each trade in each portfolio. Since every change carries the whole trade (or its
+     * removal) the result leads to the same state as the original sequence if deletes are applied before inserts and
+     * updates (trade which was moved ends up deleted from every portfolio but the last one).
+     *
+     * @param changes the changes in order of their appearance in log
+     * @return the last change of each trade in each portfolio
+     */
+    public static Collection<TradeChange> coalesce(List<TradeChange> changes) {
+        final Map<Map.Entry<String, Long>, TradeChange> result = new LinkedHashMap<>(changes.size() * 2);
+        for (TradeChange change : changes) {
+            final Map.Entry<String, Long> key = new AbstractMap.SimpleImmutableEntry<>(change.getPortfolio(), change.getTradeId());
+            result.remove(key);
+            result.put(key, change);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TradeChange that = (TradeChange) o;
+        return timestamp == that.timestamp &&
+                tradeId == that.tradeId &&
+                type == that.type &&
+                Objects.equals(portfolio, that.portfolio) &&
+                Objects.equals(trade, that.trade);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, timestamp, tradeId, portfolio, trade);
+    }
+
+    @Override
+    public String toString() {
+        return "TradeChange{" +
+                "type=" + type +
+                ", timestamp=" + timestamp +
+                ", tradeId=" + tradeId +
+                ", portfolio='" + portfolio + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,25 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+/**
+ * Changes ingested so far, used to bring freshly loaded data set (which has none of them) up to date.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public interface TradeChangeHistory {
+
+    /**
+     * No changes.
+     */
+    TradeChangeHistory NONE = sink -> {
+    };
+
+    /**
+     * Applies changes ingested so far to sink in batches, in order of ingestion. Replay may include batch which is
+     * being applied concurrently (see {@link TradeChangeSink} on idempotency).
+     *
+     * @param sink the sink to apply changes to
+     * @throws java.io.UncheckedIOException if changes could not be read
+     */
+    void replay(TradeChangeSink sink);
+}
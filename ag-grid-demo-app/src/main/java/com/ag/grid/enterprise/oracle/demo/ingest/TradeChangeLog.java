@@ -0,0 +1,123 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.github.ykiselev.ag.grid.data.common.StringPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Layout of append-only trade change log. All values are big-endian.
+ * <pre>
+ * header:  magic (int), version (int)
+ * records: body length (int), body, CRC32 of body (int)
+ * body:    type (byte, see {@link TradeChange.Type#ordinal()}), timestamp (long), tradeId (long), portfolio,
+ *          for inserts and updates also:
+ *          product, book, dealType, bidType,
+ *          submitterId, submitterDealId, batch (long),
+ *          currentValue, previousValue, pl1, pl2, gainDx, sxPx, x99Out (double)
+ * </pre>
+ * Strings are stored as presence flag (boolean) followed by modified UTF-8 (see
+ * {@link java.io.DataOutput#writeUTF(String)}) if string is not {@code null}.
+ * <p>
+ * Writer never rewrites what was already written so reader may tail the log while it grows. Record which is not
+ * written completely yet is recognized by its length and left for the next read.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+final class TradeChangeLog {
+
+    static final int MAGIC = 0x5452434C;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Records larger than that are treated as corruption.
+     */
+    static final int MAX_RECORD_SIZE = 64 * 1024;
+
+    private static final TradeChange.Type[] TYPES = TradeChange.Type.values();
+
+    private TradeChangeLog() {
+    }
+
+    static byte[] encode(TradeChange change) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(200);
+        final DataOutputStream dos = new DataOutputStream(bos);
+        dos.writeByte(change.getType().ordinal());
+        dos.writeLong(change.getTimestamp());
+        dos.writeLong(change.getTradeId());
+        writeString(dos, change.getPortfolio());
+        if (!change.isDelete()) {
+            final Trade trade = change.getTrade();
+            writeString(dos, trade.getProduct());
+            writeString(dos, trade.getBook());
+            writeString(dos, trade.getDealType());
+            writeString(dos, trade.getBidType());
+            dos.writeLong(trade.getSubmitterId());
+            dos.writeLong(trade.getSubmitterDealId());
+            dos.writeLong(trade.getBatch());
+            dos.writeDouble(trade.getCurrentValue());
+            dos.writeDouble(trade.getPreviousValue());
+            dos.writeDouble(trade.getPl1());
+            dos.writeDouble(trade.getPl2());
+            dos.writeDouble(trade.getGainDx());
+            dos.writeDouble(trade.getSxPx());
+            dos.writeDouble(trade.getX99Out());
+        }
+        dos.flush();
+        return bos.toByteArray();
+    }
+
+    static TradeChange decode(byte[] body, StringPool strings) throws IOException {
+        final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(body));
+        final int ordinal = dis.readUnsignedByte();
+        if (ordinal >= TYPES.length) {
+            throw new IOException("Unknown change type: " + ordinal);
+        }
+        final TradeChange.Type type = TYPES[ordinal];
+        final long timestamp = dis.readLong();
+        final long tradeId = dis.readLong();
+        final String portfolio = readString(dis, strings);
+        if (type == TradeChange.Type.DELETE) {
+            return TradeChange.delete(timestamp, tradeId, portfolio);
+        }
+        final Trade trade = new Trade();
+        trade.setTradeId(tradeId);
+        trade.setPortfolio(portfolio);
+        trade.setProduct(readString(dis, strings));
+        trade.setBook(readString(dis, strings));
+        trade.setDealType(readString(dis, strings));
+        trade.setBidType(readString(dis, strings));
+        trade.setSubmitterId(dis.readLong());
+        trade.setSubmitterDealId(dis.readLong());
+        trade.setBatch(dis.readLong());
+        trade.setCurrentValue(dis.readDouble());
+        trade.setPreviousValue(dis.readDouble());
+        trade.setPl1(dis.readDouble());
+        trade.setPl2(dis.readDouble());
+        trade.setGainDx(dis.readDouble());
+        trade.setSxPx(dis.readDouble());
+        trade.setX99Out(dis.readDouble());
+        return type == TradeChange.Type.INSERT
+                ? TradeChange.insert(timestamp, trade)
+                : TradeChange.update(timestamp, trade);
+    }
+
+    private static void writeString(DataOutputStream dos, String value) throws IOException {
+        dos.writeBoolean(value != null);
+        if (value != null) {
+            dos.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream dis, StringPool strings) throws IOException {
+        return dis.readBoolean() ? strings.intern(dis.readUTF()) : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+import com.github.ykiselev.ag.grid.data.common.StringPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tails trade change log (see {@link TradeChangeLog}): each read returns complete records appended since the previous
+ * one. Not thread-safe.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TradeChangeLogReader implements AutoCloseable {
+
+    private final FileChannel channel;
+
+    private final StringPool strings;
+
+    private final CRC32 crc = new CRC32();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+
+    /**
+     * The offset of the first byte of buffer in file.
+     */
+    private long bufferOffset;
+
+    /**
+     * @param path    the path of log, header should already be written
+     * @param strings the pool to canonicalize strings of changes with
+     * @throws IOException if I/O error occurred or file is not a trade change log
+     */
+    public TradeChangeLogReader(Path path, StringPool strings) throws IOException {
+        this.strings = requireNonNull(strings);
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer.flip();
+        if (!fill(TradeChangeLog.HEADER_SIZE)) {
+            channel.close();
+            throw new IOException("No header in " + path);
+        }
+        final int magic = buffer.getInt();
+        final int version = buffer.getInt();
+        if (magic != TradeChangeLog.MAGIC || version != TradeChangeLog.VERSION) {
+            channel.close();
+            throw new IOException("Not a trade change log (or unsupported version): " + path);
+        }
+    }
+
+    /**
+     * @return the offset of the next record to read
+     */
+    public long position() {
+        return bufferOffset + buffer.position();
+    }
+
+    /**
+     * @return the number of bytes written to log but not read yet
+     * @throws IOException if I/O error occurred
+     */
+    public long backlog() throws IOException {
+        return Math.max(0, channel.size() - position());
+    }
+
+    /**
+     * @param max the max number of changes to read
+     * @return the changes (empty list if there are no complete records after the current position)
+     * @throws IOException if I/O error occurred or log is corrupted
+     */
+    public List<TradeChange> read(int max) throws IOException {
+        return read(max, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param max   the max number of changes to read
+     * @param limit the offset to stop reading at (records which start at or after it are not read)
+     * @return the changes (empty list if there are no complete records between the current position and limit)
+     * @throws IOException if I/O error occurred or log is corrupted
+     */
+    public List<TradeChange> read(int max, long limit) throws IOException {
+        final List<TradeChange> result = new ArrayList<>(Math.min(max, 16 * 1024));
+        while (result.size() < max && position() < limit && fill(Integer.BYTES)) {
+            final int length = buffer.getInt(buffer.position());
+            if (length <= 0 || length > TradeChangeLog.MAX_RECORD_SIZE) {
+                throw new IOException("Bad record length " + length + " at " + position());
+            }
+            if (!fill(2 * Integer.BYTES + length)) {
+                break;
+            }
+            final long offset = position();
+            buffer.getInt();
+            final byte[] body = new byte[length];
+            buffer.get(body);
+            final int checksum = buffer.getInt();
+            crc.reset();
+            crc.update(body, 0, body.length);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch of record at " + offset);
+            }
+            result.add(TradeChangeLog.decode(body, strings));
+        }
+        return result;
+    }
+
+    /**
+     * Makes sure buffer has at least {@code count} bytes remaining.
+     *
+     * @return {@code false} if file has less bytes after current position
+     */
+    private boolean fill(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        bufferOffset += buffer.position();
+        buffer.compact();
+        if (buffer.capacity() < count) {
+            final ByteBuffer larger = ByteBuffer.allocate(Math.max(count, buffer.capacity() * 2));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        while (buffer.position() < count) {
+            final int read = channel.read(buffer, bufferOffset + buffer.position());
+            if (read <= 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+/**
+ * Appends changes to trade change log (see {@link TradeChangeLog}). Header is written if log is new (or empty).
+ * Not thread-safe.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TradeChangeLogWriter implements AutoCloseable {
+
+    private final DataOutputStream dos;
+
+    private final CRC32 crc = new CRC32();
+
+    public TradeChangeLogWriter(Path path) throws IOException {
+        final boolean isNew = !Files.exists(path) || Files.size(path) == 0;
+        final OutputStream os = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.dos = new DataOutputStream(new BufferedOutputStream(os, 256 * 1024));
+        if (isNew) {
+            dos.writeInt(TradeChangeLog.MAGIC);
+            dos.writeInt(TradeChangeLog.VERSION);
+            dos.flush();
+        }
+    }
+
+    /**
+     * Writes changes and flushes them to file so they are visible to readers.
+     *
+     * @param changes the changes to append
+     * @throws IOException if I/O error occurred
+     */
+    public void append(Collection<TradeChange> changes) throws IOException {
+        for (TradeChange change : changes) {
+            final byte[] body = TradeChangeLog.encode(change);
+            crc.reset();
+            crc.update(body, 0, body.length);
+            dos.writeInt(body.length);
+            dos.write(body);
+            dos.writeInt((int) crc.getValue());
+        }
+        dos.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        dos.close();
+    }
+}
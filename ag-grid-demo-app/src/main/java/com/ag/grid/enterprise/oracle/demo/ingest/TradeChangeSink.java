@@ -0,0 +1,21 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+import java.util.Collection;
+
+/**
+ * Store which accepts trade changes.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public interface TradeChangeSink {
+
+    /**
+     * Applies batch of changes. Batch holds at most one change per trade and portfolio (see
+     * {@link TradeChange#coalesce(java.util.List)}), deletes should be applied before inserts and updates. Batch which
+     * failed is applied again so implementations should be idempotent.
+     *
+     * @param changes the changes to apply
+     */
+    void apply(Collection<TradeChange> changes);
+}
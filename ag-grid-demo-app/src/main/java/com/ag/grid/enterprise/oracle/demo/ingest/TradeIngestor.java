@@ -0,0 +1,237 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+import com.github.ykiselev.ag.grid.data.common.StringPool;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tails trade change log and applies changes to sinks in batches. Each batch is coalesced first (see
+ * {@link TradeChange#coalesce(List)}) so hot trades updated many times cost a single write. Changes are applied on
+ * single thread in order of the log; batch which failed is retried on the next poll.
+ * <p>
+ * Log is read from the beginning since stores load the same initial dump on each start. For the same reason store
+ * which reloads the dump has to replay changes ingested so far (see {@link #replay(TradeChangeSink)}).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class TradeIngestor implements TradeChangeHistory, AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Path path;
+
+    private final List<TradeChangeSink> sinks;
+
+    private final int maxBatch;
+
+    private final StringPool strings;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("trade-ingestor-%d")
+                    .setDaemon(true)
+                    .build()
+    );
+
+    // Accessed by ingesting thread only
+    private TradeChangeLogReader reader;
+
+    private List<TradeChange> pending = Collections.emptyList();
+
+    private long rateTime = System.nanoTime();
+
+    private long rateApplied;
+
+    /**
+     * The end of the last batch read from log. Set before the batch is applied, so that replay never misses batch
+     * store has already seen.
+     */
+    private volatile long position;
+
+    // Statistics
+    private volatile long applied;
+
+    private volatile long batches;
+
+    private volatile long failures;
+
+    private volatile double rate;
+
+    private volatile long lagMillis;
+
+    private volatile long backlog;
+
+    /**
+     * @param path     the path of change log (may not exist yet)
+     * @param sinks    the sinks to apply changes to
+     * @param maxBatch the max number of changes to read from log per batch
+     * @param strings  the pool to canonicalize strings of changes with
+     */
+    public TradeIngestor(Path path, List<? extends TradeChangeSink> sinks, int maxBatch, StringPool strings) {
+        this.path = requireNonNull(path);
+        this.sinks = new ArrayList<>(sinks);
+        this.maxBatch = maxBatch;
+        this.strings = requireNonNull(strings);
+    }
+
+    /**
+     * Starts polling the log.
+     *
+     * @param pollMillis the delay between the end of one poll and the start of the next one
+     */
+    public void start(long pollMillis) {
+        executor.scheduleWithFixedDelay(this::poll, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        try {
+            drain();
+        } catch (IOException | RuntimeException e) {
+            failures++;
+            logger.warn("Unable to ingest changes from " + path, e);
+        }
+    }
+
+    /**
+     * Applies all changes appended to log since the previous call.
+     *
+     * @return the number of applied changes
+     * @throws IOException if log is corrupted or I/O error occurred
+     */
+    int drain() throws IOException {
+        if (reader == null) {
+            if (!Files.exists(path) || Files.size(path) < TradeChangeLog.HEADER_SIZE) {
+                return 0;
+            }
+            reader = new TradeChangeLogReader(path, strings);
+            logger.info("Tailing {}", path);
+        }
+        int result = 0;
+        while (true) {
+            if (pending.isEmpty()) {
+                pending = reader.read(maxBatch);
+                if (pending.isEmpty()) {
+                    break;
+                }
+                position = reader.position();
+            }
+            apply(pending);
+            result += pending.size();
+            pending = Collections.emptyList();
+            updateStats();
+        }
+        updateStats();
+        return result;
+    }
+
+    private void apply(List<TradeChange> batch) {
+        final Collection<TradeChange> coalesced = TradeChange.coalesce(batch);
+        for (TradeChangeSink sink : sinks) {
+            sink.apply(coalesced);
+        }
+        applied += batch.size();
+        batches++;
+        lagMillis = Math.max(0, System.currentTimeMillis() - batch.get(batch.size() - 1).getTimestamp());
+    }
+
+    /**
+     * Reads log from the beginning up to the end of the last batch read by this ingestor on the calling thread. Batch
+     * which is being applied (or retried) is replayed too.
+     */
+    @Override
+    public void replay(TradeChangeSink sink) {
+        final long limit = position;
+        if (limit == 0) {
+            return;
+        }
+        try (TradeChangeLogReader replayed = new TradeChangeLogReader(path, strings)) {
+            for (List<TradeChange> batch = replayed.read(maxBatch, limit); !batch.isEmpty();
+                 batch = replayed.read(maxBatch, limit)) {
+                sink.apply(TradeChange.coalesce(batch));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void updateStats() throws IOException {
+        backlog = reader.backlog();
+        final long now = System.nanoTime();
+        final long elapsed = now - rateTime;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+            rate = (applied - rateApplied) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            rateApplied = applied;
+            rateTime = now;
+        }
+    }
+
+    /**
+     * @return the total number of changes read from log and applied
+     */
+    public long getApplied() {
+        return applied;
+    }
+
+    /**
+     * @return the number of changes applied per second (averaged over at least one second)
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * @return the time between append of the last applied change and its application
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * @return the number of bytes appended to log but not applied yet
+     */
+    public long getBacklog() {
+        return backlog;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TradeIngestor{" +
+                "path=" + path +
+                ", applied=" + applied +
+                ", batches=" + batches +
+                ", failures=" + failures +
+                ", rate=" + String.format("%.1f", rate) +
+                ", lagMillis=" + lagMillis +
+                ", backlog=" + backlog +
+                '}';
+    }
+}
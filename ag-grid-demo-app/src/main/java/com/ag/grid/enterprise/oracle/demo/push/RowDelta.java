@@ -0,0 +1,80 @@
+package com.ag.grid.enterprise.oracle.demo.push;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Changes of one open block pushed to client. Rows which changed in place are sent as is, if rows were added, removed
+ * or moved client is asked to purge the route (positions of loaded blocks are no longer valid).
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class RowDelta {
+
+    private final List<String> route;
+
+    private final int startRow;
+
+    private final List<Map<String, Object>> update;
+
+    private final boolean purge;
+
+    /**
+     * @param route    the group keys of block parent
+     * @param startRow the first row of block
+     * @param update   the changed rows (leaf rows are identified by trade id, group rows by group key)
+     * @param purge    should client purge the route and re-request its blocks?
+     */
+    public RowDelta(List<String> route, int startRow, List<Map<String, Object>> update, boolean purge) {
+        this.route = requireNonNull(route);
+        this.startRow = startRow;
+        this.update = requireNonNull(update);
+        this.purge = purge;
+    }
+
+    public List<String> getRoute() {
+        return route;
+    }
+
+    public int getStartRow() {
+        return startRow;
+    }
+
+    public List<Map<String, Object>> getUpdate() {
+        return update;
+    }
+
+    public boolean isPurge() {
+        return purge;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RowDelta rowDelta = (RowDelta) o;
+        return startRow == rowDelta.startRow &&
+                purge == rowDelta.purge &&
+                Objects.equals(route, rowDelta.route) &&
+                Objects.equals(update, rowDelta.update);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(route, startRow, update, purge);
+    }
+
+    @Override
+    public String toString() {
+        return "RowDelta{" +
+                "route=" + route +
+                ", startRow=" + startRow +
+                ", update=" + update.size() +
+                ", purge=" + purge +
+                '}';
+    }
+}
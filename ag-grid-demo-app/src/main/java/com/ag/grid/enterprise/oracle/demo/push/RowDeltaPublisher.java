@@ -0,0 +1,362 @@
+package com.ag.grid.enterprise.oracle.demo.push;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChangeSink;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.request.ColumnVO;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.github.ykiselev.ag.grid.data.cache.RequestKey;
+import com.github.ykiselev.ag.grid.data.types.Attribute;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pushes changes of rows to open grids over server-sent events.
+ * <p>
+ * Each block served to subscribed session is registered (the last {@code maxBlocksPerSession} of the current view),
+ * when batch of trade changes is applied only the blocks which may contain changed trades (trade is in the group
+ * block was requested for) are recomputed and compared with the rows sent last time. Rows changed in place are pushed
+ * as {@link RowDelta}, if block has rows added, removed or reordered client is asked to purge the route instead.
+ * <p>
+ * Blocks are recomputed on single thread, batches arriving while it is busy are coalesced. This sink should be
+ * applied after the stores and caches, so that recomputed blocks see the batch.
+ * <p>
+ * Note: deletes carry portfolio and trade id only and updates carry new values only, so trade moved to another group
+ * marks blocks of the group it was moved to (and of its portfolio), the block it has left is refreshed when requested
+ * again.
+ *
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public final class RowDeltaPublisher implements TradeChangeSink, AutoCloseable {
+
+    public static final String EVENT_NAME = "rows";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Function<AgGridGetRowsRequest, AgGridGetRowsResponse> rows;
+
+    private final TypeInfo<Trade> typeInfo;
+
+    private final String idField;
+
+    private final ExecutorService executor;
+
+    private final int maxBlocksPerSession;
+
+    private final long timeoutMillis;
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final Set<Block> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong recomputed = new AtomicLong();
+
+    private final AtomicLong pushed = new AtomicLong();
+
+    /**
+     * @param rows                the source of rows (the same client requests are served from)
+     * @param typeInfo            the type info of trade used to find out which groups changed trades belong to
+     * @param idField             the field identifying leaf rows
+     * @param executor            the executor to recompute blocks on (tasks are never submitted concurrently)
+     * @param maxBlocksPerSession the max number of blocks to track per session
+     * @param timeoutMillis       the subscription timeout, client reconnects afterwards
+     */
+    public RowDeltaPublisher(Function<AgGridGetRowsRequest, AgGridGetRowsResponse> rows, TypeInfo<Trade> typeInfo,
+                             String idField, ExecutorService executor, int maxBlocksPerSession, long timeoutMillis) {
+        this.rows = requireNonNull(rows);
+        this.typeInfo = requireNonNull(typeInfo);
+        this.idField = requireNonNull(idField);
+        this.executor = requireNonNull(executor);
+        this.maxBlocksPerSession = maxBlocksPerSession;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Subscribes session to changes of blocks it will request. Previous subscription of the same session is completed.
+     *
+     * @param sessionId the session id
+     * @return the emitter to return to client
+     */
+    public SseEmitter subscribe(String sessionId) {
+        return subscribe(sessionId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String sessionId, SseEmitter emitter) {
+        final Session session = new Session(sessionId, emitter);
+        emitter.onCompletion(session::close);
+        emitter.onTimeout(session::close);
+        final Session previous = sessions.put(sessionId, session);
+        if (previous != null) {
+            previous.emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Registers block served to session, does nothing if session is not subscribed.
+     *
+     * @param sessionId the session id
+     * @param request   the request
+     * @param response  the response sent to client
+     */
+    public void register(String sessionId, AgGridGetRowsRequest request, AgGridGetRowsResponse response) {
+        final Session session = sessions.get(sessionId);
+        if (session == null || (request.isPivotMode() && !request.getPivotCols().isEmpty())) {
+            // Pivoted blocks have generated columns, they are just re-requested
+            return;
+        }
+        session.register(new Block(session, request, toRows(response)));
+    }
+
+    @Override
+    public void apply(Collection<TradeChange> changes) {
+        for (Session session : sessions.values()) {
+            session.markAffected(changes, dirty);
+        }
+        if (!dirty.isEmpty() && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::publish);
+        }
+    }
+
+    private void publish() {
+        // Blocks marked from now on are published by the next task
+        scheduled.set(false);
+        for (Iterator<Block> it = dirty.iterator(); it.hasNext(); ) {
+            final Block block = it.next();
+            it.remove();
+            try {
+                publish(block);
+            } catch (RuntimeException e) {
+                logger.error("Failed to publish changes of {}", block, e);
+            }
+        }
+    }
+
+    private void publish(Block block) {
+        if (!block.session.isOpen()) {
+            return;
+        }
+        recomputed.incrementAndGet();
+        final RowDelta delta = block.diff(toRows(rows.apply(block.key.toRequest())));
+        if (delta != null) {
+            block.session.send(delta);
+            pushed.incrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> toRows(AgGridGetRowsResponse response) {
+        final List<Map<String, Object>> result = new ArrayList<>();
+        for (Object row : response.getData()) {
+            if (row instanceof Map) {
+                result.add((Map<String, Object>) row);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        sessions.values().forEach(session -> session.emitter.complete());
+        sessions.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "RowDeltaPublisher{" +
+                "sessions=" + sessions.size() +
+                ", blocks=" + sessions.values().stream().mapToInt(Session::blocks).sum() +
+                ", recomputed=" + recomputed.get() +
+                ", pushed=" + pushed.get() +
+                '}';
+    }
+
+    private final class Session {
+
+        final String id;
+
+        final SseEmitter emitter;
+
+        /**
+         * Blocks of the current view in access order.
+         */
+        private final Map<RequestKey, Block> blocks = new LinkedHashMap<RequestKey, Block>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RequestKey, Block> eldest) {
+                return size() > maxBlocksPerSession;
+            }
+        };
+
+        private RequestKey view;
+
+        private volatile boolean open = true;
+
+        Session(String id, SseEmitter emitter) {
+            this.id = requireNonNull(id);
+            this.emitter = requireNonNull(emitter);
+        }
+
+        boolean isOpen() {
+            return open;
+        }
+
+        synchronized int blocks() {
+            return blocks.size();
+        }
+
+        synchronized void register(Block block) {
+            final RequestKey blockView = RequestKey.viewOf(block.key.toRequest());
+            if (!blockView.equals(view)) {
+                // Client has dropped blocks of the previous view
+                blocks.clear();
+                view = blockView;
+            }
+            blocks.put(block.key, block);
+        }
+
+        synchronized void markAffected(Collection<TradeChange> changes, Set<Block> target) {
+            for (Block block : blocks.values()) {
+                if (block.isAffected(changes)) {
+                    target.add(block);
+                }
+            }
+        }
+
+        void send(RowDelta delta) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(delta, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping subscription of {}: {}", id, e.toString());
+                emitter.completeWithError(e);
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            sessions.remove(id, this);
+        }
+    }
+
+    private final class Block {
+
+        final Session session;
+
+        final RequestKey key;
+
+        final List<String> route;
+
+        final List<String> groupFields;
+
+        /**
+         * The field identifying rows of block.
+         */
+        final String keyField;
+
+        private List<Map<String, Object>> rows;
+
+        Block(Session session, AgGridGetRowsRequest request, List<Map<String, Object>> rows) {
+            this.session = requireNonNull(session);
+            this.key = RequestKey.of(request);
+            this.route = key.getGroupKeys();
+            this.groupFields = new ArrayList<>();
+            for (ColumnVO col : request.getRowGroupCols()) {
+                groupFields.add(col.getField());
+            }
+            this.keyField = route.size() < groupFields.size() ? groupFields.get(route.size()) : idField;
+            this.rows = rows;
+        }
+
+        /**
+         * @return {@code true} if any changed trade may belong to group this block was requested for
+         */
+        boolean isAffected(Collection<TradeChange> changes) {
+            for (TradeChange change : changes) {
+                if (contains(change)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean contains(TradeChange change) {
+            for (int i = 0; i < route.size(); i++) {
+                final String field = groupFields.get(i);
+                final Object value;
+                if (change.isDelete()) {
+                    if (!"portfolio".equals(field)) {
+                        continue;
+                    }
+                    value = change.getPortfolio();
+                } else {
+                    final Attribute<Trade> attribute = typeInfo.getAttribute(field);
+                    if (attribute == null) {
+                        continue;
+                    }
+                    value = attribute.getObjectGetter().apply(change.getTrade());
+                }
+                if (!Objects.equals(value != null ? String.valueOf(value) : null, route.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param next the recomputed rows
+         * @return the delta to push or {@code null} if nothing has changed
+         */
+        synchronized RowDelta diff(List<Map<String, Object>> next) {
+            final List<Map<String, Object>> previous = rows;
+            rows = next;
+            boolean sameKeys = previous.size() == next.size();
+            final List<Map<String, Object>> update = new ArrayList<>();
+            for (int i = 0; sameKeys && i < next.size(); i++) {
+                final Map<String, Object> row = next.get(i);
+                sameKeys = Objects.equals(previous.get(i).get(keyField), row.get(keyField));
+                if (!row.equals(previous.get(i))) {
+                    update.add(row);
+                }
+            }
+            if (!sameKeys) {
+                return new RowDelta(route, key.getStartRow(), new ArrayList<>(), true);
+            }
+            return update.isEmpty() ? null : new RowDelta(route, key.getStartRow(), update, false);
+        }
+
+        @Override
+        public String toString() {
+            return "Block{" +
+                    "session=" + session.id +
+                    ", route=" + route +
+                    ", startRow=" + key.getStartRow() +
+                    '}';
+        }
+    }
+}
@@ -88,6 +88,9 @@ let gridOptions = {
   animateRows: false
 };
 
+// Page opened with ?portfolio=<name> shows trades of that portfolio only
+const portfolio = new URLSearchParams(window.location.search).get('portfolio');
+
 function EnterpriseDatasource() {}
 
 EnterpriseDatasource.prototype.getRows = function (params) {
@@ -95,7 +98,7 @@ EnterpriseDatasource.prototype.getRows = function (params) {
   console.log(jsonRequest);
 
   let httpRequest = new XMLHttpRequest();
-  httpRequest.open('POST', '/getRows?portfolio=portfolio_1');
+  httpRequest.open('POST', portfolio ? '/getRows?portfolio=' + encodeURIComponent(portfolio) : '/getRows');
   httpRequest.setRequestHeader("Content-type", "application/json");
   httpRequest.send(jsonRequest);
   httpRequest.onreadystatechange = () => {
@@ -113,8 +116,47 @@ document.addEventListener('DOMContentLoaded', function () {
   let gridDiv = document.querySelector('#myGrid');
   new agGrid.Grid(gridDiv, gridOptions);
   gridOptions.api.setEnterpriseDatasource(new EnterpriseDatasource());
+  subscribeToRowDeltas();
 });
 
+// Server pushes changes of loaded blocks, rows changed in place are updated (changed cells flash), otherwise
+// blocks of the route are re-requested
+let subscribeToRowDeltas = function () {
+  let source = new EventSource('/rowDeltas');
+  source.addEventListener('rows', event => applyRowDelta(JSON.parse(event.data)));
+};
+
+let applyRowDelta = function (delta) {
+  if (delta.purge) {
+    gridOptions.api.purgeEnterpriseCache(delta.route);
+    return;
+  }
+  let level = delta.route.length;
+  let groupField = level < gridOptions.columnApi.getRowGroupColumns().length
+    ? gridOptions.columnApi.getRowGroupColumns()[level].getColDef().field
+    : null;
+  let rows = new Map(delta.update.map(row => [groupField ? row[groupField] : row.tradeId, row]));
+  gridOptions.api.forEachNode(node => {
+    if (node.level !== level || !node.data || !sameRoute(node, delta.route)) {
+      return;
+    }
+    let row = rows.get(groupField ? node.key : node.data.tradeId);
+    if (row) {
+      node.setData(row);
+    }
+  });
+};
+
+let sameRoute = function (node, route) {
+  let parent = node.parent;
+  for (let i = route.length - 1; i >= 0; i--, parent = parent.parent) {
+    if (!parent || parent.key !== route[i]) {
+      return false;
+    }
+  }
+  return true;
+};
+
 let updateSecondaryColumns = function (request, result) {
   let valueCols = request.valueCols;
   if (request.pivotMode && request.pivotCols.length > 0) {
@@ -0,0 +1,102 @@
+package com.ag.grid.enterprise;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.NumberFilterType;
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters;
+import com.github.ykiselev.ag.grid.data.RequestFilters;
+import com.github.ykiselev.ag.grid.data.columns.ZoneMaps;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class MappedTradeStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadMappedTrades() throws Exception {
+        final List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            final Trade t = new Trade();
+            t.setTradeId(1000 + i);
+            t.setPortfolio("p" + i % 2);
+            t.setBook(i == 7 ? null : "b" + i);
+            t.setBatch(-i);
+            t.setPl1(i / 2d);
+            t.setX99Out(i);
+            trades.add(t);
+        }
+        final Path path = folder.newFile().toPath();
+        new TradeDumpWriter(100).write(path, trades);
+
+        try (MappedTradeStore store = MappedTradeStore.open(path)) {
+            assertEquals(250, store.size());
+            final TypeInfo<Integer> typeInfo = store.createTypeInfo();
+            for (int row = 0; row < 250; row++) {
+                final Trade t = trades.get(row);
+                final Map<String, Object> map = typeInfo.toMap().apply(row);
+                assertEquals(t.getTradeId(), map.get("tradeId"));
+                assertEquals(t.getPortfolio(), map.get("portfolio"));
+                assertEquals(t.getBook(), map.get("book"));
+                assertEquals(t.getBatch(), map.get("batch"));
+                assertEquals(t.getPl1(), map.get("pl1"));
+                assertEquals(t.getX99Out(), map.get("x99Out"));
+            }
+            assertNull(store.getString(MappedTradeStore.stringColumn("book"), 7));
+            final Map<String, int[]> index = store.index(MappedTradeStore.stringColumn("portfolio"));
+            assertEquals(125, index.get("p1").length);
+            assertArrayEquals(new int[]{1, 3, 5}, Arrays.copyOf(index.get("p1"), 3));
+        }
+    }
+
+    @Test
+    public void shouldSkipChunksByZoneMaps() throws Exception {
+        final List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            final Trade t = new Trade();
+            t.setTradeId(i);
+            t.setPortfolio(i < 100 ? "p1" : "p2");
+            t.setBook(i < 200 ? null : "b1");
+            t.setPl1(i * 1.5);
+            trades.add(t);
+        }
+        final Path path = folder.newFile().toPath();
+        new TradeDumpWriter(100).write(path, trades);
+
+        try (MappedTradeStore store = MappedTradeStore.open(path)) {
+            final ZoneMaps zoneMaps = store.getZoneMaps();
+            assertEquals(3, zoneMaps.blocks());
+            assertEquals("{1, 2}", zoneMaps.candidates(filters("portfolio", new GroupKey("p2"))).toString());
+            assertEquals("{0}", zoneMaps.candidates(filters("tradeId",
+                    new NumberColumnFilter(NumberFilterType.LESS_THAN, 50, null))).toString());
+            assertEquals("{2}", zoneMaps.candidates(filters("book", new GroupKey("b1"))).toString());
+            assertEquals("{}", zoneMaps.candidates(filters("book", new GroupKey("b2"))).toString());
+            assertEquals("{1, 2}", zoneMaps.candidates(filters("pl1",
+                    new NumberColumnFilter(NumberFilterType.GREATER_THAN, 200, null))).toString());
+        }
+    }
+
+    private static RequestFilters filters(String name, ColumnFilter filter) {
+        return new DefaultRequestFilters(Collections.singletonMap(name, filter));
+    }
+}
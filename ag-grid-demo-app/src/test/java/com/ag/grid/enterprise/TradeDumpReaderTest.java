@@ -0,0 +1,97 @@
+package com.ag.grid.enterprise;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class TradeDumpReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Trade> trades(int count) {
+        final List<Trade> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Trade t = new Trade();
+            t.setTradeId(i);
+            t.setPortfolio("portfolio#" + i % 3);
+            t.setProduct(i % 5 == 0 ? null : "product#" + i % 7);
+            t.setBook("книга#" + i % 11);
+            t.setSubmitterId(i * 3L);
+            t.setSubmitterDealId(-i);
+            t.setDealType("dealType#" + i % 2);
+            t.setBidType("bidType");
+            t.setCurrentValue(i * 1.5);
+            t.setPreviousValue(-i * 0.5);
+            t.setPl1(i);
+            t.setPl2(Double.NaN);
+            t.setGainDx(i / 3d);
+            t.setSxPx(1);
+            t.setX99Out(Double.MAX_VALUE);
+            t.setBatch(Long.MIN_VALUE + i);
+            result.add(t);
+        }
+        return result;
+    }
+
+    @Test
+    public void shouldReadWhatWasWritten() throws IOException {
+        final Path path = folder.newFile().toPath();
+        final List<Trade> trades = trades(1_000);
+        new TradeDumpWriter(64).write(path, trades);
+
+        assertTrue(TradeDumpReader.isBinaryDump(path));
+        final List<Trade> result = TradeDumpReader.readAll(path);
+        assertEquals(trades, result);
+        assertNull(result.get(0).getProduct());
+        assertEquals(trades.get(999).getBatch(), result.get(999).getBatch());
+        assertEquals(trades.get(999).getPl2(), result.get(999).getPl2(), 0);
+        // strings are taken from dictionary
+        assertTrue(result.get(1).getBidType() == result.get(2).getBidType());
+    }
+
+    @Test
+    public void shouldPassChunks() throws IOException {
+        final Path path = folder.newFile().toPath();
+        new TradeDumpWriter(300).write(path, trades(1_000));
+
+        final AtomicInteger chunks = new AtomicInteger();
+        final AtomicInteger rows = new AtomicInteger();
+        TradeDumpReader.read(path, total -> assertEquals(1_000, total), (firstRow, trades) -> {
+            assertEquals(firstRow, trades[0].getTradeId());
+            chunks.incrementAndGet();
+            rows.addAndGet(trades.length);
+        });
+        assertEquals(4, chunks.get());
+        assertEquals(1_000, rows.get());
+    }
+
+    @Test
+    public void shouldReadEmptyDump() throws IOException {
+        final Path path = folder.newFile().toPath();
+        new TradeDumpWriter().write(path, new ArrayList<>());
+
+        assertTrue(TradeDumpReader.readAll(path).isEmpty());
+    }
+
+    @Test
+    public void shouldDetectOtherFormats() throws IOException {
+        assertFalse(TradeDumpReader.isBinaryDump(folder.newFile().toPath()));
+    }
+}
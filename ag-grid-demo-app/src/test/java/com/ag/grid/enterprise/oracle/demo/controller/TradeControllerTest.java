@@ -0,0 +1,61 @@
+package com.ag.grid.enterprise.oracle.demo.controller;
+
+import com.github.ykiselev.ag.grid.api.filter.ColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.NumberFilterType;
+import com.github.ykiselev.ag.grid.api.filter.SetColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.TextColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.TextFilterType;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class TradeControllerTest {
+
+    @Test
+    public void shouldRouteRequestWithoutFilters() {
+        final Map<String, ColumnFilter> result = TradeController.routeToPortfolio(null, "p1");
+
+        assertEquals(ImmutableMap.of("portfolio", new GroupKey("p1")), result);
+    }
+
+    @Test
+    public void shouldKeepOtherFilters() {
+        final TextColumnFilter book = new TextColumnFilter(TextFilterType.EQUALS, "b1");
+
+        final Map<String, ColumnFilter> result = TradeController.routeToPortfolio(ImmutableMap.of("book", book), "p1");
+
+        assertEquals(ImmutableMap.of("book", book, "portfolio", new GroupKey("p1")), result);
+    }
+
+    @Test
+    public void shouldNarrowPortfolioFilter() {
+        final Map<String, ColumnFilter> result = TradeController.routeToPortfolio(
+                ImmutableMap.of("portfolio", new SetColumnFilter(ImmutableSet.of("p1", "p2"))), "p1");
+
+        assertEquals(new GroupKey("p1"), result.get("portfolio"));
+    }
+
+    @Test
+    public void shouldMatchNothingIfPortfolioIsExcluded() {
+        final Map<String, ColumnFilter> result = TradeController.routeToPortfolio(
+                ImmutableMap.of("portfolio", new TextColumnFilter(TextFilterType.STARTS_WITH, "x")), "p1");
+
+        assertEquals(new SetColumnFilter(Collections.emptySet()), result.get("portfolio"));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void shouldRejectInapplicablePortfolioFilter() {
+        TradeController.routeToPortfolio(ImmutableMap.of("portfolio", new NumberColumnFilter(NumberFilterType.EQUALS, 1, null)), "p1");
+    }
+}
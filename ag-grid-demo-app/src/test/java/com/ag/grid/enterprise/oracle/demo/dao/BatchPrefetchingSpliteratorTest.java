@@ -0,0 +1,201 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.github.ykiselev.ag.grid.data.cancel.CancellationToken;
+import com.github.ykiselev.ag.grid.data.cancel.CancellationTokenSource;
+import com.github.ykiselev.ag.grid.data.cancel.CancelledException;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class BatchPrefetchingSpliteratorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final AtomicInteger fetched = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static List<Long> keys(int count) {
+        return LongStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private Map<Long, String> getAll(Collection<Long> keys) {
+        fetched.incrementAndGet();
+        // Odd keys are absent
+        return keys.stream()
+                .filter(k -> k % 2 == 0)
+                .collect(Collectors.toMap(Function.identity(), String::valueOf));
+    }
+
+    @Test
+    public void shouldSkipAbsentKeys() {
+        final List<String> result = StreamSupport.stream(
+                new BatchPrefetchingSpliterator<>(keys(25), this::getAll, executor, CancellationToken.NONE, 10, 2), false
+        ).collect(Collectors.toList());
+
+        assertEquals(13, result.size());
+        assertTrue(result.containsAll(IntStream.range(0, 13).mapToObj(i -> String.valueOf(i * 2)).collect(Collectors.toList())));
+        assertEquals(3, fetched.get());
+    }
+
+    @Test
+    public void shouldSplitAtBatchBoundary() {
+        final Spliterator<String> suffix = new BatchPrefetchingSpliterator<>(keys(50), this::getAll, executor, CancellationToken.NONE, 10, 2);
+        final Spliterator<String> prefix = suffix.trySplit();
+
+        assertNotNull(prefix);
+        assertEquals(20, prefix.estimateSize());
+        assertEquals(30, suffix.estimateSize());
+
+        final List<String> values = new ArrayList<>();
+        prefix.forEachRemaining(values::add);
+        assertEquals(10, values.size());
+        assertTrue(values.contains("18"));
+        assertFalse(values.contains("20"));
+
+        assertNull("Less than two batches", new BatchPrefetchingSpliterator<>(keys(19), this::getAll, executor, CancellationToken.NONE, 10, 2).trySplit());
+    }
+
+    @Test
+    public void shouldFetchInParallel() {
+        final long sum = StreamSupport.stream(
+                new BatchPrefetchingSpliterator<>(keys(10_000), this::getAll, executor, CancellationToken.NONE, 100, 4), true
+        ).mapToLong(Long::parseLong).sum();
+
+        assertEquals(LongStream.range(0, 5_000).map(k -> k * 2).sum(), sum);
+        assertEquals(100, fetched.get());
+    }
+
+    @Test
+    public void shouldLimitBatchesInFlight() throws InterruptedException {
+        final List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+        final Spliterator<String> spliterator = new BatchPrefetchingSpliterator<>(keys(100), this::getAll,
+                tasks::add, CancellationToken.NONE, 10, 3);
+
+        // Consumer is blocked on the first batch
+        final Thread consumer = new Thread(() -> {
+            try {
+                spliterator.tryAdvance(v -> {
+                });
+            } catch (CancelledException e) {
+                // Interrupted
+            }
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+        while (consumer.getState() != Thread.State.WAITING && consumer.isAlive()) {
+            Thread.yield();
+        }
+        assertEquals("The awaited batch and three ahead of it", 4, tasks.size());
+        consumer.interrupt();
+        consumer.join(10_000);
+        assertFalse(consumer.isAlive());
+    }
+
+    @Test
+    public void shouldCancelBatchesInFlight() throws InterruptedException {
+        final List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+        final CancellationTokenSource token = new CancellationTokenSource();
+        final Spliterator<String> spliterator = new BatchPrefetchingSpliterator<>(keys(100), this::getAll,
+                tasks::add, token, 10, 3);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        final Thread consumer = new Thread(() -> {
+            try {
+                spliterator.tryAdvance(v -> {
+                });
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+        while (consumer.getState() != Thread.State.WAITING && consumer.isAlive()) {
+            Thread.yield();
+        }
+        token.cancel();
+        consumer.join(10_000);
+
+        assertFalse("Waiting consumer is released", consumer.isAlive());
+        assertTrue(String.valueOf(failure.get()), failure.get() instanceof CancelledException);
+        tasks.forEach(Runnable::run);
+        assertEquals("Queued batches are skipped", 0, fetched.get());
+    }
+
+    @Test
+    public void shouldFetchNothingUntilConsumed() {
+        final Spliterator<String> spliterator = new BatchPrefetchingSpliterator<>(keys(100), this::getAll,
+                MoreExecutors.directExecutor(), CancellationToken.NONE, 10, 3);
+
+        assertEquals(0, fetched.get());
+        assertTrue(spliterator.tryAdvance(v -> assertEquals("0", v)));
+        // The first batch is taken, window is refilled
+        assertEquals(4, fetched.get());
+    }
+
+    @Test
+    public void shouldStopFetchingOnceCancelled() {
+        final CancellationTokenSource token = new CancellationTokenSource();
+        final Spliterator<String> spliterator = new BatchPrefetchingSpliterator<>(keys(100), this::getAll,
+                MoreExecutors.directExecutor(), token, 10, 1);
+
+        assertTrue(spliterator.tryAdvance(v -> {
+        }));
+        token.cancel();
+        try {
+            spliterator.forEachRemaining(v -> {
+            });
+            fail("Should be cancelled");
+        } catch (CancelledException e) {
+            // Values of fetched batch are consumed, the one fetched ahead is dropped
+            assertEquals(2, fetched.get());
+        }
+        assertEquals(0, spliterator.estimateSize());
+    }
+
+    @Test
+    public void shouldPropagateFailure() {
+        final Spliterator<String> spliterator = new BatchPrefetchingSpliterator<Long, String>(keys(100), k -> {
+            throw new IllegalArgumentException("Boom!");
+        }, executor, CancellationToken.NONE, 10, 3);
+
+        try {
+            spliterator.forEachRemaining(v -> {
+            });
+            fail("Should fail");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Boom!", e.getMessage());
+        }
+        assertEquals(0, spliterator.estimateSize());
+    }
+}
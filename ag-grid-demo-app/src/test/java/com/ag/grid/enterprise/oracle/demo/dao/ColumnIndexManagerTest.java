@@ -0,0 +1,230 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ForwardingExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class ColumnIndexManagerTest {
+
+    private final AtomicInteger built = new AtomicInteger();
+
+    private static ColumnIndexManager.Key key(String portfolio, String column) {
+        return new ColumnIndexManager.Key(portfolio, column);
+    }
+
+    private Callable<MapBasedColumnIndex<Object>> builder(String column) {
+        return () -> {
+            built.incrementAndGet();
+            return new MapBasedColumnIndex<>(column, ImmutableMap.of("v1", Arrays.asList(1L, 2L)));
+        };
+    }
+
+    private static long sizeOfIndex() {
+        return new MapBasedColumnIndex<>("c", ImmutableMap.of("v1", Arrays.asList(1L, 2L))).getEstimatedSize();
+    }
+
+    @Test
+    public void shouldBuildIndexOnFirstRequest() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(Long.MAX_VALUE, MoreExecutors.newDirectExecutorService());
+
+        assertNull("Index is not ready yet", manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+        assertNotNull(manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+        assertNotNull(manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+
+        assertEquals(1, built.get());
+        assertEquals(sizeOfIndex(), manager.getBytes());
+        assertTrue(manager.getInfo(), manager.getInfo().contains("hits=2, misses=1"));
+    }
+
+    @Test
+    public void shouldEvictLeastFrequentlyUsedIndexes() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(2 * sizeOfIndex(), MoreExecutors.newDirectExecutorService());
+        for (int i = 0; i < 3; i++) {
+            manager.get(key("p1", "book"), sizeOfIndex(), builder("book"));
+        }
+        manager.get(key("p2", "book"), sizeOfIndex(), builder("book"));
+        manager.get(key("p1", "product"), sizeOfIndex(), builder("product"));
+
+        assertTrue("Newcomer is not more frequent than victim", manager.getInfo().contains("refusals=1"));
+        assertEquals(2, built.get());
+
+        manager.get(key("p1", "product"), sizeOfIndex(), builder("product"));
+
+        assertEquals(3, built.get());
+        assertEquals(2 * sizeOfIndex(), manager.getBytes());
+        assertTrue(manager.getBuilt().containsKey(key("p1", "book")));
+        assertTrue(manager.getBuilt().containsKey(key("p1", "product")));
+        assertTrue(manager.getInfo(), manager.getInfo().contains("evictions=1"));
+    }
+
+    @Test
+    public void shouldNotBuildIndexLargerThanBudget() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(sizeOfIndex() - 1, MoreExecutors.newDirectExecutorService());
+
+        assertNull(manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+        assertNull(manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+
+        assertEquals(0, built.get());
+        assertTrue(manager.getInfo(), manager.getInfo().contains("refusals=2"));
+    }
+
+    @Test
+    public void shouldRememberSizeOfRefusedIndex() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(sizeOfIndex(), MoreExecutors.newDirectExecutorService());
+        manager.get(key("p1", "book"), sizeOfIndex(), builder("book"));
+        manager.get(key("p1", "book"), sizeOfIndex(), builder("book"));
+
+        // Expected size is too optimistic, the built index does not beat the one in use
+        assertNull(manager.get(key("p2", "book"), 0, builder("book")));
+        assertEquals(2, built.get());
+        assertNull(manager.get(key("p2", "book"), 0, builder("book")));
+        assertEquals("Refused index is not rebuilt while it is not more frequent", 2, built.get());
+
+        assertNotNull(manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+        assertEquals(Collections.singleton(key("p1", "book")), manager.getBuilt().keySet());
+    }
+
+    @Test
+    public void shouldReturnIndexesInUseOnInvalidation() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(Long.MAX_VALUE, MoreExecutors.newDirectExecutorService());
+        manager.get(key("p1", "book"), sizeOfIndex(), builder("book"));
+        manager.get(key("p1", "product"), sizeOfIndex(), builder("product"));
+        manager.get(key("p2", "book"), sizeOfIndex(), builder("book"));
+
+        assertEquals(2, manager.invalidate("p1").size());
+        assertEquals(Collections.singleton(key("p2", "book")), manager.getBuilt().keySet());
+
+        manager.rebuild(key("p1", "book"), sizeOfIndex(), builder("book"));
+        assertEquals(4, built.get());
+        assertEquals(2 * sizeOfIndex(), manager.getBytes());
+    }
+
+    @Test
+    public void shouldNotRetryFailedBuildImmediately() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(Long.MAX_VALUE, MoreExecutors.newDirectExecutorService());
+        final Callable<MapBasedColumnIndex<Object>> failing = () -> {
+            built.incrementAndGet();
+            throw new IllegalStateException("Failed!");
+        };
+
+        assertNull(manager.get(key("p1", "book"), sizeOfIndex(), failing));
+        assertNull(manager.get(key("p1", "book"), sizeOfIndex(), failing));
+
+        assertEquals(1, built.get());
+        assertTrue(manager.getInfo(), manager.getInfo().contains("failures=1"));
+    }
+
+    @Test
+    public void shouldReplayPatchesReceivedWhileBuilding() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final ExecutorService executor = new ForwardingExecutorService() {
+            @Override
+            protected ExecutorService delegate() {
+                return MoreExecutors.newDirectExecutorService();
+            }
+
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(Long.MAX_VALUE, executor);
+
+        assertNull(manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+        manager.update("p1", (key, index) -> index.patch(Collections.singletonMap(3L, "v2")));
+        manager.update("p2", (key, index) -> index.patch(Collections.singletonMap(4L, "v2")));
+        tasks.forEach(Runnable::run);
+
+        final MapBasedColumnIndex<Object> index = manager.get(key("p1", "book"), sizeOfIndex(), builder("book"));
+        assertEquals(ImmutableMap.of("v1", Arrays.asList(1L, 2L), "v2", Collections.singletonList(3L)), index.asMap());
+        assertEquals(index.getEstimatedSize(), manager.getBytes());
+
+        manager.update("p1", (key, idx) -> idx.patch(Collections.singletonMap(1L, null)));
+        assertEquals(ImmutableMap.of("v1", Collections.singletonList(2L), "v2", Collections.singletonList(3L)),
+                manager.get(key("p1", "book"), sizeOfIndex(), builder("book")).asMap());
+        assertTrue(manager.getInfo(), manager.getInfo().contains("patches=2"));
+    }
+
+    @Test
+    public void shouldReplayPatchesReceivedBeforeBuildStarted() {
+        final boolean[] reject = {true};
+        final ExecutorService executor = new ForwardingExecutorService() {
+            @Override
+            protected ExecutorService delegate() {
+                return MoreExecutors.newDirectExecutorService();
+            }
+
+            @Override
+            public void execute(Runnable command) {
+                if (reject[0]) {
+                    throw new RejectedExecutionException();
+                }
+                command.run();
+            }
+        };
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(Long.MAX_VALUE, executor);
+        // Captures container before the change
+        final Callable<MapBasedColumnIndex<Object>> stale = builder("book");
+
+        assertNull(manager.get(key("p1", "book"), sizeOfIndex(), stale));
+        manager.update("p1", (key, index) -> index.patch(Collections.singletonMap(3L, "v2")));
+        reject[0] = false;
+        assertNull(manager.get(key("p1", "book"), sizeOfIndex(), stale));
+
+        assertEquals(ImmutableMap.of("v1", Arrays.asList(1L, 2L), "v2", Collections.singletonList(3L)),
+                manager.get(key("p1", "book"), sizeOfIndex(), stale).asMap());
+    }
+
+    @Test
+    public void shouldDropEntryWithTooManyPendingPatches() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(0, MoreExecutors.newDirectExecutorService());
+
+        assertNull("Index is refused", manager.get(key("p1", "book"), sizeOfIndex(), builder("book")));
+        for (int i = 0; i <= ColumnIndexManager.MAX_PENDING; i++) {
+            manager.update("p1", (key, index) -> index.patch(Collections.singletonMap(3L, "v2")));
+        }
+
+        assertEquals(Collections.emptySet(), manager.getContainers());
+    }
+
+    @Test
+    public void shouldPatchWithoutBlockingManager() {
+        final ColumnIndexManager<Object> manager = new ColumnIndexManager<>(Long.MAX_VALUE, MoreExecutors.newDirectExecutorService());
+        manager.get(key("p1", "book"), sizeOfIndex(), builder("book"));
+
+        manager.update("p1", (key, index) -> {
+            final Thread invalidation = new Thread(() -> manager.invalidate("p1"));
+            invalidation.start();
+            try {
+                invalidation.join(10_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            assertFalse("Invalidation is not blocked by patch", invalidation.isAlive());
+            return index.patch(Collections.singletonMap(3L, "v2"));
+        });
+
+        assertEquals("Patch of invalidated index is dropped", Collections.emptyMap(), manager.getBuilt());
+        assertEquals(0, manager.getBytes());
+    }
+}
@@ -0,0 +1,166 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Portfolio;
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.domain.TradeTypeInfoFactory;
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.NumberFilterType;
+import com.github.ykiselev.ag.grid.data.DefaultRequestFilters;
+import com.github.ykiselev.ag.grid.data.types.TypeInfo;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.tangosol.net.NamedCache;
+import com.tangosol.net.cache.WrapperNamedCache;
+import com.tangosol.util.ObservableHashMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class IndexMaintainerTest {
+
+    private final TypeInfo<Trade> typeInfo = TradeTypeInfoFactory.create();
+
+    private final NamedCache<Long, Trade> trades = new WrapperNamedCache<>(new ObservableHashMap<>(), "Trades");
+
+    private final NamedCache<String, Portfolio> portfolios = new WrapperNamedCache<>(new ObservableHashMap<>(), "Portfolios");
+
+    private DefaultPortfolioKeyCache keyCache;
+
+    private IndexMaintainer maintainer;
+
+    private static Trade trade(long id, String portfolio, String book) {
+        final Trade trade = new Trade();
+        trade.setTradeId(id);
+        trade.setPortfolio(portfolio);
+        trade.setBook(book);
+        return trade;
+    }
+
+    @Before
+    public void setUp() {
+        keyCache = new DefaultPortfolioKeyCache(1, MoreExecutors.newDirectExecutorService());
+        maintainer = new IndexMaintainer(keyCache, typeInfo, trades, portfolios, MoreExecutors.newDirectExecutorService());
+        trades.put(1L, trade(1, "p1", "b1"));
+        trades.put(2L, trade(2, "p1", "b2"));
+        portfolios.put("p1", new Portfolio("p1", new HashSet<>(trades.keySet())));
+        maintainer.start();
+        // The first request builds index
+        keys("b1");
+    }
+
+    private Collection<Long> keys(String book) {
+        return keyCache.getKeys(portfolios.get("p1"), new DefaultRequestFilters(ImmutableMap.of("book", new GroupKey(book))),
+                typeInfo, trades);
+    }
+
+    @Test
+    public void shouldMoveUpdatedTrade() {
+        assertEquals(Collections.singletonList(1L), keys("b1"));
+
+        trades.put(1L, trade(1, "p1", "b2"));
+
+        assertEquals(Collections.emptyList(), keys("b1"));
+        assertEquals(Arrays.asList(1L, 2L), keys("b2"));
+    }
+
+    @Test
+    public void shouldFollowKeysOfPortfolio() {
+        trades.put(3L, trade(3, "p1", "b1"));
+        portfolios.put("p1", new Portfolio("p1", Arrays.asList(1L, 3L)));
+
+        assertEquals(Arrays.asList(1L, 3L), keys("b1"));
+        assertEquals(Collections.emptyList(), keys("b2"));
+
+        // Trade of other portfolio is added to this one
+        trades.put(4L, trade(4, "p2", "b2"));
+        portfolios.put("p1", new Portfolio("p1", Arrays.asList(1L, 3L, 4L)));
+
+        assertEquals(Collections.singletonList(4L), keys("b2"));
+
+        // Trade is patched in indexes of portfolio which has its key
+        trades.put(4L, trade(4, "p2", "b1"));
+
+        assertEquals(Arrays.asList(1L, 3L, 4L), keys("b1"));
+        assertEquals(Collections.emptyList(), keys("b2"));
+    }
+
+    @Test
+    public void shouldRemoveTradeMovedToOtherPortfolio() {
+        trades.put(1L, trade(1, "p2", "b1"));
+        portfolios.put("p1", new Portfolio("p1", Collections.singleton(2L)));
+        trades.remove(2L);
+
+        assertEquals(Collections.emptyList(), keys("b1"));
+        assertEquals(Collections.emptyList(), keys("b2"));
+        assertEquals(1, keyCache.snapshot(0).getEntries().size());
+
+        portfolios.remove("p1");
+
+        assertEquals(0, keyCache.snapshot(0).getEntries().size());
+    }
+
+    @Test
+    public void shouldIndexRangesOfNumericColumns() {
+        final Trade trade = trade(3, "p1", "b1");
+        trade.setCurrentValue(99.5);
+        trades.put(3L, trade);
+        portfolios.put("p1", new Portfolio("p1", Arrays.asList(1L, 2L, 3L)));
+        final DefaultRequestFilters filters = new DefaultRequestFilters(ImmutableMap.of(
+                "currentValue", new NumberColumnFilter(NumberFilterType.IN_RANGE, 99, 100)
+        ));
+
+        assertEquals("Index is being built", 3, keyCache.getKeys(portfolios.get("p1"), filters, typeInfo, trades).size());
+        assertEquals(Collections.singletonList(3L), keyCache.getKeys(portfolios.get("p1"), filters, typeInfo, trades));
+    }
+
+    @Test
+    public void shouldApplyQueuedChangesOnClose() {
+        maintainer.close();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final IndexMaintainer queued = new IndexMaintainer(keyCache, typeInfo, trades, portfolios, executor);
+        queued.start();
+
+        trades.put(1L, trade(1, "p1", "b2"));
+        assertFalse("Change is queued", queued.isIdle());
+        assertEquals(Collections.singletonList(1L), keys("b1"));
+
+        // Executor is still busy when close is called
+        final Thread release = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            latch.countDown();
+        });
+        release.start();
+        queued.close();
+
+        assertTrue(queued.isIdle());
+        assertEquals(Collections.emptyList(), keys("b1"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class IndexSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<Object, List<Long>> index = ImmutableMap.of(
+            "b1", Arrays.asList(1L, 3L),
+            2L, Collections.singletonList(2L),
+            1.5d, Collections.singletonList(4L)
+    );
+
+    @Test
+    public void shouldRestoreSnapshot() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("indexes.bin");
+        new IndexSnapshot(42, Collections.singletonList(new IndexSnapshot.Entry("p1", "book", index))).write(path);
+
+        final IndexSnapshot snapshot = IndexSnapshot.read(path, 42).get();
+
+        assertEquals(1, snapshot.getEntries().size());
+        final IndexSnapshot.Entry entry = snapshot.getEntries().get(0);
+        assertEquals("p1", entry.getPortfolio());
+        assertEquals("book", entry.getColumn());
+        assertEquals(index, entry.getIndex());
+    }
+
+    @Test
+    public void shouldIgnoreSnapshotOfOtherData() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("indexes.bin");
+        new IndexSnapshot(42, Collections.singletonList(new IndexSnapshot.Entry("p1", "book", index))).write(path);
+
+        assertFalse(IndexSnapshot.read(path, 43).isPresent());
+        assertFalse(IndexSnapshot.read(folder.getRoot().toPath().resolve("missing.bin"), 42).isPresent());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldDetectCorruption() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("indexes.bin");
+        new IndexSnapshot(42, Collections.singletonList(new IndexSnapshot.Entry("p1", "book", index))).write(path);
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 9] ^= 1;
+        Files.write(path, bytes);
+
+        IndexSnapshot.read(path, 42);
+    }
+
+    @Test
+    public void shouldCalculateChecksumOfTradeKeys() {
+        final long checksum = IndexSnapshot.checksumOf(ImmutableMap.of("p1", Arrays.asList(1L, 2L), "p2", Arrays.asList(3L)));
+
+        assertEquals(checksum, IndexSnapshot.checksumOf(ImmutableMap.of("p2", Arrays.asList(3L), "p1", Arrays.asList(2L, 1L))));
+        assertNotEquals(checksum, IndexSnapshot.checksumOf(ImmutableMap.of("p1", Arrays.asList(1L), "p2", Arrays.asList(2L, 3L))));
+    }
+
+    @Test
+    public void shouldSnapshotBuiltIndexes() {
+        final DefaultPortfolioKeyCache cache = new DefaultPortfolioKeyCache(1, Executors.newSingleThreadExecutor());
+        assertEquals(1, cache.restore(new IndexSnapshot(42, Collections.singletonList(new IndexSnapshot.Entry("p1", "book", index)))));
+
+        final IndexSnapshot snapshot = cache.snapshot(42);
+
+        assertEquals(1, snapshot.getEntries().size());
+        assertEquals(index, snapshot.getEntries().get(0).getIndex());
+        assertTrue(cache.getInfo().contains("b1"));
+    }
+}
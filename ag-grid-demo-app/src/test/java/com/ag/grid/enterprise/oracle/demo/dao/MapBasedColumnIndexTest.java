@@ -0,0 +1,130 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.github.ykiselev.ag.grid.api.filter.GroupKey;
+import com.github.ykiselev.ag.grid.api.filter.NumberColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.NumberFilterType;
+import com.github.ykiselev.ag.grid.api.filter.TextColumnFilter;
+import com.github.ykiselev.ag.grid.api.filter.TextFilterType;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class MapBasedColumnIndexTest {
+
+    @Test
+    public void shouldLookupIndexWithoutCopying() {
+        final MapBasedColumnIndex<Object> index = new MapBasedColumnIndex<>("book", ImmutableMap.of(
+                "b1", Arrays.asList(3L, 1L),
+                "b2", Collections.singletonList(2L)
+        ));
+
+        assertSame(index.asMap().get("b1"), index.getKeys(null, new GroupKey("b1")));
+        assertEquals(Collections.emptyList(), index.getKeys(null, new GroupKey("b3")));
+        assertEquals(Arrays.asList(1L, 2L, 3L), index.getKeys(null, null));
+    }
+
+    @Test
+    public void shouldPatchIndex() {
+        final MapBasedColumnIndex<Object> index = new MapBasedColumnIndex<>("book", ImmutableMap.of(
+                "b1", Arrays.asList(1L, 2L),
+                "b2", Collections.singletonList(3L),
+                "b3", Collections.singletonList(4L)
+        ));
+        final Map<Long, Object> values = new HashMap<>();
+        values.put(1L, "b2");
+        values.put(3L, null);
+        values.put(4L, "b3");
+        values.put(5L, "b4");
+
+        final MapBasedColumnIndex<Object> patched = index.patch(values);
+
+        assertEquals(ImmutableMap.of(
+                "b1", Collections.singletonList(2L),
+                "b2", Collections.singletonList(1L),
+                "b3", Collections.singletonList(4L),
+                "b4", Collections.singletonList(5L)
+        ), patched.asMap());
+        assertSame("Untouched lists are shared", index.asMap().get("b3"), patched.asMap().get("b3"));
+        assertSame("Nothing has changed", patched, patched.patch(values));
+    }
+
+    @Test
+    public void shouldLookupRangesOfNumbers() {
+        final MapBasedColumnIndex<Object> index = new MapBasedColumnIndex<>("batch", ImmutableMap.of(
+                10L, Arrays.asList(1L, 2L),
+                20L, Collections.singletonList(3L),
+                30L, Collections.singletonList(4L)
+        ));
+
+        assertEquals(Arrays.asList(1L, 2L), index.getKeys(null, new NumberColumnFilter(NumberFilterType.LESS_THAN, 20, null)));
+        assertEquals(Arrays.asList(1L, 2L, 3L), index.getKeys(null, new NumberColumnFilter(NumberFilterType.LESS_THAN_OR_EQUAL, 20, null)));
+        assertEquals(Collections.singletonList(4L), index.getKeys(null, new NumberColumnFilter(NumberFilterType.GREATER_THAN, 20, null)));
+        assertEquals(Arrays.asList(3L, 4L), index.getKeys(null, new NumberColumnFilter(NumberFilterType.GREATER_THAN_OR_EQUAL, 15, null)));
+        assertEquals(Arrays.asList(3L, 4L), index.getKeys(null, new NumberColumnFilter(NumberFilterType.IN_RANGE, 20, 30)));
+        assertEquals(Collections.emptyList(), index.getKeys(null, new NumberColumnFilter(NumberFilterType.IN_RANGE, 21, 29)));
+        assertEquals(Collections.singletonList(3L), index.getKeys(null, new NumberColumnFilter(NumberFilterType.EQUALS, 20, null)));
+        assertEquals("Not answered by index", Arrays.asList(1L, 2L, 3L, 4L),
+                index.getKeys(null, new NumberColumnFilter(NumberFilterType.NOT_EQUAL, 20, null)));
+    }
+
+    @Test
+    public void shouldLookupPrefixesOfStrings() {
+        final MapBasedColumnIndex<Object> index = new MapBasedColumnIndex<>("book", ImmutableMap.of(
+                "ab", Collections.singletonList(1L),
+                "abc", Collections.singletonList(2L),
+                "b", Collections.singletonList(3L),
+                "a", Collections.singletonList(4L)
+        ));
+
+        assertEquals(Arrays.asList(1L, 2L), index.getKeys(null, new TextColumnFilter(TextFilterType.STARTS_WITH, "ab")));
+        assertEquals(Arrays.asList(1L, 2L, 4L), index.getKeys(null, new TextColumnFilter(TextFilterType.STARTS_WITH, "a")));
+        assertEquals(Collections.emptyList(), index.getKeys(null, new TextColumnFilter(TextFilterType.STARTS_WITH, "c")));
+        assertEquals(Collections.singletonList(1L), index.getKeys(null, new TextColumnFilter(TextFilterType.EQUALS, "ab")));
+        assertEquals("Numeric filter is not answered by index of strings", 4,
+                index.getKeys(null, new NumberColumnFilter(NumberFilterType.EQUALS, 1, null)).size());
+    }
+
+    @Test
+    public void shouldChainPatches() {
+        final Random rnd = new Random(1);
+        final Map<Long, Object> expected = new HashMap<>();
+        MapBasedColumnIndex<Object> index = new MapBasedColumnIndex<>("batch", Collections.emptyMap());
+        for (int i = 0; i < 100; i++) {
+            final Map<Long, Object> values = new HashMap<>();
+            for (int k = 0; k < 20; k++) {
+                final long key = rnd.nextInt(200);
+                final Object value = rnd.nextInt(4) == 0 ? null : (long) rnd.nextInt(10);
+                values.put(key, value);
+            }
+            values.forEach((key, value) -> {
+                if (value != null) {
+                    expected.put(key, value);
+                } else {
+                    expected.remove(key);
+                }
+            });
+            index = index.patch(values);
+        }
+
+        final Map<Object, List<Long>> byValue = new HashMap<>();
+        expected.forEach((key, value) -> byValue.computeIfAbsent(value, v -> new ArrayList<>()).add(key));
+        assertEquals(new MapBasedColumnIndex<>("batch", byValue).asMap(), index.asMap());
+        assertTrue("Reverse index is counted", index.getEstimatedSize()
+                > new MapBasedColumnIndex<>("batch", byValue).getEstimatedSize());
+    }
+}
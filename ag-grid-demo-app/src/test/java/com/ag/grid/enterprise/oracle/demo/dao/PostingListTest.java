@@ -0,0 +1,74 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class PostingListTest {
+
+    private static PostingList list(long... keys) {
+        return PostingList.of(keys);
+    }
+
+    @Test
+    public void shouldSortAndRemoveDuplicates() {
+        final PostingList list = PostingList.of(Arrays.asList(5L, 1L, 3L, 1L));
+
+        assertEquals(Arrays.asList(1L, 3L, 5L), list);
+        assertTrue(list.contains(3L));
+        assertFalse(list.contains(2L));
+        assertFalse(list.contains("3"));
+        assertEquals(2, list.indexOf(5L));
+        assertSame(list, PostingList.of(list));
+        assertSame(PostingList.EMPTY, PostingList.of(new long[0]));
+    }
+
+    @Test
+    public void shouldIntersectByMerge() {
+        assertEquals(Arrays.asList(3L, 7L), PostingList.intersect(Arrays.asList(list(1, 3, 5, 7), list(2, 3, 7, 8), list(3, 4, 7))));
+        assertSame(PostingList.EMPTY, PostingList.intersect(Arrays.asList(list(1, 2), list(3, 4))));
+    }
+
+    @Test
+    public void shouldIntersectByGalloping() {
+        final Random rnd = new Random(1);
+        final PostingList large = PostingList.of(LongStream.range(0, 10_000).map(i -> rnd.nextInt(50_000)).toArray());
+        final PostingList small = list(-1, 7, 15, 999, 12_345, 33_333, 49_999, 60_000);
+
+        final Set<Long> expected = new TreeSet<>(small);
+        expected.retainAll(large.stream().collect(Collectors.toSet()));
+
+        assertEquals(expected.stream().collect(Collectors.toList()), PostingList.intersect(Arrays.asList(large, small)));
+        final PostingList subset = list(large.getLong(0), large.getLong(10), large.getLong(large.size() - 1));
+        assertSame(subset, PostingList.intersect(Arrays.asList(large, subset)));
+    }
+
+    @Test
+    public void shouldUnion() {
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), PostingList.union(Arrays.asList(list(1, 3), list(2, 3, 4))));
+        assertSame(PostingList.EMPTY, PostingList.union(Collections.emptyList()));
+    }
+
+    @Test
+    public void shouldSubtract() {
+        assertEquals(Arrays.asList(1L, 5L), PostingList.difference(list(1, 3, 5), list(2, 3)));
+        final PostingList list = list(1, 2);
+        assertSame(list, PostingList.difference(list, list(3)));
+        assertSame(PostingList.EMPTY, PostingList.difference(list, list(1, 2)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.ag.grid.enterprise.oracle.demo.dao;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.tangosol.net.NamedCache;
+import com.tangosol.net.cache.WrapperNamedCache;
+import com.tangosol.util.ObservableHashMap;
+import com.tangosol.util.filter.AlwaysFilter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class ValueChecksumAggregatorTest {
+
+    private static Trade trade(long id, String book) {
+        final Trade trade = new Trade();
+        trade.setTradeId(id);
+        trade.setPortfolio("p1");
+        trade.setBook(book);
+        return trade;
+    }
+
+    private static long checksumOf(Trade... trades) {
+        final NamedCache<Long, Trade> cache = new WrapperNamedCache<>(new ObservableHashMap<>(), "Trades");
+        for (Trade trade : trades) {
+            cache.put(trade.getTradeId(), trade);
+        }
+        return cache.aggregate(AlwaysFilter.INSTANCE(), new ValueChecksumAggregator<>());
+    }
+
+    @Test
+    public void shouldNotDependOnOrder() {
+        assertEquals(
+                checksumOf(trade(1, "b1"), trade(2, "b2")),
+                checksumOf(trade(2, "b2"), trade(1, "b1"))
+        );
+    }
+
+    @Test
+    public void shouldDetectChangedValues() {
+        assertNotEquals(
+                checksumOf(trade(1, "b1"), trade(2, "b2")),
+                checksumOf(trade(1, "b2"), trade(2, "b1"))
+        );
+    }
+}
@@ -0,0 +1,191 @@
+package com.ag.grid.enterprise.oracle.demo.ingest;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.github.ykiselev.ag.grid.data.common.StringPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class TradeChangeLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Trade trade(long id, String portfolio, double value) {
+        final Trade trade = new Trade();
+        trade.setTradeId(id);
+        trade.setPortfolio(portfolio);
+        trade.setProduct("product#1");
+        trade.setBook("book#" + id);
+        trade.setDealType(null);
+        trade.setBidType("Buy");
+        trade.setSubmitterId(7);
+        trade.setSubmitterDealId(id);
+        trade.setBatch(3);
+        trade.setCurrentValue(value);
+        trade.setPreviousValue(value / 2);
+        trade.setPl1(0.5);
+        trade.setX99Out(-1);
+        return trade;
+    }
+
+    @Test
+    public void shouldReadAppendedChanges() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("changes.log");
+        final List<TradeChange> changes = Arrays.asList(
+                TradeChange.insert(1, trade(1, "p1", 10)),
+                TradeChange.update(2, trade(1, "p1", 20)),
+                TradeChange.delete(3, 2, "p2")
+        );
+        final StringPool strings = new StringPool();
+        try (TradeChangeLogWriter writer = new TradeChangeLogWriter(path);
+             TradeChangeLogReader reader = new TradeChangeLogReader(path, strings)) {
+            assertTrue(reader.read(10).isEmpty());
+
+            writer.append(changes);
+
+            assertEquals(changes.subList(0, 2), reader.read(2));
+            assertEquals(changes.subList(2, 3), reader.read(10));
+            assertTrue(reader.read(10).isEmpty());
+            assertEquals(0, reader.backlog());
+            assertEquals(Files.size(path), reader.position());
+
+            writer.append(Collections.singletonList(TradeChange.insert(4, trade(3, "p1", 30))));
+            final List<TradeChange> next = reader.read(10);
+            assertEquals(1, next.size());
+            assertSame(strings.intern("p1"), next.get(0).getPortfolio());
+        }
+    }
+
+    @Test
+    public void shouldLeaveIncompleteRecordForNextRead() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("changes.log");
+        try (TradeChangeLogWriter writer = new TradeChangeLogWriter(path)) {
+            writer.append(Collections.singletonList(TradeChange.insert(1, trade(1, "p1", 10))));
+        }
+        final byte[] bytes = Files.readAllBytes(path);
+        final byte[] record = Arrays.copyOfRange(bytes, TradeChangeLog.HEADER_SIZE, bytes.length);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 5));
+
+        try (TradeChangeLogReader reader = new TradeChangeLogReader(path, new StringPool())) {
+            assertTrue(reader.read(10).isEmpty());
+            assertEquals(record.length - 5, reader.backlog());
+
+            Files.write(path, Arrays.copyOfRange(record, record.length - 5, record.length), StandardOpenOption.APPEND);
+            assertEquals(1, reader.read(10).size());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldDetectCorruption() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("changes.log");
+        try (TradeChangeLogWriter writer = new TradeChangeLogWriter(path)) {
+            writer.append(Collections.singletonList(TradeChange.insert(1, trade(1, "p1", 10))));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(TradeChangeLog.HEADER_SIZE + Integer.BYTES + 1);
+            file.write(0xFF);
+        }
+        try (TradeChangeLogReader reader = new TradeChangeLogReader(path, new StringPool())) {
+            reader.read(10);
+        }
+    }
+
+    @Test
+    public void shouldCoalesceChangesOfTheSameTrade() {
+        final TradeChange inserted = TradeChange.insert(1, trade(1, "p1", 10));
+        final TradeChange updated = TradeChange.update(2, trade(1, "p1", 20));
+        final TradeChange other = TradeChange.insert(3, trade(2, "p1", 30));
+        final TradeChange moved = TradeChange.delete(4, 1, "p1");
+        final TradeChange movedTo = TradeChange.insert(4, trade(1, "p2", 20));
+
+        assertEquals(
+                Arrays.asList(updated, other),
+                new ArrayList<>(TradeChange.coalesce(Arrays.asList(inserted, updated, other)))
+        );
+        final Collection<TradeChange> result = TradeChange.coalesce(Arrays.asList(inserted, other, moved, movedTo));
+        assertEquals(Arrays.asList(other, moved, movedTo), new ArrayList<>(result));
+    }
+
+    @Test
+    public void shouldApplyBatchesToSinks() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("changes.log");
+        final List<Collection<TradeChange>> applied = new ArrayList<>();
+        final boolean[] fail = {true};
+        final TradeChangeSink failing = changes -> {
+            if (fail[0]) {
+                fail[0] = false;
+                throw new IllegalStateException("Failed!");
+            }
+        };
+        try (TradeIngestor ingestor = new TradeIngestor(path, Arrays.asList(failing, applied::add), 2, new StringPool())) {
+            assertEquals(0, ingestor.drain());
+
+            try (TradeChangeLogWriter writer = new TradeChangeLogWriter(path)) {
+                writer.append(Arrays.asList(
+                        TradeChange.insert(System.currentTimeMillis(), trade(1, "p1", 10)),
+                        TradeChange.update(System.currentTimeMillis(), trade(1, "p1", 20)),
+                        TradeChange.insert(System.currentTimeMillis(), trade(2, "p1", 30))
+                ));
+            }
+            try {
+                ingestor.drain();
+            } catch (IllegalStateException e) {
+                // failed batch is retried
+            }
+            assertEquals(0, ingestor.getApplied());
+
+            assertEquals(3, ingestor.drain());
+            assertEquals(3, ingestor.getApplied());
+            assertEquals(0, ingestor.getBacklog());
+            assertEquals(2, applied.size());
+            assertEquals(1, applied.get(0).size());
+            assertEquals(20.0, applied.get(0).iterator().next().getTrade().getCurrentValue(), 0);
+            assertEquals(1, applied.get(1).size());
+        }
+    }
+
+    @Test
+    public void shouldReplayChangesReadSoFar() throws Exception {
+        final Path path = folder.getRoot().toPath().resolve("changes.log");
+        final List<Collection<TradeChange>> replayed = new ArrayList<>();
+        try (TradeIngestor ingestor = new TradeIngestor(path, Collections.singletonList(changes -> {
+        }), 2, new StringPool());
+             TradeChangeLogWriter writer = new TradeChangeLogWriter(path)) {
+            ingestor.replay(replayed::add);
+            assertTrue(replayed.isEmpty());
+
+            writer.append(Arrays.asList(
+                    TradeChange.insert(1, trade(1, "p1", 10)),
+                    TradeChange.insert(2, trade(2, "p1", 20)),
+                    TradeChange.update(3, trade(1, "p1", 30))
+            ));
+            assertEquals(3, ingestor.drain());
+            writer.append(Collections.singletonList(TradeChange.delete(4, 2, "p1")));
+
+            ingestor.replay(replayed::add);
+            assertEquals(2, replayed.size());
+            assertEquals(2, replayed.get(0).size());
+            assertEquals(30.0, replayed.get(1).iterator().next().getTrade().getCurrentValue(), 0);
+        }
+    }
+}
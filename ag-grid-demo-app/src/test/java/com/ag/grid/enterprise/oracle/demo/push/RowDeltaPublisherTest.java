@@ -0,0 +1,144 @@
+package com.ag.grid.enterprise.oracle.demo.push;
+
+import com.ag.grid.enterprise.oracle.demo.domain.Trade;
+import com.ag.grid.enterprise.oracle.demo.domain.TradeTypeInfoFactory;
+import com.ag.grid.enterprise.oracle.demo.ingest.TradeChange;
+import com.github.ykiselev.ag.grid.api.request.AgGridGetRowsRequest;
+import com.github.ykiselev.ag.grid.api.request.ColumnVO;
+import com.github.ykiselev.ag.grid.api.response.AgGridGetRowsResponse;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Yuriy Kiselev (uze@yandex.ru)
+ * @since 19.10.2026
+ */
+public class RowDeltaPublisherTest {
+
+    /**
+     * Rows by group keys.
+     */
+    private final Map<List<String>, List<Map<String, Object>>> rows = new HashMap<>();
+
+    private final List<AgGridGetRowsRequest> requests = new ArrayList<>();
+
+    private final List<RowDelta> pushed = new ArrayList<>();
+
+    private RowDeltaPublisher publisher;
+
+    private static Map<String, Object> row(String key, Object value, double currentValue) {
+        final Map<String, Object> result = new HashMap<>();
+        result.put(key, value);
+        result.put("currentValue", currentValue);
+        return result;
+    }
+
+    private static AgGridGetRowsRequest request(String... groupKeys) {
+        final AgGridGetRowsRequest request = new AgGridGetRowsRequest();
+        request.setStartRow(0);
+        request.setEndRow(100);
+        request.setRowGroupCols(Arrays.asList(
+                new ColumnVO("product", "Product", "product", null),
+                new ColumnVO("portfolio", "Portfolio", "portfolio", null)
+        ));
+        request.setGroupKeys(Arrays.asList(groupKeys));
+        return request;
+    }
+
+    private static Trade trade(long id, String product, String portfolio, double value) {
+        final Trade trade = new Trade();
+        trade.setTradeId(id);
+        trade.setProduct(product);
+        trade.setPortfolio(portfolio);
+        trade.setCurrentValue(value);
+        return trade;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AgGridGetRowsResponse getRows(AgGridGetRowsRequest request) {
+        requests.add(request);
+        final List<Map<String, Object>> data = new ArrayList<>();
+        rows.getOrDefault(request.getGroupKeys(), Collections.emptyList()).forEach(row -> data.add(new HashMap<>(row)));
+        return new AgGridGetRowsResponse(data, data.size(), Collections.emptyList());
+    }
+
+    private void serve(AgGridGetRowsRequest request) {
+        publisher.register("s1", request, getRows(request));
+    }
+
+    @Before
+    public void setUp() {
+        rows.put(Collections.emptyList(), Arrays.asList(row("product", "pr1", 10), row("product", "pr2", 20)));
+        rows.put(Collections.singletonList("pr1"), Arrays.asList(row("portfolio", "p1", 4), row("portfolio", "p2", 6)));
+        rows.put(Arrays.asList("pr1", "p1"), Arrays.asList(row("tradeId", 1L, 1), row("tradeId", 2L, 3)));
+        rows.put(Arrays.asList("pr2", "p1"), Collections.singletonList(row("tradeId", 3L, 20)));
+        publisher = new RowDeltaPublisher(this::getRows, TradeTypeInfoFactory.create(), "tradeId",
+                MoreExecutors.newDirectExecutorService(), 10, 0);
+        publisher.subscribe("s1", new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                builder.build().stream()
+                        .filter(data -> data.getData() instanceof RowDelta)
+                        .forEach(data -> pushed.add((RowDelta) data.getData()));
+            }
+        });
+        serve(request());
+        serve(request("pr1"));
+        serve(request("pr1", "p1"));
+        serve(request("pr2", "p1"));
+        requests.clear();
+    }
+
+    @Test
+    public void shouldPushRowsChangedInPlace() {
+        rows.put(Arrays.asList("pr1", "p1"), Arrays.asList(row("tradeId", 1L, 1), row("tradeId", 2L, 5)));
+        rows.put(Collections.singletonList("pr1"), Arrays.asList(row("portfolio", "p1", 6), row("portfolio", "p2", 6)));
+        rows.put(Collections.emptyList(), Arrays.asList(row("product", "pr1", 12), row("product", "pr2", 20)));
+
+        publisher.apply(Collections.singletonList(TradeChange.update(1, trade(2, "pr1", "p1", 5))));
+
+        assertEquals("Block of other product is not recomputed", 3, requests.size());
+        assertEquals(3, pushed.size());
+        assertTrue(pushed.contains(new RowDelta(Arrays.asList("pr1", "p1"), 0,
+                Collections.singletonList(row("tradeId", 2L, 5)), false)));
+        assertTrue(pushed.contains(new RowDelta(Collections.singletonList("pr1"), 0,
+                Collections.singletonList(row("portfolio", "p1", 6)), false)));
+        assertTrue(pushed.contains(new RowDelta(Collections.emptyList(), 0,
+                Collections.singletonList(row("product", "pr1", 12)), false)));
+    }
+
+    @Test
+    public void shouldAskToPurgeIfRowsWereAddedOrRemoved() {
+        rows.put(Arrays.asList("pr2", "p1"), Collections.emptyList());
+
+        publisher.apply(Collections.singletonList(TradeChange.delete(1, 3, "p1")));
+
+        assertTrue(pushed.contains(new RowDelta(Arrays.asList("pr2", "p1"), 0, Collections.emptyList(), true)));
+        assertEquals("Unchanged blocks are not pushed", 1, pushed.size());
+    }
+
+    @Test
+    public void shouldForgetBlocksOfPreviousView() {
+        final AgGridGetRowsRequest other = request();
+        other.setRowGroupCols(Collections.singletonList(new ColumnVO("portfolio", "Portfolio", "portfolio", null)));
+        serve(other);
+        requests.clear();
+
+        publisher.apply(Collections.singletonList(TradeChange.update(1, trade(2, "pr1", "p1", 5))));
+
+        assertEquals(1, requests.size());
+        assertTrue(publisher.toString().contains("blocks=1"));
+    }
+}